@@ -22,14 +22,18 @@ import com.google.common.collect.ImmutableSet;
 import io.airlift.log.Logger;
 import io.airlift.units.Duration;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.connector.AggregateFunction;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ColumnMetadata;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplitSource;
 import io.prestosql.spi.connector.ConnectorTableMetadata;
 import io.prestosql.spi.connector.FixedSplitSource;
+import io.prestosql.spi.connector.JoinType;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.connector.TableNotFoundException;
+import io.prestosql.spi.expression.ConnectorExpression;
+import io.prestosql.spi.expression.Variable;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.statistics.TableStatistics;
 import io.prestosql.spi.type.CharType;
@@ -43,6 +47,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -116,6 +121,9 @@ public class BaseJdbcClient
             .put(DATE, WriteMapping.longMapping("date", dateWriteFunction()))
             .build();
 
+    private static final JdbcTypeHandle BIGINT_TYPE_HANDLE = new JdbcTypeHandle(Types.BIGINT, Optional.of("bigint"), 0, 0, Optional.empty());
+    private static final JdbcTypeHandle DOUBLE_TYPE_HANDLE = new JdbcTypeHandle(Types.DOUBLE, Optional.of("double"), 0, 0, Optional.empty());
+
     protected final ConnectionFactory connectionFactory;
     protected final String identifierQuote;
     protected final Set<String> jdbcTypesMappedToVarchar;
@@ -311,17 +319,18 @@ public class BaseJdbcClient
     public PreparedStatement buildSql(ConnectorSession session, Connection connection, JdbcSplit split, JdbcTableHandle table, List<JdbcColumnHandle> columns)
             throws SQLException
     {
+        Function<String, String> sqlFunction = tryApplyLimit(table.getLimit());
+        if (table.getSortOrder().isPresent()) {
+            sqlFunction = applyTopN(table.getSortOrder().get(), table.getLimit().getAsLong());
+        }
         return new QueryBuilder(identifierQuote).buildSql(
                 this,
                 session,
                 connection,
-                table.getCatalogName(),
-                table.getSchemaName(),
-                table.getTableName(),
+                table,
                 columns,
-                table.getConstraint(),
                 split.getAdditionalPredicate(),
-                tryApplyLimit(table.getLimit()));
+                sqlFunction);
     }
 
     @Override
@@ -774,6 +783,125 @@ public class BaseJdbcClient
         throw new PrestoException(JDBC_ERROR, "limitFunction() is implemented without isLimitGuaranteed()");
     }
 
+    protected Function<String, String> applyTopN(List<JdbcSortItem> sortOrder, long limit)
+    {
+        TopNFunction topNFunction = topNFunction()
+                .orElseThrow(() -> new PrestoException(JDBC_ERROR, "TopN is pushed down without topNFunction()"));
+        return sql -> topNFunction.apply(sql, sortOrder, limit);
+    }
+
+    @Override
+    public boolean supportsTopN(ConnectorSession session, List<JdbcSortItem> sortOrder)
+    {
+        return topNFunction().isPresent() &&
+                sortOrder.stream().allMatch(sortItem -> isComparisonPushdownSupported(sortItem.getColumn().getColumnType()));
+    }
+
+    protected Optional<TopNFunction> topNFunction()
+    {
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean isTopNGuaranteed(ConnectorSession session)
+    {
+        throw new PrestoException(JDBC_ERROR, "topNFunction() is implemented without isTopNGuaranteed()");
+    }
+
+    /**
+     * Renders the sort item with the standard NULLS FIRST and NULLS LAST clauses.
+     */
+    protected String toOrderByItem(JdbcSortItem sortItem)
+    {
+        return format(
+                "%s %s NULLS %s",
+                toSortExpression(sortItem.getColumn()),
+                sortItem.getSortOrder().isAscending() ? "ASC" : "DESC",
+                sortItem.getSortOrder().isNullsFirst() ? "FIRST" : "LAST");
+    }
+
+    protected String toSortExpression(JdbcColumnHandle column)
+    {
+        return column.getExpression().orElseGet(() -> quoted(column.getColumnName()));
+    }
+
+    @Override
+    public Optional<JdbcColumnHandle> implementAggregation(ConnectorSession session, AggregateFunction aggregate, Map<String, ColumnHandle> assignments, String columnName)
+    {
+        List<JdbcColumnHandle> inputs = new ArrayList<>();
+        for (ConnectorExpression input : aggregate.getInputs()) {
+            if (!(input instanceof Variable)) {
+                return Optional.empty();
+            }
+            JdbcColumnHandle column = (JdbcColumnHandle) assignments.get(((Variable) input).getName());
+            if (column == null || column.getExpression().isPresent()) {
+                return Optional.empty();
+            }
+            inputs.add(column);
+        }
+
+        String distinct = aggregate.isDistinct() ? "DISTINCT " : "";
+        Type outputType = aggregate.getOutputType();
+        switch (aggregate.getFunctionName()) {
+            case "count":
+                if (inputs.isEmpty() && !aggregate.isDistinct()) {
+                    return Optional.of(aggregateColumn(columnName, "count(*)", BIGINT_TYPE_HANDLE, outputType));
+                }
+                if (inputs.size() == 1) {
+                    return Optional.of(aggregateColumn(columnName, format("count(%s%s)", distinct, quoted(inputs.get(0).getColumnName())), BIGINT_TYPE_HANDLE, outputType));
+                }
+                return Optional.empty();
+            case "min":
+            case "max":
+                if (inputs.size() != 1 || !isComparisonPushdownSupported(inputs.get(0).getColumnType())) {
+                    return Optional.empty();
+                }
+                JdbcColumnHandle input = inputs.get(0);
+                return Optional.of(aggregateColumn(columnName, format("%s(%s)", aggregate.getFunctionName(), quoted(input.getColumnName())), input.getJdbcTypeHandle(), outputType));
+            case "sum":
+                if (inputs.size() != 1) {
+                    return Optional.empty();
+                }
+                Type inputType = inputs.get(0).getColumnType();
+                String expression = format("sum(%s%s)", distinct, quoted(inputs.get(0).getColumnName()));
+                if (inputType == BIGINT || inputType == INTEGER || inputType == SMALLINT || inputType == TINYINT) {
+                    return Optional.of(aggregateColumn(columnName, expression, BIGINT_TYPE_HANDLE, outputType));
+                }
+                if (inputType == DOUBLE) {
+                    return Optional.of(aggregateColumn(columnName, expression, DOUBLE_TYPE_HANDLE, outputType));
+                }
+                return Optional.empty();
+            default:
+                return Optional.empty();
+        }
+    }
+
+    @Override
+    public boolean isGroupingPushdownSupported(ConnectorSession session, JdbcColumnHandle column)
+    {
+        return !column.getExpression().isPresent() && isComparisonPushdownSupported(column.getColumnType());
+    }
+
+    @Override
+    public boolean isJoinPushdownSupported(ConnectorSession session, JoinType joinType)
+    {
+        return true;
+    }
+
+    /**
+     * Whether values of the given type compare the same way in the remote database as they do in Presto.
+     * Textual types are excluded by default, because the remote collation may be case insensitive.
+     */
+    protected boolean isComparisonPushdownSupported(Type type)
+    {
+        return type.isOrderable() && type != BOOLEAN && !(type instanceof CharType) && !(type instanceof VarcharType);
+    }
+
+    private static JdbcColumnHandle aggregateColumn(String columnName, String expression, JdbcTypeHandle typeHandle, Type outputType)
+    {
+        return new JdbcColumnHandle(columnName, typeHandle, outputType, true, Optional.of(expression));
+    }
+
     protected String quoted(String name)
     {
         name = name.replace(identifierQuote, identifierQuote + identifierQuote);
@@ -13,11 +13,13 @@
  */
 package io.prestosql.plugin.jdbc;
 
+import io.prestosql.spi.connector.AggregateFunction;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ColumnMetadata;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplitSource;
 import io.prestosql.spi.connector.ConnectorTableMetadata;
+import io.prestosql.spi.connector.JoinType;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.statistics.TableStatistics;
@@ -27,6 +29,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -178,6 +181,36 @@ public abstract class ForwardingJdbcClient
         return getDelegate().isLimitGuaranteed();
     }
 
+    @Override
+    public boolean supportsTopN(ConnectorSession session, List<JdbcSortItem> sortOrder)
+    {
+        return getDelegate().supportsTopN(session, sortOrder);
+    }
+
+    @Override
+    public boolean isTopNGuaranteed(ConnectorSession session)
+    {
+        return getDelegate().isTopNGuaranteed(session);
+    }
+
+    @Override
+    public Optional<JdbcColumnHandle> implementAggregation(ConnectorSession session, AggregateFunction aggregate, Map<String, ColumnHandle> assignments, String columnName)
+    {
+        return getDelegate().implementAggregation(session, aggregate, assignments, columnName);
+    }
+
+    @Override
+    public boolean isGroupingPushdownSupported(ConnectorSession session, JdbcColumnHandle column)
+    {
+        return getDelegate().isGroupingPushdownSupported(session, column);
+    }
+
+    @Override
+    public boolean isJoinPushdownSupported(ConnectorSession session, JoinType joinType)
+    {
+        return getDelegate().isJoinPushdownSupported(session, joinType);
+    }
+
     @Override
     public void addColumn(ConnectorSession session, JdbcTableHandle handle, ColumnMetadata column)
     {
@@ -13,11 +13,13 @@
  */
 package io.prestosql.plugin.jdbc;
 
+import io.prestosql.spi.connector.AggregateFunction;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ColumnMetadata;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplitSource;
 import io.prestosql.spi.connector.ConnectorTableMetadata;
+import io.prestosql.spi.connector.JoinType;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.statistics.TableStatistics;
@@ -27,6 +29,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -67,6 +70,16 @@ public interface JdbcClient
 
     boolean isLimitGuaranteed();
 
+    boolean supportsTopN(ConnectorSession session, List<JdbcSortItem> sortOrder);
+
+    boolean isTopNGuaranteed(ConnectorSession session);
+
+    Optional<JdbcColumnHandle> implementAggregation(ConnectorSession session, AggregateFunction aggregate, Map<String, ColumnHandle> assignments, String columnName);
+
+    boolean isGroupingPushdownSupported(ConnectorSession session, JdbcColumnHandle column);
+
+    boolean isJoinPushdownSupported(ConnectorSession session, JoinType joinType);
+
     void addColumn(ConnectorSession session, JdbcTableHandle handle, ColumnMetadata column);
 
     void dropColumn(JdbcIdentity identity, JdbcTableHandle handle, JdbcColumnHandle column);
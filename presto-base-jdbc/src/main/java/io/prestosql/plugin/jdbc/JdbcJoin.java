@@ -0,0 +1,131 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.jdbc;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.spi.connector.JoinType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Join of two relations of the remote database, described by a {@link JdbcTableHandle}.
+ * Each side selects its columns under the names of the corresponding columns of the joined table.
+ */
+public final class JdbcJoin
+{
+    private final JoinType joinType;
+    private final JdbcTableHandle left;
+    // column of the joined table name -> column of the left relation
+    private final Map<String, JdbcColumnHandle> leftColumns;
+    private final JdbcTableHandle right;
+    // column of the joined table name -> column of the right relation
+    private final Map<String, JdbcColumnHandle> rightColumns;
+    private final List<JdbcJoinCondition> conditions;
+
+    @JsonCreator
+    public JdbcJoin(
+            @JsonProperty("joinType") JoinType joinType,
+            @JsonProperty("left") JdbcTableHandle left,
+            @JsonProperty("leftColumns") Map<String, JdbcColumnHandle> leftColumns,
+            @JsonProperty("right") JdbcTableHandle right,
+            @JsonProperty("rightColumns") Map<String, JdbcColumnHandle> rightColumns,
+            @JsonProperty("conditions") List<JdbcJoinCondition> conditions)
+    {
+        this.joinType = requireNonNull(joinType, "joinType is null");
+        this.left = requireNonNull(left, "left is null");
+        this.leftColumns = ImmutableMap.copyOf(requireNonNull(leftColumns, "leftColumns is null"));
+        this.right = requireNonNull(right, "right is null");
+        this.rightColumns = ImmutableMap.copyOf(requireNonNull(rightColumns, "rightColumns is null"));
+        this.conditions = ImmutableList.copyOf(requireNonNull(conditions, "conditions is null"));
+    }
+
+    @JsonProperty
+    public JoinType getJoinType()
+    {
+        return joinType;
+    }
+
+    @JsonProperty
+    public JdbcTableHandle getLeft()
+    {
+        return left;
+    }
+
+    @JsonProperty
+    public Map<String, JdbcColumnHandle> getLeftColumns()
+    {
+        return leftColumns;
+    }
+
+    @JsonProperty
+    public JdbcTableHandle getRight()
+    {
+        return right;
+    }
+
+    @JsonProperty
+    public Map<String, JdbcColumnHandle> getRightColumns()
+    {
+        return rightColumns;
+    }
+
+    @JsonProperty
+    public List<JdbcJoinCondition> getConditions()
+    {
+        return conditions;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        JdbcJoin that = (JdbcJoin) o;
+        return joinType == that.joinType &&
+                left.equals(that.left) &&
+                leftColumns.equals(that.leftColumns) &&
+                right.equals(that.right) &&
+                rightColumns.equals(that.rightColumns) &&
+                conditions.equals(that.conditions);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(joinType, left, leftColumns, right, rightColumns, conditions);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("joinType", joinType)
+                .add("left", left)
+                .add("right", right)
+                .add("conditions", conditions)
+                .toString();
+    }
+}
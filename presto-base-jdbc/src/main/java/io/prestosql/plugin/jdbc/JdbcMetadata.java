@@ -15,8 +15,11 @@ package io.prestosql.plugin.jdbc;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.airlift.slice.Slice;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.connector.AggregateFunction;
+import io.prestosql.spi.connector.AggregationApplicationResult;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ColumnMetadata;
 import io.prestosql.spi.connector.ConnectorInsertTableHandle;
@@ -30,10 +33,18 @@ import io.prestosql.spi.connector.ConnectorTableMetadata;
 import io.prestosql.spi.connector.ConnectorTableProperties;
 import io.prestosql.spi.connector.Constraint;
 import io.prestosql.spi.connector.ConstraintApplicationResult;
+import io.prestosql.spi.connector.JoinApplicationResult;
+import io.prestosql.spi.connector.JoinCondition;
+import io.prestosql.spi.connector.JoinType;
 import io.prestosql.spi.connector.LimitApplicationResult;
+import io.prestosql.spi.connector.ProjectionApplicationResult.Assignment;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.connector.SchemaTablePrefix;
+import io.prestosql.spi.connector.SortItem;
 import io.prestosql.spi.connector.TableNotFoundException;
+import io.prestosql.spi.connector.TopNApplicationResult;
+import io.prestosql.spi.expression.ConnectorExpression;
+import io.prestosql.spi.expression.Variable;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.statistics.ComputedStatistics;
 import io.prestosql.spi.statistics.TableStatistics;
@@ -46,12 +57,18 @@ import java.util.OptionalLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static io.prestosql.spi.StandardErrorCode.PERMISSION_DENIED;
 import static java.util.Objects.requireNonNull;
 
 public class JdbcMetadata
         implements ConnectorMetadata
 {
+    private static final String SYNTHETIC_COLUMN_NAME_PREFIX = "_pfgnrtd_";
+    private static final String JOIN_LEFT_COLUMN_NAME_PREFIX = SYNTHETIC_COLUMN_NAME_PREFIX + "l";
+    private static final String JOIN_RIGHT_COLUMN_NAME_PREFIX = SYNTHETIC_COLUMN_NAME_PREFIX + "r";
+
     private final JdbcClient jdbcClient;
     private final boolean allowDropTable;
 
@@ -87,6 +104,15 @@ public class JdbcMetadata
     {
         JdbcTableHandle handle = (JdbcTableHandle) table;
 
+        if (handle.getGroupingColumns().isPresent()) {
+            // the constraint is applied before grouping, so it cannot express a predicate on the aggregated relation
+            return Optional.empty();
+        }
+        if (handle.getSortOrder().isPresent()) {
+            // the constraint is applied before the TopN, so it cannot express a predicate on its result
+            return Optional.empty();
+        }
+
         TupleDomain<ColumnHandle> oldDomain = handle.getConstraint();
         TupleDomain<ColumnHandle> newDomain = oldDomain.intersect(constraint.getSummary());
         if (oldDomain.equals(newDomain)) {
@@ -99,7 +125,10 @@ public class JdbcMetadata
                 handle.getSchemaName(),
                 handle.getTableName(),
                 newDomain,
-                handle.getLimit());
+                handle.getLimit(),
+                handle.getGroupingColumns(),
+                handle.getJoin(),
+                handle.getSortOrder());
 
         return Optional.of(new ConstraintApplicationResult<>(handle, constraint.getSummary()));
     }
@@ -123,11 +152,183 @@ public class JdbcMetadata
                 handle.getSchemaName(),
                 handle.getTableName(),
                 handle.getConstraint(),
-                OptionalLong.of(limit));
+                OptionalLong.of(limit),
+                handle.getGroupingColumns(),
+                handle.getJoin(),
+                handle.getSortOrder());
 
         return Optional.of(new LimitApplicationResult<>(handle, jdbcClient.isLimitGuaranteed()));
     }
 
+    @Override
+    public Optional<TopNApplicationResult<ConnectorTableHandle>> applyTopN(
+            ConnectorSession session,
+            ConnectorTableHandle table,
+            long topNCount,
+            List<SortItem> sortItems,
+            Map<String, ColumnHandle> assignments)
+    {
+        JdbcTableHandle handle = (JdbcTableHandle) table;
+
+        if (handle.getLimit().isPresent()) {
+            // sorting a limited relation would need a subquery
+            return Optional.empty();
+        }
+
+        List<JdbcSortItem> sortOrder = sortItems.stream()
+                .map(sortItem -> new JdbcSortItem((JdbcColumnHandle) assignments.get(sortItem.getName()), sortItem.getSortOrder()))
+                .collect(toImmutableList());
+        if (!jdbcClient.supportsTopN(session, sortOrder)) {
+            return Optional.empty();
+        }
+
+        handle = new JdbcTableHandle(
+                handle.getSchemaTableName(),
+                handle.getCatalogName(),
+                handle.getSchemaName(),
+                handle.getTableName(),
+                handle.getConstraint(),
+                OptionalLong.of(topNCount),
+                handle.getGroupingColumns(),
+                handle.getJoin(),
+                Optional.of(sortOrder));
+
+        return Optional.of(new TopNApplicationResult<>(handle, jdbcClient.isTopNGuaranteed(session)));
+    }
+
+    @Override
+    public Optional<AggregationApplicationResult<ConnectorTableHandle>> applyAggregation(
+            ConnectorSession session,
+            ConnectorTableHandle table,
+            List<AggregateFunction> aggregates,
+            Map<String, ColumnHandle> assignments,
+            List<ColumnHandle> groupingColumns)
+    {
+        JdbcTableHandle handle = (JdbcTableHandle) table;
+
+        if (handle.getGroupingColumns().isPresent() || handle.getLimit().isPresent()) {
+            // aggregating an aggregated or limited relation would need a subquery
+            return Optional.empty();
+        }
+
+        List<JdbcColumnHandle> groupingColumnHandles = groupingColumns.stream()
+                .map(JdbcColumnHandle.class::cast)
+                .collect(toImmutableList());
+        if (!groupingColumnHandles.stream().allMatch(column -> jdbcClient.isGroupingPushdownSupported(session, column))) {
+            return Optional.empty();
+        }
+
+        ImmutableList.Builder<ConnectorExpression> projections = ImmutableList.builder();
+        ImmutableList.Builder<Assignment> resultAssignments = ImmutableList.builder();
+        for (int i = 0; i < aggregates.size(); i++) {
+            AggregateFunction aggregate = aggregates.get(i);
+            String columnName = SYNTHETIC_COLUMN_NAME_PREFIX + i;
+            Optional<JdbcColumnHandle> column = jdbcClient.implementAggregation(session, aggregate, assignments, columnName);
+            if (!column.isPresent()) {
+                return Optional.empty();
+            }
+            projections.add(new Variable(columnName, aggregate.getOutputType()));
+            resultAssignments.add(new Assignment(columnName, column.get(), aggregate.getOutputType()));
+        }
+
+        handle = new JdbcTableHandle(
+                handle.getSchemaTableName(),
+                handle.getCatalogName(),
+                handle.getSchemaName(),
+                handle.getTableName(),
+                handle.getConstraint(),
+                handle.getLimit(),
+                Optional.of(groupingColumnHandles),
+                handle.getJoin(),
+                handle.getSortOrder());
+
+        return Optional.of(new AggregationApplicationResult<>(handle, projections.build(), resultAssignments.build(), false));
+    }
+
+    @Override
+    public Optional<JoinApplicationResult<ConnectorTableHandle>> applyJoin(
+            ConnectorSession session,
+            JoinType joinType,
+            ConnectorTableHandle left,
+            ConnectorTableHandle right,
+            List<JoinCondition> joinConditions,
+            Map<String, ColumnHandle> leftAssignments,
+            Map<String, ColumnHandle> rightAssignments)
+    {
+        JdbcTableHandle leftHandle = (JdbcTableHandle) left;
+        JdbcTableHandle rightHandle = (JdbcTableHandle) right;
+
+        if (leftHandle.getLimit().isPresent() || rightHandle.getLimit().isPresent()) {
+            // a limit applies to the whole remote query
+            return Optional.empty();
+        }
+        if (!jdbcClient.isJoinPushdownSupported(session, joinType)) {
+            return Optional.empty();
+        }
+
+        boolean leftNullable = joinType == JoinType.RIGHT_OUTER || joinType == JoinType.FULL_OUTER;
+        boolean rightNullable = joinType == JoinType.LEFT_OUTER || joinType == JoinType.FULL_OUTER;
+        Map<JdbcColumnHandle, JdbcColumnHandle> leftColumns = joinColumns(leftAssignments, JOIN_LEFT_COLUMN_NAME_PREFIX, leftNullable);
+        Map<JdbcColumnHandle, JdbcColumnHandle> rightColumns = joinColumns(rightAssignments, JOIN_RIGHT_COLUMN_NAME_PREFIX, rightNullable);
+
+        ImmutableList.Builder<JdbcJoinCondition> conditions = ImmutableList.builder();
+        for (JoinCondition condition : joinConditions) {
+            if (!(condition.getLeftExpression() instanceof Variable) || !(condition.getRightExpression() instanceof Variable)) {
+                return Optional.empty();
+            }
+            if (condition.getOperator() == JoinCondition.Operator.IS_DISTINCT_FROM) {
+                // not supported by all databases
+                return Optional.empty();
+            }
+            JdbcColumnHandle leftColumn = (JdbcColumnHandle) leftAssignments.get(((Variable) condition.getLeftExpression()).getName());
+            JdbcColumnHandle rightColumn = (JdbcColumnHandle) rightAssignments.get(((Variable) condition.getRightExpression()).getName());
+            // join conditions compare values the same way grouping does
+            if (!jdbcClient.isGroupingPushdownSupported(session, leftColumn) || !jdbcClient.isGroupingPushdownSupported(session, rightColumn)) {
+                return Optional.empty();
+            }
+            conditions.add(new JdbcJoinCondition(leftColumns.get(leftColumn), condition.getOperator(), rightColumns.get(rightColumn)));
+        }
+
+        JdbcJoin join = new JdbcJoin(
+                joinType,
+                leftHandle,
+                leftColumns.entrySet().stream()
+                        .collect(toImmutableMap(entry -> entry.getValue().getColumnName(), Map.Entry::getKey)),
+                rightHandle,
+                rightColumns.entrySet().stream()
+                        .collect(toImmutableMap(entry -> entry.getValue().getColumnName(), Map.Entry::getKey)),
+                conditions.build());
+
+        JdbcTableHandle handle = new JdbcTableHandle(
+                leftHandle.getSchemaTableName(),
+                leftHandle.getCatalogName(),
+                leftHandle.getSchemaName(),
+                leftHandle.getTableName(),
+                TupleDomain.all(),
+                OptionalLong.empty(),
+                Optional.empty(),
+                Optional.of(join),
+                Optional.empty());
+
+        return Optional.of(new JoinApplicationResult<>(handle, ImmutableMap.copyOf(leftColumns), ImmutableMap.copyOf(rightColumns)));
+    }
+
+    private static Map<JdbcColumnHandle, JdbcColumnHandle> joinColumns(Map<String, ColumnHandle> assignments, String prefix, boolean nullable)
+    {
+        ImmutableMap.Builder<JdbcColumnHandle, JdbcColumnHandle> columns = ImmutableMap.builder();
+        int ordinal = 0;
+        for (ColumnHandle columnHandle : ImmutableSet.copyOf(assignments.values())) {
+            JdbcColumnHandle column = (JdbcColumnHandle) columnHandle;
+            columns.put(column, new JdbcColumnHandle(
+                    prefix + ordinal,
+                    column.getJdbcTypeHandle(),
+                    column.getColumnType(),
+                    column.isNullable() || nullable));
+            ordinal++;
+        }
+        return columns.build();
+    }
+
     @Override
     public boolean usesLegacyTableLayouts()
     {
@@ -16,6 +16,7 @@ package io.prestosql.plugin.jdbc;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.SchemaTableName;
@@ -23,7 +24,9 @@ import io.prestosql.spi.predicate.TupleDomain;
 
 import javax.annotation.Nullable;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.OptionalLong;
 
 import static java.util.Objects.requireNonNull;
@@ -39,10 +42,16 @@ public final class JdbcTableHandle
     private final String tableName;
     private final TupleDomain<ColumnHandle> constraint;
     private final OptionalLong limit;
+    // present when an aggregation was pushed down; empty list for a global aggregation
+    private final Optional<List<JdbcColumnHandle>> groupingColumns;
+    // present when a join was pushed down; the names above then refer to the left relation
+    private final Optional<JdbcJoin> join;
+    // present when a TopN was pushed down; the limit then applies to the sorted rows
+    private final Optional<List<JdbcSortItem>> sortOrder;
 
     public JdbcTableHandle(SchemaTableName schemaTableName, @Nullable String catalogName, @Nullable String schemaName, String tableName)
     {
-        this(schemaTableName, catalogName, schemaName, tableName, TupleDomain.all(), OptionalLong.empty());
+        this(schemaTableName, catalogName, schemaName, tableName, TupleDomain.all(), OptionalLong.empty(), Optional.empty(), Optional.empty(), Optional.empty());
     }
 
     @JsonCreator
@@ -52,7 +61,10 @@ public final class JdbcTableHandle
             @JsonProperty("schemaName") @Nullable String schemaName,
             @JsonProperty("tableName") String tableName,
             @JsonProperty("constraint") TupleDomain<ColumnHandle> constraint,
-            @JsonProperty("limit") OptionalLong limit)
+            @JsonProperty("limit") OptionalLong limit,
+            @JsonProperty("groupingColumns") Optional<List<JdbcColumnHandle>> groupingColumns,
+            @JsonProperty("join") Optional<JdbcJoin> join,
+            @JsonProperty("sortOrder") Optional<List<JdbcSortItem>> sortOrder)
     {
         this.schemaTableName = requireNonNull(schemaTableName, "schemaTableName is null");
         this.catalogName = catalogName;
@@ -60,6 +72,9 @@ public final class JdbcTableHandle
         this.tableName = requireNonNull(tableName, "tableName is null");
         this.constraint = requireNonNull(constraint, "constraint is null");
         this.limit = requireNonNull(limit, "limit is null");
+        this.groupingColumns = requireNonNull(groupingColumns, "groupingColumns is null").map(ImmutableList::copyOf);
+        this.join = requireNonNull(join, "join is null");
+        this.sortOrder = requireNonNull(sortOrder, "sortOrder is null").map(ImmutableList::copyOf);
     }
 
     @JsonProperty
@@ -100,6 +115,24 @@ public final class JdbcTableHandle
         return limit;
     }
 
+    @JsonProperty
+    public Optional<List<JdbcColumnHandle>> getGroupingColumns()
+    {
+        return groupingColumns;
+    }
+
+    @JsonProperty
+    public Optional<JdbcJoin> getJoin()
+    {
+        return join;
+    }
+
+    @JsonProperty
+    public Optional<List<JdbcSortItem>> getSortOrder()
+    {
+        return sortOrder;
+    }
+
     @Override
     public boolean equals(Object obj)
     {
@@ -124,7 +157,14 @@ public final class JdbcTableHandle
     {
         StringBuilder builder = new StringBuilder();
         builder.append(schemaTableName).append(" ");
-        Joiner.on(".").skipNulls().appendTo(builder, catalogName, schemaName, tableName);
+        if (join.isPresent()) {
+            builder.append(join.get());
+        }
+        else {
+            Joiner.on(".").skipNulls().appendTo(builder, catalogName, schemaName, tableName);
+        }
+        groupingColumns.ifPresent(columns -> builder.append(" groupingColumns=").append(columns));
+        sortOrder.ifPresent(items -> builder.append(" sortOrder=").append(items));
         limit.ifPresent(value -> builder.append(" limit=").append(value));
         return builder.toString();
     }
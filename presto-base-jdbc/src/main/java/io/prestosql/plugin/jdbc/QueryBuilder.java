@@ -20,6 +20,7 @@ import io.airlift.slice.Slice;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.connector.JoinType;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.Range;
 import io.prestosql.spi.predicate.TupleDomain;
@@ -30,11 +31,13 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Strings.isNullOrEmpty;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static java.lang.String.format;
 import static java.util.Collections.nCopies;
@@ -93,32 +96,93 @@ public class QueryBuilder
             List<JdbcColumnHandle> columns,
             TupleDomain<ColumnHandle> tupleDomain,
             Optional<String> additionalPredicate,
+            Optional<List<JdbcColumnHandle>> groupingColumns,
             Function<String, String> sqlFunction)
             throws SQLException
     {
-        StringBuilder sql = new StringBuilder();
+        List<TypeAndValue> accumulator = new ArrayList<>();
+        String sql = buildQuery(
+                client,
+                session,
+                connection,
+                catalog,
+                schema,
+                table,
+                Optional.empty(),
+                toSelectExpressions(columns),
+                columns,
+                tupleDomain,
+                additionalPredicate,
+                groupingColumns,
+                accumulator);
+        return prepareStatement(client, session, connection, sqlFunction.apply(sql), accumulator);
+    }
 
-        String columnNames = columns.stream()
-                .map(JdbcColumnHandle::getColumnName)
-                .map(this::quote)
-                .collect(joining(", "));
+    public PreparedStatement buildSql(
+            JdbcClient client,
+            ConnectorSession session,
+            Connection connection,
+            JdbcTableHandle table,
+            List<JdbcColumnHandle> columns,
+            Optional<String> additionalPredicate,
+            Function<String, String> sqlFunction)
+            throws SQLException
+    {
+        List<TypeAndValue> accumulator = new ArrayList<>();
+        String sql = buildQuery(
+                client,
+                session,
+                connection,
+                table.getCatalogName(),
+                table.getSchemaName(),
+                table.getTableName(),
+                table.getJoin(),
+                toSelectExpressions(columns),
+                columns,
+                table.getConstraint(),
+                additionalPredicate,
+                table.getGroupingColumns(),
+                accumulator);
+        return prepareStatement(client, session, connection, sqlFunction.apply(sql), accumulator);
+    }
+
+    private String buildQuery(
+            JdbcClient client,
+            ConnectorSession session,
+            Connection connection,
+            String catalog,
+            String schema,
+            String table,
+            Optional<JdbcJoin> join,
+            List<String> selectExpressions,
+            List<JdbcColumnHandle> columns,
+            TupleDomain<ColumnHandle> tupleDomain,
+            Optional<String> additionalPredicate,
+            Optional<List<JdbcColumnHandle>> groupingColumns,
+            List<TypeAndValue> accumulator)
+    {
+        StringBuilder sql = new StringBuilder();
 
         sql.append("SELECT ");
-        sql.append(columnNames);
-        if (columns.isEmpty()) {
+        sql.append(Joiner.on(", ").join(selectExpressions));
+        if (selectExpressions.isEmpty()) {
             sql.append("null");
         }
 
+        // parameters are bound in the order they appear in the query, so the relation must be built first
         sql.append(" FROM ");
-        if (!isNullOrEmpty(catalog)) {
-            sql.append(quote(catalog)).append('.');
+        if (join.isPresent()) {
+            sql.append(toJoinRelation(client, session, connection, join.get(), accumulator));
         }
-        if (!isNullOrEmpty(schema)) {
-            sql.append(quote(schema)).append('.');
+        else {
+            if (!isNullOrEmpty(catalog)) {
+                sql.append(quote(catalog)).append('.');
+            }
+            if (!isNullOrEmpty(schema)) {
+                sql.append(quote(schema)).append('.');
+            }
+            sql.append(quote(table));
         }
-        sql.append(quote(table));
-
-        List<TypeAndValue> accumulator = new ArrayList<>();
 
         List<String> clauses = toConjuncts(client, session, connection, columns, tupleDomain, accumulator);
         if (additionalPredicate.isPresent()) {
@@ -132,7 +196,71 @@ public class QueryBuilder
                     .append(Joiner.on(" AND ").join(clauses));
         }
 
-        String query = sqlFunction.apply(sql.toString());
+        if (groupingColumns.isPresent() && !groupingColumns.get().isEmpty()) {
+            sql.append(" GROUP BY ")
+                    .append(groupingColumns.get().stream()
+                            .map(JdbcColumnHandle::getColumnName)
+                            .map(this::quote)
+                            .collect(joining(", ")));
+        }
+
+        return sql.toString();
+    }
+
+    private String toJoinRelation(JdbcClient client, ConnectorSession session, Connection connection, JdbcJoin join, List<TypeAndValue> accumulator)
+    {
+        String left = toJoinSource(client, session, connection, join.getLeft(), join.getLeftColumns(), accumulator);
+        String right = toJoinSource(client, session, connection, join.getRight(), join.getRightColumns(), accumulator);
+        String conditions = join.getConditions().stream()
+                .map(condition -> format(
+                        "%s %s %s",
+                        quote(condition.getLeftColumn().getColumnName()),
+                        condition.getOperator().getValue(),
+                        quote(condition.getRightColumn().getColumnName())))
+                .collect(joining(" AND "));
+        return format("(%s) l %s (%s) r ON %s", left, toJoinKeyword(join.getJoinType()), right, conditions);
+    }
+
+    private String toJoinSource(JdbcClient client, ConnectorSession session, Connection connection, JdbcTableHandle table, Map<String, JdbcColumnHandle> columns, List<TypeAndValue> accumulator)
+    {
+        // each side selects its columns under the names of the columns of the joined table
+        List<String> selectExpressions = columns.entrySet().stream()
+                .map(entry -> entry.getValue().getExpression().orElseGet(() -> quote(entry.getValue().getColumnName())) + " AS " + quote(entry.getKey()))
+                .collect(toImmutableList());
+        return buildQuery(
+                client,
+                session,
+                connection,
+                table.getCatalogName(),
+                table.getSchemaName(),
+                table.getTableName(),
+                table.getJoin(),
+                selectExpressions,
+                ImmutableList.copyOf(columns.values()),
+                table.getConstraint(),
+                Optional.empty(),
+                table.getGroupingColumns(),
+                accumulator);
+    }
+
+    private static String toJoinKeyword(JoinType joinType)
+    {
+        switch (joinType) {
+            case INNER:
+                return "INNER JOIN";
+            case LEFT_OUTER:
+                return "LEFT JOIN";
+            case RIGHT_OUTER:
+                return "RIGHT JOIN";
+            case FULL_OUTER:
+                return "FULL JOIN";
+        }
+        throw new IllegalArgumentException("Unsupported join type: " + joinType);
+    }
+
+    private PreparedStatement prepareStatement(JdbcClient client, ConnectorSession session, Connection connection, String query, List<TypeAndValue> accumulator)
+            throws SQLException
+    {
         PreparedStatement statement = client.getPreparedStatement(connection, query);
 
         for (int i = 0; i < accumulator.size(); i++) {
@@ -276,6 +404,20 @@ public class QueryBuilder
         return quote(columnName) + " " + operator + " ?";
     }
 
+    private List<String> toSelectExpressions(List<JdbcColumnHandle> columns)
+    {
+        return columns.stream()
+                .map(this::toSelectExpression)
+                .collect(toImmutableList());
+    }
+
+    private String toSelectExpression(JdbcColumnHandle column)
+    {
+        return column.getExpression()
+                .map(expression -> expression + " AS " + quote(column.getColumnName()))
+                .orElseGet(() -> quote(column.getColumnName()));
+    }
+
     private String quote(String name)
     {
         return identifierQuote + name.replace(identifierQuote, identifierQuote + identifierQuote) + identifierQuote;
@@ -0,0 +1,30 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.jdbc;
+
+import java.util.List;
+
+/**
+ * Renders the TopN of a query in the dialect of the remote database.
+ */
+@FunctionalInterface
+public interface TopNFunction
+{
+    /**
+     * @param query the query producing the rows to sort
+     * @param orderBy the sort expressions with their sort order
+     * @param limit the number of rows to return
+     */
+    String apply(String query, List<JdbcSortItem> orderBy, long limit);
+}
@@ -14,15 +14,68 @@
 package io.prestosql.plugin.jdbc;
 
 import io.prestosql.tests.AbstractTestIntegrationSmokeTest;
+import org.testng.annotations.Test;
 
+import static io.airlift.tpch.TpchTable.NATION;
 import static io.airlift.tpch.TpchTable.ORDERS;
+import static io.airlift.tpch.TpchTable.REGION;
 import static io.prestosql.plugin.jdbc.JdbcQueryRunner.createJdbcQueryRunner;
+import static io.prestosql.sql.tree.ExplainType.Type.LOGICAL;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 public class TestJdbcIntegrationSmokeTest
         extends AbstractTestIntegrationSmokeTest
 {
     public TestJdbcIntegrationSmokeTest()
     {
-        super(() -> createJdbcQueryRunner(ORDERS));
+        super(() -> createJdbcQueryRunner(NATION, ORDERS, REGION));
+    }
+
+    @Test
+    public void testAggregationPushdown()
+    {
+        assertQuery("SELECT custkey, count(*), min(totalprice), max(orderdate) FROM orders GROUP BY custkey");
+        assertQuery("SELECT count(*), count(DISTINCT custkey), sum(custkey) FROM orders");
+        assertQuery("SELECT count(*) FROM orders WHERE orderkey < 0");
+        assertQuery("SELECT custkey, count(*) FROM orders GROUP BY custkey HAVING count(*) > 15");
+
+        assertFalse(getExplainPlan("SELECT custkey, count(*) FROM orders GROUP BY custkey", LOGICAL).contains("Aggregate"));
+        // grouping on textual columns depends on the remote collation and is not pushed down
+        assertTrue(getExplainPlan("SELECT orderstatus, count(*) FROM orders GROUP BY orderstatus", LOGICAL).contains("Aggregate"));
+    }
+
+    @Test
+    public void testTopNPushdown()
+    {
+        assertQueryOrdered("SELECT orderkey, totalprice FROM orders ORDER BY orderkey DESC LIMIT 10");
+        assertQueryOrdered("SELECT orderkey FROM orders ORDER BY totalprice, orderkey LIMIT 5");
+        assertQueryOrdered("SELECT orderkey, custkey FROM orders WHERE custkey < 100 ORDER BY custkey DESC, orderkey LIMIT 10");
+        assertQueryOrdered("SELECT custkey, count(*) FROM orders GROUP BY custkey ORDER BY count(*) DESC, custkey LIMIT 5");
+        assertQueryOrdered("SELECT n.name, r.name FROM nation n JOIN region r ON n.regionkey = r.regionkey ORDER BY n.nationkey LIMIT 3");
+        assertQueryOrdered("SELECT orderkey FROM (SELECT orderkey, totalprice FROM orders ORDER BY totalprice DESC LIMIT 10) WHERE orderkey > 1000 ORDER BY orderkey LIMIT 3");
+
+        assertFalse(getExplainPlan("SELECT orderkey, totalprice FROM orders ORDER BY orderkey DESC LIMIT 10", LOGICAL).contains("TopNPartial"));
+        // textual values depend on the remote collation
+        assertTrue(getExplainPlan("SELECT orderkey, clerk FROM orders ORDER BY clerk LIMIT 10", LOGICAL).contains("TopNPartial"));
+    }
+
+    @Test
+    public void testJoinPushdown()
+    {
+        assertQuery("SELECT n.name, r.name FROM nation n JOIN region r ON n.regionkey = r.regionkey");
+        assertQuery("SELECT n.name, r.name FROM nation n JOIN region r ON n.regionkey = r.regionkey AND n.nationkey > r.regionkey * 5");
+        assertQuery("SELECT n.name, r.name FROM nation n JOIN region r ON n.regionkey = r.regionkey WHERE n.nationkey < 20 AND r.regionkey <> 2");
+        assertQuery("SELECT r.name, n.name FROM region r LEFT JOIN nation n ON r.regionkey = n.nationkey WHERE r.regionkey > 1");
+        assertQuery("SELECT r.name, n.name FROM region r LEFT JOIN nation n ON r.regionkey = n.nationkey WHERE r.name <> 'ASIA'");
+        assertQuery("SELECT r.name, n.name FROM region r LEFT JOIN nation n ON r.regionkey = n.regionkey AND n.nationkey < 5");
+        assertQuery("SELECT n.name, r.name FROM region r RIGHT JOIN nation n ON n.nationkey = r.regionkey");
+        assertQuery("SELECT o.orderkey, n.name, r.name FROM orders o JOIN nation n ON o.custkey = n.nationkey JOIN region r ON n.regionkey = r.regionkey WHERE o.orderkey < 1000");
+        assertQuery("SELECT n.regionkey, count(*), max(o.totalprice) FROM orders o JOIN nation n ON o.custkey = n.nationkey GROUP BY n.regionkey");
+
+        assertFalse(getExplainPlan("SELECT n.name, r.name FROM nation n JOIN region r ON n.regionkey = r.regionkey", LOGICAL).contains("InnerJoin"));
+        assertFalse(getExplainPlan("SELECT r.name, n.name FROM region r LEFT JOIN nation n ON r.regionkey = n.nationkey WHERE r.name <> 'ASIA'", LOGICAL).contains("LeftJoin"));
+        // textual values depend on the remote collation
+        assertTrue(getExplainPlan("SELECT n.name FROM nation n JOIN region r ON n.name = r.name", LOGICAL).contains("InnerJoin"));
     }
 }
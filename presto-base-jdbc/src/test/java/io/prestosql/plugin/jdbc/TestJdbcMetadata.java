@@ -17,26 +17,45 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.connector.AggregateFunction;
+import io.prestosql.spi.connector.AggregationApplicationResult;
+import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ColumnMetadata;
+import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.ConnectorTableMetadata;
+import io.prestosql.spi.connector.Constraint;
+import io.prestosql.spi.connector.JoinApplicationResult;
+import io.prestosql.spi.connector.JoinCondition;
+import io.prestosql.spi.connector.JoinType;
 import io.prestosql.spi.connector.SchemaTableName;
+import io.prestosql.spi.connector.SortItem;
 import io.prestosql.spi.connector.TableNotFoundException;
+import io.prestosql.spi.connector.TopNApplicationResult;
+import io.prestosql.spi.expression.Variable;
+import io.prestosql.spi.predicate.TupleDomain;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.prestosql.plugin.jdbc.TestingJdbcTypeHandle.JDBC_BIGINT;
 import static io.prestosql.plugin.jdbc.TestingJdbcTypeHandle.JDBC_VARCHAR;
 import static io.prestosql.spi.StandardErrorCode.NOT_FOUND;
 import static io.prestosql.spi.StandardErrorCode.PERMISSION_DENIED;
+import static io.prestosql.spi.block.SortOrder.ASC_NULLS_FIRST;
+import static io.prestosql.spi.block.SortOrder.DESC_NULLS_LAST;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static io.prestosql.spi.type.VarcharType.createVarcharType;
 import static io.prestosql.testing.TestingConnectorSession.SESSION;
 import static java.util.Collections.emptyMap;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
@@ -94,6 +113,106 @@ public class TestJdbcMetadata
         unknownTableColumnHandle(new JdbcTableHandle(new SchemaTableName("example", "numbers"), null, "example", "unknown"));
     }
 
+    @Test
+    public void testApplyAggregation()
+    {
+        Map<String, ColumnHandle> columns = metadata.getColumnHandles(SESSION, tableHandle);
+        ColumnHandle text = columns.get("text");
+        ColumnHandle value = columns.get("value");
+        List<AggregateFunction> aggregates = ImmutableList.of(
+                new AggregateFunction("count", BIGINT, ImmutableList.of(), false),
+                new AggregateFunction("max", BIGINT, ImmutableList.of(new Variable("value", BIGINT)), false));
+
+        Optional<AggregationApplicationResult<ConnectorTableHandle>> result = metadata.applyAggregation(SESSION, tableHandle, aggregates, columns, ImmutableList.of(value));
+        assertTrue(result.isPresent());
+        assertFalse(result.get().isPartial());
+        assertEquals(
+                result.get().getAssignments().stream()
+                        .map(assignment -> ((JdbcColumnHandle) assignment.getColumn()).getExpression())
+                        .collect(toImmutableList()),
+                ImmutableList.of(Optional.of("count(*)"), Optional.of("max(\"VALUE\")")));
+
+        JdbcTableHandle aggregated = (JdbcTableHandle) result.get().getHandle();
+        assertEquals(aggregated.getGroupingColumns(), Optional.of(ImmutableList.of(value)));
+        assertFalse(metadata.applyAggregation(SESSION, aggregated, aggregates, columns, ImmutableList.of()).isPresent());
+        assertFalse(metadata.applyFilter(SESSION, aggregated, new Constraint(TupleDomain.none())).isPresent());
+
+        // textual values depend on the remote collation
+        assertFalse(metadata.applyAggregation(SESSION, tableHandle, aggregates, columns, ImmutableList.of(text)).isPresent());
+        assertFalse(metadata.applyAggregation(
+                SESSION,
+                tableHandle,
+                ImmutableList.of(new AggregateFunction("max", VARCHAR, ImmutableList.of(new Variable("text", VARCHAR)), false)),
+                columns,
+                ImmutableList.of()).isPresent());
+    }
+
+    @Test
+    public void testApplyJoin()
+    {
+        Map<String, ColumnHandle> columns = metadata.getColumnHandles(SESSION, tableHandle);
+        JdbcColumnHandle value = (JdbcColumnHandle) columns.get("value");
+        List<JoinCondition> conditions = ImmutableList.of(new JoinCondition(new Variable("value", BIGINT), JoinCondition.Operator.EQUAL, new Variable("value", BIGINT)));
+
+        Optional<JoinApplicationResult<ConnectorTableHandle>> result = metadata.applyJoin(SESSION, JoinType.LEFT_OUTER, tableHandle, tableHandle, conditions, columns, columns);
+        assertTrue(result.isPresent());
+        JdbcColumnHandle leftValue = (JdbcColumnHandle) result.get().getLeftColumnHandles().get(value);
+        JdbcColumnHandle rightValue = (JdbcColumnHandle) result.get().getRightColumnHandles().get(value);
+        assertEquals(result.get().getLeftColumnHandles().size(), 3);
+        assertEquals(result.get().getRightColumnHandles().size(), 3);
+        assertFalse(leftValue.equals(rightValue));
+        // the right side of a left join is padded with nulls
+        assertTrue(rightValue.isNullable());
+
+        JdbcJoin join = ((JdbcTableHandle) result.get().getHandle()).getJoin().get();
+        assertEquals(join.getJoinType(), JoinType.LEFT_OUTER);
+        assertEquals(join.getLeftColumns().get(leftValue.getColumnName()), value);
+        assertEquals(join.getRightColumns().get(rightValue.getColumnName()), value);
+        assertEquals(join.getConditions(), ImmutableList.of(new JdbcJoinCondition(leftValue, JoinCondition.Operator.EQUAL, rightValue)));
+
+        // a limit applies to the whole remote query
+        JdbcTableHandle limited = new JdbcTableHandle(
+                tableHandle.getSchemaTableName(),
+                tableHandle.getCatalogName(),
+                tableHandle.getSchemaName(),
+                tableHandle.getTableName(),
+                TupleDomain.all(),
+                OptionalLong.of(10),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty());
+        assertFalse(metadata.applyJoin(SESSION, JoinType.INNER, limited, tableHandle, conditions, columns, columns).isPresent());
+
+        // textual values depend on the remote collation
+        List<JoinCondition> textConditions = ImmutableList.of(new JoinCondition(new Variable("text", VARCHAR), JoinCondition.Operator.EQUAL, new Variable("text", VARCHAR)));
+        assertFalse(metadata.applyJoin(SESSION, JoinType.INNER, tableHandle, tableHandle, textConditions, columns, columns).isPresent());
+
+        List<JoinCondition> distinctConditions = ImmutableList.of(new JoinCondition(new Variable("value", BIGINT), JoinCondition.Operator.IS_DISTINCT_FROM, new Variable("value", BIGINT)));
+        assertFalse(metadata.applyJoin(SESSION, JoinType.INNER, tableHandle, tableHandle, distinctConditions, columns, columns).isPresent());
+    }
+
+    @Test
+    public void testApplyTopN()
+    {
+        Map<String, ColumnHandle> columns = metadata.getColumnHandles(SESSION, tableHandle);
+        List<SortItem> sortItems = ImmutableList.of(new SortItem("value", DESC_NULLS_LAST));
+
+        Optional<TopNApplicationResult<ConnectorTableHandle>> result = metadata.applyTopN(SESSION, tableHandle, 3, sortItems, columns);
+        assertTrue(result.isPresent());
+        assertTrue(result.get().isTopNGuaranteed());
+        JdbcTableHandle handle = (JdbcTableHandle) result.get().getHandle();
+        assertEquals(handle.getLimit(), OptionalLong.of(3));
+        assertEquals(handle.getSortOrder(), Optional.of(ImmutableList.of(new JdbcSortItem((JdbcColumnHandle) columns.get("value"), DESC_NULLS_LAST))));
+
+        // the TopN is already applied
+        assertFalse(metadata.applyTopN(SESSION, handle, 3, sortItems, columns).isPresent());
+        // the constraint would be applied before the TopN
+        assertFalse(metadata.applyFilter(SESSION, handle, new Constraint(TupleDomain.none())).isPresent());
+
+        // textual values depend on the remote collation
+        assertFalse(metadata.applyTopN(SESSION, tableHandle, 3, ImmutableList.of(new SortItem("text", ASC_NULLS_FIRST)), columns).isPresent());
+    }
+
     private void unknownTableColumnHandle(JdbcTableHandle tableHandle)
     {
         try {
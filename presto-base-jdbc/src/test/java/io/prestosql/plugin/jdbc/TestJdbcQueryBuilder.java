@@ -17,10 +17,14 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.JoinCondition;
+import io.prestosql.spi.connector.JoinType;
+import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.Range;
 import io.prestosql.spi.predicate.SortedRangeSet;
 import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.spi.predicate.ValueSet;
 import io.prestosql.spi.type.CharType;
 import io.prestosql.spi.type.SqlTimestamp;
 import io.prestosql.testing.DateTimeTestingUtils;
@@ -39,7 +43,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.function.Function;
 
 import static io.airlift.slice.Slices.utf8Slice;
@@ -204,7 +210,7 @@ public class TestJdbcQueryBuilder
                 .build());
 
         Connection connection = database.getConnection();
-        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, SESSION, connection, "", "", "test_table", columns, tupleDomain, Optional.empty(), identity());
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, SESSION, connection, "", "", "test_table", columns, tupleDomain, Optional.empty(), Optional.empty(), identity());
                 ResultSet resultSet = preparedStatement.executeQuery()) {
             ImmutableSet.Builder<Long> builder = ImmutableSet.builder();
             while (resultSet.next()) {
@@ -227,7 +233,7 @@ public class TestJdbcQueryBuilder
                         false)));
 
         Connection connection = database.getConnection();
-        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, SESSION, connection, "", "", "test_table", columns, tupleDomain, Optional.empty(), identity());
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, SESSION, connection, "", "", "test_table", columns, tupleDomain, Optional.empty(), Optional.empty(), identity());
                 ResultSet resultSet = preparedStatement.executeQuery()) {
             ImmutableSet.Builder<Long> longBuilder = ImmutableSet.builder();
             ImmutableSet.Builder<Float> floatBuilder = ImmutableSet.builder();
@@ -253,7 +259,7 @@ public class TestJdbcQueryBuilder
                         false)));
 
         Connection connection = database.getConnection();
-        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, SESSION, connection, "", "", "test_table", columns, tupleDomain, Optional.empty(), identity());
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, SESSION, connection, "", "", "test_table", columns, tupleDomain, Optional.empty(), Optional.empty(), identity());
                 ResultSet resultSet = preparedStatement.executeQuery()) {
             ImmutableSet.Builder<String> builder = ImmutableSet.builder();
             while (resultSet.next()) {
@@ -281,7 +287,7 @@ public class TestJdbcQueryBuilder
                         false)));
 
         Connection connection = database.getConnection();
-        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, SESSION, connection, "", "", "test_table", columns, tupleDomain, Optional.empty(), identity());
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, SESSION, connection, "", "", "test_table", columns, tupleDomain, Optional.empty(), Optional.empty(), identity());
                 ResultSet resultSet = preparedStatement.executeQuery()) {
             ImmutableSet.Builder<String> builder = ImmutableSet.builder();
             while (resultSet.next()) {
@@ -314,7 +320,7 @@ public class TestJdbcQueryBuilder
                         false)));
 
         Connection connection = database.getConnection();
-        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, SESSION, connection, "", "", "test_table", columns, tupleDomain, Optional.empty(), identity());
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, SESSION, connection, "", "", "test_table", columns, tupleDomain, Optional.empty(), Optional.empty(), identity());
                 ResultSet resultSet = preparedStatement.executeQuery()) {
             ImmutableSet.Builder<Date> dateBuilder = ImmutableSet.builder();
             ImmutableSet.Builder<Time> timeBuilder = ImmutableSet.builder();
@@ -347,7 +353,7 @@ public class TestJdbcQueryBuilder
                         false)));
 
         Connection connection = database.getConnection();
-        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, SESSION, connection, "", "", "test_table", columns, tupleDomain, Optional.empty(), identity());
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, SESSION, connection, "", "", "test_table", columns, tupleDomain, Optional.empty(), Optional.empty(), identity());
                 ResultSet resultSet = preparedStatement.executeQuery()) {
             ImmutableSet.Builder<Timestamp> builder = ImmutableSet.builder();
             while (resultSet.next()) {
@@ -371,7 +377,7 @@ public class TestJdbcQueryBuilder
     {
         Connection connection = database.getConnection();
         Function<String, String> function = sql -> sql + " LIMIT 10";
-        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, SESSION, connection, "", "", "test_table", columns, TupleDomain.all(), Optional.empty(), function);
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, SESSION, connection, "", "", "test_table", columns, TupleDomain.all(), Optional.empty(), Optional.empty(), function);
                 ResultSet resultSet = preparedStatement.executeQuery()) {
             long count = 0;
             while (resultSet.next()) {
@@ -381,6 +387,89 @@ public class TestJdbcQueryBuilder
         }
     }
 
+    @Test
+    public void testBuildSqlWithAggregation()
+            throws SQLException
+    {
+        JdbcColumnHandle groupingColumn = columns.get(7);
+        List<JdbcColumnHandle> aggregatedColumns = ImmutableList.of(
+                groupingColumn,
+                new JdbcColumnHandle("row_count", JDBC_BIGINT, BIGINT, true, Optional.of("count(*)")),
+                new JdbcColumnHandle("max_col_0", JDBC_BIGINT, BIGINT, true, Optional.of("max(\"col_0\")")));
+
+        Connection connection = database.getConnection();
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, SESSION, connection, "", "", "test_table", aggregatedColumns, TupleDomain.all(), Optional.empty(), Optional.of(ImmutableList.of(groupingColumn)), identity());
+                ResultSet resultSet = preparedStatement.executeQuery()) {
+            ImmutableMap.Builder<Long, List<Long>> builder = ImmutableMap.builder();
+            while (resultSet.next()) {
+                builder.put(resultSet.getLong("col_7"), ImmutableList.of(resultSet.getLong("row_count"), resultSet.getLong("max_col_0")));
+            }
+            Map<Long, List<Long>> groups = builder.build();
+            assertEquals(groups.size(), 128);
+            assertEquals(groups.get(0L), ImmutableList.of(8L, 896L));
+            assertEquals(groups.get(127L), ImmutableList.of(7L, 895L));
+        }
+    }
+
+    @Test
+    public void testBuildSqlWithJoin()
+            throws SQLException
+    {
+        JdbcColumnHandle leftKey = new JdbcColumnHandle("left_key", JDBC_BIGINT, BIGINT, true);
+        JdbcColumnHandle rightKey = new JdbcColumnHandle("right_key", JDBC_INTEGER, INTEGER, true);
+        JdbcColumnHandle rightValue = new JdbcColumnHandle("right_value", JDBC_VARCHAR, VARCHAR, true);
+        JdbcTableHandle left = new JdbcTableHandle(
+                new SchemaTableName("schema", "test_table"),
+                null,
+                null,
+                "test_table",
+                TupleDomain.withColumnDomains(ImmutableMap.of(columns.get(0), Domain.create(ValueSet.ofRanges(Range.lessThan(BIGINT, 100L)), false))),
+                OptionalLong.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty());
+        JdbcTableHandle right = new JdbcTableHandle(
+                new SchemaTableName("schema", "test_table"),
+                null,
+                null,
+                "test_table",
+                TupleDomain.withColumnDomains(ImmutableMap.of(columns.get(9), Domain.create(ValueSet.ofRanges(Range.greaterThanOrEqual(INTEGER, 50L)), false))),
+                OptionalLong.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty());
+        JdbcJoin join = new JdbcJoin(
+                JoinType.INNER,
+                left,
+                ImmutableMap.of(leftKey.getColumnName(), columns.get(0)),
+                right,
+                ImmutableMap.of(rightKey.getColumnName(), columns.get(9), rightValue.getColumnName(), columns.get(3)),
+                ImmutableList.of(new JdbcJoinCondition(leftKey, JoinCondition.Operator.EQUAL, rightKey)));
+        JdbcTableHandle joined = new JdbcTableHandle(
+                left.getSchemaTableName(),
+                null,
+                null,
+                "test_table",
+                TupleDomain.withColumnDomains(ImmutableMap.of(leftKey, Domain.create(ValueSet.ofRanges(Range.lessThanOrEqual(BIGINT, 80L)), false))),
+                OptionalLong.empty(),
+                Optional.empty(),
+                Optional.of(join),
+                Optional.empty());
+
+        Connection connection = database.getConnection();
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, SESSION, connection, joined, ImmutableList.of(leftKey, rightValue), Optional.empty(), identity());
+                ResultSet resultSet = preparedStatement.executeQuery()) {
+            ImmutableMap.Builder<Long, String> builder = ImmutableMap.builder();
+            while (resultSet.next()) {
+                builder.put(resultSet.getLong("left_key"), resultSet.getString("right_value"));
+            }
+            Map<Long, String> rows = builder.build();
+            assertEquals(rows.size(), 31);
+            assertEquals(rows.get(50L), "test_str_150");
+            assertEquals(rows.get(80L), "test_str_180");
+        }
+    }
+
     @Test
     public void testEmptyBuildSql()
             throws SQLException
@@ -390,7 +479,7 @@ public class TestJdbcQueryBuilder
                 columns.get(1), Domain.onlyNull(DOUBLE)));
 
         Connection connection = database.getConnection();
-        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, SESSION, connection, "", "", "test_table", columns, tupleDomain, Optional.empty(), identity());
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, SESSION, connection, "", "", "test_table", columns, tupleDomain, Optional.empty(), Optional.empty(), identity());
                 ResultSet resultSet = preparedStatement.executeQuery()) {
             assertEquals(resultSet.next(), false);
         }
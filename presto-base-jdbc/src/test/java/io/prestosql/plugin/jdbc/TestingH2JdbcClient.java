@@ -0,0 +1,48 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.jdbc;
+
+import io.prestosql.spi.connector.ConnectorSession;
+
+import java.util.Optional;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.joining;
+
+class TestingH2JdbcClient
+        extends BaseJdbcClient
+{
+    public TestingH2JdbcClient(BaseJdbcConfig config, ConnectionFactory connectionFactory)
+    {
+        super(config, "\"", connectionFactory);
+    }
+
+    @Override
+    protected Optional<TopNFunction> topNFunction()
+    {
+        return Optional.of((query, orderBy, limit) -> format(
+                "%s ORDER BY %s LIMIT %s",
+                query,
+                orderBy.stream()
+                        .map(this::toOrderByItem)
+                        .collect(joining(", ")),
+                limit));
+    }
+
+    @Override
+    public boolean isTopNGuaranteed(ConnectorSession session)
+    {
+        return true;
+    }
+}
@@ -39,7 +39,7 @@ class TestingH2JdbcModule
     @Provides
     public JdbcClient provideJdbcClient(BaseJdbcConfig config, @StatsCollecting ConnectionFactory connectionFactory)
     {
-        return new BaseJdbcClient(config, "\"", connectionFactory);
+        return new TestingH2JdbcClient(config, connectionFactory);
     }
 
     @Provides
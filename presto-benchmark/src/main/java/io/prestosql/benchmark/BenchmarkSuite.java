@@ -73,7 +73,9 @@ public class BenchmarkSuite
                 new SqlTpchQuery1(localQueryRunner),
                 new SqlTpchQuery6(localQueryRunner),
                 new SqlLikeBenchmark(localQueryRunner),
-                new SqlInBenchmark(localQueryRunner),
+                new SqlInBenchmark(localQueryRunner, 10),
+                new SqlInBenchmark(localQueryRunner, 1_000),
+                new SqlInBenchmark(localQueryRunner, 10_000),
                 new SqlSemiJoinInPredicateBenchmark(localQueryRunner),
                 new SqlRegexpLikeBenchmark(localQueryRunner),
                 new SqlApproximatePercentileBenchmark(localQueryRunner),
@@ -15,22 +15,31 @@ package io.prestosql.benchmark;
 
 import io.prestosql.testing.LocalQueryRunner;
 
+import java.util.stream.IntStream;
+
 import static io.prestosql.benchmark.BenchmarkQueryRunner.createLocalQueryRunner;
+import static java.lang.String.format;
+import static java.util.stream.Collectors.joining;
 
 public class SqlInBenchmark
         extends AbstractSqlBenchmark
 {
-    public SqlInBenchmark(LocalQueryRunner localQueryRunner)
+    public SqlInBenchmark(LocalQueryRunner localQueryRunner, int inListSize)
     {
         super(localQueryRunner,
-                "sql_in",
+                format("sql_in_%s", inListSize),
                 10,
                 50,
-                "SELECT orderkey FROM lineitem WHERE orderkey IN (1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20,21,22,23,24,25,26,27,28,29,30)");
+                format("SELECT orderkey FROM lineitem WHERE orderkey IN (%s)", IntStream.rangeClosed(1, inListSize)
+                        .mapToObj(Integer::toString)
+                        .collect(joining(","))));
     }
 
     public static void main(String[] args)
     {
-        new SqlInBenchmark(createLocalQueryRunner()).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        LocalQueryRunner localQueryRunner = createLocalQueryRunner();
+        for (int inListSize : new int[] {10, 1_000, 10_000}) {
+            new SqlInBenchmark(localQueryRunner, inListSize).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        }
     }
 }
@@ -26,15 +26,22 @@ import io.prestosql.spi.connector.Constraint;
 import io.prestosql.spi.connector.ConstraintApplicationResult;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.connector.SchemaTablePrefix;
+import io.prestosql.spi.connector.SortItem;
 import io.prestosql.spi.connector.TableNotFoundException;
+import io.prestosql.spi.connector.TopNApplicationResult;
 import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.spi.type.Type;
 
 import javax.inject.Inject;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
 import static java.util.Objects.requireNonNull;
 
 public class ElasticsearchMetadata
@@ -147,6 +154,11 @@ public class ElasticsearchMetadata
     {
         ElasticsearchTableHandle handle = (ElasticsearchTableHandle) table;
 
+        if (handle.getLimit().isPresent()) {
+            // the constraint is applied before the TopN, so it cannot express a predicate on its result
+            return Optional.empty();
+        }
+
         TupleDomain<ColumnHandle> oldDomain = handle.getConstraint();
         TupleDomain<ColumnHandle> newDomain = oldDomain.intersect(constraint.getSummary());
         if (oldDomain.equals(newDomain)) {
@@ -156,11 +168,54 @@ public class ElasticsearchMetadata
         handle = new ElasticsearchTableHandle(
                 handle.getSchemaName(),
                 handle.getTableName(),
-                handle.getConstraint());
+                handle.getConstraint(),
+                handle.getSortOrder(),
+                handle.getLimit());
 
         return Optional.of(new ConstraintApplicationResult<>(handle, constraint.getSummary()));
     }
 
+    @Override
+    public Optional<TopNApplicationResult<ConnectorTableHandle>> applyTopN(
+            ConnectorSession session,
+            ConnectorTableHandle table,
+            long topNCount,
+            List<SortItem> sortItems,
+            Map<String, ColumnHandle> assignments)
+    {
+        ElasticsearchTableHandle handle = (ElasticsearchTableHandle) table;
+
+        if (handle.getLimit().isPresent()) {
+            return Optional.empty();
+        }
+
+        ImmutableList.Builder<ElasticsearchSortItem> sortOrder = ImmutableList.builder();
+        for (SortItem sortItem : sortItems) {
+            ElasticsearchColumnHandle column = (ElasticsearchColumnHandle) assignments.get(sortItem.getName());
+            if (!isSortable(column)) {
+                return Optional.empty();
+            }
+            sortOrder.add(new ElasticsearchSortItem(column, sortItem.getSortOrder()));
+        }
+
+        handle = new ElasticsearchTableHandle(
+                handle.getSchemaName(),
+                handle.getTableName(),
+                handle.getConstraint(),
+                sortOrder.build(),
+                OptionalLong.of(topNCount));
+
+        // each shard is read by its own split, so the rows are only sorted and limited per split
+        return Optional.of(new TopNApplicationResult<>(handle, false));
+    }
+
+    private static boolean isSortable(ElasticsearchColumnHandle column)
+    {
+        // text fields are analyzed and cannot be sorted on, and lists are sorted by one of their elements
+        Type type = column.getColumnType();
+        return !column.getIsList() && (type.equals(BIGINT) || type.equals(INTEGER) || type.equals(DOUBLE));
+    }
+
     private Optional<ConnectorTableMetadata> getTableMetadata(SchemaTableName tableName)
     {
         ElasticsearchTableDescription table = client.getTable(tableName.getSchemaName(), tableName.getTableName());
@@ -33,11 +33,14 @@ import org.elasticsearch.index.query.MatchAllQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.RangeQueryBuilder;
 import org.elasticsearch.index.query.TermQueryBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.HashSet;
 import java.util.List;
+import java.util.OptionalLong;
 import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -50,6 +53,8 @@ import static io.prestosql.spi.type.BooleanType.BOOLEAN;
 import static io.prestosql.spi.type.DoubleType.DOUBLE;
 import static io.prestosql.spi.type.IntegerType.INTEGER;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
@@ -65,6 +70,8 @@ public class ElasticsearchQueryBuilder
     private final int shard;
     private final TupleDomain<ColumnHandle> tupleDomain;
     private final List<ElasticsearchColumnHandle> columns;
+    private final List<ElasticsearchSortItem> sortOrder;
+    private final OptionalLong limit;
     private final String index;
     private final String type;
 
@@ -76,6 +83,8 @@ public class ElasticsearchQueryBuilder
 
         columns = columnHandles;
         tupleDomain = table.getConstraint();
+        sortOrder = table.getSortOrder();
+        limit = table.getLimit();
         index = split.getIndex();
         shard = split.getShard();
         type = split.getType();
@@ -109,11 +118,24 @@ public class ElasticsearchQueryBuilder
                 .setFetchSource(fields.toArray(new String[0]), null)
                 .setQuery(buildSearchQuery())
                 .setPreference("_shards:" + shard)
-                .setSize(scrollSize);
+                .setSize(limit.isPresent() ? toIntExact(min(limit.getAsLong(), scrollSize)) : scrollSize);
+        for (ElasticsearchSortItem sortItem : sortOrder) {
+            searchRequestBuilder.addSort(SortBuilders.fieldSort(sortItem.getColumn().getColumnJsonPath())
+                    .order(sortItem.getSortOrder().isAscending() ? SortOrder.ASC : SortOrder.DESC)
+                    .missing(sortItem.getSortOrder().isNullsFirst() ? "_first" : "_last"));
+        }
         LOG.debug("Elasticsearch Request: %s", searchRequestBuilder);
         return searchRequestBuilder;
     }
 
+    /**
+     * The number of hits to read, if the search returns the TopN of the shard.
+     */
+    public OptionalLong getLimit()
+    {
+        return limit;
+    }
+
     public SearchScrollRequestBuilder prepareSearchScroll(String scrollId)
     {
         return client.prepareSearchScroll(scrollId)
@@ -285,6 +285,7 @@ public class ElasticsearchRecordCursor
 
         private Iterator<SearchHit> searchHits;
         private String scrollId;
+        private long readHits;
 
         SearchHitsIterator(ElasticsearchQueryBuilder queryBuilder, ElasticsearchConnectorConfig config)
         {
@@ -297,6 +298,11 @@ public class ElasticsearchRecordCursor
         @Override
         protected SearchHit computeNext()
         {
+            if (queryBuilder.getLimit().isPresent() && readHits >= queryBuilder.getLimit().getAsLong()) {
+                // the first hits of the sorted search are the TopN of the shard
+                return endOfData();
+            }
+
             if (scrollId == null) {
                 // make the first request and get the scroll id
                 SearchResponse response = getSearchResponse(queryBuilder);
@@ -312,6 +318,7 @@ public class ElasticsearchRecordCursor
                 searchHits = response.getHits().iterator();
             }
 
+            readHits++;
             return searchHits.next();
         }
 
@@ -16,12 +16,15 @@ package io.prestosql.elasticsearch;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.predicate.TupleDomain;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.OptionalLong;
 
 import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
@@ -31,22 +34,29 @@ public final class ElasticsearchTableHandle
 {
     private final SchemaTableName schemaTableName;
     private final TupleDomain<ColumnHandle> constraint;
+    // the sort order and limit of a pushed down TopN, applied to each shard
+    private final List<ElasticsearchSortItem> sortOrder;
+    private final OptionalLong limit;
 
     public ElasticsearchTableHandle(String schemaName, String tableName)
     {
-        this(schemaName, tableName, TupleDomain.all());
+        this(schemaName, tableName, TupleDomain.all(), ImmutableList.of(), OptionalLong.empty());
     }
 
     @JsonCreator
     public ElasticsearchTableHandle(
             @JsonProperty("schemaName") String schemaName,
             @JsonProperty("tableName") String tableName,
-            @JsonProperty("constraint") TupleDomain<ColumnHandle> constraint)
+            @JsonProperty("constraint") TupleDomain<ColumnHandle> constraint,
+            @JsonProperty("sortOrder") List<ElasticsearchSortItem> sortOrder,
+            @JsonProperty("limit") OptionalLong limit)
     {
         requireNonNull(schemaName, "schemaName is null");
         requireNonNull(tableName, "tableName is null");
         this.schemaTableName = new SchemaTableName(schemaName.toLowerCase(ENGLISH), tableName.toLowerCase(ENGLISH));
         this.constraint = requireNonNull(constraint, "constraint is null");
+        this.sortOrder = ImmutableList.copyOf(requireNonNull(sortOrder, "sortOrder is null"));
+        this.limit = requireNonNull(limit, "limit is null");
     }
 
     @JsonProperty
@@ -67,6 +77,18 @@ public final class ElasticsearchTableHandle
         return constraint;
     }
 
+    @JsonProperty
+    public List<ElasticsearchSortItem> getSortOrder()
+    {
+        return sortOrder;
+    }
+
+    @JsonProperty
+    public OptionalLong getLimit()
+    {
+        return limit;
+    }
+
     public SchemaTableName getSchemaTableName()
     {
         return schemaTableName;
@@ -96,6 +118,12 @@ public final class ElasticsearchTableHandle
     @Override
     public String toString()
     {
-        return Joiner.on(":").join(getSchemaName(), getTableName());
+        StringBuilder builder = new StringBuilder();
+        Joiner.on(":").appendTo(builder, getSchemaName(), getTableName());
+        if (!sortOrder.isEmpty()) {
+            builder.append(" sortOrder=").append(sortOrder);
+        }
+        limit.ifPresent(value -> builder.append(" limit=").append(value));
+        return builder.toString();
     }
 }
@@ -29,10 +29,12 @@ import java.io.IOException;
 import static io.prestosql.elasticsearch.ElasticsearchQueryRunner.createElasticsearchQueryRunner;
 import static io.prestosql.elasticsearch.EmbeddedElasticsearchNode.createEmbeddedElasticsearchNode;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.sql.tree.ExplainType.Type.LOGICAL;
 import static io.prestosql.testing.MaterializedResult.resultBuilder;
 import static io.prestosql.testing.assertions.Assert.assertEquals;
 import static java.lang.String.format;
 import static org.elasticsearch.client.Requests.refreshRequest;
+import static org.testng.Assert.assertTrue;
 
 public class TestElasticsearchIntegrationSmokeTest
         extends AbstractTestIntegrationSmokeTest
@@ -93,6 +95,18 @@ public class TestElasticsearchIntegrationSmokeTest
         assertEquals(actualResult, expectedColumns, format("%s != %s", actualResult, expectedColumns));
     }
 
+    @Test
+    public void testTopNPushdown()
+    {
+        assertQueryOrdered("SELECT orderkey, totalprice FROM orders ORDER BY totalprice DESC, orderkey LIMIT 10");
+        assertQueryOrdered("SELECT orderkey FROM orders ORDER BY custkey, orderkey LIMIT 5");
+
+        // each shard returns its own TopN, so the partial TopN is kept
+        String plan = getExplainPlan("SELECT orderkey FROM orders ORDER BY orderkey LIMIT 10", LOGICAL);
+        assertTrue(plan.contains("limit=10"));
+        assertTrue(plan.contains("TopNPartial"));
+    }
+
     @Test
     public void testMixedCaseFields()
     {
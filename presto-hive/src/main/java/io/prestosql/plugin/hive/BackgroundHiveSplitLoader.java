@@ -476,6 +476,18 @@ public class BackgroundHiveSplitLoader
             break;
         }
 
+        if (bucketSplitInfo.isSingleFilePerBucket()) {
+            for (int bucket : bucketFiles.keySet()) {
+                if (bucketFiles.get(bucket).size() > 1) {
+                    throw new PrestoException(HIVE_INVALID_BUCKET_FILES, format(
+                            "Hive table '%s' has more than one file for bucket %s, which is not supported when reading sorted buckets (disable sorted_reading_enabled), for partition: %s",
+                            table.getSchemaTableName(),
+                            bucket,
+                            splitFactory.getPartitionName()));
+                }
+            }
+        }
+
         // convert files internal splits
         List<InternalHiveSplit> splitList = new ArrayList<>();
         for (int bucketNumber = 0; bucketNumber < bucketCount; bucketNumber++) {
@@ -584,8 +596,9 @@ public class BackgroundHiveSplitLoader
         private final int tableBucketCount;
         private final int readBucketCount;
         private final IntPredicate bucketFilter;
+        private final boolean singleFilePerBucket;
 
-        public static Optional<BucketSplitInfo> createBucketSplitInfo(Optional<HiveBucketHandle> bucketHandle, Optional<HiveBucketFilter> bucketFilter)
+        public static Optional<BucketSplitInfo> createBucketSplitInfo(Optional<HiveBucketHandle> bucketHandle, Optional<HiveBucketFilter> bucketFilter, boolean singleFilePerBucket)
         {
             requireNonNull(bucketHandle, "bucketHandle is null");
             requireNonNull(bucketFilter, "buckets is null");
@@ -607,15 +620,16 @@ public class BackgroundHiveSplitLoader
             IntPredicate predicate = bucketFilter
                     .<IntPredicate>map(filter -> filter.getBucketsToKeep()::contains)
                     .orElse(bucket -> true);
-            return Optional.of(new BucketSplitInfo(bucketColumns, tableBucketCount, readBucketCount, predicate));
+            return Optional.of(new BucketSplitInfo(bucketColumns, tableBucketCount, readBucketCount, predicate, singleFilePerBucket));
         }
 
-        private BucketSplitInfo(List<HiveColumnHandle> bucketColumns, int tableBucketCount, int readBucketCount, IntPredicate bucketFilter)
+        private BucketSplitInfo(List<HiveColumnHandle> bucketColumns, int tableBucketCount, int readBucketCount, IntPredicate bucketFilter, boolean singleFilePerBucket)
         {
             this.bucketColumns = ImmutableList.copyOf(requireNonNull(bucketColumns, "bucketColumns is null"));
             this.tableBucketCount = tableBucketCount;
             this.readBucketCount = readBucketCount;
             this.bucketFilter = requireNonNull(bucketFilter, "bucketFilter is null");
+            this.singleFilePerBucket = singleFilePerBucket;
         }
 
         public List<HiveColumnHandle> getBucketColumns()
@@ -633,6 +647,15 @@ public class BackgroundHiveSplitLoader
             return readBucketCount;
         }
 
+        /**
+         * Whether the engine relies on the rows of a bucket being stored in a single file,
+         * because the sort order of the bucket files is exposed as a table property.
+         */
+        public boolean isSingleFilePerBucket()
+        {
+            return singleFilePerBucket;
+        }
+
         /**
          * Evaluates whether the provided table bucket number passes the bucket predicate.
          * A bucket predicate can be present in two cases:
@@ -13,6 +13,7 @@
  */
 package io.prestosql.plugin.hive;
 
+import io.airlift.stats.CounterStat;
 import io.airlift.stats.DistributionStat;
 import io.airlift.stats.TimeStat;
 import org.weakref.jmx.Managed;
@@ -29,6 +30,10 @@ public class FileFormatDataSourceStats
     private final TimeStat time100KBto1MB = new TimeStat(MILLISECONDS);
     private final TimeStat time1MBto10MB = new TimeStat(MILLISECONDS);
     private final TimeStat time10MBPlus = new TimeStat(MILLISECONDS);
+    private final CounterStat metadataCacheHits = new CounterStat();
+    private final CounterStat metadataCacheMisses = new CounterStat();
+    private final CounterStat selectiveLoadDecodedPositions = new CounterStat();
+    private final CounterStat selectiveLoadSkippedPositions = new CounterStat();
 
     @Managed
     @Nested
@@ -72,6 +77,45 @@ public class FileFormatDataSourceStats
         return time10MBPlus;
     }
 
+    @Managed
+    @Nested
+    public CounterStat getMetadataCacheHits()
+    {
+        return metadataCacheHits;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getMetadataCacheMisses()
+    {
+        return metadataCacheMisses;
+    }
+
+    @Managed
+    public double getMetadataCacheHitRate()
+    {
+        long hits = metadataCacheHits.getTotalCount();
+        long requests = hits + metadataCacheMisses.getTotalCount();
+        if (requests == 0) {
+            return 1.0;
+        }
+        return (double) hits / requests;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getSelectiveLoadDecodedPositions()
+    {
+        return selectiveLoadDecodedPositions;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getSelectiveLoadSkippedPositions()
+    {
+        return selectiveLoadSkippedPositions;
+    }
+
     public void readDataBytesPerSecond(long bytes, long nanos)
     {
         readBytes.add(bytes);
@@ -93,4 +137,20 @@ public class FileFormatDataSourceStats
     {
         maxCombinedBytesPerRow.add(bytes);
     }
+
+    public void addMetadataCacheHit()
+    {
+        metadataCacheHits.update(1);
+    }
+
+    public void addMetadataCacheMiss()
+    {
+        metadataCacheMisses.update(1);
+    }
+
+    public void addSelectiveLoad(int decodedPositions, int skippedPositions)
+    {
+        selectiveLoadDecodedPositions.update(decodedPositions);
+        selectiveLoadSkippedPositions.update(skippedPositions);
+    }
 }
@@ -0,0 +1,327 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import io.airlift.units.DataSize;
+import io.prestosql.orc.OrcFileTail;
+import io.prestosql.orc.OrcMetadataCache;
+import io.prestosql.orc.StreamId;
+import io.prestosql.orc.metadata.RowGroupIndex;
+import io.prestosql.orc.metadata.StripeFooter;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.weakref.jmx.Managed;
+
+import javax.inject.Inject;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static io.prestosql.orc.metadata.Stream.StreamKind.ROW_INDEX;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Worker level cache of parsed ORC and Parquet file metadata. Entries are keyed
+ * by path, size and modification time of the file, and are weighed by the size
+ * of the serialized metadata.
+ */
+public class FileMetadataCache
+{
+    // estimated serialized size of the metadata of a single Parquet column chunk
+    private static final long PARQUET_COLUMN_CHUNK_METADATA_SIZE = 200;
+
+    private final Optional<Cache<CacheKey, CachedMetadata>> cache;
+    private final FileFormatDataSourceStats stats;
+
+    @Inject
+    public FileMetadataCache(HiveConfig hiveConfig, FileFormatDataSourceStats stats)
+    {
+        this(hiveConfig.getFileMetadataCacheMaxSize(), stats);
+    }
+
+    public FileMetadataCache(DataSize maxSize, FileFormatDataSourceStats stats)
+    {
+        requireNonNull(maxSize, "maxSize is null");
+        this.stats = requireNonNull(stats, "stats is null");
+        if (maxSize.toBytes() == 0) {
+            this.cache = Optional.empty();
+        }
+        else {
+            this.cache = Optional.of(CacheBuilder.newBuilder()
+                    .maximumWeight(maxSize.toBytes())
+                    .weigher((Weigher<CacheKey, CachedMetadata>) (key, value) -> value.getWeight())
+                    .build());
+        }
+    }
+
+    public static FileMetadataCache disabled(FileFormatDataSourceStats stats)
+    {
+        return new FileMetadataCache(new DataSize(0, DataSize.Unit.BYTE), stats);
+    }
+
+    public OrcMetadataCache getOrcMetadataCache(Path path, long fileSize, long fileModifiedTime)
+    {
+        if (!cache.isPresent()) {
+            return OrcMetadataCache.NONE;
+        }
+        return new FileOrcMetadataCache(new FileId(path.toString(), fileSize, fileModifiedTime));
+    }
+
+    public ParquetMetadata getParquetMetadata(Path path, long fileSize, long fileModifiedTime, MetadataLoader<ParquetMetadata> loader)
+            throws IOException
+    {
+        CacheKey key = new CacheKey(new FileId(path.toString(), fileSize, fileModifiedTime), MetadataKind.PARQUET_FOOTER, 0, 0);
+        return get(key, loader, FileMetadataCache::getParquetMetadataWeight);
+    }
+
+    @Managed
+    public void flushCache()
+    {
+        cache.ifPresent(Cache::invalidateAll);
+    }
+
+    @Managed
+    public long getSize()
+    {
+        return cache.map(Cache::size).orElse(0L);
+    }
+
+    private <T> T get(CacheKey key, MetadataLoader<T> loader, ToLongFunction<T> weigher)
+            throws IOException
+    {
+        if (!cache.isPresent()) {
+            return loader.load();
+        }
+
+        CachedMetadata cached = cache.get().getIfPresent(key);
+        if (cached != null) {
+            stats.addMetadataCacheHit();
+            @SuppressWarnings("unchecked")
+            T value = (T) cached.getValue();
+            return value;
+        }
+
+        stats.addMetadataCacheMiss();
+        T value = loader.load();
+        put(key, value, weigher.applyAsLong(value));
+        return value;
+    }
+
+    private void put(CacheKey key, Object value, long weight)
+    {
+        cache.ifPresent(metadataCache -> metadataCache.put(key, new CachedMetadata(value, weight)));
+    }
+
+    private static long getParquetMetadataWeight(ParquetMetadata parquetMetadata)
+    {
+        long columnChunks = 0;
+        for (BlockMetaData block : parquetMetadata.getBlocks()) {
+            columnChunks += block.getColumns().size();
+        }
+        return (columnChunks + parquetMetadata.getFileMetaData().getSchema().getColumns().size()) * PARQUET_COLUMN_CHUNK_METADATA_SIZE;
+    }
+
+    public interface MetadataLoader<T>
+    {
+        T load()
+                throws IOException;
+    }
+
+    private class FileOrcMetadataCache
+            implements OrcMetadataCache
+    {
+        private final FileId fileId;
+
+        public FileOrcMetadataCache(FileId fileId)
+        {
+            this.fileId = requireNonNull(fileId, "fileId is null");
+        }
+
+        @Override
+        public OrcFileTail getFileTail(OrcMetadataCache.MetadataLoader<OrcFileTail> loader)
+                throws IOException
+        {
+            return get(new CacheKey(fileId, MetadataKind.ORC_FILE_TAIL, 0, 0), loader::load, OrcFileTail::getSerializedSize);
+        }
+
+        @Override
+        public StripeFooter getStripeFooter(long stripeOffset, int serializedSize, OrcMetadataCache.MetadataLoader<StripeFooter> loader)
+                throws IOException
+        {
+            return get(new CacheKey(fileId, MetadataKind.ORC_STRIPE_FOOTER, stripeOffset, 0), loader::load, stripeFooter -> serializedSize);
+        }
+
+        @Override
+        public Optional<List<RowGroupIndex>> getRowGroupIndexes(long stripeOffset, StreamId streamId)
+        {
+            CachedMetadata cached = cache.get().getIfPresent(rowGroupIndexesKey(stripeOffset, streamId));
+            if (cached == null) {
+                stats.addMetadataCacheMiss();
+                return Optional.empty();
+            }
+            stats.addMetadataCacheHit();
+            @SuppressWarnings("unchecked")
+            List<RowGroupIndex> rowGroupIndexes = (List<RowGroupIndex>) cached.getValue();
+            return Optional.of(rowGroupIndexes);
+        }
+
+        @Override
+        public void putRowGroupIndexes(long stripeOffset, StreamId streamId, List<RowGroupIndex> rowGroupIndexes, long serializedSize)
+        {
+            put(rowGroupIndexesKey(stripeOffset, streamId), rowGroupIndexes, serializedSize);
+        }
+
+        private CacheKey rowGroupIndexesKey(long stripeOffset, StreamId streamId)
+        {
+            requireNonNull(streamId, "streamId is null");
+            if (streamId.getStreamKind() != ROW_INDEX) {
+                throw new IllegalArgumentException("Expected a row index stream: " + streamId);
+            }
+            return new CacheKey(fileId, MetadataKind.ORC_ROW_GROUP_INDEXES, stripeOffset, streamId.getColumn());
+        }
+    }
+
+    private enum MetadataKind
+    {
+        ORC_FILE_TAIL,
+        ORC_STRIPE_FOOTER,
+        ORC_ROW_GROUP_INDEXES,
+        PARQUET_FOOTER,
+    }
+
+    private static final class FileId
+    {
+        private final String path;
+        private final long fileSize;
+        private final long fileModifiedTime;
+
+        public FileId(String path, long fileSize, long fileModifiedTime)
+        {
+            this.path = requireNonNull(path, "path is null");
+            this.fileSize = fileSize;
+            this.fileModifiedTime = fileModifiedTime;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            FileId that = (FileId) o;
+            return fileSize == that.fileSize &&
+                    fileModifiedTime == that.fileModifiedTime &&
+                    path.equals(that.path);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(path, fileSize, fileModifiedTime);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("path", path)
+                    .add("fileSize", fileSize)
+                    .add("fileModifiedTime", fileModifiedTime)
+                    .toString();
+        }
+    }
+
+    private static final class CacheKey
+    {
+        private final FileId fileId;
+        private final MetadataKind kind;
+        private final long offset;
+        private final int column;
+
+        public CacheKey(FileId fileId, MetadataKind kind, long offset, int column)
+        {
+            this.fileId = requireNonNull(fileId, "fileId is null");
+            this.kind = requireNonNull(kind, "kind is null");
+            this.offset = offset;
+            this.column = column;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey that = (CacheKey) o;
+            return offset == that.offset &&
+                    column == that.column &&
+                    kind == that.kind &&
+                    fileId.equals(that.fileId);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(fileId, kind, offset, column);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("fileId", fileId)
+                    .add("kind", kind)
+                    .add("offset", offset)
+                    .add("column", column)
+                    .toString();
+        }
+    }
+
+    private static final class CachedMetadata
+    {
+        private final Object value;
+        private final int weight;
+
+        public CachedMetadata(Object value, long weight)
+        {
+            this.value = requireNonNull(value, "value is null");
+            this.weight = toIntExact(weight);
+        }
+
+        public Object getValue()
+        {
+            return value;
+        }
+
+        public int getWeight()
+        {
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.util.Locale.ENGLISH;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Aggregation pushed into a table scan. Each split produces a single row with
+ * the partial result of every aggregation over the rows of the split.
+ */
+public final class HiveAggregation
+{
+    public enum Function
+    {
+        COUNT,
+        MIN,
+        MAX,
+    }
+
+    private final Function function;
+    private final Optional<HiveColumnHandle> input;
+    private final HiveColumnHandle output;
+
+    @JsonCreator
+    public HiveAggregation(
+            @JsonProperty("function") Function function,
+            @JsonProperty("input") Optional<HiveColumnHandle> input,
+            @JsonProperty("output") HiveColumnHandle output)
+    {
+        this.function = requireNonNull(function, "function is null");
+        this.input = requireNonNull(input, "input is null");
+        this.output = requireNonNull(output, "output is null");
+    }
+
+    @JsonProperty
+    public Function getFunction()
+    {
+        return function;
+    }
+
+    /**
+     * Empty for {@code count(*)}.
+     */
+    @JsonProperty
+    public Optional<HiveColumnHandle> getInput()
+    {
+        return input;
+    }
+
+    @JsonProperty
+    public HiveColumnHandle getOutput()
+    {
+        return output;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        HiveAggregation that = (HiveAggregation) o;
+        return function == that.function &&
+                Objects.equals(input, that.input) &&
+                Objects.equals(output, that.output);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(function, input, output);
+    }
+
+    @Override
+    public String toString()
+    {
+        return function.name().toLowerCase(ENGLISH) + "(" + input.map(HiveColumnHandle::getName).orElse("*") + ")";
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.orc.metadata.statistics.ColumnStatistics;
+import io.prestosql.orc.metadata.statistics.DateStatistics;
+import io.prestosql.orc.metadata.statistics.IntegerStatistics;
+import io.prestosql.plugin.hive.HiveAggregation.Function;
+import io.prestosql.plugin.hive.HivePageSourceProvider.ColumnMapping;
+import io.prestosql.plugin.hive.orc.OrcPageSource;
+import io.prestosql.plugin.hive.parquet.ParquetPageSource;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.connector.ConnectorPageSource;
+import io.prestosql.spi.type.Type;
+import io.prestosql.spi.type.TypeManager;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.plugin.hive.HiveAggregation.Function.COUNT;
+import static io.prestosql.plugin.hive.HiveAggregation.Function.MIN;
+import static io.prestosql.plugin.hive.HivePageSourceProvider.ColumnMappingKind.PREFILLED;
+import static io.prestosql.spi.predicate.Utils.nativeValueToBlock;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DateType.DATE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.SmallintType.SMALLINT;
+import static io.prestosql.spi.type.TinyintType.TINYINT;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Produces a single row with the partial results of the aggregations pushed into the table scan,
+ * computed over the rows of the split. The results are taken from the row counts of the ORC stripes
+ * or Parquet row groups, the ORC stripe statistics and the partition keys when possible, and from
+ * the data of the split otherwise.
+ */
+public class HiveAggregationPageSource
+        implements ConnectorPageSource
+{
+    private final List<HiveAggregation> aggregations;
+    private final int[] outputAggregations;
+    private final int[] inputChannels;
+    private final Type[] inputTypes;
+    private final ConnectorPageSource delegate;
+
+    private boolean statisticsChecked;
+    private boolean finished;
+
+    private long rowCount;
+    private final long[] nonNullCounts;
+    private final Block[] values;
+
+    public HiveAggregationPageSource(
+            List<HiveAggregation> aggregations,
+            List<HiveColumnHandle> columns,
+            List<HiveColumnHandle> inputColumns,
+            TypeManager typeManager,
+            ConnectorPageSource delegate)
+    {
+        this.aggregations = ImmutableList.copyOf(requireNonNull(aggregations, "aggregations is null"));
+        requireNonNull(columns, "columns is null");
+        requireNonNull(inputColumns, "inputColumns is null");
+        requireNonNull(typeManager, "typeManager is null");
+        this.delegate = requireNonNull(delegate, "delegate is null");
+
+        List<HiveColumnHandle> outputs = aggregations.stream()
+                .map(HiveAggregation::getOutput)
+                .collect(toImmutableList());
+        outputAggregations = new int[columns.size()];
+        for (int channel = 0; channel < columns.size(); channel++) {
+            outputAggregations[channel] = outputs.indexOf(columns.get(channel));
+            checkArgument(outputAggregations[channel] >= 0, "Column is not an aggregation output: %s", columns.get(channel));
+        }
+
+        inputChannels = new int[aggregations.size()];
+        inputTypes = new Type[aggregations.size()];
+        for (int i = 0; i < aggregations.size(); i++) {
+            Optional<HiveColumnHandle> input = aggregations.get(i).getInput();
+            inputChannels[i] = input.map(inputColumns::indexOf).orElse(-1);
+            inputTypes[i] = input.map(column -> typeManager.getType(column.getTypeSignature())).orElse(BIGINT);
+            checkArgument(!input.isPresent() || inputChannels[i] >= 0, "Input column is missing: %s", input);
+        }
+
+        nonNullCounts = new long[aggregations.size()];
+        values = new Block[aggregations.size()];
+    }
+
+    @Override
+    public long getCompletedBytes()
+    {
+        return delegate.getCompletedBytes();
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return delegate.getReadTimeNanos();
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return finished;
+    }
+
+    @Override
+    public Page getNextPage()
+    {
+        if (finished) {
+            return null;
+        }
+
+        if (!statisticsChecked) {
+            statisticsChecked = true;
+            Optional<List<Block>> results = getResultsFromStatistics();
+            if (results.isPresent()) {
+                return buildResultPage(results.get());
+            }
+        }
+
+        Page page = delegate.getNextPage();
+        if (page != null) {
+            addInput(page);
+        }
+        if (!delegate.isFinished()) {
+            return null;
+        }
+
+        ImmutableList.Builder<Block> results = ImmutableList.builder();
+        for (int i = 0; i < aggregations.size(); i++) {
+            HiveAggregation aggregation = aggregations.get(i);
+            if (aggregation.getFunction() == COUNT) {
+                results.add(nativeValueToBlock(BIGINT, aggregation.getInput().isPresent() ? nonNullCounts[i] : rowCount));
+            }
+            else if (values[i] == null) {
+                results.add(nativeValueToBlock(inputTypes[i], null));
+            }
+            else {
+                results.add(values[i]);
+            }
+        }
+        return buildResultPage(results.build());
+    }
+
+    private void addInput(Page page)
+    {
+        rowCount += page.getPositionCount();
+        for (int i = 0; i < aggregations.size(); i++) {
+            if (inputChannels[i] < 0) {
+                continue;
+            }
+            Function function = aggregations.get(i).getFunction();
+            Type type = inputTypes[i];
+            Block block = page.getBlock(inputChannels[i]).getLoadedBlock();
+            for (int position = 0; position < block.getPositionCount(); position++) {
+                if (block.isNull(position)) {
+                    continue;
+                }
+                nonNullCounts[i]++;
+                if (function == COUNT) {
+                    continue;
+                }
+                if (values[i] == null) {
+                    values[i] = block.getSingleValueBlock(position);
+                    continue;
+                }
+                int comparison = type.compareTo(block, position, values[i], 0);
+                if (function == MIN ? comparison < 0 : comparison > 0) {
+                    values[i] = block.getSingleValueBlock(position);
+                }
+            }
+        }
+    }
+
+    private Optional<List<Block>> getResultsFromStatistics()
+    {
+        if (!(delegate instanceof HivePageSource)) {
+            return Optional.empty();
+        }
+        HivePageSource hivePageSource = (HivePageSource) delegate;
+        if (hivePageSource.hasBucketAdaptation()) {
+            return Optional.empty();
+        }
+
+        ConnectorPageSource fileSource = hivePageSource.getPageSource();
+        OptionalLong splitRowCount = getSplitRowCount(fileSource);
+        if (!splitRowCount.isPresent()) {
+            return Optional.empty();
+        }
+
+        ImmutableList.Builder<Block> results = ImmutableList.builder();
+        for (int i = 0; i < aggregations.size(); i++) {
+            HiveAggregation aggregation = aggregations.get(i);
+            if (!aggregation.getInput().isPresent()) {
+                results.add(nativeValueToBlock(BIGINT, splitRowCount.getAsLong()));
+                continue;
+            }
+            Optional<Block> result = getResultFromStatistics(aggregation.getFunction(), inputTypes[i], inputChannels[i], splitRowCount.getAsLong(), hivePageSource, fileSource);
+            if (!result.isPresent()) {
+                return Optional.empty();
+            }
+            results.add(result.get());
+        }
+        return Optional.of(results.build());
+    }
+
+    private static Optional<Block> getResultFromStatistics(Function function, Type type, int channel, long splitRowCount, HivePageSource hivePageSource, ConnectorPageSource fileSource)
+    {
+        ColumnMapping columnMapping = hivePageSource.getColumnMappings().get(channel);
+        if (columnMapping.getCoercionFrom().isPresent()) {
+            return Optional.empty();
+        }
+
+        if (columnMapping.getKind() == PREFILLED) {
+            Object value = hivePageSource.getPrefilledValue(channel);
+            if (function == COUNT) {
+                return Optional.of(nativeValueToBlock(BIGINT, value == null ? 0 : splitRowCount));
+            }
+            return Optional.of(nativeValueToBlock(type, splitRowCount == 0 ? null : value));
+        }
+
+        if (!(fileSource instanceof OrcPageSource)) {
+            return Optional.empty();
+        }
+        Optional<ColumnStatistics> statistics = ((OrcPageSource) fileSource).getSplitColumnStatistics(columnMapping.getIndex());
+        if (!statistics.isPresent() || !statistics.get().hasNumberOfValues()) {
+            return Optional.empty();
+        }
+        long nonNullCount = statistics.get().getNumberOfValues();
+        if (function == COUNT) {
+            return Optional.of(nativeValueToBlock(BIGINT, nonNullCount));
+        }
+        if (nonNullCount == 0) {
+            return Optional.of(nativeValueToBlock(type, null));
+        }
+
+        Long value = null;
+        if (type.equals(BIGINT) || type.equals(INTEGER) || type.equals(SMALLINT) || type.equals(TINYINT)) {
+            IntegerStatistics integerStatistics = statistics.get().getIntegerStatistics();
+            if (integerStatistics != null) {
+                value = function == MIN ? integerStatistics.getMin() : integerStatistics.getMax();
+            }
+        }
+        else if (type.equals(DATE)) {
+            DateStatistics dateStatistics = statistics.get().getDateStatistics();
+            if (dateStatistics != null) {
+                Integer days = function == MIN ? dateStatistics.getMin() : dateStatistics.getMax();
+                value = days == null ? null : days.longValue();
+            }
+        }
+        return Optional.ofNullable(value).map(nativeValue -> nativeValueToBlock(type, nativeValue));
+    }
+
+    private static OptionalLong getSplitRowCount(ConnectorPageSource fileSource)
+    {
+        if (fileSource instanceof OrcPageSource) {
+            return OptionalLong.of(((OrcPageSource) fileSource).getSplitRowCount());
+        }
+        if (fileSource instanceof ParquetPageSource) {
+            return OptionalLong.of(((ParquetPageSource) fileSource).getSplitRowCount());
+        }
+        return OptionalLong.empty();
+    }
+
+    private Page buildResultPage(List<Block> results)
+    {
+        finished = true;
+        Block[] blocks = new Block[outputAggregations.length];
+        for (int channel = 0; channel < blocks.length; channel++) {
+            blocks[channel] = results.get(outputAggregations[channel]);
+        }
+        return new Page(1, blocks);
+    }
+
+    @Override
+    public long getSystemMemoryUsage()
+    {
+        return delegate.getSystemMemoryUsage();
+    }
+
+    @Override
+    public CompletableFuture<?> isBlocked()
+    {
+        return delegate.isBlocked();
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        delegate.close();
+    }
+}
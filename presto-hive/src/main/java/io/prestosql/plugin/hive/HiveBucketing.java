@@ -22,11 +22,13 @@ import com.google.common.primitives.Shorts;
 import com.google.common.primitives.SignedBytes;
 import io.airlift.slice.Slice;
 import io.prestosql.plugin.hive.metastore.Column;
+import io.prestosql.plugin.hive.metastore.SortingColumn;
 import io.prestosql.plugin.hive.metastore.Table;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.NullableValue;
 import io.prestosql.spi.predicate.TupleDomain;
@@ -38,6 +40,7 @@ import org.apache.hadoop.hive.serde2.typeinfo.PrimitiveTypeInfo;
 import org.apache.hadoop.hive.serde2.typeinfo.TypeInfo;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -49,6 +52,8 @@ import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.base.Preconditions.checkArgument;
 import static io.prestosql.plugin.hive.HiveColumnHandle.BUCKET_COLUMN_NAME;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_INVALID_METADATA;
+import static io.prestosql.plugin.hive.HiveSessionProperties.isBucketExecutionEnabled;
+import static io.prestosql.plugin.hive.HiveSessionProperties.isSortedReadingEnabled;
 import static io.prestosql.plugin.hive.HiveUtil.getRegularColumnHandles;
 import static java.lang.Double.doubleToLongBits;
 import static java.lang.Float.floatToIntBits;
@@ -295,7 +300,32 @@ final class HiveBucketing
         }
 
         int bucketCount = hiveBucketProperty.get().getBucketCount();
-        return Optional.of(new HiveBucketHandle(bucketColumns.build(), bucketCount, bucketCount));
+        return Optional.of(new HiveBucketHandle(bucketColumns.build(), bucketCount, bucketCount, hiveBucketProperty.get().getSortedBy()));
+    }
+
+    /**
+     * Returns the length of the shortest prefix of the sort columns that covers all bucketing columns,
+     * or empty if the sort order of the table cannot be exposed to the engine. A value of the bucketing
+     * columns must be stored in a single file, so only one partition may be read. The split loader
+     * verifies that every bucket of that partition has a single file.
+     */
+    public static OptionalInt getSortedBucketGroupingPrefix(ConnectorSession session, HiveBucketHandle bucketHandle, int partitionCount)
+    {
+        if (!isSortedReadingEnabled(session) || !isBucketExecutionEnabled(session) || partitionCount != 1) {
+            return OptionalInt.empty();
+        }
+
+        Set<String> uncoveredBucketColumns = bucketHandle.getColumns().stream()
+                .map(HiveColumnHandle::getName)
+                .collect(Collectors.toCollection(HashSet::new));
+        List<SortingColumn> sortedBy = bucketHandle.getSortedBy();
+        for (int i = 0; i < sortedBy.size(); i++) {
+            uncoveredBucketColumns.remove(sortedBy.get(i).getColumnName());
+            if (uncoveredBucketColumns.isEmpty()) {
+                return OptionalInt.of(i + 1);
+            }
+        }
+        return OptionalInt.empty();
     }
 
     public static Optional<HiveBucketFilter> getHiveBucketFilter(Table table, TupleDomain<ColumnHandle> effectivePredicate)
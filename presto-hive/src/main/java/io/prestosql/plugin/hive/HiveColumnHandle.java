@@ -45,6 +45,9 @@ public class HiveColumnHandle
     public static final HiveType BUCKET_HIVE_TYPE = HIVE_INT;
     public static final TypeSignature BUCKET_TYPE_SIGNATURE = BUCKET_HIVE_TYPE.getTypeSignature();
 
+    public static final int AGGREGATION_COLUMN_INDEX = -13;
+    public static final String AGGREGATION_COLUMN_NAME_PREFIX = "$aggregation_";
+
     private static final String UPDATE_ROW_ID_COLUMN_NAME = "$shard_row_id";
 
     public enum ColumnType
@@ -185,6 +188,14 @@ public class HiveColumnHandle
         return new HiveColumnHandle(BUCKET_COLUMN_NAME, BUCKET_HIVE_TYPE, BUCKET_TYPE_SIGNATURE, BUCKET_COLUMN_INDEX, SYNTHESIZED, Optional.empty());
     }
 
+    /**
+     * The column holding the partial result of an aggregation pushed into the table scan.
+     */
+    public static HiveColumnHandle aggregationColumnHandle(int ordinal, HiveType hiveType)
+    {
+        return new HiveColumnHandle(AGGREGATION_COLUMN_NAME_PREFIX + ordinal, hiveType, hiveType.getTypeSignature(), AGGREGATION_COLUMN_INDEX, SYNTHESIZED, Optional.empty());
+    }
+
     public static boolean isPathColumnHandle(HiveColumnHandle column)
     {
         return column.getHiveColumnIndex() == PATH_COLUMN_INDEX;
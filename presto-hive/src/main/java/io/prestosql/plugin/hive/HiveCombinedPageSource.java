@@ -0,0 +1,121 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.connector.ConnectorPageSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads the files of a combined split one after another. The page source of a file is
+ * only created once the previous file is exhausted, so a single file is open at a time.
+ */
+public class HiveCombinedPageSource
+        implements ConnectorPageSource
+{
+    private final Iterator<Supplier<ConnectorPageSource>> remainingSources;
+
+    private ConnectorPageSource current;
+    private long completedBytes;
+    private long readTimeNanos;
+    private boolean closed;
+
+    public HiveCombinedPageSource(List<Supplier<ConnectorPageSource>> sources)
+    {
+        this.remainingSources = ImmutableList.copyOf(requireNonNull(sources, "sources is null")).iterator();
+    }
+
+    @Override
+    public long getCompletedBytes()
+    {
+        return completedBytes + (current == null ? 0 : current.getCompletedBytes());
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return readTimeNanos + (current == null ? 0 : current.getReadTimeNanos());
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return closed || (current == null && !remainingSources.hasNext());
+    }
+
+    @Override
+    public Page getNextPage()
+    {
+        if (closed) {
+            return null;
+        }
+        if (current == null) {
+            if (!remainingSources.hasNext()) {
+                return null;
+            }
+            current = remainingSources.next().get();
+        }
+
+        Page page = current.getNextPage();
+        if (current.isFinished()) {
+            closeCurrent();
+        }
+        return page;
+    }
+
+    @Override
+    public long getSystemMemoryUsage()
+    {
+        return current == null ? 0 : current.getSystemMemoryUsage();
+    }
+
+    @Override
+    public CompletableFuture<?> isBlocked()
+    {
+        return current == null ? NOT_BLOCKED : current.isBlocked();
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        closed = true;
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+    }
+
+    private void closeCurrent()
+    {
+        completedBytes += current.getCompletedBytes();
+        readTimeNanos += current.getReadTimeNanos();
+        try {
+            current.close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        current = null;
+    }
+}
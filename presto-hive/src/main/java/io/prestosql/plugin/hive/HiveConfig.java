@@ -60,11 +60,13 @@ public class HiveConfig
 
     private DataSize maxSplitSize = new DataSize(64, MEGABYTE);
     private int maxPartitionsPerScan = 100_000;
+    private int maxPartitionsForEagerLoad = 100_000;
     private int maxOutstandingSplits = 1_000;
     private DataSize maxOutstandingSplitsSize = new DataSize(256, MEGABYTE);
     private int maxSplitIteratorThreads = 1_000;
     private int minPartitionBatchSize = 10;
     private int maxPartitionBatchSize = 100;
+    private int partitionBatchConcurrency = 4;
     private int maxInitialSplits = 200;
     private int splitLoaderConcurrency = 4;
     private Integer maxSplitsPerSecond;
@@ -100,6 +102,7 @@ public class HiveConfig
     private int maxPartitionsPerWriter = 100;
     private int maxOpenSortFiles = 50;
     private int writeValidationThreads = 16;
+    private int writerSortMergeThreads = 8;
 
     private List<String> resourceConfigFiles = ImmutableList.of();
 
@@ -108,6 +111,7 @@ public class HiveConfig
     private boolean useParquetColumnNames;
     private boolean failOnCorruptedParquetStatistics = true;
     private DataSize parquetMaxReadBlockSize = new DataSize(16, MEGABYTE);
+    private int parquetReadAheadRowGroups = 1;
 
     private boolean assumeCanonicalPartitionKeys;
 
@@ -120,6 +124,7 @@ public class HiveConfig
     private DataSize orcStreamBufferSize = new DataSize(8, MEGABYTE);
     private DataSize orcMaxReadBlockSize = new DataSize(16, MEGABYTE);
     private boolean orcLazyReadSmallRanges = true;
+    private int orcReadAheadStripes = 1;
     private boolean orcWriteLegacyVersion;
     private double orcWriterValidationPercentage;
     private OrcWriteValidationMode orcWriterValidationMode = OrcWriteValidationMode.BOTH;
@@ -136,6 +141,8 @@ public class HiveConfig
 
     private boolean bucketExecutionEnabled = true;
     private boolean sortedWritingEnabled = true;
+    private boolean sortedReadingEnabled;
+    private boolean combineSmallFiles;
 
     private int fileSystemMaxCacheSize = 1000;
 
@@ -160,6 +167,8 @@ public class HiveConfig
     private Duration fileStatusCacheExpireAfterWrite = new Duration(1, TimeUnit.MINUTES);
     private long fileStatusCacheMaxSize = 1000 * 1000;
     private List<String> fileStatusCacheTables = ImmutableList.of();
+    private DataSize fileMetadataCacheMaxSize = new DataSize(64, MEGABYTE);
+    private int readAheadThreads = 16;
 
     public int getMaxInitialSplits()
     {
@@ -326,6 +335,20 @@ public class HiveConfig
         return this;
     }
 
+    @Min(1)
+    public int getMaxPartitionsForEagerLoad()
+    {
+        return maxPartitionsForEagerLoad;
+    }
+
+    @Config("hive.max-partitions-for-eager-load")
+    @ConfigDescription("Maximum number of partitions loaded during planning. Partitions of larger scans are enumerated lazily during split generation")
+    public HiveConfig setMaxPartitionsForEagerLoad(int maxPartitionsForEagerLoad)
+    {
+        this.maxPartitionsForEagerLoad = maxPartitionsForEagerLoad;
+        return this;
+    }
+
     @Min(1)
     public int getMaxOutstandingSplits()
     {
@@ -446,6 +469,20 @@ public class HiveConfig
         return this;
     }
 
+    @Min(1)
+    public int getPartitionBatchConcurrency()
+    {
+        return partitionBatchConcurrency;
+    }
+
+    @Config("hive.metastore.partition-batch-concurrency")
+    @ConfigDescription("Number of partition metadata batches fetched from the metastore ahead of split generation")
+    public HiveConfig setPartitionBatchConcurrency(int partitionBatchConcurrency)
+    {
+        this.partitionBatchConcurrency = partitionBatchConcurrency;
+        return this;
+    }
+
     @NotNull
     public List<String> getResourceConfigFiles()
     {
@@ -639,6 +676,20 @@ public class HiveConfig
         return this;
     }
 
+    @Min(1)
+    public int getWriterSortMergeThreads()
+    {
+        return writerSortMergeThreads;
+    }
+
+    @Config("hive.writer-sort-merge-threads")
+    @ConfigDescription("Number of threads used for merging writer temporary files of sorted tables")
+    public HiveConfig setWriterSortMergeThreads(int writerSortMergeThreads)
+    {
+        this.writerSortMergeThreads = writerSortMergeThreads;
+        return this;
+    }
+
     public String getDomainSocketPath()
     {
         return domainSocketPath;
@@ -770,6 +821,20 @@ public class HiveConfig
         return this;
     }
 
+    @Min(0)
+    public int getOrcReadAheadStripes()
+    {
+        return orcReadAheadStripes;
+    }
+
+    @Config("hive.orc.read-ahead-stripes")
+    @ConfigDescription("Number of ORC stripes to read in the background while the current stripe is decoded")
+    public HiveConfig setOrcReadAheadStripes(int orcReadAheadStripes)
+    {
+        this.orcReadAheadStripes = orcReadAheadStripes;
+        return this;
+    }
+
     public boolean isOrcBloomFiltersEnabled()
     {
         return orcBloomFiltersEnabled;
@@ -917,6 +982,20 @@ public class HiveConfig
         return this;
     }
 
+    @Min(0)
+    public int getParquetReadAheadRowGroups()
+    {
+        return parquetReadAheadRowGroups;
+    }
+
+    @Config("hive.parquet.read-ahead-row-groups")
+    @ConfigDescription("Number of Parquet row groups to read in the background while the current row group is decoded")
+    public HiveConfig setParquetReadAheadRowGroups(int parquetReadAheadRowGroups)
+    {
+        this.parquetReadAheadRowGroups = parquetReadAheadRowGroups;
+        return this;
+    }
+
     public boolean isOptimizeMismatchedBucketCount()
     {
         return optimizeMismatchedBucketCount;
@@ -965,6 +1044,34 @@ public class HiveConfig
         return this;
     }
 
+    @NotNull
+    public DataSize getFileMetadataCacheMaxSize()
+    {
+        return fileMetadataCacheMaxSize;
+    }
+
+    @Config("hive.file-metadata-cache.max-size")
+    @ConfigDescription("Maximum size of the worker cache of ORC and Parquet file footers and indexes; zero disables the cache")
+    public HiveConfig setFileMetadataCacheMaxSize(DataSize fileMetadataCacheMaxSize)
+    {
+        this.fileMetadataCacheMaxSize = fileMetadataCacheMaxSize;
+        return this;
+    }
+
+    @Min(1)
+    public int getReadAheadThreads()
+    {
+        return readAheadThreads;
+    }
+
+    @Config("hive.read-ahead-threads")
+    @ConfigDescription("Number of threads used to read ORC stripes and Parquet row groups ahead")
+    public HiveConfig setReadAheadThreads(int readAheadThreads)
+    {
+        this.readAheadThreads = readAheadThreads;
+        return this;
+    }
+
     public enum HiveMetastoreAuthenticationType
     {
         NONE,
@@ -1083,6 +1190,32 @@ public class HiveConfig
         return this;
     }
 
+    public boolean isSortedReadingEnabled()
+    {
+        return sortedReadingEnabled;
+    }
+
+    @Config("hive.sorted-reading")
+    @ConfigDescription("Expose the sort order of bucketed sorted tables; fails reads of buckets with more than one file")
+    public HiveConfig setSortedReadingEnabled(boolean sortedReadingEnabled)
+    {
+        this.sortedReadingEnabled = sortedReadingEnabled;
+        return this;
+    }
+
+    public boolean isCombineSmallFiles()
+    {
+        return combineSmallFiles;
+    }
+
+    @Config("hive.combine-small-files")
+    @ConfigDescription("Combine whole files of a partition that are smaller than the max split size into a single split")
+    public HiveConfig setCombineSmallFiles(boolean combineSmallFiles)
+    {
+        this.combineSmallFiles = combineSmallFiles;
+        return this;
+    }
+
     public int getFileSystemMaxCacheSize()
     {
         return fileSystemMaxCacheSize;
@@ -43,6 +43,8 @@ import io.prestosql.plugin.hive.security.AccessControlMetadata;
 import io.prestosql.plugin.hive.statistics.HiveStatisticsProvider;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.block.Block;
+import io.prestosql.spi.connector.AggregateFunction;
+import io.prestosql.spi.connector.AggregationApplicationResult;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ColumnMetadata;
 import io.prestosql.spi.connector.ConnectorInsertTableHandle;
@@ -60,13 +62,19 @@ import io.prestosql.spi.connector.ConnectorViewDefinition;
 import io.prestosql.spi.connector.Constraint;
 import io.prestosql.spi.connector.ConstraintApplicationResult;
 import io.prestosql.spi.connector.DiscretePredicates;
+import io.prestosql.spi.connector.GroupingProperty;
 import io.prestosql.spi.connector.InMemoryRecordSet;
+import io.prestosql.spi.connector.LocalProperty;
+import io.prestosql.spi.connector.ProjectionApplicationResult.Assignment;
 import io.prestosql.spi.connector.RecordCursor;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.connector.SchemaTablePrefix;
+import io.prestosql.spi.connector.SortingProperty;
 import io.prestosql.spi.connector.SystemTable;
 import io.prestosql.spi.connector.TableNotFoundException;
 import io.prestosql.spi.connector.ViewNotFoundException;
+import io.prestosql.spi.expression.ConnectorExpression;
+import io.prestosql.spi.expression.Variable;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.NullableValue;
 import io.prestosql.spi.predicate.TupleDomain;
@@ -122,12 +130,14 @@ import static io.prestosql.plugin.hive.HiveAnalyzeProperties.getPartitionList;
 import static io.prestosql.plugin.hive.HiveBasicStatistics.createEmptyStatistics;
 import static io.prestosql.plugin.hive.HiveBasicStatistics.createZeroStatistics;
 import static io.prestosql.plugin.hive.HiveBucketing.getHiveBucketHandle;
+import static io.prestosql.plugin.hive.HiveBucketing.getSortedBucketGroupingPrefix;
 import static io.prestosql.plugin.hive.HiveBucketing.isHiveBucketingV1;
 import static io.prestosql.plugin.hive.HiveColumnHandle.BUCKET_COLUMN_NAME;
 import static io.prestosql.plugin.hive.HiveColumnHandle.ColumnType.PARTITION_KEY;
 import static io.prestosql.plugin.hive.HiveColumnHandle.ColumnType.REGULAR;
 import static io.prestosql.plugin.hive.HiveColumnHandle.ColumnType.SYNTHESIZED;
 import static io.prestosql.plugin.hive.HiveColumnHandle.PATH_COLUMN_NAME;
+import static io.prestosql.plugin.hive.HiveColumnHandle.aggregationColumnHandle;
 import static io.prestosql.plugin.hive.HiveColumnHandle.updateRowIdHandle;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_COLUMN_ORDER_MISMATCH;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_CONCURRENT_MODIFICATION_DETECTED;
@@ -169,6 +179,7 @@ import static io.prestosql.plugin.hive.HiveTableProperties.getOrcBloomFilterFpp;
 import static io.prestosql.plugin.hive.HiveTableProperties.getPartitionedBy;
 import static io.prestosql.plugin.hive.HiveTableProperties.getTextFooterSkipCount;
 import static io.prestosql.plugin.hive.HiveTableProperties.getTextHeaderSkipCount;
+import static io.prestosql.plugin.hive.HiveType.HIVE_LONG;
 import static io.prestosql.plugin.hive.HiveType.HIVE_STRING;
 import static io.prestosql.plugin.hive.HiveType.toHiveType;
 import static io.prestosql.plugin.hive.HiveUtil.PRESTO_VIEW_FLAG;
@@ -209,6 +220,10 @@ import static io.prestosql.spi.predicate.TupleDomain.withColumnDomains;
 import static io.prestosql.spi.security.PrincipalType.USER;
 import static io.prestosql.spi.statistics.TableStatisticType.ROW_COUNT;
 import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DateType.DATE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.SmallintType.SMALLINT;
+import static io.prestosql.spi.type.TinyintType.TINYINT;
 import static io.prestosql.spi.type.VarcharType.createUnboundedVarcharType;
 import static java.lang.String.format;
 import static java.util.Locale.ENGLISH;
@@ -622,7 +637,7 @@ public class HiveMetadata
     @Override
     public TableStatistics getTableStatistics(ConnectorSession session, ConnectorTableHandle tableHandle, Constraint constraint)
     {
-        if (!isStatisticsEnabled(session)) {
+        if (!isStatisticsEnabled(session) || ((HiveTableHandle) tableHandle).getAggregations().isPresent()) {
             return TableStatistics.empty();
         }
         Map<String, ColumnHandle> columns = getColumnHandles(session, tableHandle)
@@ -1686,12 +1701,15 @@ public class HiveMetadata
         HiveTableHandle hiveTable = (HiveTableHandle) table;
 
         List<ColumnHandle> partitionColumns = ImmutableList.copyOf(hiveTable.getPartitionColumns());
-        List<HivePartition> partitions = partitionManager.getOrLoadPartitions(metastore, hiveTable);
+        // tables with too many partitions are only described by the constraint the partitions were pruned with,
+        // so that their partitions are enumerated lazily during split generation
+        Optional<List<HivePartition>> eagerPartitions = partitionManager.getOrLoadPartitionsIfEagerlyLoadable(metastore, hiveTable);
+        List<HivePartition> partitions = eagerPartitions.orElse(ImmutableList.of());
 
-        TupleDomain<ColumnHandle> predicate = createPredicate(partitionColumns, partitions);
+        TupleDomain<ColumnHandle> predicate = eagerPartitions.isPresent() ? createPredicate(partitionColumns, partitions) : hiveTable.getEnforcedConstraint();
 
         Optional<DiscretePredicates> discretePredicates = Optional.empty();
-        if (!partitionColumns.isEmpty()) {
+        if (!partitionColumns.isEmpty() && eagerPartitions.isPresent()) {
             // Do not create tuple domains for every partition at the same time!
             // There can be a huge number of partitions so use an iterable so
             // all domains do not need to be in memory at the same time.
@@ -1713,12 +1731,35 @@ public class HiveMetadata
                             .collect(toList())));
         }
 
+        Optional<Set<ColumnHandle>> streamPartitioningColumns = Optional.empty();
+        List<LocalProperty<ColumnHandle>> localProperties = ImmutableList.of();
+        if (tablePartitioning.isPresent()) {
+            HiveBucketHandle bucketHandle = hiveTable.getBucketHandle().get();
+            OptionalInt groupingPrefix = eagerPartitions.isPresent() ? getSortedBucketGroupingPrefix(session, bucketHandle, partitions.size()) : OptionalInt.empty();
+            if (groupingPrefix.isPresent()) {
+                // bucket files are never split and a value of the bucketing columns is stored in a single file,
+                // so a stream is partitioned on the bucketing columns and grouped on any sort prefix covering them,
+                // even though the files it reads one after another are only sorted individually
+                Map<String, ColumnHandle> columnHandles = getColumnHandles(session, table);
+                List<SortingColumn> sortedBy = bucketHandle.getSortedBy();
+                ImmutableList.Builder<LocalProperty<ColumnHandle>> properties = ImmutableList.builder();
+                properties.add(new GroupingProperty<>(sortedBy.subList(0, groupingPrefix.getAsInt()).stream()
+                        .map(column -> columnHandles.get(column.getColumnName()))
+                        .collect(toImmutableList())));
+                for (SortingColumn column : sortedBy.subList(groupingPrefix.getAsInt(), sortedBy.size())) {
+                    properties.add(new SortingProperty<>(columnHandles.get(column.getColumnName()), column.getOrder().getSortOrder()));
+                }
+                streamPartitioningColumns = Optional.of(ImmutableSet.copyOf(bucketHandle.getColumns()));
+                localProperties = properties.build();
+            }
+        }
+
         return new ConnectorTableProperties(
                 predicate,
                 tablePartitioning,
-                Optional.empty(),
+                streamPartitioningColumns,
                 discretePredicates,
-                ImmutableList.of());
+                localProperties);
     }
 
     @Override
@@ -1726,11 +1767,15 @@ public class HiveMetadata
     {
         HiveTableHandle handle = (HiveTableHandle) tableHandle;
         checkArgument(!handle.getAnalyzePartitionValues().isPresent() || constraint.getSummary().isAll(), "Analyze should not have a constraint");
+        if (handle.getAggregations().isPresent()) {
+            return Optional.empty();
+        }
 
         HivePartitionResult partitionResult = partitionManager.getPartitions(metastore, handle, constraint);
         HiveTableHandle newHandle = partitionManager.applyPartitionResult(handle, partitionResult);
 
         if (handle.getPartitions().equals(newHandle.getPartitions()) &&
+                handle.getEnforcedConstraint().equals(newHandle.getEnforcedConstraint()) &&
                 handle.getCompactEffectivePredicate().equals(newHandle.getCompactEffectivePredicate()) &&
                 handle.getBucketFilter().equals(newHandle.getBucketFilter())) {
             return Optional.empty();
@@ -1739,6 +1784,100 @@ public class HiveMetadata
         return Optional.of(new ConstraintApplicationResult<>(newHandle, partitionResult.getUnenforcedConstraint()));
     }
 
+    @Override
+    public Optional<AggregationApplicationResult<ConnectorTableHandle>> applyAggregation(
+            ConnectorSession session,
+            ConnectorTableHandle table,
+            List<AggregateFunction> aggregates,
+            Map<String, ColumnHandle> assignments,
+            List<ColumnHandle> groupingColumns)
+    {
+        HiveTableHandle handle = (HiveTableHandle) table;
+        if (!groupingColumns.isEmpty() ||
+                handle.getAggregations().isPresent() ||
+                handle.getAnalyzePartitionValues().isPresent() ||
+                handle.getBucketFilter().isPresent()) {
+            return Optional.empty();
+        }
+        // predicates on regular columns are only used to skip data, so the splits can contain rows that must not be aggregated
+        boolean onlyPartitionKeysConstrained = handle.getCompactEffectivePredicate().getDomains()
+                .map(domains -> domains.keySet().stream().allMatch(column -> column.getColumnType() == PARTITION_KEY))
+                .orElse(true);
+        if (!onlyPartitionKeysConstrained) {
+            return Optional.empty();
+        }
+
+        ImmutableList.Builder<HiveAggregation> aggregations = ImmutableList.builder();
+        ImmutableList.Builder<ConnectorExpression> projections = ImmutableList.builder();
+        ImmutableList.Builder<Assignment> resultAssignments = ImmutableList.builder();
+        for (int i = 0; i < aggregates.size(); i++) {
+            Optional<HiveAggregation> aggregation = toHiveAggregation(aggregates.get(i), assignments, i);
+            if (!aggregation.isPresent()) {
+                return Optional.empty();
+            }
+            HiveColumnHandle output = aggregation.get().getOutput();
+            Type type = typeManager.getType(output.getTypeSignature());
+            aggregations.add(aggregation.get());
+            projections.add(new Variable(output.getName(), type));
+            resultAssignments.add(new Assignment(output.getName(), output, type));
+        }
+
+        // the splits produce a single row each, so they cannot be used for bucketed execution
+        HiveTableHandle newHandle = new HiveTableHandle(
+                handle.getSchemaName(),
+                handle.getTableName(),
+                handle.getPartitionColumns(),
+                handle.getPartitions(),
+                handle.getCompactEffectivePredicate(),
+                handle.getEnforcedConstraint(),
+                Optional.empty(),
+                handle.getBucketFilter(),
+                handle.getAnalyzePartitionValues(),
+                Optional.of(aggregations.build()));
+        return Optional.of(new AggregationApplicationResult<>(newHandle, projections.build(), resultAssignments.build(), true));
+    }
+
+    private Optional<HiveAggregation> toHiveAggregation(AggregateFunction aggregate, Map<String, ColumnHandle> assignments, int ordinal)
+    {
+        if (aggregate.isDistinct() || aggregate.getInputs().size() > 1) {
+            return Optional.empty();
+        }
+        Optional<HiveColumnHandle> input = Optional.empty();
+        if (!aggregate.getInputs().isEmpty()) {
+            ConnectorExpression expression = aggregate.getInputs().get(0);
+            if (!(expression instanceof Variable)) {
+                return Optional.empty();
+            }
+            input = Optional.of((HiveColumnHandle) assignments.get(((Variable) expression).getName()));
+        }
+
+        switch (aggregate.getFunctionName()) {
+            case "count":
+                return Optional.of(new HiveAggregation(HiveAggregation.Function.COUNT, input, aggregationColumnHandle(ordinal, HIVE_LONG)));
+            case "min":
+            case "max":
+                if (!input.isPresent() || !isMinMaxPushdownSupported(input.get())) {
+                    return Optional.empty();
+                }
+                HiveAggregation.Function function = aggregate.getFunctionName().equals("min") ? HiveAggregation.Function.MIN : HiveAggregation.Function.MAX;
+                return Optional.of(new HiveAggregation(function, input, aggregationColumnHandle(ordinal, input.get().getHiveType())));
+            default:
+                return Optional.empty();
+        }
+    }
+
+    private boolean isMinMaxPushdownSupported(HiveColumnHandle column)
+    {
+        Type type = typeManager.getType(column.getTypeSignature());
+        if (column.getColumnType() == PARTITION_KEY) {
+            // partition keys are constant within a split
+            return type.isOrderable();
+        }
+        // ORC stripe statistics are exact for these types
+        return column.getColumnType() == REGULAR &&
+                (type.equals(BIGINT) || type.equals(INTEGER) || type.equals(SMALLINT) || type.equals(TINYINT) || type.equals(DATE));
+    }
+
     @Override
     public Optional<ConnectorPartitioningHandle> getCommonPartitioningHandle(ConnectorSession session, ConnectorPartitioningHandle left, ConnectorPartitioningHandle right)
     {
@@ -1820,9 +1959,11 @@ public class HiveMetadata
                 Optional.of(new HiveBucketHandle(
                         bucketHandle.getColumns(),
                         bucketHandle.getTableBucketCount(),
-                        hivePartitioningHandle.getBucketCount())),
+                        hivePartitioningHandle.getBucketCount(),
+                        bucketHandle.getSortedBy())),
                 hiveTable.getBucketFilter(),
-                hiveTable.getAnalyzePartitionValues());
+                hiveTable.getAnalyzePartitionValues(),
+                hiveTable.getAggregations());
     }
 
     @VisibleForTesting
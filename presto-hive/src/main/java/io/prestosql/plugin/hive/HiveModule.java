@@ -41,6 +41,7 @@ import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.configuration.ConfigBinder.configBinder;
 import static io.airlift.json.JsonCodecBinder.jsonCodecBinder;
 import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static org.weakref.jmx.guice.ExportBinder.newExporter;
 
 public class HiveModule
@@ -94,6 +95,11 @@ public class HiveModule
 
         binder.bind(FileFormatDataSourceStats.class).in(Scopes.SINGLETON);
         newExporter(binder).export(FileFormatDataSourceStats.class).withGeneratedName();
+        binder.bind(FileMetadataCache.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(FileMetadataCache.class).withGeneratedName();
+        configBinder(binder).bindConfig(LocalDataCacheConfig.class);
+        binder.bind(LocalDataCache.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(LocalDataCache.class).withGeneratedName();
 
         Multibinder<HivePageSourceFactory> pageSourceFactoryBinder = newSetBinder(binder, HivePageSourceFactory.class);
         pageSourceFactoryBinder.addBinding().to(OrcPageSourceFactory.class).in(Scopes.SINGLETON);
@@ -118,6 +124,14 @@ public class HiveModule
         return newCachedThreadPool(daemonThreadsNamed("hive-" + catalogName + "-%s"));
     }
 
+    @ForHiveReadAhead
+    @Singleton
+    @Provides
+    public ExecutorService createReadAheadExecutor(HiveCatalogName catalogName, HiveConfig hiveConfig)
+    {
+        return newFixedThreadPool(hiveConfig.getReadAheadThreads(), daemonThreadsNamed("hive-read-ahead-" + catalogName + "-%s"));
+    }
+
     @Singleton
     @Provides
     public Function<HiveTransactionHandle, SemiTransactionalHiveMetastore> createMetastoreGetter(HiveTransactionManager transactionManager)
@@ -40,6 +40,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.OptionalInt;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
@@ -62,6 +63,7 @@ public class HivePageSinkProvider
     private final boolean immutablePartitions;
     private final LocationService locationService;
     private final ListeningExecutorService writeVerificationExecutor;
+    private final ExecutorService sortMergeExecutor;
     private final JsonCodec<PartitionUpdate> partitionUpdateCodec;
     private final NodeManager nodeManager;
     private final EventClient eventClient;
@@ -99,6 +101,7 @@ public class HivePageSinkProvider
         this.immutablePartitions = config.isImmutablePartitions();
         this.locationService = requireNonNull(locationService, "locationService is null");
         this.writeVerificationExecutor = listeningDecorator(newFixedThreadPool(config.getWriteValidationThreads(), daemonThreadsNamed("hive-write-validation-%s")));
+        this.sortMergeExecutor = newFixedThreadPool(config.getWriterSortMergeThreads(), daemonThreadsNamed("hive-writer-sort-merge-%s"));
         this.partitionUpdateCodec = requireNonNull(partitionUpdateCodec, "partitionUpdateCodec is null");
         this.nodeManager = requireNonNull(nodeManager, "nodeManager is null");
         this.eventClient = requireNonNull(eventClient, "eventClient is null");
@@ -152,6 +155,7 @@ public class HivePageSinkProvider
                 pageSorter,
                 writerSortBufferSize,
                 maxOpenSortFiles,
+                sortMergeExecutor,
                 immutablePartitions,
                 session,
                 nodeManager,
@@ -53,6 +53,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.airlift.slice.Slices.utf8Slice;
 import static io.prestosql.plugin.hive.HiveBucketing.getHiveBucket;
@@ -336,6 +337,25 @@ public class HivePageSource
         return delegate;
     }
 
+    public List<ColumnMapping> getColumnMappings()
+    {
+        return columnMappings;
+    }
+
+    public boolean hasBucketAdaptation()
+    {
+        return bucketAdapter.isPresent();
+    }
+
+    /**
+     * Returns the value of a prefilled column in its native representation, which is null for the Hive null value.
+     */
+    public Object getPrefilledValue(int columnIndex)
+    {
+        checkArgument(columnMappings.get(columnIndex).getKind() == PREFILLED, "column is not prefilled");
+        return prefilledValues[columnIndex];
+    }
+
     private static Function<Block, Block> createCoercer(TypeManager typeManager, HiveType fromHiveType, HiveType toHiveType)
     {
         Type fromType = typeManager.getType(fromHiveType.getTypeSignature());
@@ -538,6 +558,15 @@ public class HivePageSource
             // clear reference to loader to free resources, since load was successful
             block = null;
         }
+
+        @Override
+        public void setSelectedPositions(int[] positions, int offset, int length)
+        {
+            // coercion maps each position to the same position, so only the selected positions need to be loaded
+            if (block instanceof LazyBlock) {
+                ((LazyBlock) block).setSelectedPositions(positions, offset, length);
+            }
+        }
     }
 
     private static final class RowFilterLazyBlockLoader
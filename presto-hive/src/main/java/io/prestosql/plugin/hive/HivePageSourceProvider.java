@@ -42,6 +42,7 @@ import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Properties;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
@@ -91,10 +92,51 @@ public class HivePageSourceProvider
                 .collect(toList());
 
         HiveSplit hiveSplit = (HiveSplit) split;
+        if (!hiveSplit.getCombinedFiles().isEmpty()) {
+            return new HiveCombinedPageSource(hiveSplit.getFileSplits().stream()
+                    .map(fileSplit -> (Supplier<ConnectorPageSource>) () -> createPageSource(transaction, session, fileSplit, table, columns))
+                    .collect(toImmutableList()));
+        }
+
         Path path = new Path(hiveSplit.getPath());
 
         Configuration configuration = hdfsEnvironment.getConfiguration(new HdfsContext(session, hiveSplit.getDatabase(), hiveSplit.getTable()), path);
 
+        if (hiveTable.getAggregations().isPresent()) {
+            List<HiveAggregation> aggregations = hiveTable.getAggregations().get();
+            List<HiveColumnHandle> inputColumns = aggregations.stream()
+                    .map(HiveAggregation::getInput)
+                    .filter(Optional::isPresent)
+                    .map(Optional::get)
+                    .distinct()
+                    .collect(toImmutableList());
+            // every row of the split is aggregated, as only the partition keys can be constrained
+            Optional<ConnectorPageSource> pageSource = createHivePageSource(
+                    cursorProviders,
+                    pageSourceFactories,
+                    configuration,
+                    session,
+                    path,
+                    hiveSplit.getBucketNumber(),
+                    hiveSplit.getStart(),
+                    hiveSplit.getLength(),
+                    hiveSplit.getFileSize(),
+                    hiveSplit.getFileModifiedTime(),
+                    hiveSplit.getSchema(),
+                    TupleDomain.all(),
+                    inputColumns,
+                    hiveSplit.getPartitionKeys(),
+                    hiveStorageTimeZone,
+                    typeManager,
+                    hiveSplit.getColumnCoercions(),
+                    hiveSplit.getBucketConversion(),
+                    false);
+            if (pageSource.isPresent()) {
+                return new HiveAggregationPageSource(aggregations, hiveColumns, inputColumns, typeManager, pageSource.get());
+            }
+            throw new RuntimeException("Could not find a file reader for split " + hiveSplit);
+        }
+
         Optional<ConnectorPageSource> pageSource = createHivePageSource(
                 cursorProviders,
                 pageSourceFactories,
@@ -105,6 +147,7 @@ public class HivePageSourceProvider
                 hiveSplit.getStart(),
                 hiveSplit.getLength(),
                 hiveSplit.getFileSize(),
+                hiveSplit.getFileModifiedTime(),
                 hiveSplit.getSchema(),
                 hiveTable.getCompactEffectivePredicate(),
                 hiveColumns,
@@ -130,6 +173,7 @@ public class HivePageSourceProvider
             long start,
             long length,
             long fileSize,
+            long fileModifiedTime,
             Properties schema,
             TupleDomain<HiveColumnHandle> effectivePredicate,
             List<HiveColumnHandle> hiveColumns,
@@ -168,6 +212,7 @@ public class HivePageSourceProvider
                     start,
                     length,
                     fileSize,
+                    fileModifiedTime,
                     schema,
                     toColumnHandles(regularAndInterimColumnMappings, true),
                     effectivePredicate,
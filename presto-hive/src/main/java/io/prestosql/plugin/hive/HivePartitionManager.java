@@ -18,6 +18,7 @@ import com.google.common.base.VerifyException;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Ordering;
 import io.airlift.slice.Slice;
 import io.prestosql.plugin.hive.HiveBucketing.HiveBucketFilter;
 import io.prestosql.plugin.hive.metastore.SemiTransactionalHiveMetastore;
@@ -83,6 +84,7 @@ public class HivePartitionManager
 
     private final DateTimeZone timeZone;
     private final int maxPartitions;
+    private final int maxPartitionsForEagerLoad;
     private final boolean assumeCanonicalPartitionKeys;
     private final int domainCompactionThreshold;
     private final TypeManager typeManager;
@@ -96,6 +98,7 @@ public class HivePartitionManager
                 typeManager,
                 hiveConfig.getDateTimeZone(),
                 hiveConfig.getMaxPartitionsPerScan(),
+                hiveConfig.getMaxPartitionsForEagerLoad(),
                 hiveConfig.isAssumeCanonicalPartitionKeys(),
                 hiveConfig.getDomainCompactionThreshold());
     }
@@ -104,12 +107,15 @@ public class HivePartitionManager
             TypeManager typeManager,
             DateTimeZone timeZone,
             int maxPartitions,
+            int maxPartitionsForEagerLoad,
             boolean assumeCanonicalPartitionKeys,
             int domainCompactionThreshold)
     {
         this.timeZone = requireNonNull(timeZone, "timeZone is null");
         checkArgument(maxPartitions >= 1, "maxPartitions must be at least 1");
         this.maxPartitions = maxPartitions;
+        checkArgument(maxPartitionsForEagerLoad >= 1, "maxPartitionsForEagerLoad must be at least 1");
+        this.maxPartitionsForEagerLoad = maxPartitionsForEagerLoad;
         this.assumeCanonicalPartitionKeys = assumeCanonicalPartitionKeys;
         checkArgument(domainCompactionThreshold >= 1, "domainCompactionThreshold must be at least 1");
         this.domainCompactionThreshold = domainCompactionThreshold;
@@ -159,7 +165,8 @@ public class HivePartitionManager
                 .collect(toImmutableList());
         }
         else {
-            List<String> partitionNames = getFilteredPartitionNames(metastore, tableName, partitionColumns, effectivePredicate);
+            // sorted the way the split manager processes partitions, so that they can be enumerated lazily
+            List<String> partitionNames = Ordering.natural().reverse().sortedCopy(getFilteredPartitionNames(metastore, tableName, partitionColumns, effectivePredicate));
             partitionsIterable = () -> partitionNames.stream()
                     // Apply extra filters which could not be done by getFilteredPartitionNames
                     .map(partitionName -> parseValuesAndFilterPartition(tableName, partitionName, partitionColumns, partitionTypes, effectivePredicate, predicate))
@@ -199,22 +206,56 @@ public class HivePartitionManager
     }
 
     public List<HivePartition> getPartitionsAsList(HivePartitionResult partitionResult)
+    {
+        return ImmutableList.copyOf(checkPartitionLimit(partitionResult.getPartitions()));
+    }
+
+    /**
+     * Returns the partitions if there are at most maxPartitionsForEagerLoad of them,
+     * or empty if they should be enumerated lazily when the splits are generated.
+     */
+    public Optional<List<HivePartition>> getPartitionsIfEagerlyLoadable(HivePartitionResult partitionResult)
     {
         ImmutableList.Builder<HivePartition> partitionList = ImmutableList.builder();
         int count = 0;
-        Iterator<HivePartition> iterator = partitionResult.getPartitions();
+        Iterator<HivePartition> iterator = checkPartitionLimit(partitionResult.getPartitions());
         while (iterator.hasNext()) {
-            HivePartition partition = iterator.next();
-            if (count == maxPartitions) {
-                throw new PrestoException(HIVE_EXCEEDED_PARTITION_LIMIT, format(
-                        "Query over table '%s' can potentially read more than %s partitions",
-                        partition.getTableName(),
-                        maxPartitions));
+            if (count == maxPartitionsForEagerLoad) {
+                return Optional.empty();
             }
-            partitionList.add(partition);
+            partitionList.add(iterator.next());
             count++;
         }
-        return partitionList.build();
+        return Optional.of(partitionList.build());
+    }
+
+    private Iterator<HivePartition> checkPartitionLimit(Iterator<HivePartition> partitions)
+    {
+        // keeps failing once the limit is exceeded, as it may be consumed by several split loader threads
+        return new Iterator<HivePartition>()
+        {
+            private int count;
+
+            @Override
+            public boolean hasNext()
+            {
+                return partitions.hasNext();
+            }
+
+            @Override
+            public HivePartition next()
+            {
+                HivePartition partition = partitions.next();
+                if (count == maxPartitions) {
+                    throw new PrestoException(HIVE_EXCEEDED_PARTITION_LIMIT, format(
+                            "Query over table '%s' can potentially read more than %s partitions",
+                            partition.getTableName(),
+                            maxPartitions));
+                }
+                count++;
+                return partition;
+            }
+        };
     }
 
     public HiveTableHandle applyPartitionResult(HiveTableHandle handle, HivePartitionResult partitions)
@@ -223,12 +264,13 @@ public class HivePartitionManager
                 handle.getSchemaName(),
                 handle.getTableName(),
                 ImmutableList.copyOf(partitions.getPartitionColumns()),
-                Optional.of(getPartitionsAsList(partitions)),
+                getPartitionsIfEagerlyLoadable(partitions),
                 partitions.getCompactEffectivePredicate(),
                 partitions.getEnforcedConstraint(),
                 partitions.getBucketHandle(),
                 partitions.getBucketFilter(),
-                handle.getAnalyzePartitionValues());
+                handle.getAnalyzePartitionValues(),
+                handle.getAggregations());
     }
 
     public List<HivePartition> getOrLoadPartitions(SemiTransactionalHiveMetastore metastore, HiveTableHandle table)
@@ -237,6 +279,26 @@ public class HivePartitionManager
                 getPartitionsAsList(getPartitions(metastore, table, new Constraint(table.getEnforcedConstraint()))));
     }
 
+    /**
+     * Returns the partitions of the table handle, enumerating them lazily from the metastore
+     * if they were not loaded during planning. The partition limit is checked as they are read.
+     */
+    public Iterator<HivePartition> getOrLoadPartitionsLazily(SemiTransactionalHiveMetastore metastore, HiveTableHandle table)
+    {
+        if (table.getPartitions().isPresent()) {
+            return table.getPartitions().get().iterator();
+        }
+        return checkPartitionLimit(getPartitions(metastore, table, new Constraint(table.getEnforcedConstraint())).getPartitions());
+    }
+
+    public Optional<List<HivePartition>> getOrLoadPartitionsIfEagerlyLoadable(SemiTransactionalHiveMetastore metastore, HiveTableHandle table)
+    {
+        if (table.getPartitions().isPresent()) {
+            return table.getPartitions();
+        }
+        return getPartitionsIfEagerlyLoadable(getPartitions(metastore, table, new Constraint(table.getEnforcedConstraint())));
+    }
+
     private static TupleDomain<HiveColumnHandle> toCompactTupleDomain(TupleDomain<ColumnHandle> effectivePredicate, int threshold)
     {
         ImmutableMap.Builder<HiveColumnHandle, Domain> builder = ImmutableMap.builder();
@@ -50,6 +50,7 @@ public final class HiveSessionProperties
     private static final String ORC_TINY_STRIPE_THRESHOLD = "orc_tiny_stripe_threshold";
     private static final String ORC_MAX_READ_BLOCK_SIZE = "orc_max_read_block_size";
     private static final String ORC_LAZY_READ_SMALL_RANGES = "orc_lazy_read_small_ranges";
+    private static final String ORC_READ_AHEAD_STRIPES = "orc_read_ahead_stripes";
     private static final String ORC_STRING_STATISTICS_LIMIT = "orc_string_statistics_limit";
     private static final String ORC_OPTIMIZED_WRITER_VALIDATE = "orc_optimized_writer_validate";
     private static final String ORC_OPTIMIZED_WRITER_VALIDATE_PERCENTAGE = "orc_optimized_writer_validate_percentage";
@@ -64,12 +65,15 @@ public final class HiveSessionProperties
     private static final String PARQUET_USE_COLUMN_NAME = "parquet_use_column_names";
     private static final String PARQUET_FAIL_WITH_CORRUPTED_STATISTICS = "parquet_fail_with_corrupted_statistics";
     private static final String PARQUET_MAX_READ_BLOCK_SIZE = "parquet_max_read_block_size";
+    private static final String PARQUET_READ_AHEAD_ROW_GROUPS = "parquet_read_ahead_row_groups";
     private static final String PARQUET_WRITER_BLOCK_SIZE = "parquet_writer_block_size";
     private static final String PARQUET_WRITER_PAGE_SIZE = "parquet_writer_page_size";
     private static final String MAX_SPLIT_SIZE = "max_split_size";
     private static final String MAX_INITIAL_SPLIT_SIZE = "max_initial_split_size";
     private static final String RCFILE_OPTIMIZED_WRITER_VALIDATE = "rcfile_optimized_writer_validate";
     private static final String SORTED_WRITING_ENABLED = "sorted_writing_enabled";
+    private static final String SORTED_READING_ENABLED = "sorted_reading_enabled";
+    private static final String COMBINE_SMALL_FILES = "combine_small_files";
     private static final String STATISTICS_ENABLED = "statistics_enabled";
     private static final String PARTITION_STATISTICS_SAMPLE_SIZE = "partition_statistics_sample_size";
     private static final String IGNORE_CORRUPTED_STATISTICS = "ignore_corrupted_statistics";
@@ -157,6 +161,11 @@ public final class HiveSessionProperties
                         "Experimental: ORC: Read small file segments lazily",
                         hiveConfig.isOrcLazyReadSmallRanges(),
                         false),
+                integerProperty(
+                        ORC_READ_AHEAD_STRIPES,
+                        "ORC: Number of stripes to read ahead",
+                        hiveConfig.getOrcReadAheadStripes(),
+                        false),
                 dataSizeProperty(
                         ORC_STRING_STATISTICS_LIMIT,
                         "ORC: Maximum size of string statistics; drop if exceeding",
@@ -239,6 +248,11 @@ public final class HiveSessionProperties
                         "Parquet: Maximum size of a block to read",
                         hiveConfig.getParquetMaxReadBlockSize(),
                         false),
+                integerProperty(
+                        PARQUET_READ_AHEAD_ROW_GROUPS,
+                        "Parquet: Number of row groups to read ahead",
+                        hiveConfig.getParquetReadAheadRowGroups(),
+                        false),
                 dataSizeProperty(
                         PARQUET_WRITER_BLOCK_SIZE,
                         "Parquet: Writer block size",
@@ -269,6 +283,16 @@ public final class HiveSessionProperties
                         "Enable writing to bucketed sorted tables",
                         hiveConfig.isSortedWritingEnabled(),
                         false),
+                booleanProperty(
+                        SORTED_READING_ENABLED,
+                        "Expose the sort order of bucketed sorted tables; fails reads of buckets with more than one file",
+                        hiveConfig.isSortedReadingEnabled(),
+                        false),
+                booleanProperty(
+                        COMBINE_SMALL_FILES,
+                        "Combine whole files of a partition that are smaller than the max split size into a single split",
+                        hiveConfig.isCombineSmallFiles(),
+                        false),
                 booleanProperty(
                         STATISTICS_ENABLED,
                         "Experimental: Expose table statistics",
@@ -366,6 +390,11 @@ public final class HiveSessionProperties
         return session.getProperty(ORC_LAZY_READ_SMALL_RANGES, Boolean.class);
     }
 
+    public static int getOrcReadAheadStripes(ConnectorSession session)
+    {
+        return session.getProperty(ORC_READ_AHEAD_STRIPES, Integer.class);
+    }
+
     public static DataSize getOrcStringStatisticsLimit(ConnectorSession session)
     {
         return session.getProperty(ORC_STRING_STATISTICS_LIMIT, DataSize.class);
@@ -443,6 +472,11 @@ public final class HiveSessionProperties
         return session.getProperty(PARQUET_MAX_READ_BLOCK_SIZE, DataSize.class);
     }
 
+    public static int getParquetReadAheadRowGroups(ConnectorSession session)
+    {
+        return session.getProperty(PARQUET_READ_AHEAD_ROW_GROUPS, Integer.class);
+    }
+
     public static DataSize getParquetWriterBlockSize(ConnectorSession session)
     {
         return session.getProperty(PARQUET_WRITER_BLOCK_SIZE, DataSize.class);
@@ -473,6 +507,16 @@ public final class HiveSessionProperties
         return session.getProperty(SORTED_WRITING_ENABLED, Boolean.class);
     }
 
+    public static boolean isSortedReadingEnabled(ConnectorSession session)
+    {
+        return session.getProperty(SORTED_READING_ENABLED, Boolean.class);
+    }
+
+    public static boolean isCombineSmallFiles(ConnectorSession session)
+    {
+        return session.getProperty(COMBINE_SMALL_FILES, Boolean.class);
+    }
+
     public static boolean isS3SelectPushdownEnabled(ConnectorSession session)
     {
         return session.getProperty(S3_SELECT_PUSHDOWN_ENABLED, Boolean.class);
@@ -38,6 +38,7 @@ public class HiveSplit
     private final long start;
     private final long length;
     private final long fileSize;
+    private final long fileModifiedTime;
     private final Properties schema;
     private final List<HivePartitionKey> partitionKeys;
     private final List<HostAddress> addresses;
@@ -49,6 +50,8 @@ public class HiveSplit
     private final Map<Integer, HiveType> columnCoercions; // key: hiveColumnIndex
     private final Optional<BucketConversion> bucketConversion;
     private final boolean s3SelectPushdownEnabled;
+    // whole files of the same partition that are read after the file of this split
+    private final List<CombinedFile> combinedFiles;
 
     @JsonCreator
     public HiveSplit(
@@ -59,6 +62,7 @@ public class HiveSplit
             @JsonProperty("start") long start,
             @JsonProperty("length") long length,
             @JsonProperty("fileSize") long fileSize,
+            @JsonProperty("fileModifiedTime") long fileModifiedTime,
             @JsonProperty("schema") Properties schema,
             @JsonProperty("partitionKeys") List<HivePartitionKey> partitionKeys,
             @JsonProperty("addresses") List<HostAddress> addresses,
@@ -66,7 +70,8 @@ public class HiveSplit
             @JsonProperty("forceLocalScheduling") boolean forceLocalScheduling,
             @JsonProperty("columnCoercions") Map<Integer, HiveType> columnCoercions,
             @JsonProperty("bucketConversion") Optional<BucketConversion> bucketConversion,
-            @JsonProperty("s3SelectPushdownEnabled") boolean s3SelectPushdownEnabled)
+            @JsonProperty("s3SelectPushdownEnabled") boolean s3SelectPushdownEnabled,
+            @JsonProperty("combinedFiles") List<CombinedFile> combinedFiles)
     {
         checkArgument(start >= 0, "start must be positive");
         checkArgument(length >= 0, "length must be positive");
@@ -81,6 +86,8 @@ public class HiveSplit
         requireNonNull(bucketNumber, "bucketNumber is null");
         requireNonNull(columnCoercions, "columnCoercions is null");
         requireNonNull(bucketConversion, "bucketConversion is null");
+        requireNonNull(combinedFiles, "combinedFiles is null");
+        checkArgument(combinedFiles.isEmpty() || (start == 0 && length == fileSize), "only whole files can be combined");
 
         this.database = database;
         this.table = table;
@@ -89,6 +96,7 @@ public class HiveSplit
         this.start = start;
         this.length = length;
         this.fileSize = fileSize;
+        this.fileModifiedTime = fileModifiedTime;
         this.schema = schema;
         this.partitionKeys = ImmutableList.copyOf(partitionKeys);
         this.addresses = ImmutableList.copyOf(addresses);
@@ -97,6 +105,7 @@ public class HiveSplit
         this.columnCoercions = columnCoercions;
         this.bucketConversion = bucketConversion;
         this.s3SelectPushdownEnabled = s3SelectPushdownEnabled;
+        this.combinedFiles = ImmutableList.copyOf(combinedFiles);
     }
 
     @JsonProperty
@@ -141,6 +150,12 @@ public class HiveSplit
         return fileSize;
     }
 
+    @JsonProperty
+    public long getFileModifiedTime()
+    {
+        return fileModifiedTime;
+    }
+
     @JsonProperty
     public Properties getSchema()
     {
@@ -196,6 +211,50 @@ public class HiveSplit
         return s3SelectPushdownEnabled;
     }
 
+    @JsonProperty
+    public List<CombinedFile> getCombinedFiles()
+    {
+        return combinedFiles;
+    }
+
+    /**
+     * Returns a split for each of the files read by this split, in the order they are read.
+     */
+    public List<HiveSplit> getFileSplits()
+    {
+        if (combinedFiles.isEmpty()) {
+            return ImmutableList.of(this);
+        }
+        ImmutableList.Builder<HiveSplit> splits = ImmutableList.builder();
+        splits.add(withFile(path, fileSize, fileModifiedTime));
+        for (CombinedFile file : combinedFiles) {
+            splits.add(withFile(file.getPath(), file.getFileSize(), file.getFileModifiedTime()));
+        }
+        return splits.build();
+    }
+
+    private HiveSplit withFile(String path, long fileSize, long fileModifiedTime)
+    {
+        return new HiveSplit(
+                database,
+                table,
+                partitionName,
+                path,
+                0,
+                fileSize,
+                fileSize,
+                fileModifiedTime,
+                schema,
+                partitionKeys,
+                addresses,
+                bucketNumber,
+                forceLocalScheduling,
+                columnCoercions,
+                bucketConversion,
+                s3SelectPushdownEnabled,
+                ImmutableList.of());
+    }
+
     @Override
     public Object getInfo()
     {
@@ -204,12 +263,14 @@ public class HiveSplit
                 .put("start", start)
                 .put("length", length)
                 .put("fileSize", fileSize)
+                .put("fileModifiedTime", fileModifiedTime)
                 .put("hosts", addresses)
                 .put("database", database)
                 .put("table", table)
                 .put("forceLocalScheduling", forceLocalScheduling)
                 .put("partitionName", partitionName)
                 .put("s3SelectPushdownEnabled", s3SelectPushdownEnabled)
+                .put("combinedFiles", combinedFiles.size())
                 .build();
     }
 
@@ -224,6 +285,73 @@ public class HiveSplit
                 .toString();
     }
 
+    public static class CombinedFile
+    {
+        private final String path;
+        private final long fileSize;
+        private final long fileModifiedTime;
+
+        @JsonCreator
+        public CombinedFile(
+                @JsonProperty("path") String path,
+                @JsonProperty("fileSize") long fileSize,
+                @JsonProperty("fileModifiedTime") long fileModifiedTime)
+        {
+            checkArgument(fileSize >= 0, "fileSize must be positive");
+            this.path = requireNonNull(path, "path is null");
+            this.fileSize = fileSize;
+            this.fileModifiedTime = fileModifiedTime;
+        }
+
+        @JsonProperty
+        public String getPath()
+        {
+            return path;
+        }
+
+        @JsonProperty
+        public long getFileSize()
+        {
+            return fileSize;
+        }
+
+        @JsonProperty
+        public long getFileModifiedTime()
+        {
+            return fileModifiedTime;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CombinedFile that = (CombinedFile) o;
+            return fileSize == that.fileSize &&
+                    fileModifiedTime == that.fileModifiedTime &&
+                    Objects.equals(path, that.path);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(path, fileSize, fileModifiedTime);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .addValue(path)
+                    .addValue(fileSize)
+                    .toString();
+        }
+    }
+
     public static class BucketConversion
     {
         private final int tableBucketCount;
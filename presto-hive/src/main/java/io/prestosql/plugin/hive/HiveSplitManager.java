@@ -13,11 +13,12 @@
  */
 package io.prestosql.plugin.hive;
 
-import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Ordering;
+import com.google.common.collect.PeekingIterator;
 import io.airlift.concurrent.BoundedExecutor;
 import io.airlift.stats.CounterStat;
 import io.airlift.units.DataSize;
@@ -42,12 +43,16 @@ import org.weakref.jmx.Nested;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Function;
 
@@ -55,9 +60,10 @@ import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.collect.Iterables.concat;
-import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.Iterables.transform;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.prestosql.plugin.hive.BackgroundHiveSplitLoader.BucketSplitInfo.createBucketSplitInfo;
+import static io.prestosql.plugin.hive.HiveBucketing.getSortedBucketGroupingPrefix;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_INVALID_METADATA;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_PARTITION_DROPPED_DURING_QUERY;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_PARTITION_SCHEMA_MISMATCH;
@@ -89,6 +95,7 @@ public class HiveSplitManager
     private final DataSize maxOutstandingSplitsSize;
     private final int minPartitionBatchSize;
     private final int maxPartitionBatchSize;
+    private final int partitionBatchConcurrency;
     private final int maxInitialSplits;
     private final int splitLoaderConcurrency;
     private final int maxSplitsPerSecond;
@@ -120,6 +127,7 @@ public class HiveSplitManager
                 hiveConfig.getMaxOutstandingSplitsSize(),
                 hiveConfig.getMinPartitionBatchSize(),
                 hiveConfig.getMaxPartitionBatchSize(),
+                hiveConfig.getPartitionBatchConcurrency(),
                 hiveConfig.getMaxInitialSplits(),
                 hiveConfig.getSplitLoaderConcurrency(),
                 hiveConfig.getMaxSplitsPerSecond(),
@@ -139,6 +147,7 @@ public class HiveSplitManager
             DataSize maxOutstandingSplitsSize,
             int minPartitionBatchSize,
             int maxPartitionBatchSize,
+            int partitionBatchConcurrency,
             int maxInitialSplits,
             int splitLoaderConcurrency,
             @Nullable Integer maxSplitsPerSecond,
@@ -157,6 +166,8 @@ public class HiveSplitManager
         this.maxOutstandingSplitsSize = maxOutstandingSplitsSize;
         this.minPartitionBatchSize = minPartitionBatchSize;
         this.maxPartitionBatchSize = maxPartitionBatchSize;
+        checkArgument(partitionBatchConcurrency >= 1, "partitionBatchConcurrency must be at least 1");
+        this.partitionBatchConcurrency = partitionBatchConcurrency;
         this.maxInitialSplits = maxInitialSplits;
         this.splitLoaderConcurrency = splitLoaderConcurrency;
         this.maxSplitsPerSecond = firstNonNull(maxSplitsPerSecond, Integer.MAX_VALUE);
@@ -184,11 +195,14 @@ public class HiveSplitManager
             throw new HiveNotReadableException(tableName, Optional.empty(), tableNotReadable);
         }
 
-        // get partitions
-        List<HivePartition> partitions = partitionManager.getOrLoadPartitions(metastore, hiveTable);
+        // get partitions, which are only enumerated as split generation progresses for large scans
+        Iterator<HivePartition> partitions = partitionManager.getOrLoadPartitionsLazily(metastore, hiveTable);
+
+        // at most two partitions are inspected up front, enough to tell if there is a single one
+        List<HivePartition> firstPartitions = ImmutableList.copyOf(Iterators.limit(partitions, 2));
 
         // short circuit if we don't have any partitions
-        if (partitions.isEmpty()) {
+        if (firstPartitions.isEmpty()) {
             return new FixedSplitSource(ImmutableList.of());
         }
 
@@ -201,8 +215,13 @@ public class HiveSplitManager
             throw new PrestoException(GENERIC_INTERNAL_ERROR, "SchedulingPolicy is bucketed, but BucketHandle is not present");
         }
 
-        // sort partitions
-        partitions = Ordering.natural().onResultOf(HivePartition::getPartitionId).reverse().sortedCopy(partitions);
+        // sort partitions; lazily enumerated partitions are already listed in this order
+        if (hiveTable.getPartitions().isPresent()) {
+            partitions = Ordering.natural().onResultOf(HivePartition::getPartitionId).reverse().sortedCopy(hiveTable.getPartitions().get()).iterator();
+        }
+        else {
+            partitions = Iterators.concat(firstPartitions.iterator(), partitions);
+        }
 
         Iterable<HivePartitionMetadata> hivePartitions = getPartitionMetadata(metastore, table, tableName, partitions, bucketHandle.map(HiveBucketHandle::toTableBucketProperty));
 
@@ -210,7 +229,10 @@ public class HiveSplitManager
                 table,
                 hivePartitions,
                 hiveTable.getCompactEffectivePredicate(),
-                createBucketSplitInfo(bucketHandle, bucketFilter),
+                createBucketSplitInfo(
+                        bucketHandle,
+                        bucketFilter,
+                        bucketHandle.isPresent() && getSortedBucketGroupingPrefix(session, bucketHandle.get(), firstPartitions.size()).isPresent()),
                 session,
                 hdfsEnvironment,
                 namenodeStats,
@@ -262,21 +284,19 @@ public class HiveSplitManager
         return highMemorySplitSourceCounter;
     }
 
-    private Iterable<HivePartitionMetadata> getPartitionMetadata(SemiTransactionalHiveMetastore metastore, Table table, SchemaTableName tableName, List<HivePartition> hivePartitions, Optional<HiveBucketProperty> bucketProperty)
+    private Iterable<HivePartitionMetadata> getPartitionMetadata(SemiTransactionalHiveMetastore metastore, Table table, SchemaTableName tableName, Iterator<HivePartition> hivePartitions, Optional<HiveBucketProperty> bucketProperty)
     {
-        if (hivePartitions.isEmpty()) {
+        PeekingIterator<HivePartition> remainingPartitions = Iterators.peekingIterator(hivePartitions);
+        if (!remainingPartitions.hasNext()) {
             return ImmutableList.of();
         }
 
-        if (hivePartitions.size() == 1) {
-            HivePartition firstPartition = getOnlyElement(hivePartitions);
-            if (firstPartition.getPartitionId().equals(UNPARTITIONED_ID)) {
-                return ImmutableList.of(new HivePartitionMetadata(firstPartition, Optional.empty(), ImmutableMap.of()));
-            }
+        if (remainingPartitions.peek().getPartitionId().equals(UNPARTITIONED_ID)) {
+            return ImmutableList.of(new HivePartitionMetadata(remainingPartitions.next(), Optional.empty(), ImmutableMap.of()));
         }
 
-        Iterable<List<HivePartition>> partitionNameBatches = partitionExponentially(hivePartitions, minPartitionBatchSize, maxPartitionBatchSize);
-        Iterable<List<HivePartitionMetadata>> partitionBatches = transform(partitionNameBatches, partitionBatch -> {
+        Iterable<List<HivePartition>> partitionNameBatches = partitionExponentially(remainingPartitions, minPartitionBatchSize, maxPartitionBatchSize);
+        Iterable<List<HivePartitionMetadata>> partitionBatches = fetchAhead(partitionNameBatches, partitionBatch -> {
             Map<String, Optional<Partition>> batch = metastore.getPartitionsByNames(
                     tableName.getSchemaName(),
                     tableName.getTableName(),
@@ -374,6 +394,51 @@ public class HiveSplitManager
         return concat(partitionBatches);
     }
 
+    /**
+     * Loads up to partitionBatchConcurrency batches ahead of the consumer on the split loader
+     * executor, so metastore round trips overlap with each other and with split generation.
+     * A batch that has not been picked up by the executor yet is loaded by the consumer itself,
+     * so a saturated executor cannot block the split loader waiting on its own queue.
+     */
+    private <T, R> Iterable<R> fetchAhead(Iterable<T> batches, Function<T, R> loader)
+    {
+        if (partitionBatchConcurrency == 1) {
+            return transform(batches, loader::apply);
+        }
+        // not an AbstractIterator, so that a failed batch is reported again to every split loader thread
+        return () -> new Iterator<R>()
+        {
+            private final Iterator<T> iterator = batches.iterator();
+            private final Deque<FutureTask<R>> pending = new ArrayDeque<>();
+
+            @Override
+            public boolean hasNext()
+            {
+                while (pending.size() < partitionBatchConcurrency && iterator.hasNext()) {
+                    T batch = iterator.next();
+                    FutureTask<R> task = new FutureTask<>(() -> loader.apply(batch));
+                    pending.add(task);
+                    executor.execute(task);
+                }
+                return !pending.isEmpty();
+            }
+
+            @Override
+            public R next()
+            {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                FutureTask<R> task = pending.peek();
+                // no-op if the task is already running or done
+                task.run();
+                R result = getFutureValue(task);
+                pending.remove();
+                return result;
+            }
+        };
+    }
+
     static boolean isBucketCountCompatible(int tableBucketCount, int partitionBucketCount)
     {
         checkArgument(tableBucketCount > 0 && partitionBucketCount > 0);
@@ -391,20 +456,28 @@ public class HiveSplitManager
     }
 
     /**
-     * Partition the given list in exponentially (power of 2) increasing batch sizes starting at 1 up to maxBatchSize
+     * Partition the given values in exponentially (power of 2) increasing batch sizes starting at 1 up to maxBatchSize.
+     * The values are consumed lazily, so the returned iterable can only be iterated once.
      */
-    private static <T> Iterable<List<T>> partitionExponentially(List<T> values, int minBatchSize, int maxBatchSize)
+    private static <T> Iterable<List<T>> partitionExponentially(Iterator<T> values, int minBatchSize, int maxBatchSize)
     {
-        return () -> new AbstractIterator<List<T>>()
+        // not an AbstractIterator, so that a failure of the underlying iterator is reported again to every split loader thread
+        return () -> new Iterator<List<T>>()
         {
             private int currentSize = minBatchSize;
-            private final Iterator<T> iterator = values.iterator();
+            private final Iterator<T> iterator = values;
+
+            @Override
+            public boolean hasNext()
+            {
+                return iterator.hasNext();
+            }
 
             @Override
-            protected List<T> computeNext()
+            public List<T> next()
             {
                 if (!iterator.hasNext()) {
-                    return endOfData();
+                    throw new NoSuchElementException();
                 }
 
                 int count = 0;
@@ -20,10 +20,12 @@ import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.log.Logger;
 import io.airlift.stats.CounterStat;
 import io.airlift.units.DataSize;
+import io.prestosql.plugin.hive.HiveSplit.CombinedFile;
 import io.prestosql.plugin.hive.InternalHiveSplit.InternalHiveBlock;
 import io.prestosql.plugin.hive.util.AsyncQueue;
 import io.prestosql.plugin.hive.util.AsyncQueue.BorrowResult;
 import io.prestosql.plugin.hive.util.ThrottledAsyncQueue;
+import io.prestosql.spi.HostAddress;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.connector.ConnectorPartitionHandle;
 import io.prestosql.spi.connector.ConnectorSession;
@@ -31,8 +33,10 @@ import io.prestosql.spi.connector.ConnectorSplit;
 import io.prestosql.spi.connector.ConnectorSplitSource;
 
 import java.io.FileNotFoundException;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.OptionalInt;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -57,6 +61,7 @@ import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_FILE_NOT_FOUND;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_UNKNOWN_ERROR;
 import static io.prestosql.plugin.hive.HiveSessionProperties.getMaxInitialSplitSize;
 import static io.prestosql.plugin.hive.HiveSessionProperties.getMaxSplitSize;
+import static io.prestosql.plugin.hive.HiveSessionProperties.isCombineSmallFiles;
 import static io.prestosql.plugin.hive.HiveSplitSource.StateKind.CLOSED;
 import static io.prestosql.plugin.hive.HiveSplitSource.StateKind.FAILED;
 import static io.prestosql.plugin.hive.HiveSplitSource.StateKind.INITIAL;
@@ -82,6 +87,7 @@ class HiveSplitSource
     private final DataSize maxSplitSize;
     private final DataSize maxInitialSplitSize;
     private final AtomicInteger remainingInitialSplits;
+    private final boolean combineSmallFiles;
 
     private final HiveSplitLoader splitLoader;
     private final AtomicReference<State> stateReference;
@@ -115,6 +121,7 @@ class HiveSplitSource
         this.maxSplitSize = getMaxSplitSize(session);
         this.maxInitialSplitSize = getMaxInitialSplitSize(session);
         this.remainingInitialSplits = new AtomicInteger(maxInitialSplits);
+        this.combineSmallFiles = isCombineSmallFiles(session);
     }
 
     public static HiveSplitSource allAtOnce(
@@ -335,9 +342,12 @@ class HiveSplitSource
         }
 
         OptionalInt bucketNumber = toBucketNumber(partitionHandle);
+        // splits of a bucket are assigned to the node of that bucket, so only splits without a bucket can be combined
+        boolean combineSmallFiles = this.combineSmallFiles && !bucketNumber.isPresent();
         ListenableFuture<List<ConnectorSplit>> future = queues.borrowBatchAsync(bucketNumber, maxSize, internalSplits -> {
             ImmutableList.Builder<InternalHiveSplit> splitsToInsertBuilder = ImmutableList.builder();
             ImmutableList.Builder<ConnectorSplit> resultBuilder = ImmutableList.builder();
+            Map<CombinedSplitKey, CombinedSplit> combinedSplits = new LinkedHashMap<>();
             int removedEstimatedSizeInBytes = 0;
             for (InternalHiveSplit internalSplit : internalSplits) {
                 long maxSplitBytes = maxSplitSize.toBytes();
@@ -355,22 +365,20 @@ class HiveSplitSource
                     splitBytes = internalSplit.getEnd() - internalSplit.getStart();
                 }
 
-                resultBuilder.add(new HiveSplit(
-                        databaseName,
-                        tableName,
-                        internalSplit.getPartitionName(),
-                        internalSplit.getPath(),
-                        internalSplit.getStart(),
-                        splitBytes,
-                        internalSplit.getFileSize(),
-                        internalSplit.getSchema(),
-                        internalSplit.getPartitionKeys(),
-                        block.getAddresses(),
-                        internalSplit.getBucketNumber(),
-                        internalSplit.isForceLocalScheduling(),
-                        transformValues(internalSplit.getColumnCoercions(), HiveTypeName::toHiveType),
-                        internalSplit.getBucketConversion(),
-                        internalSplit.isS3SelectPushdownEnabled()));
+                if (combineSmallFiles && isCombinable(internalSplit, splitBytes)) {
+                    // whole files of a partition stored on the same hosts are combined up to the max split size
+                    CombinedSplitKey key = new CombinedSplitKey(internalSplit.getPartitionName(), block.getAddresses());
+                    CombinedSplit combinedSplit = combinedSplits.get(key);
+                    if (combinedSplit == null || !combinedSplit.tryAdd(internalSplit)) {
+                        if (combinedSplit != null) {
+                            resultBuilder.add(combinedSplit.build());
+                        }
+                        combinedSplits.put(key, new CombinedSplit(internalSplit, block.getAddresses(), maxSplitSize.toBytes()));
+                    }
+                }
+                else {
+                    resultBuilder.add(createHiveSplit(internalSplit, internalSplit.getStart(), splitBytes, block.getAddresses(), ImmutableList.of()));
+                }
 
                 internalSplit.increaseStart(splitBytes);
 
@@ -381,11 +389,15 @@ class HiveSplitSource
                     splitsToInsertBuilder.add(internalSplit);
                 }
             }
+            for (CombinedSplit combinedSplit : combinedSplits.values()) {
+                resultBuilder.add(combinedSplit.build());
+            }
             estimatedSplitSizeInBytes.addAndGet(-removedEstimatedSizeInBytes);
 
             List<InternalHiveSplit> splitsToInsert = splitsToInsertBuilder.build();
             List<ConnectorSplit> result = resultBuilder.build();
-            bufferedInternalSplitCount.addAndGet(splitsToInsert.size() - result.size());
+            // a combined split consumes several internal splits, so the buffer is accounted for by the borrowed splits
+            bufferedInternalSplitCount.addAndGet(splitsToInsert.size() - internalSplits.size());
 
             return new AsyncQueue.BorrowResult<>(splitsToInsert, result);
         });
@@ -413,6 +425,37 @@ class HiveSplitSource
         return toCompletableFuture(transform);
     }
 
+    private HiveSplit createHiveSplit(InternalHiveSplit internalSplit, long start, long length, List<HostAddress> addresses, List<CombinedFile> combinedFiles)
+    {
+        return new HiveSplit(
+                databaseName,
+                tableName,
+                internalSplit.getPartitionName(),
+                internalSplit.getPath(),
+                start,
+                length,
+                internalSplit.getFileSize(),
+                internalSplit.getFileModifiedTime(),
+                internalSplit.getSchema(),
+                internalSplit.getPartitionKeys(),
+                addresses,
+                internalSplit.getBucketNumber(),
+                internalSplit.isForceLocalScheduling(),
+                transformValues(internalSplit.getColumnCoercions(), HiveTypeName::toHiveType),
+                internalSplit.getBucketConversion(),
+                internalSplit.isS3SelectPushdownEnabled(),
+                combinedFiles);
+    }
+
+    private boolean isCombinable(InternalHiveSplit internalSplit, long splitBytes)
+    {
+        return internalSplit.getStart() == 0 &&
+                splitBytes == internalSplit.getFileSize() &&
+                splitBytes < maxSplitSize.toBytes() &&
+                !internalSplit.getBucketNumber().isPresent() &&
+                !internalSplit.getBucketConversion().isPresent();
+    }
+
     @Override
     public boolean isFinished()
     {
@@ -476,6 +519,70 @@ class HiveSplitSource
         throw new PrestoException(HIVE_UNKNOWN_ERROR, throwable);
     }
 
+    private static class CombinedSplitKey
+    {
+        private final String partitionName;
+        private final List<HostAddress> addresses;
+
+        public CombinedSplitKey(String partitionName, List<HostAddress> addresses)
+        {
+            this.partitionName = requireNonNull(partitionName, "partitionName is null");
+            this.addresses = requireNonNull(addresses, "addresses is null");
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CombinedSplitKey that = (CombinedSplitKey) o;
+            return partitionName.equals(that.partitionName) &&
+                    addresses.equals(that.addresses);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(partitionName, addresses);
+        }
+    }
+
+    private class CombinedSplit
+    {
+        private final InternalHiveSplit first;
+        private final List<HostAddress> addresses;
+        private final long maxBytes;
+        private final ImmutableList.Builder<CombinedFile> combinedFiles = ImmutableList.builder();
+        private long bytes;
+
+        public CombinedSplit(InternalHiveSplit first, List<HostAddress> addresses, long maxBytes)
+        {
+            this.first = requireNonNull(first, "first is null");
+            this.addresses = requireNonNull(addresses, "addresses is null");
+            this.maxBytes = maxBytes;
+            this.bytes = first.getFileSize();
+        }
+
+        public boolean tryAdd(InternalHiveSplit internalSplit)
+        {
+            if (bytes + internalSplit.getFileSize() > maxBytes) {
+                return false;
+            }
+            combinedFiles.add(new CombinedFile(internalSplit.getPath(), internalSplit.getFileSize(), internalSplit.getFileModifiedTime()));
+            bytes += internalSplit.getFileSize();
+            return true;
+        }
+
+        public HiveSplit build()
+        {
+            return createHiveSplit(first, 0, first.getFileSize(), addresses, combinedFiles.build());
+        }
+    }
+
     interface PerBucket
     {
         ListenableFuture<?> offer(OptionalInt bucketNumber, InternalHiveSplit split);
@@ -41,6 +41,7 @@ public class HiveTableHandle
     private final Optional<HiveBucketHandle> bucketHandle;
     private final Optional<HiveBucketFilter> bucketFilter;
     private final Optional<List<List<String>>> analyzePartitionValues;
+    private final Optional<List<HiveAggregation>> aggregations;
 
     @JsonCreator
     public HiveTableHandle(
@@ -51,7 +52,8 @@ public class HiveTableHandle
             @JsonProperty("enforcedConstraint") TupleDomain<ColumnHandle> enforcedConstraint,
             @JsonProperty("bucketHandle") Optional<HiveBucketHandle> bucketHandle,
             @JsonProperty("bucketFilter") Optional<HiveBucketFilter> bucketFilter,
-            @JsonProperty("analyzePartitionValues") Optional<List<List<String>>> analyzePartitionValues)
+            @JsonProperty("analyzePartitionValues") Optional<List<List<String>>> analyzePartitionValues,
+            @JsonProperty("aggregations") Optional<List<HiveAggregation>> aggregations)
     {
         this(schemaName,
                 tableName,
@@ -61,7 +63,8 @@ public class HiveTableHandle
                 enforcedConstraint,
                 bucketHandle,
                 bucketFilter,
-                analyzePartitionValues);
+                analyzePartitionValues,
+                aggregations);
     }
 
     public HiveTableHandle(
@@ -78,6 +81,7 @@ public class HiveTableHandle
                 TupleDomain.all(),
                 bucketHandle,
                 Optional.empty(),
+                Optional.empty(),
                 Optional.empty());
     }
 
@@ -90,7 +94,8 @@ public class HiveTableHandle
             TupleDomain<ColumnHandle> enforcedConstraint,
             Optional<HiveBucketHandle> bucketHandle,
             Optional<HiveBucketFilter> bucketFilter,
-            Optional<List<List<String>>> analyzePartitionValues)
+            Optional<List<List<String>>> analyzePartitionValues,
+            Optional<List<HiveAggregation>> aggregations)
     {
         this.schemaName = requireNonNull(schemaName, "schemaName is null");
         this.tableName = requireNonNull(tableName, "tableName is null");
@@ -101,6 +106,7 @@ public class HiveTableHandle
         this.bucketHandle = requireNonNull(bucketHandle, "bucketHandle is null");
         this.bucketFilter = requireNonNull(bucketFilter, "bucketFilter is null");
         this.analyzePartitionValues = requireNonNull(analyzePartitionValues, "analyzePartitionValues is null");
+        this.aggregations = requireNonNull(aggregations, "aggregations is null").map(ImmutableList::copyOf);
     }
 
     public HiveTableHandle withAnalyzePartitionValues(Optional<List<List<String>>> analyzePartitionValues)
@@ -114,7 +120,8 @@ public class HiveTableHandle
                 enforcedConstraint,
                 bucketHandle,
                 bucketFilter,
-                analyzePartitionValues);
+                analyzePartitionValues,
+                aggregations);
     }
 
     @JsonProperty
@@ -172,6 +179,12 @@ public class HiveTableHandle
         return analyzePartitionValues;
     }
 
+    @JsonProperty
+    public Optional<List<HiveAggregation>> getAggregations()
+    {
+        return aggregations;
+    }
+
     public SchemaTableName getSchemaTableName()
     {
         return new SchemaTableName(schemaName, tableName);
@@ -204,6 +217,8 @@ public class HiveTableHandle
         builder.append(schemaName).append(":").append(tableName);
         bucketHandle.ifPresent(bucket ->
                 builder.append(" bucket=").append(bucket.getReadBucketCount()));
+        aggregations.ifPresent(aggregations ->
+                builder.append(" aggregations=").append(aggregations));
         return builder.toString();
     }
 }
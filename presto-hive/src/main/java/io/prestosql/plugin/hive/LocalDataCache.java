@@ -0,0 +1,570 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import io.airlift.log.Logger;
+import io.airlift.stats.CounterStat;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSInputStream;
+import org.apache.hadoop.fs.Path;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.Sets.newConcurrentHashSet;
+import static com.google.common.hash.Hashing.sha256;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.util.Arrays.copyOfRange;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+
+/**
+ * Read-through cache of remote file data on the local disks of a worker.
+ * Files are cached in aligned blocks of a fixed size, keyed by path, size and
+ * modification time of the file, and evicted in LRU order once the cache
+ * exceeds its maximum size. Blocks that miss the cache are read from the remote
+ * file system and written to the local directory in the background.
+ */
+public class LocalDataCache
+{
+    private static final Logger log = Logger.get(LocalDataCache.class);
+
+    private static final String BLOCK_FILE_SUFFIX = ".block";
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+    // bounds the size of the buffer used for a single read from the remote file system
+    private static final int MAX_BLOCKS_PER_REMOTE_READ = 8;
+
+    private final Optional<Cache<BlockKey, CachedBlock>> cache;
+    private final java.nio.file.Path directory;
+    private final int blockSize;
+    private final int maxPendingAdmissions;
+    private final ExecutorService admissionExecutor;
+    private final Set<BlockKey> pendingAdmissions = newConcurrentHashSet();
+
+    private final AtomicLong cachedBytes = new AtomicLong();
+    private final CounterStat hits = new CounterStat();
+    private final CounterStat misses = new CounterStat();
+    private final CounterStat cachedBytesRead = new CounterStat();
+    private final CounterStat remoteBytesRead = new CounterStat();
+    private final CounterStat droppedAdmissions = new CounterStat();
+    private final CounterStat failedAdmissions = new CounterStat();
+
+    @Inject
+    public LocalDataCache(LocalDataCacheConfig config)
+    {
+        requireNonNull(config, "config is null");
+        this.blockSize = toIntExact(config.getBlockSize().toBytes());
+        this.maxPendingAdmissions = config.getMaxPendingAdmissions();
+        this.admissionExecutor = newFixedThreadPool(config.getAdmissionThreads(), daemonThreadsNamed("hive-local-cache-admission-%s"));
+
+        if (!config.isEnabled()) {
+            this.directory = null;
+            this.cache = Optional.empty();
+            return;
+        }
+
+        this.directory = Paths.get(requireNonNull(config.getDirectory(), "directory is null"));
+        try {
+            Files.createDirectories(directory);
+            deleteBlockFiles(directory);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Failed to initialize local cache directory: " + directory, e);
+        }
+        this.cache = Optional.of(CacheBuilder.newBuilder()
+                .maximumWeight(config.getMaxSize().toBytes())
+                .weigher((Weigher<BlockKey, CachedBlock>) (key, block) -> block.getLength())
+                .removalListener(this::blockRemoved)
+                .build());
+    }
+
+    public static LocalDataCache disabled()
+    {
+        return new LocalDataCache(new LocalDataCacheConfig());
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        admissionExecutor.shutdownNow();
+    }
+
+    public FSDataInputStream wrap(Path path, long fileSize, long fileModifiedTime, FSDataInputStream inputStream)
+    {
+        if (!cache.isPresent()) {
+            return inputStream;
+        }
+        return new FSDataInputStream(new CachingInputStream(new FileId(path.toString(), fileSize, fileModifiedTime), inputStream));
+    }
+
+    @Managed
+    public void flushCache()
+    {
+        cache.ifPresent(Cache::invalidateAll);
+    }
+
+    @Managed
+    public long getBlockCount()
+    {
+        return cache.map(Cache::size).orElse(0L);
+    }
+
+    @Managed
+    public long getCachedBytes()
+    {
+        return cachedBytes.get();
+    }
+
+    @Managed
+    public long getPendingAdmissions()
+    {
+        return pendingAdmissions.size();
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getHits()
+    {
+        return hits;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getMisses()
+    {
+        return misses;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getCachedBytesRead()
+    {
+        return cachedBytesRead;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getRemoteBytesRead()
+    {
+        return remoteBytesRead;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getDroppedAdmissions()
+    {
+        return droppedAdmissions;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getFailedAdmissions()
+    {
+        return failedAdmissions;
+    }
+
+    private void readFully(FileId fileId, FSDataInputStream remote, long position, byte[] buffer, int offset, int length)
+            throws IOException
+    {
+        if (position < 0 || position + length > fileId.getSize()) {
+            throw new EOFException("Read past end of file: " + fileId.getPath());
+        }
+
+        long end = position + length;
+        long block = position / blockSize;
+        while (block * blockSize < end) {
+            BlockKey key = new BlockKey(fileId, block);
+            if (readCachedBlock(key, position, buffer, offset + toIntExact(max(block * blockSize - position, 0)), end)) {
+                block++;
+                continue;
+            }
+
+            // read the run of consecutive missing blocks from the remote file system
+            long lastBlock = block;
+            while ((lastBlock + 1) * blockSize < end &&
+                    lastBlock - block + 1 < MAX_BLOCKS_PER_REMOTE_READ &&
+                    cache.get().getIfPresent(new BlockKey(fileId, lastBlock + 1)) == null) {
+                lastBlock++;
+            }
+            long runStart = block * blockSize;
+            long runEnd = min((lastBlock + 1) * blockSize, fileId.getSize());
+            byte[] data = new byte[toIntExact(runEnd - runStart)];
+            remote.readFully(runStart, data, 0, data.length);
+            misses.update(lastBlock - block + 1);
+            remoteBytesRead.update(data.length);
+
+            long copyStart = max(runStart, position);
+            long copyEnd = min(runEnd, end);
+            System.arraycopy(data, toIntExact(copyStart - runStart), buffer, offset + toIntExact(copyStart - position), toIntExact(copyEnd - copyStart));
+
+            for (long admitted = block; admitted <= lastBlock; admitted++) {
+                int dataOffset = toIntExact((admitted - block) * blockSize);
+                admit(new BlockKey(fileId, admitted), data, dataOffset, min(blockSize, data.length - dataOffset));
+            }
+            block = lastBlock + 1;
+        }
+    }
+
+    private boolean readCachedBlock(BlockKey key, long position, byte[] buffer, int bufferOffset, long end)
+    {
+        CachedBlock cachedBlock = cache.get().getIfPresent(key);
+        if (cachedBlock == null) {
+            return false;
+        }
+
+        long blockStart = key.getBlock() * blockSize;
+        long readStart = max(blockStart, position);
+        int readLength = toIntExact(min(blockStart + cachedBlock.getLength(), end) - readStart);
+        try (RandomAccessFile file = new RandomAccessFile(cachedBlock.getFile(), "r")) {
+            file.seek(readStart - blockStart);
+            file.readFully(buffer, bufferOffset, readLength);
+        }
+        catch (IOException e) {
+            log.warn(e, "Failed to read cached block %s", key);
+            cache.get().invalidate(key);
+            return false;
+        }
+        hits.update(1);
+        cachedBytesRead.update(readLength);
+        return true;
+    }
+
+    private void admit(BlockKey key, byte[] data, int offset, int length)
+    {
+        if (pendingAdmissions.size() >= maxPendingAdmissions || !pendingAdmissions.add(key)) {
+            droppedAdmissions.update(1);
+            return;
+        }
+        try {
+            admissionExecutor.execute(() -> {
+                try {
+                    writeBlock(key, data, offset, length);
+                }
+                catch (IOException | RuntimeException e) {
+                    log.warn(e, "Failed to write cached block %s", key);
+                    failedAdmissions.update(1);
+                }
+                finally {
+                    pendingAdmissions.remove(key);
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            pendingAdmissions.remove(key);
+            droppedAdmissions.update(1);
+        }
+    }
+
+    private void writeBlock(BlockKey key, byte[] data, int offset, int length)
+            throws IOException
+    {
+        if (cache.get().getIfPresent(key) != null) {
+            return;
+        }
+
+        java.nio.file.Path blockFile = getBlockFile(key);
+        java.nio.file.Path temporaryFile = blockFile.resolveSibling(blockFile.getFileName() + TEMPORARY_FILE_SUFFIX);
+        Files.createDirectories(blockFile.getParent());
+        try {
+            Files.write(temporaryFile, copyOfRange(data, offset, offset + length));
+            Files.move(temporaryFile, blockFile, ATOMIC_MOVE);
+        }
+        finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+
+        if (cache.get().asMap().putIfAbsent(key, new CachedBlock(blockFile.toFile(), length)) == null) {
+            cachedBytes.addAndGet(length);
+        }
+    }
+
+    private void blockRemoved(RemovalNotification<BlockKey, CachedBlock> notification)
+    {
+        if (notification.getCause() == RemovalCause.REPLACED) {
+            // replaced blocks are stored in the same file
+            return;
+        }
+        CachedBlock block = notification.getValue();
+        cachedBytes.addAndGet(-block.getLength());
+        if (!block.getFile().delete() && block.getFile().exists()) {
+            log.warn("Failed to delete cached block file: %s", block.getFile());
+        }
+    }
+
+    private java.nio.file.Path getBlockFile(BlockKey key)
+    {
+        String fileHash = sha256().hashString(key.getFileId().toString(), UTF_8).toString();
+        return directory
+                .resolve(fileHash.substring(0, 2))
+                .resolve(fileHash + "-" + key.getBlock() + BLOCK_FILE_SUFFIX);
+    }
+
+    private static void deleteBlockFiles(java.nio.file.Path directory)
+            throws IOException
+    {
+        // cache entries are not persisted, so files left behind by a previous run are unreachable
+        try (Stream<java.nio.file.Path> files = Files.walk(directory)) {
+            files.filter(file -> file.toString().endsWith(BLOCK_FILE_SUFFIX) || file.toString().endsWith(BLOCK_FILE_SUFFIX + TEMPORARY_FILE_SUFFIX))
+                    .forEach(file -> file.toFile().delete());
+        }
+    }
+
+    private class CachingInputStream
+            extends FSInputStream
+    {
+        private final FileId fileId;
+        private final FSDataInputStream remote;
+        private long position;
+
+        public CachingInputStream(FileId fileId, FSDataInputStream remote)
+        {
+            this.fileId = requireNonNull(fileId, "fileId is null");
+            this.remote = requireNonNull(remote, "remote is null");
+        }
+
+        @Override
+        public void seek(long position)
+                throws IOException
+        {
+            if (position < 0 || position > fileId.getSize()) {
+                throw new EOFException("Cannot seek to " + position + " in file of size " + fileId.getSize());
+            }
+            this.position = position;
+        }
+
+        @Override
+        public long getPos()
+        {
+            return position;
+        }
+
+        @Override
+        public boolean seekToNewSource(long targetPosition)
+        {
+            return false;
+        }
+
+        @Override
+        public int read()
+                throws IOException
+        {
+            byte[] buffer = new byte[1];
+            if (read(buffer, 0, 1) < 0) {
+                return -1;
+            }
+            return buffer[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length)
+                throws IOException
+        {
+            int read = read(position, buffer, offset, length);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(long position, byte[] buffer, int offset, int length)
+                throws IOException
+        {
+            if (length == 0) {
+                return 0;
+            }
+            if (position >= fileId.getSize()) {
+                return -1;
+            }
+            int readLength = toIntExact(min(length, fileId.getSize() - position));
+            readFully(position, buffer, offset, readLength);
+            return readLength;
+        }
+
+        @Override
+        public void readFully(long position, byte[] buffer, int offset, int length)
+                throws IOException
+        {
+            LocalDataCache.this.readFully(fileId, remote, position, buffer, offset, length);
+        }
+
+        @Override
+        public void readFully(long position, byte[] buffer)
+                throws IOException
+        {
+            readFully(position, buffer, 0, buffer.length);
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            remote.close();
+        }
+    }
+
+    private static class FileId
+    {
+        private final String path;
+        private final long size;
+        private final long modifiedTime;
+
+        public FileId(String path, long size, long modifiedTime)
+        {
+            this.path = requireNonNull(path, "path is null");
+            this.size = size;
+            this.modifiedTime = modifiedTime;
+        }
+
+        public String getPath()
+        {
+            return path;
+        }
+
+        public long getSize()
+        {
+            return size;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            FileId other = (FileId) o;
+            return size == other.size &&
+                    modifiedTime == other.modifiedTime &&
+                    path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(path, size, modifiedTime);
+        }
+
+        @Override
+        public String toString()
+        {
+            return path + "#" + size + "#" + modifiedTime;
+        }
+    }
+
+    private static class BlockKey
+    {
+        private final FileId fileId;
+        private final long block;
+
+        public BlockKey(FileId fileId, long block)
+        {
+            this.fileId = requireNonNull(fileId, "fileId is null");
+            checkArgument(block >= 0, "block is negative");
+            this.block = block;
+        }
+
+        public FileId getFileId()
+        {
+            return fileId;
+        }
+
+        public long getBlock()
+        {
+            return block;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BlockKey other = (BlockKey) o;
+            return block == other.block &&
+                    fileId.equals(other.fileId);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(fileId, block);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("fileId", fileId)
+                    .add("block", block)
+                    .toString();
+        }
+    }
+
+    private static class CachedBlock
+    {
+        private final File file;
+        private final int length;
+
+        public CachedBlock(File file, int length)
+        {
+            this.file = requireNonNull(file, "file is null");
+            this.length = length;
+        }
+
+        public File getFile()
+        {
+            return file;
+        }
+
+        public int getLength()
+        {
+            return length;
+        }
+    }
+}
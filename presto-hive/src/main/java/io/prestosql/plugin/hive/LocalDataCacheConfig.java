@@ -0,0 +1,125 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
+import io.airlift.units.DataSize;
+import io.airlift.units.MaxDataSize;
+import io.airlift.units.MinDataSize;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+
+public class LocalDataCacheConfig
+{
+    private boolean enabled;
+    private String directory;
+    private DataSize maxSize = new DataSize(10, GIGABYTE);
+    private DataSize blockSize = new DataSize(1, MEGABYTE);
+    private int admissionThreads = 2;
+    private int maxPendingAdmissions = 64;
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    @Config("hive.local-cache.enabled")
+    @ConfigDescription("Cache data read from remote files on local disks of the workers")
+    public LocalDataCacheConfig setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+        return this;
+    }
+
+    public String getDirectory()
+    {
+        return directory;
+    }
+
+    @Config("hive.local-cache.directory")
+    @ConfigDescription("Local directory for the cached data; files in it are owned by the cache")
+    public LocalDataCacheConfig setDirectory(String directory)
+    {
+        this.directory = directory;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getMaxSize()
+    {
+        return maxSize;
+    }
+
+    @Config("hive.local-cache.max-size")
+    public LocalDataCacheConfig setMaxSize(DataSize maxSize)
+    {
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("4kB")
+    @MaxDataSize("64MB")
+    public DataSize getBlockSize()
+    {
+        return blockSize;
+    }
+
+    @Config("hive.local-cache.block-size")
+    @ConfigDescription("Size of the aligned file blocks stored in the cache")
+    public LocalDataCacheConfig setBlockSize(DataSize blockSize)
+    {
+        this.blockSize = blockSize;
+        return this;
+    }
+
+    @Min(1)
+    public int getAdmissionThreads()
+    {
+        return admissionThreads;
+    }
+
+    @Config("hive.local-cache.admission-threads")
+    public LocalDataCacheConfig setAdmissionThreads(int admissionThreads)
+    {
+        this.admissionThreads = admissionThreads;
+        return this;
+    }
+
+    @Min(1)
+    public int getMaxPendingAdmissions()
+    {
+        return maxPendingAdmissions;
+    }
+
+    @Config("hive.local-cache.max-pending-admissions")
+    @ConfigDescription("Maximum number of blocks waiting to be written to the cache; blocks read beyond this limit are not cached")
+    public LocalDataCacheConfig setMaxPendingAdmissions(int maxPendingAdmissions)
+    {
+        this.maxPendingAdmissions = maxPendingAdmissions;
+        return this;
+    }
+
+    @AssertTrue(message = "hive.local-cache.directory must be set when the local cache is enabled")
+    public boolean isDirectoryConfigured()
+    {
+        return !enabled || directory != null;
+    }
+}
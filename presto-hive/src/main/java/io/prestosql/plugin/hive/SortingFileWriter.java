@@ -43,6 +43,10 @@ import java.util.List;
 import java.util.Optional;
 import java.util.PriorityQueue;
 import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.stream.IntStream;
@@ -50,6 +54,7 @@ import java.util.stream.IntStream;
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_WRITER_CLOSE_ERROR;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_WRITER_DATA_ERROR;
@@ -64,6 +69,8 @@ public class SortingFileWriter
 
     private static final int INSTANCE_SIZE = ClassLayout.parseClass(SortingFileWriter.class).instanceSize();
 
+    private static final int MAX_BUFFERED_MERGED_PAGES = 4;
+
     private final FileSystem fileSystem;
     private final Path tempFilePrefix;
     private final int maxOpenTempFiles;
@@ -75,6 +82,7 @@ public class SortingFileWriter
     private final TempFileSinkFactory tempFileSinkFactory;
     private final Queue<TempFile> tempFiles = new PriorityQueue<>(comparing(TempFile::getSize));
     private final AtomicLong nextFileId = new AtomicLong();
+    private final Executor mergeExecutor;
 
     public SortingFileWriter(
             FileSystem fileSystem,
@@ -86,7 +94,8 @@ public class SortingFileWriter
             List<Integer> sortFields,
             List<SortOrder> sortOrders,
             PageSorter pageSorter,
-            TempFileSinkFactory tempFileSinkFactory)
+            TempFileSinkFactory tempFileSinkFactory,
+            Executor mergeExecutor)
     {
         checkArgument(maxOpenTempFiles >= 2, "maxOpenTempFiles must be at least two");
         this.fileSystem = requireNonNull(fileSystem, "fileSystem is null");
@@ -98,6 +107,7 @@ public class SortingFileWriter
         this.outputWriter = requireNonNull(outputWriter, "outputWriter is null");
         this.sortBuffer = new SortBuffer(maxMemory, types, sortFields, sortOrders, pageSorter);
         this.tempFileSinkFactory = tempFileSinkFactory;
+        this.mergeExecutor = requireNonNull(mergeExecutor, "mergeExecutor is null");
     }
 
     @Override
@@ -177,7 +187,7 @@ public class SortingFileWriter
 
     private void flushToTempFile()
     {
-        writeTempFile(writer -> sortBuffer.flushTo(writer::writePage));
+        tempFiles.add(writeTempFile(writer -> sortBuffer.flushTo(writer::writePage)));
     }
 
     // TODO: change connector SPI to make this resumable and have memory tracking
@@ -185,19 +195,89 @@ public class SortingFileWriter
     {
         combineFiles();
 
-        mergeFiles(tempFiles, outputWriter::appendRows);
+        // the final merge runs on the merge executor, so that reading and merging
+        // the temporary files overlaps with encoding the output file on this thread
+        BlockingQueue<Optional<Page>> pages = new ArrayBlockingQueue<>(MAX_BUFFERED_MERGED_PAGES);
+        FutureTask<?> merge = new FutureTask<>(() -> {
+            try {
+                mergeFiles(tempFiles, page -> putPage(pages, Optional.of(page)));
+            }
+            finally {
+                putPage(pages, Optional.empty());
+            }
+            return null;
+        });
+        mergeExecutor.execute(merge);
+
+        try {
+            while (true) {
+                Optional<Page> page = pages.take();
+                if (!page.isPresent()) {
+                    break;
+                }
+                outputWriter.appendRows(page.get());
+            }
+            getFutureValue(merge);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        finally {
+            merge.cancel(true);
+        }
     }
 
     private void combineFiles()
     {
         while (tempFiles.size() > maxOpenTempFiles) {
-            int count = min(maxOpenTempFiles, tempFiles.size() - (maxOpenTempFiles - 1));
+            // merge groups of the smallest files concurrently, until at most maxOpenTempFiles remain
+            List<List<TempFile>> groups = new ArrayList<>();
+            int excessFiles = tempFiles.size() - maxOpenTempFiles;
+            while (excessFiles > 0 && tempFiles.size() >= 2) {
+                int count = min(min(maxOpenTempFiles, excessFiles + 1), tempFiles.size());
+
+                groups.add(IntStream.range(0, count)
+                        .mapToObj(i -> tempFiles.poll())
+                        .collect(toImmutableList()));
+                excessFiles -= count - 1;
+            }
 
-            List<TempFile> smallestFiles = IntStream.range(0, count)
-                    .mapToObj(i -> tempFiles.poll())
+            List<FutureTask<TempFile>> merges = groups.stream()
+                    .map(group -> new FutureTask<>(() -> writeTempFile(writer -> mergeFiles(group, writer::writePage))))
                     .collect(toImmutableList());
+            merges.forEach(mergeExecutor::execute);
+
+            RuntimeException failure = null;
+            for (int i = 0; i < merges.size(); i++) {
+                FutureTask<TempFile> merge = merges.get(i);
+                // a merge that has not been picked up by the executor yet is run by this thread
+                merge.run();
+                try {
+                    tempFiles.add(getFutureValue(merge));
+                }
+                catch (RuntimeException e) {
+                    // keep track of the files of the failed merge, so that they are removed on rollback
+                    tempFiles.addAll(groups.get(i));
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
 
-            writeTempFile(writer -> mergeFiles(smallestFiles, writer::writePage));
+    private static void putPage(BlockingQueue<Optional<Page>> pages, Optional<Page> page)
+    {
+        try {
+            pages.put(page);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
         }
     }
 
@@ -237,14 +317,14 @@ public class SortingFileWriter
         }
     }
 
-    private void writeTempFile(Consumer<TempFileWriter> consumer)
+    private TempFile writeTempFile(Consumer<TempFileWriter> consumer)
     {
         Path tempFile = getTempFileName();
 
         try (TempFileWriter writer = new TempFileWriter(types, tempFileSinkFactory.createSink(fileSystem, tempFile))) {
             consumer.accept(writer);
             writer.close();
-            tempFiles.add(new TempFile(tempFile, writer.getWrittenBytes()));
+            return new TempFile(tempFile, writer.getWrittenBytes());
         }
         catch (IOException | UncheckedIOException e) {
             cleanupFile(tempFile);
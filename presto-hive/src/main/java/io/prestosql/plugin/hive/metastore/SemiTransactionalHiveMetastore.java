@@ -624,32 +624,36 @@ public class SemiTransactionalHiveMetastore
         }
     }
 
-    public synchronized Map<String, Optional<Partition>> getPartitionsByNames(String databaseName, String tableName, List<String> partitionNames)
+    public Map<String, Optional<Partition>> getPartitionsByNames(String databaseName, String tableName, List<String> partitionNames)
     {
-        checkReadable();
-        TableSource tableSource = getTableSource(databaseName, tableName);
-        Map<List<String>, Action<PartitionAndMore>> partitionActionsOfTable = partitionActions.computeIfAbsent(new SchemaTableName(databaseName, tableName), k -> new HashMap<>());
         ImmutableList.Builder<String> partitionNamesToQuery = ImmutableList.builder();
         ImmutableMap.Builder<String, Optional<Partition>> resultBuilder = ImmutableMap.builder();
-        for (String partitionName : partitionNames) {
-            List<String> partitionValues = toPartitionValues(partitionName);
-            Action<PartitionAndMore> partitionAction = partitionActionsOfTable.get(partitionValues);
-            if (partitionAction == null) {
-                switch (tableSource) {
-                    case PRE_EXISTING_TABLE:
-                        partitionNamesToQuery.add(partitionName);
-                        break;
-                    case CREATED_IN_THIS_TRANSACTION:
-                        resultBuilder.put(partitionName, Optional.empty());
-                        break;
-                    default:
-                        throw new UnsupportedOperationException("unknown table source");
+        synchronized (this) {
+            checkReadable();
+            TableSource tableSource = getTableSource(databaseName, tableName);
+            Map<List<String>, Action<PartitionAndMore>> partitionActionsOfTable = partitionActions.computeIfAbsent(new SchemaTableName(databaseName, tableName), k -> new HashMap<>());
+            for (String partitionName : partitionNames) {
+                List<String> partitionValues = toPartitionValues(partitionName);
+                Action<PartitionAndMore> partitionAction = partitionActionsOfTable.get(partitionValues);
+                if (partitionAction == null) {
+                    switch (tableSource) {
+                        case PRE_EXISTING_TABLE:
+                            partitionNamesToQuery.add(partitionName);
+                            break;
+                        case CREATED_IN_THIS_TRANSACTION:
+                            resultBuilder.put(partitionName, Optional.empty());
+                            break;
+                        default:
+                            throw new UnsupportedOperationException("unknown table source");
+                    }
+                }
+                else {
+                    resultBuilder.put(partitionName, getPartitionFromPartitionAction(partitionAction));
                 }
-            }
-            else {
-                resultBuilder.put(partitionName, getPartitionFromPartitionAction(partitionAction));
             }
         }
+        // The metastore fetch happens outside the lock, so that the split manager
+        // can load several partition batches of the same transaction concurrently.
         Map<String, Optional<Partition>> delegateResult = delegate.getPartitionsByNames(databaseName, tableName, partitionNamesToQuery.build());
         resultBuilder.putAll(delegateResult);
         return resultBuilder.build();
@@ -13,14 +13,18 @@
  */
 package io.prestosql.plugin.hive.metastore.cache;
 
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.SetMultimap;
 import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.airlift.log.Logger;
 import io.airlift.units.Duration;
 import io.prestosql.plugin.hive.HiveType;
 import io.prestosql.plugin.hive.PartitionStatistics;
@@ -81,7 +85,11 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 public class CachingHiveMetastore
         implements HiveMetastore
 {
+    private static final Logger log = Logger.get(CachingHiveMetastore.class);
+    private static final int PARTITION_WARMING_BATCH_SIZE = 100;
+
     protected final HiveMetastore delegate;
+    private final long maximumSize;
     private final LoadingCache<String, Optional<Database>> databaseCache;
     private final LoadingCache<String, List<String>> databaseNamesCache;
     private final LoadingCache<HiveTableName, Optional<Table>> tableCache;
@@ -95,6 +103,7 @@ public class CachingHiveMetastore
     private final LoadingCache<UserTableKey, Set<HivePrivilegeInfo>> tablePrivilegesCache;
     private final LoadingCache<String, Set<String>> rolesCache;
     private final LoadingCache<HivePrincipal, Set<RoleGrant>> roleGrantsCache;
+    private final Cache<HiveTableName, Boolean> recentlyQueriedTables;
 
     @Inject
     public CachingHiveMetastore(@ForCachingHiveMetastore HiveMetastore delegate, @ForCachingHiveMetastore Executor executor, CachingHiveMetastoreConfig config)
@@ -131,6 +140,7 @@ public class CachingHiveMetastore
     {
         this.delegate = requireNonNull(delegate, "delegate is null");
         requireNonNull(executor, "executor is null");
+        this.maximumSize = maximumSize;
 
         databaseNamesCache = newCacheBuilder(expiresAfterWriteMillis, refreshMills, maximumSize)
                 .build(asyncReloading(CacheLoader.from(this::loadAllDatabases), executor));
@@ -203,6 +213,9 @@ public class CachingHiveMetastore
 
         roleGrantsCache = newCacheBuilder(expiresAfterWriteMillis, refreshMills, maximumSize)
                 .build(asyncReloading(CacheLoader.from(this::loadRoleGrants), executor));
+
+        recentlyQueriedTables = newCacheBuilder(expiresAfterWriteMillis, OptionalLong.empty(), maximumSize)
+                .build();
     }
 
     @Managed
@@ -536,7 +549,9 @@ public class CachingHiveMetastore
     @Override
     public Optional<List<String>> getPartitionNames(String databaseName, String tableName)
     {
-        return get(partitionNamesCache, hiveTableName(databaseName, tableName));
+        HiveTableName hiveTableName = hiveTableName(databaseName, tableName);
+        recentlyQueriedTables.put(hiveTableName, true);
+        return get(partitionNamesCache, hiveTableName);
     }
 
     private Optional<List<String>> loadPartitionNames(HiveTableName hiveTableName)
@@ -547,6 +562,7 @@ public class CachingHiveMetastore
     @Override
     public Optional<List<String>> getPartitionNamesByParts(String databaseName, String tableName, List<String> parts)
     {
+        recentlyQueriedTables.put(hiveTableName(databaseName, tableName), true);
         return get(partitionFilterCache, partitionFilter(databaseName, tableName, parts));
     }
 
@@ -561,6 +577,7 @@ public class CachingHiveMetastore
     @Override
     public Map<String, Optional<Partition>> getPartitionsByNames(String databaseName, String tableName, List<String> partitionNames)
     {
+        recentlyQueriedTables.put(hiveTableName(databaseName, tableName), true);
         Iterable<HivePartitionName> names = transform(partitionNames, name -> HivePartitionName.hivePartitionName(databaseName, tableName, name));
 
         Map<HivePartitionName, Optional<Partition>> all = getAll(partitionCache, names);
@@ -604,6 +621,36 @@ public class CachingHiveMetastore
         return partitions.build();
     }
 
+    /**
+     * Reloads the partition names, and the partitions if they fit in the cache, of every table
+     * whose partitions were requested within the cache TTL, so that the next query over these
+     * tables does not have to wait for the metastore.
+     */
+    @Managed
+    public void warmPartitionCache()
+    {
+        for (HiveTableName hiveTableName : ImmutableList.copyOf(recentlyQueriedTables.asMap().keySet())) {
+            try {
+                warmPartitionCache(hiveTableName);
+            }
+            catch (RuntimeException e) {
+                log.warn(e, "Failed to warm partition cache for table %s", hiveTableName);
+            }
+        }
+    }
+
+    private void warmPartitionCache(HiveTableName hiveTableName)
+    {
+        Optional<List<String>> partitionNames = loadPartitionNames(hiveTableName);
+        partitionNamesCache.put(hiveTableName, partitionNames);
+        if (!partitionNames.isPresent() || partitionNames.get().isEmpty() || partitionNames.get().size() > maximumSize) {
+            return;
+        }
+        for (List<String> batch : Lists.partition(partitionNames.get(), PARTITION_WARMING_BATCH_SIZE)) {
+            partitionCache.putAll(loadPartitionsByNames(transform(batch, name -> hivePartitionName(hiveTableName, name))));
+        }
+    }
+
     @Override
     public void addPartitions(String databaseName, String tableName, List<PartitionWithStatistics> partitions)
     {
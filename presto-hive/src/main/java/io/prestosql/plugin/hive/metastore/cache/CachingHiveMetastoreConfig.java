@@ -14,6 +14,7 @@
 package io.prestosql.plugin.hive.metastore.cache;
 
 import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
 import io.airlift.units.Duration;
 import io.airlift.units.MinDuration;
 
@@ -28,6 +29,7 @@ public class CachingHiveMetastoreConfig
     private Duration metastoreRefreshInterval = new Duration(0, TimeUnit.SECONDS);
     private long metastoreCacheMaximumSize = 10000;
     private int maxMetastoreRefreshThreads = 100;
+    private Duration partitionCacheWarmingInterval;
 
     @NotNull
     public Duration getMetastoreCacheTtl()
@@ -82,4 +84,18 @@ public class CachingHiveMetastoreConfig
         this.maxMetastoreRefreshThreads = maxMetastoreRefreshThreads;
         return this;
     }
+
+    @MinDuration("1s")
+    public Duration getPartitionCacheWarmingInterval()
+    {
+        return partitionCacheWarmingInterval;
+    }
+
+    @Config("hive.metastore-partition-cache-warming-interval")
+    @ConfigDescription("Interval at which the partitions of recently queried tables are reloaded into the metastore cache")
+    public CachingHiveMetastoreConfig setPartitionCacheWarmingInterval(Duration partitionCacheWarmingInterval)
+    {
+        this.partitionCacheWarmingInterval = partitionCacheWarmingInterval;
+        return this;
+    }
 }
@@ -0,0 +1,82 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.metastore.cache;
+
+import io.airlift.log.Logger;
+import io.airlift.units.Duration;
+import io.prestosql.plugin.hive.HiveCatalogName;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Periodically reloads the partitions of recently queried tables into the
+ * {@link CachingHiveMetastore}, so queries over large partitioned tables do not
+ * pay for listing and fetching the partitions after the cache entries expire.
+ */
+public class PartitionCacheWarmer
+{
+    private static final Logger log = Logger.get(PartitionCacheWarmer.class);
+
+    private final CachingHiveMetastore metastore;
+    private final String catalogName;
+    private final Optional<Duration> interval;
+    private ScheduledExecutorService executor;
+
+    @Inject
+    public PartitionCacheWarmer(CachingHiveMetastore metastore, HiveCatalogName catalogName, CachingHiveMetastoreConfig config)
+    {
+        this.metastore = requireNonNull(metastore, "metastore is null");
+        this.catalogName = requireNonNull(catalogName, "catalogName is null").toString();
+        // without a cache TTL there is nothing to keep warm
+        this.interval = Optional.ofNullable(config.getPartitionCacheWarmingInterval())
+                .filter(value -> config.getMetastoreCacheTtl().toMillis() > 0);
+    }
+
+    @PostConstruct
+    public synchronized void start()
+    {
+        if (!interval.isPresent() || executor != null) {
+            return;
+        }
+        executor = newSingleThreadScheduledExecutor(daemonThreadsNamed("hive-metastore-" + catalogName + "-warmer-%s"));
+        long intervalMillis = interval.get().toMillis();
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                metastore.warmPartitionCache();
+            }
+            catch (Throwable t) {
+                log.error(t, "Error warming partition cache");
+            }
+        }, intervalMillis, intervalMillis, MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void stop()
+    {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+}
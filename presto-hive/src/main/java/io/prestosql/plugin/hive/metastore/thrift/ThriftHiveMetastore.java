@@ -17,6 +17,9 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import io.airlift.concurrent.BoundedExecutor;
+import io.airlift.stats.TimeStat;
 import io.airlift.units.Duration;
 import io.prestosql.plugin.hive.HiveBasicStatistics;
 import io.prestosql.plugin.hive.HiveType;
@@ -61,6 +64,7 @@ import org.apache.thrift.TException;
 import org.weakref.jmx.Flatten;
 import org.weakref.jmx.Managed;
 
+import javax.annotation.PreDestroy;
 import javax.annotation.concurrent.ThreadSafe;
 import javax.inject.Inject;
 
@@ -71,6 +75,9 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -80,6 +87,8 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.Sets.difference;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.prestosql.plugin.hive.HiveBasicStatistics.createEmptyStatistics;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_METASTORE_ERROR;
 import static io.prestosql.plugin.hive.HiveUtil.PRESTO_VIEW_FLAG;
@@ -99,6 +108,7 @@ import static io.prestosql.spi.StandardErrorCode.NOT_SUPPORTED;
 import static io.prestosql.spi.security.PrincipalType.USER;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.stream.Collectors.toSet;
 import static org.apache.hadoop.hive.common.FileUtils.makePartName;
 import static org.apache.hadoop.hive.metastore.api.HiveObjectType.TABLE;
@@ -115,6 +125,9 @@ public class ThriftHiveMetastore
     private final Duration maxBackoffDelay;
     private final Duration maxRetryTime;
     private final int maxRetries;
+    private final int partitionFetchBatchSize;
+    private final ExecutorService partitionFetchExecutorService;
+    private final Executor partitionFetchExecutor;
 
     private volatile boolean metastoreKnownToSupportTableParamEqualsPredicate;
     private volatile boolean metastoreKnownToSupportTableParamLikePredicate;
@@ -128,6 +141,15 @@ public class ThriftHiveMetastore
         this.maxBackoffDelay = thriftConfig.getMaxBackoffDelay();
         this.maxRetryTime = thriftConfig.getMaxRetryTime();
         this.maxRetries = thriftConfig.getMaxRetries();
+        this.partitionFetchBatchSize = thriftConfig.getPartitionFetchBatchSize();
+        this.partitionFetchExecutorService = newCachedThreadPool(daemonThreadsNamed("hive-metastore-partition-fetch-%s"));
+        this.partitionFetchExecutor = new BoundedExecutor(partitionFetchExecutorService, thriftConfig.getMaxPartitionFetchThreads());
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        partitionFetchExecutorService.shutdownNow();
     }
 
     @Managed
@@ -1155,6 +1177,25 @@ public class ThriftHiveMetastore
         requireNonNull(partitionNames, "partitionNames is null");
         checkArgument(!Iterables.isEmpty(partitionNames), "partitionNames is empty");
 
+        stats.getGetPartitionsByNamesPartitions().add(partitionNames.size());
+        if (partitionNames.size() <= partitionFetchBatchSize) {
+            return getPartitionsByNamesBatch(databaseName, tableName, partitionNames);
+        }
+
+        try (TimeStat.BlockTimer ignored = stats.getGetPartitionsByNamesConcurrent().time()) {
+            List<CompletableFuture<List<Partition>>> batches = Lists.partition(partitionNames, partitionFetchBatchSize).stream()
+                    .map(batch -> CompletableFuture.supplyAsync(() -> getPartitionsByNamesBatch(databaseName, tableName, batch), partitionFetchExecutor))
+                    .collect(toImmutableList());
+            ImmutableList.Builder<Partition> partitions = ImmutableList.builder();
+            for (CompletableFuture<List<Partition>> batch : batches) {
+                partitions.addAll(getFutureValue(batch));
+            }
+            return partitions.build();
+        }
+    }
+
+    private List<Partition> getPartitionsByNamesBatch(String databaseName, String tableName, List<String> partitionNames)
+    {
         try {
             return retry()
                     .stopOn(NoSuchObjectException.class)
@@ -28,6 +28,8 @@ public class ThriftHiveMetastoreConfig
     private Duration minBackoffDelay = RetryDriver.DEFAULT_SLEEP_TIME;
     private Duration maxBackoffDelay = RetryDriver.DEFAULT_SLEEP_TIME;
     private Duration maxRetryTime = RetryDriver.DEFAULT_MAX_RETRY_TIME;
+    private int partitionFetchBatchSize = 100;
+    private int maxPartitionFetchThreads = 4;
 
     @Min(0)
     public int getMaxRetries()
@@ -95,4 +97,32 @@ public class ThriftHiveMetastoreConfig
         this.maxBackoffDelay = maxBackoffDelay;
         return this;
     }
+
+    @Min(1)
+    public int getPartitionFetchBatchSize()
+    {
+        return partitionFetchBatchSize;
+    }
+
+    @Config("hive.metastore.thrift.partition-fetch.batch-size")
+    @ConfigDescription("Maximum number of partitions requested from the metastore in a single call")
+    public ThriftHiveMetastoreConfig setPartitionFetchBatchSize(int partitionFetchBatchSize)
+    {
+        this.partitionFetchBatchSize = partitionFetchBatchSize;
+        return this;
+    }
+
+    @Min(1)
+    public int getMaxPartitionFetchThreads()
+    {
+        return maxPartitionFetchThreads;
+    }
+
+    @Config("hive.metastore.thrift.partition-fetch.max-threads")
+    @ConfigDescription("Maximum number of concurrent metastore calls used to fetch the partitions of a single request")
+    public ThriftHiveMetastoreConfig setMaxPartitionFetchThreads(int maxPartitionFetchThreads)
+    {
+        this.maxPartitionFetchThreads = maxPartitionFetchThreads;
+        return this;
+    }
 }
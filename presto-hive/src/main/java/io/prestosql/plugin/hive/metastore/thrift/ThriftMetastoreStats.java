@@ -13,9 +13,13 @@
  */
 package io.prestosql.plugin.hive.metastore.thrift;
 
+import io.airlift.stats.DistributionStat;
+import io.airlift.stats.TimeStat;
 import org.weakref.jmx.Managed;
 import org.weakref.jmx.Nested;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
 public class ThriftMetastoreStats
 {
     private final ThriftMetastoreApiStats getAllDatabases = new ThriftMetastoreApiStats();
@@ -30,6 +34,8 @@ public class ThriftMetastoreStats
     private final ThriftMetastoreApiStats getPartitionNamesPs = new ThriftMetastoreApiStats();
     private final ThriftMetastoreApiStats getPartition = new ThriftMetastoreApiStats();
     private final ThriftMetastoreApiStats getPartitionsByNames = new ThriftMetastoreApiStats();
+    private final DistributionStat getPartitionsByNamesPartitions = new DistributionStat();
+    private final TimeStat getPartitionsByNamesConcurrent = new TimeStat(MILLISECONDS);
     private final ThriftMetastoreApiStats createDatabase = new ThriftMetastoreApiStats();
     private final ThriftMetastoreApiStats dropDatabase = new ThriftMetastoreApiStats();
     private final ThriftMetastoreApiStats alterDatabase = new ThriftMetastoreApiStats();
@@ -133,6 +139,20 @@ public class ThriftMetastoreStats
         return getPartitionsByNames;
     }
 
+    @Managed
+    @Nested
+    public DistributionStat getGetPartitionsByNamesPartitions()
+    {
+        return getPartitionsByNamesPartitions;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getGetPartitionsByNamesConcurrent()
+    {
+        return getPartitionsByNamesConcurrent;
+    }
+
     @Managed
     @Nested
     public ThriftMetastoreApiStats getCreateDatabase()
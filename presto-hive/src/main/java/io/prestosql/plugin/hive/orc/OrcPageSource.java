@@ -18,6 +18,7 @@ import io.prestosql.memory.context.AggregatedMemoryContext;
 import io.prestosql.orc.OrcCorruptionException;
 import io.prestosql.orc.OrcDataSource;
 import io.prestosql.orc.OrcRecordReader;
+import io.prestosql.orc.metadata.statistics.ColumnStatistics;
 import io.prestosql.plugin.hive.FileFormatDataSourceStats;
 import io.prestosql.plugin.hive.HiveColumnHandle;
 import io.prestosql.spi.Page;
@@ -33,6 +34,7 @@ import io.prestosql.spi.type.TypeManager;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Optional;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkState;
@@ -105,6 +107,26 @@ public class OrcPageSource
         this.systemMemoryContext = requireNonNull(systemMemoryContext, "systemMemoryContext is null");
     }
 
+    /**
+     * Returns the number of rows in the stripes of this split, without reading them.
+     */
+    public long getSplitRowCount()
+    {
+        return recordReader.getReaderRowCount();
+    }
+
+    /**
+     * Returns the stripe statistics of the column at the given channel merged over the
+     * stripes of this split, or empty if they are not available.
+     */
+    public Optional<ColumnStatistics> getSplitColumnStatistics(int channel)
+    {
+        if (constantBlocks[channel] != null) {
+            return Optional.empty();
+        }
+        return recordReader.getStripeStatistics(hiveColumnIndexes[channel]);
+    }
+
     @Override
     public long getCompletedBytes()
     {
@@ -212,12 +234,23 @@ public class OrcPageSource
         private final int expectedBatchId = batchId;
         private final int columnIndex;
         private boolean loaded;
+        private int[] selectedPositions;
+        private int selectedPositionsOffset;
+        private int selectedPositionsLength;
 
         public OrcBlockLoader(int columnIndex)
         {
             this.columnIndex = columnIndex;
         }
 
+        @Override
+        public final void setSelectedPositions(int[] positions, int offset, int length)
+        {
+            selectedPositions = positions;
+            selectedPositionsOffset = offset;
+            selectedPositionsLength = length;
+        }
+
         @Override
         public final void load(LazyBlock lazyBlock)
         {
@@ -228,8 +261,12 @@ public class OrcPageSource
             checkState(batchId == expectedBatchId);
 
             try {
-                Block block = recordReader.readBlock(columnIndex);
-                lazyBlock.setBlock(block);
+                Optional<Block> block = Optional.empty();
+                if (selectedPositions != null) {
+                    block = recordReader.readSelectedPositions(columnIndex, selectedPositions, selectedPositionsOffset, selectedPositionsLength);
+                    block.ifPresent(ignored -> stats.addSelectiveLoad(selectedPositionsLength, lazyBlock.getPositionCount() - selectedPositionsLength));
+                }
+                lazyBlock.setBlock(block.isPresent() ? block.get() : recordReader.readBlock(columnIndex));
             }
             catch (OrcCorruptionException e) {
                 throw new PrestoException(HIVE_BAD_DATA, e);
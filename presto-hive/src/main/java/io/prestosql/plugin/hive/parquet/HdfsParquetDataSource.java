@@ -21,6 +21,7 @@ import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.Path;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_FILESYSTEM_ERROR;
 import static java.lang.String.format;
@@ -32,8 +33,9 @@ public class HdfsParquetDataSource
     private final ParquetDataSourceId id;
     private final long size;
     private final FSDataInputStream inputStream;
-    private long readTimeNanos;
-    private long readBytes;
+    // updated concurrently when row groups are read ahead
+    private final AtomicLong readTimeNanos = new AtomicLong();
+    private final AtomicLong readBytes = new AtomicLong();
     private final FileFormatDataSourceStats stats;
 
     public HdfsParquetDataSource(ParquetDataSourceId id, long size, FSDataInputStream inputStream, FileFormatDataSourceStats stats)
@@ -53,13 +55,13 @@ public class HdfsParquetDataSource
     @Override
     public final long getReadBytes()
     {
-        return readBytes;
+        return readBytes.get();
     }
 
     @Override
     public long getReadTimeNanos()
     {
-        return readTimeNanos;
+        return readTimeNanos.get();
     }
 
     @Override
@@ -84,13 +86,13 @@ public class HdfsParquetDataSource
     @Override
     public final void readFully(long position, byte[] buffer, int bufferOffset, int bufferLength)
     {
-        readBytes += bufferLength;
+        readBytes.addAndGet(bufferLength);
 
         long start = System.nanoTime();
         readInternal(position, buffer, bufferOffset, bufferLength);
         long currentReadTimeNanos = System.nanoTime() - start;
 
-        readTimeNanos += currentReadTimeNanos;
+        readTimeNanos.addAndGet(currentReadTimeNanos);
         stats.readDataBytesPerSecond(bufferLength, currentReadTimeNanos);
     }
 
@@ -17,6 +17,7 @@ import com.google.common.collect.ImmutableList;
 import io.prestosql.parquet.Field;
 import io.prestosql.parquet.ParquetCorruptionException;
 import io.prestosql.parquet.reader.ParquetReader;
+import io.prestosql.plugin.hive.FileFormatDataSourceStats;
 import io.prestosql.plugin.hive.HiveColumnHandle;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PrestoException;
@@ -64,6 +65,7 @@ public class ParquetPageSource
     private int batchId;
     private boolean closed;
     private final boolean useParquetColumnNames;
+    private final FileFormatDataSourceStats stats;
 
     public ParquetPageSource(
             ParquetReader parquetReader,
@@ -72,13 +74,15 @@ public class ParquetPageSource
             TypeManager typeManager,
             Properties splitSchema,
             List<HiveColumnHandle> columns,
-            boolean useParquetColumnNames)
+            boolean useParquetColumnNames,
+            FileFormatDataSourceStats stats)
     {
         requireNonNull(splitSchema, "splitSchema is null");
         requireNonNull(columns, "columns is null");
         this.parquetReader = requireNonNull(parquetReader, "parquetReader is null");
         this.fileSchema = requireNonNull(fileSchema, "fileSchema is null");
         this.useParquetColumnNames = useParquetColumnNames;
+        this.stats = requireNonNull(stats, "stats is null");
 
         int size = columns.size();
         this.constantBlocks = new Block[size];
@@ -112,6 +116,14 @@ public class ParquetPageSource
         columnNames = namesBuilder.build();
     }
 
+    /**
+     * Returns the number of rows in the row groups of this split, without reading them.
+     */
+    public long getSplitRowCount()
+    {
+        return parquetReader.getRowCount();
+    }
+
     @Override
     public long getCompletedBytes()
     {
@@ -219,12 +231,23 @@ public class ParquetPageSource
         private final int expectedBatchId = batchId;
         private final Field field;
         private boolean loaded;
+        private int[] selectedPositions;
+        private int selectedPositionsOffset;
+        private int selectedPositionsLength;
 
         public ParquetBlockLoader(Field field)
         {
             this.field = requireNonNull(field, "field is null");
         }
 
+        @Override
+        public final void setSelectedPositions(int[] positions, int offset, int length)
+        {
+            selectedPositions = positions;
+            selectedPositionsOffset = offset;
+            selectedPositionsLength = length;
+        }
+
         @Override
         public final void load(LazyBlock lazyBlock)
         {
@@ -235,8 +258,12 @@ public class ParquetPageSource
             checkState(batchId == expectedBatchId);
 
             try {
-                Block block = parquetReader.readBlock(field);
-                lazyBlock.setBlock(block);
+                Optional<Block> block = Optional.empty();
+                if (selectedPositions != null) {
+                    block = parquetReader.readSelectedPositions(field, selectedPositions, selectedPositionsOffset, selectedPositionsLength);
+                    block.ifPresent(ignored -> stats.addSelectiveLoad(selectedPositionsLength, lazyBlock.getPositionCount() - selectedPositionsLength));
+                }
+                lazyBlock.setBlock(block.isPresent() ? block.get() : parquetReader.readBlock(field));
             }
             catch (ParquetCorruptionException e) {
                 throw new PrestoException(HIVE_BAD_DATA, e);
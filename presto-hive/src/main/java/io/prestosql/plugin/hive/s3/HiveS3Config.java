@@ -61,6 +61,8 @@ public class HiveS3Config
     private PrestoS3AclType s3AclType = PrestoS3AclType.PRIVATE;
     private boolean skipGlacierObjects;
     private boolean requesterPaysEnabled;
+    private boolean s3StreamingUploadEnabled;
+    private DataSize s3StreamingPartSize = new DataSize(16, MEGABYTE);
 
     public String getS3AwsAccessKey()
     {
@@ -442,4 +444,32 @@ public class HiveS3Config
         this.requesterPaysEnabled = requesterPaysEnabled;
         return this;
     }
+
+    public boolean isS3StreamingUploadEnabled()
+    {
+        return s3StreamingUploadEnabled;
+    }
+
+    @Config("hive.s3.streaming.enabled")
+    @ConfigDescription("Upload files to S3 as multipart parts while they are being written, instead of staging them on local disk")
+    public HiveS3Config setS3StreamingUploadEnabled(boolean s3StreamingUploadEnabled)
+    {
+        this.s3StreamingUploadEnabled = s3StreamingUploadEnabled;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("5MB")
+    public DataSize getS3StreamingPartSize()
+    {
+        return s3StreamingPartSize;
+    }
+
+    @Config("hive.s3.streaming.part-size")
+    @ConfigDescription("Part size for S3 streaming upload")
+    public HiveS3Config setS3StreamingPartSize(DataSize s3StreamingPartSize)
+    {
+        this.s3StreamingPartSize = s3StreamingPartSize;
+        return this;
+    }
 }
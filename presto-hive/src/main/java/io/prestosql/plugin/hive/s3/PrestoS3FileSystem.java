@@ -39,21 +39,26 @@ import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.AmazonS3EncryptionClient;
 import com.amazonaws.services.s3.Headers;
 import com.amazonaws.services.s3.internal.Constants;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.CannedAccessControlList;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
 import com.amazonaws.services.s3.model.DeleteObjectRequest;
 import com.amazonaws.services.s3.model.EncryptionMaterialsProvider;
 import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
 import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.KMSEncryptionMaterialsProvider;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
 import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.S3ObjectInputStream;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.s3.model.SSEAwsKeyManagementParams;
+import com.amazonaws.services.s3.model.UploadPartRequest;
 import com.amazonaws.services.s3.transfer.Transfer;
 import com.amazonaws.services.s3.transfer.TransferManager;
 import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
@@ -91,6 +96,7 @@ import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.ArrayList;
@@ -99,6 +105,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.amazonaws.regions.Regions.US_EAST_1;
@@ -113,9 +122,11 @@ import static com.google.common.base.Throwables.throwIfInstanceOf;
 import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.Iterables.toArray;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.prestosql.plugin.hive.util.RetryDriver.retry;
 import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
@@ -124,6 +135,7 @@ import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
 import static java.nio.file.Files.createDirectories;
 import static java.nio.file.Files.createTempFile;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.hadoop.fs.FSExceptionMessages.CANNOT_SEEK_PAST_EOF;
 import static org.apache.hadoop.fs.FSExceptionMessages.NEGATIVE_SEEK;
@@ -163,6 +175,8 @@ public class PrestoS3FileSystem
     public static final String S3_ACL_TYPE = "presto.s3.upload-acl-type";
     public static final String S3_SKIP_GLACIER_OBJECTS = "presto.s3.skip-glacier-objects";
     public static final String S3_REQUESTER_PAYS_ENABLED = "presto.s3.requester-pays.enabled";
+    public static final String S3_STREAMING_UPLOAD_ENABLED = "presto.s3.streaming.enabled";
+    public static final String S3_STREAMING_UPLOAD_PART_SIZE = "presto.s3.streaming.part-size";
 
     static final String S3_DIRECTORY_OBJECT_CONTENT_TYPE = "application/x-directory";
 
@@ -176,6 +190,7 @@ public class PrestoS3FileSystem
     private static final Duration BACKOFF_MIN_SLEEP = new Duration(1, SECONDS);
     private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
     private static final String S3_CUSTOM_SIGNER = "PrestoS3CustomSigner";
+    private static final int MAX_PENDING_STREAMING_PARTS = 2;
 
     private URI uri;
     private Path workingDirectory;
@@ -197,6 +212,9 @@ public class PrestoS3FileSystem
     private PrestoS3AclType s3AclType;
     private boolean skipGlacierObjects;
     private boolean requesterPaysEnabled;
+    private boolean streamingUploadEnabled;
+    private int streamingUploadPartSize;
+    private ExecutorService uploadExecutor;
 
     @Override
     public void initialize(URI uri, Configuration conf)
@@ -237,6 +255,8 @@ public class PrestoS3FileSystem
         String userAgentPrefix = conf.get(S3_USER_AGENT_PREFIX, defaults.getS3UserAgentPrefix());
         this.skipGlacierObjects = conf.getBoolean(S3_SKIP_GLACIER_OBJECTS, defaults.isSkipGlacierObjects());
         this.requesterPaysEnabled = conf.getBoolean(S3_REQUESTER_PAYS_ENABLED, defaults.isRequesterPaysEnabled());
+        this.streamingUploadEnabled = conf.getBoolean(S3_STREAMING_UPLOAD_ENABLED, defaults.isS3StreamingUploadEnabled());
+        this.streamingUploadPartSize = toIntExact(conf.getLong(S3_STREAMING_UPLOAD_PART_SIZE, defaults.getS3StreamingPartSize().toBytes()));
 
         ClientConfiguration configuration = new ClientConfiguration()
                 .withMaxErrorRetry(maxErrorRetries)
@@ -249,6 +269,7 @@ public class PrestoS3FileSystem
 
         this.credentialsProvider = createAwsCredentialsProvider(uri, conf);
         this.s3 = createAmazonS3Client(conf, configuration);
+        this.uploadExecutor = newCachedThreadPool(daemonThreadsNamed("s3-streaming-upload-%s"));
     }
 
     @Override
@@ -261,6 +282,7 @@ public class PrestoS3FileSystem
                 closer.register((Closeable) credentialsProvider);
             }
             closer.register(s3::shutdown);
+            closer.register(uploadExecutor::shutdownNow);
         }
     }
 
@@ -388,6 +410,13 @@ public class PrestoS3FileSystem
         // Ignore the overwrite flag, since Presto always writes to unique file names.
         // Checking for file existence can break read-after-write consistency.
 
+        String key = keyFromPath(qualifiedPath(path));
+        if (streamingUploadEnabled) {
+            return new FSDataOutputStream(
+                    new PrestoS3StreamingOutputStream(s3, uploadExecutor, getBucketName(uri), key, sseEnabled, sseType, sseKmsKeyId, streamingUploadPartSize, s3AclType, requesterPaysEnabled),
+                    statistics);
+        }
+
         if (!stagingDirectory.exists()) {
             createDirectories(stagingDirectory.toPath());
         }
@@ -396,7 +425,6 @@ public class PrestoS3FileSystem
         }
         File tempFile = createTempFile(stagingDirectory.toPath(), "presto-s3-", ".tmp").toFile();
 
-        String key = keyFromPath(qualifiedPath(path));
         return new FSDataOutputStream(
                 new PrestoS3OutputStream(s3, getBucketName(uri), key, tempFile, sseEnabled, sseType, sseKmsKeyId, multiPartUploadMinFileSize, multiPartUploadMinPartSize, s3AclType, requesterPaysEnabled),
                 statistics);
@@ -1289,6 +1317,285 @@ public class PrestoS3FileSystem
         }
     }
 
+    /**
+     * Uploads the data to S3 while it is being written: every time a part is filled it is
+     * sent as a multipart upload part in the background, so the object does not have to be
+     * staged on local disk and the upload overlaps with producing the data. At most
+     * {@link #MAX_PENDING_STREAMING_PARTS} parts are buffered in memory at any time.
+     */
+    private static class PrestoS3StreamingOutputStream
+            extends OutputStream
+    {
+        private final AmazonS3 s3;
+        private final ExecutorService uploadExecutor;
+        private final String host;
+        private final String key;
+        private final boolean sseEnabled;
+        private final PrestoS3SseType sseType;
+        private final String sseKmsKeyId;
+        private final int partSize;
+        private final CannedAccessControlList aclType;
+        private final boolean requesterPaysEnabled;
+
+        private final List<Future<PartETag>> parts = new ArrayList<>();
+        private Optional<String> uploadId = Optional.empty();
+        private byte[] buffer;
+        private int bufferSize;
+        private boolean closed;
+        private boolean failed;
+
+        public PrestoS3StreamingOutputStream(
+                AmazonS3 s3,
+                ExecutorService uploadExecutor,
+                String host,
+                String key,
+                boolean sseEnabled,
+                PrestoS3SseType sseType,
+                String sseKmsKeyId,
+                int partSize,
+                PrestoS3AclType aclType,
+                boolean requesterPaysEnabled)
+        {
+            this.s3 = requireNonNull(s3, "s3 is null");
+            this.uploadExecutor = requireNonNull(uploadExecutor, "uploadExecutor is null");
+            this.host = requireNonNull(host, "host is null");
+            this.key = requireNonNull(key, "key is null");
+            this.sseEnabled = sseEnabled;
+            this.sseType = requireNonNull(sseType, "sseType is null");
+            this.sseKmsKeyId = sseKmsKeyId;
+            checkArgument(partSize > 0, "partSize must be positive");
+            this.partSize = partSize;
+            this.aclType = requireNonNull(aclType, "aclType is null").getCannedACL();
+            this.requesterPaysEnabled = requesterPaysEnabled;
+            this.buffer = new byte[partSize];
+
+            log.debug("Streaming OutputStream for key '%s' using part size: %s", key, partSize);
+        }
+
+        @Override
+        public void write(int b)
+                throws IOException
+        {
+            ensureOpen();
+            buffer[bufferSize] = (byte) b;
+            bufferSize++;
+            if (bufferSize == partSize) {
+                flushBuffer();
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length)
+                throws IOException
+        {
+            checkPositionIndexes(offset, offset + length, bytes.length);
+            ensureOpen();
+            while (length > 0) {
+                int copied = min(partSize - bufferSize, length);
+                System.arraycopy(bytes, offset, buffer, bufferSize, copied);
+                bufferSize += copied;
+                offset += copied;
+                length -= copied;
+                if (bufferSize == partSize) {
+                    flushBuffer();
+                }
+            }
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            if (failed) {
+                return;
+            }
+
+            try {
+                if (!uploadId.isPresent()) {
+                    putObject();
+                }
+                else {
+                    if (bufferSize > 0) {
+                        submitPart();
+                    }
+                    completeUpload();
+                }
+                STATS.uploadSuccessful();
+                log.debug("Completed upload for host: %s, key: %s", host, key);
+            }
+            catch (IOException | RuntimeException e) {
+                fail();
+                throw e;
+            }
+            finally {
+                buffer = null;
+            }
+        }
+
+        private void ensureOpen()
+                throws IOException
+        {
+            if (closed) {
+                throw new IOException(STREAM_IS_CLOSED);
+            }
+        }
+
+        private void flushBuffer()
+                throws IOException
+        {
+            try {
+                if (!uploadId.isPresent()) {
+                    initiateUpload();
+                }
+                submitPart();
+            }
+            catch (IOException | RuntimeException e) {
+                closed = true;
+                fail();
+                throw e;
+            }
+        }
+
+        private void initiateUpload()
+                throws IOException
+        {
+            STATS.uploadStarted();
+            log.debug("Starting multipart upload for host: %s, key: %s", host, key);
+            InitiateMultipartUploadRequest request = new InitiateMultipartUploadRequest(host, key, createMetadata())
+                    .withCannedACL(aclType)
+                    .withRequesterPays(requesterPaysEnabled);
+            if (sseEnabled && sseType == PrestoS3SseType.KMS) {
+                request.withSSEAwsKeyManagementParams(createKmsParams());
+            }
+            try {
+                uploadId = Optional.of(s3.initiateMultipartUpload(request).getUploadId());
+            }
+            catch (AmazonClientException e) {
+                throw new IOException(e);
+            }
+        }
+
+        private void submitPart()
+                throws IOException
+        {
+            // bound the memory held by parts that are still being uploaded
+            if (parts.size() >= MAX_PENDING_STREAMING_PARTS) {
+                getPart(parts.get(parts.size() - MAX_PENDING_STREAMING_PARTS));
+            }
+
+            byte[] data = buffer;
+            int length = bufferSize;
+            int partNumber = parts.size() + 1;
+            UploadPartRequest request = new UploadPartRequest()
+                    .withBucketName(host)
+                    .withKey(key)
+                    .withUploadId(uploadId.get())
+                    .withPartNumber(partNumber)
+                    .withInputStream(new ByteArrayInputStream(data, 0, length))
+                    .withPartSize(length)
+                    .withRequesterPays(requesterPaysEnabled);
+            parts.add(uploadExecutor.submit(() -> {
+                log.debug("Uploading part %s for host: %s, key: %s, size: %s", partNumber, host, key, length);
+                return s3.uploadPart(request).getPartETag();
+            }));
+
+            buffer = new byte[partSize];
+            bufferSize = 0;
+        }
+
+        private void completeUpload()
+                throws IOException
+        {
+            List<PartETag> etags = new ArrayList<>(parts.size());
+            for (Future<PartETag> part : parts) {
+                etags.add(getPart(part));
+            }
+            CompleteMultipartUploadRequest request = new CompleteMultipartUploadRequest(host, key, uploadId.get(), etags)
+                    .withRequesterPays(requesterPaysEnabled);
+            try {
+                s3.completeMultipartUpload(request);
+            }
+            catch (AmazonClientException e) {
+                throw new IOException(e);
+            }
+        }
+
+        private void putObject()
+                throws IOException
+        {
+            STATS.uploadStarted();
+            log.debug("Starting upload for host: %s, key: %s, size: %s", host, key, bufferSize);
+            ObjectMetadata metadata = createMetadata();
+            metadata.setContentLength(bufferSize);
+            PutObjectRequest request = new PutObjectRequest(host, key, new ByteArrayInputStream(buffer, 0, bufferSize), metadata)
+                    .withCannedAcl(aclType)
+                    .withRequesterPays(requesterPaysEnabled);
+            if (sseEnabled && sseType == PrestoS3SseType.KMS) {
+                request.withSSEAwsKeyManagementParams(createKmsParams());
+            }
+            try {
+                s3.putObject(request);
+            }
+            catch (AmazonClientException e) {
+                throw new IOException(e);
+            }
+        }
+
+        private void fail()
+        {
+            failed = true;
+            STATS.uploadFailed();
+            parts.forEach(part -> part.cancel(true));
+            if (uploadId.isPresent()) {
+                try {
+                    s3.abortMultipartUpload(new AbortMultipartUploadRequest(host, key, uploadId.get())
+                            .withRequesterPays(requesterPaysEnabled));
+                }
+                catch (AmazonClientException e) {
+                    log.warn(e, "Failed to abort multipart upload for host: %s, key: %s", host, key);
+                }
+            }
+        }
+
+        private ObjectMetadata createMetadata()
+        {
+            ObjectMetadata metadata = new ObjectMetadata();
+            if (sseEnabled && sseType == PrestoS3SseType.S3) {
+                metadata.setSSEAlgorithm(ObjectMetadata.AES_256_SERVER_SIDE_ENCRYPTION);
+            }
+            return metadata;
+        }
+
+        private SSEAwsKeyManagementParams createKmsParams()
+        {
+            if (sseKmsKeyId != null) {
+                return new SSEAwsKeyManagementParams(sseKmsKeyId);
+            }
+            return new SSEAwsKeyManagementParams();
+        }
+
+        private static PartETag getPart(Future<PartETag> part)
+                throws IOException
+        {
+            try {
+                return part.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            catch (ExecutionException e) {
+                throwIfInstanceOf(e.getCause(), IOException.class);
+                throw new IOException(e.getCause());
+            }
+        }
+    }
+
     @VisibleForTesting
     AmazonS3 getS3Client()
     {
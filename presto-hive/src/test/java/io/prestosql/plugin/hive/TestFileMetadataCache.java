@@ -0,0 +1,129 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import io.prestosql.orc.OrcMetadataCache;
+import io.prestosql.orc.StreamId;
+import io.prestosql.orc.metadata.RowGroupIndex;
+import io.prestosql.orc.metadata.StripeFooter;
+import io.prestosql.orc.metadata.statistics.ColumnStatistics;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.orc.metadata.Stream.StreamKind.ROW_INDEX;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+
+public class TestFileMetadataCache
+{
+    private static final Path PATH = new Path("hdfs://test/file");
+
+    @Test
+    public void testOrcStripeFooter()
+            throws IOException
+    {
+        FileFormatDataSourceStats stats = new FileFormatDataSourceStats();
+        FileMetadataCache cache = new FileMetadataCache(new DataSize(1, MEGABYTE), stats);
+        AtomicInteger loads = new AtomicInteger();
+        StripeFooter stripeFooter = new StripeFooter(ImmutableList.of(), ImmutableList.of(), Optional.empty());
+        OrcMetadataCache.MetadataLoader<StripeFooter> loader = () -> {
+            loads.incrementAndGet();
+            return stripeFooter;
+        };
+
+        assertSame(cache.getOrcMetadataCache(PATH, 100, 1).getStripeFooter(3, 10, loader), stripeFooter);
+        assertSame(cache.getOrcMetadataCache(PATH, 100, 1).getStripeFooter(3, 10, loader), stripeFooter);
+        assertEquals(loads.get(), 1);
+
+        // a different stripe, a modified file or a file with a different size must not share entries
+        cache.getOrcMetadataCache(PATH, 100, 1).getStripeFooter(50, 10, loader);
+        cache.getOrcMetadataCache(PATH, 100, 2).getStripeFooter(3, 10, loader);
+        cache.getOrcMetadataCache(PATH, 101, 1).getStripeFooter(3, 10, loader);
+        assertEquals(loads.get(), 4);
+
+        assertEquals(stats.getMetadataCacheHits().getTotalCount(), 1);
+        assertEquals(stats.getMetadataCacheMisses().getTotalCount(), 4);
+        assertEquals(stats.getMetadataCacheHitRate(), 0.2);
+    }
+
+    @Test
+    public void testOrcRowGroupIndexes()
+    {
+        FileMetadataCache cache = new FileMetadataCache(new DataSize(1, MEGABYTE), new FileFormatDataSourceStats());
+        OrcMetadataCache orcMetadataCache = cache.getOrcMetadataCache(PATH, 100, 1);
+        StreamId streamId = new StreamId(1, ROW_INDEX);
+        List<RowGroupIndex> rowGroupIndexes = ImmutableList.of(new RowGroupIndex(ImmutableList.of(0, 0), new ColumnStatistics(10L, 0, null, null, null, null, null, null, null, null)));
+
+        assertFalse(orcMetadataCache.getRowGroupIndexes(0, streamId).isPresent());
+        orcMetadataCache.putRowGroupIndexes(0, streamId, rowGroupIndexes, 20);
+        assertSame(cache.getOrcMetadataCache(PATH, 100, 1).getRowGroupIndexes(0, streamId).get(), rowGroupIndexes);
+        assertFalse(cache.getOrcMetadataCache(PATH, 100, 1).getRowGroupIndexes(0, new StreamId(2, ROW_INDEX)).isPresent());
+    }
+
+    @Test
+    public void testParquetMetadata()
+            throws IOException
+    {
+        FileMetadataCache cache = new FileMetadataCache(new DataSize(1, MEGABYTE), new FileFormatDataSourceStats());
+        AtomicInteger loads = new AtomicInteger();
+        ParquetMetadata parquetMetadata = new ParquetMetadata(new FileMetaData(new MessageType("test"), ImmutableMap.of(), "test"), ImmutableList.of());
+        FileMetadataCache.MetadataLoader<ParquetMetadata> loader = () -> {
+            loads.incrementAndGet();
+            return parquetMetadata;
+        };
+
+        assertSame(cache.getParquetMetadata(PATH, 100, 1, loader), parquetMetadata);
+        assertSame(cache.getParquetMetadata(PATH, 100, 1, loader), parquetMetadata);
+        assertEquals(loads.get(), 1);
+
+        cache.flushCache();
+        cache.getParquetMetadata(PATH, 100, 1, loader);
+        assertEquals(loads.get(), 2);
+    }
+
+    @Test
+    public void testDisabled()
+            throws IOException
+    {
+        FileFormatDataSourceStats stats = new FileFormatDataSourceStats();
+        FileMetadataCache cache = FileMetadataCache.disabled(stats);
+        assertSame(cache.getOrcMetadataCache(PATH, 100, 1), OrcMetadataCache.NONE);
+
+        AtomicInteger loads = new AtomicInteger();
+        ParquetMetadata parquetMetadata = new ParquetMetadata(new FileMetaData(new MessageType("test"), ImmutableMap.of(), "test"), ImmutableList.of());
+        cache.getParquetMetadata(PATH, 100, 1, () -> {
+            loads.incrementAndGet();
+            return parquetMetadata;
+        });
+        cache.getParquetMetadata(PATH, 100, 1, () -> {
+            loads.incrementAndGet();
+            return parquetMetadata;
+        });
+        assertEquals(loads.get(), 2);
+        assertEquals(stats.getMetadataCacheMisses().getTotalCount(), 0);
+    }
+}
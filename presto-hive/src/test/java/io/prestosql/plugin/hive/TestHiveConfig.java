@@ -43,6 +43,7 @@ public class TestHiveConfig
                 .setTimeZone(TimeZone.getDefault().getID())
                 .setMaxSplitSize(new DataSize(64, Unit.MEGABYTE))
                 .setMaxPartitionsPerScan(100_000)
+                .setMaxPartitionsForEagerLoad(100_000)
                 .setMaxOutstandingSplits(1_000)
                 .setMaxOutstandingSplitsSize(new DataSize(256, Unit.MEGABYTE))
                 .setMaxSplitIteratorThreads(1_000)
@@ -52,6 +53,7 @@ public class TestHiveConfig
                 .setMetastoreTimeout(new Duration(10, TimeUnit.SECONDS))
                 .setMinPartitionBatchSize(10)
                 .setMaxPartitionBatchSize(100)
+                .setPartitionBatchConcurrency(4)
                 .setMaxInitialSplits(200)
                 .setMaxInitialSplitSize(new DataSize(32, Unit.MEGABYTE))
                 .setSplitLoaderConcurrency(4)
@@ -76,13 +78,17 @@ public class TestHiveConfig
                 .setImmutablePartitions(false)
                 .setCreateEmptyBucketFiles(true)
                 .setSortedWritingEnabled(true)
+                .setSortedReadingEnabled(false)
+                .setCombineSmallFiles(false)
                 .setMaxPartitionsPerWriter(100)
                 .setMaxOpenSortFiles(50)
                 .setWriteValidationThreads(16)
+                .setWriterSortMergeThreads(8)
                 .setTextMaxLineLength(new DataSize(100, Unit.MEGABYTE))
                 .setUseParquetColumnNames(false)
                 .setFailOnCorruptedParquetStatistics(true)
                 .setParquetMaxReadBlockSize(new DataSize(16, Unit.MEGABYTE))
+                .setParquetReadAheadRowGroups(1)
                 .setUseOrcColumnNames(false)
                 .setAssumeCanonicalPartitionKeys(false)
                 .setOrcBloomFiltersEnabled(false)
@@ -93,6 +99,7 @@ public class TestHiveConfig
                 .setOrcTinyStripeThreshold(new DataSize(8, Unit.MEGABYTE))
                 .setOrcMaxReadBlockSize(new DataSize(16, Unit.MEGABYTE))
                 .setOrcLazyReadSmallRanges(true)
+                .setOrcReadAheadStripes(1)
                 .setRcfileWriterValidate(false)
                 .setOrcWriteLegacyVersion(false)
                 .setOrcWriterValidationPercentage(0.0)
@@ -121,7 +128,9 @@ public class TestHiveConfig
                 .setTemporaryStagingDirectoryPath("/tmp/presto-${USER}")
                 .setFileStatusCacheExpireAfterWrite(new Duration(1, TimeUnit.MINUTES))
                 .setFileStatusCacheMaxSize(1000 * 1000)
-                .setFileStatusCacheTables(""));
+                .setFileStatusCacheTables("")
+                .setFileMetadataCacheMaxSize(new DataSize(64, Unit.MEGABYTE))
+                .setReadAheadThreads(16));
     }
 
     @Test
@@ -131,6 +140,7 @@ public class TestHiveConfig
                 .put("hive.time-zone", nonDefaultTimeZone().getID())
                 .put("hive.max-split-size", "256MB")
                 .put("hive.max-partitions-per-scan", "123")
+                .put("hive.max-partitions-for-eager-load", "122")
                 .put("hive.max-outstanding-splits", "10")
                 .put("hive.max-outstanding-splits-size", "32MB")
                 .put("hive.max-split-iterator-threads", "10")
@@ -140,6 +150,7 @@ public class TestHiveConfig
                 .put("hive.metastore-timeout", "20s")
                 .put("hive.metastore.partition-batch-size.min", "1")
                 .put("hive.metastore.partition-batch-size.max", "1000")
+                .put("hive.metastore.partition-batch-concurrency", "8")
                 .put("hive.dfs.ipc-ping-interval", "34s")
                 .put("hive.dfs-timeout", "33s")
                 .put("hive.dfs.connect.timeout", "20s")
@@ -164,6 +175,7 @@ public class TestHiveConfig
                 .put("hive.max-partitions-per-writers", "222")
                 .put("hive.max-open-sort-files", "333")
                 .put("hive.write-validation-threads", "11")
+                .put("hive.writer-sort-merge-threads", "3")
                 .put("hive.force-local-scheduling", "true")
                 .put("hive.max-concurrent-file-renames", "100")
                 .put("hive.assume-canonical-partition-keys", "true")
@@ -171,6 +183,7 @@ public class TestHiveConfig
                 .put("hive.parquet.use-column-names", "true")
                 .put("hive.parquet.fail-on-corrupted-statistics", "false")
                 .put("hive.parquet.max-read-block-size", "66kB")
+                .put("hive.parquet.read-ahead-row-groups", "3")
                 .put("hive.orc.use-column-names", "true")
                 .put("hive.orc.bloom-filters.enabled", "true")
                 .put("hive.orc.default-bloom-filter-fpp", "0.96")
@@ -180,6 +193,7 @@ public class TestHiveConfig
                 .put("hive.orc.tiny-stripe-threshold", "61kB")
                 .put("hive.orc.max-read-block-size", "66kB")
                 .put("hive.orc.lazy-read-small-ranges", "false")
+                .put("hive.orc.read-ahead-stripes", "2")
                 .put("hive.rcfile.writer.validate", "true")
                 .put("hive.orc.writer.use-legacy-version-number", "true")
                 .put("hive.orc.writer.validation-percentage", "0.16")
@@ -191,6 +205,8 @@ public class TestHiveConfig
                 .put("hive.skip-target-cleanup-on-rollback", "true")
                 .put("hive.bucket-execution", "false")
                 .put("hive.sorted-writing", "false")
+                .put("hive.sorted-reading", "true")
+                .put("hive.combine-small-files", "true")
                 .put("hive.fs.cache.max-size", "1010")
                 .put("hive.table-statistics-enabled", "false")
                 .put("hive.optimize-mismatched-bucket-count", "true")
@@ -210,12 +226,15 @@ public class TestHiveConfig
                 .put("hive.file-status-cache-tables", "foo.bar1, foo.bar2")
                 .put("hive.file-status-cache-size", "1000")
                 .put("hive.file-status-cache-expire-time", "30m")
+                .put("hive.file-metadata-cache.max-size", "1GB")
+                .put("hive.read-ahead-threads", "64")
                 .build();
 
         HiveConfig expected = new HiveConfig()
                 .setTimeZone(nonDefaultTimeZone().toTimeZone().getID())
                 .setMaxSplitSize(new DataSize(256, Unit.MEGABYTE))
                 .setMaxPartitionsPerScan(123)
+                .setMaxPartitionsForEagerLoad(122)
                 .setMaxOutstandingSplits(10)
                 .setMaxOutstandingSplitsSize(new DataSize(32, Unit.MEGABYTE))
                 .setMaxSplitIteratorThreads(10)
@@ -225,6 +244,7 @@ public class TestHiveConfig
                 .setMetastoreTimeout(new Duration(20, TimeUnit.SECONDS))
                 .setMinPartitionBatchSize(1)
                 .setMaxPartitionBatchSize(1000)
+                .setPartitionBatchConcurrency(8)
                 .setMaxInitialSplits(10)
                 .setMaxInitialSplitSize(new DataSize(16, Unit.MEGABYTE))
                 .setSplitLoaderConcurrency(1)
@@ -249,12 +269,14 @@ public class TestHiveConfig
                 .setMaxPartitionsPerWriter(222)
                 .setMaxOpenSortFiles(333)
                 .setWriteValidationThreads(11)
+                .setWriterSortMergeThreads(3)
                 .setDomainSocketPath("/foo")
                 .setS3FileSystemType(S3FileSystemType.EMRFS)
                 .setTextMaxLineLength(new DataSize(13, Unit.MEGABYTE))
                 .setUseParquetColumnNames(true)
                 .setFailOnCorruptedParquetStatistics(false)
                 .setParquetMaxReadBlockSize(new DataSize(66, Unit.KILOBYTE))
+                .setParquetReadAheadRowGroups(3)
                 .setUseOrcColumnNames(true)
                 .setAssumeCanonicalPartitionKeys(true)
                 .setOrcBloomFiltersEnabled(true)
@@ -265,6 +287,7 @@ public class TestHiveConfig
                 .setOrcTinyStripeThreshold(new DataSize(61, Unit.KILOBYTE))
                 .setOrcMaxReadBlockSize(new DataSize(66, Unit.KILOBYTE))
                 .setOrcLazyReadSmallRanges(false)
+                .setOrcReadAheadStripes(2)
                 .setRcfileWriterValidate(true)
                 .setOrcWriteLegacyVersion(true)
                 .setOrcWriterValidationPercentage(0.16)
@@ -276,6 +299,8 @@ public class TestHiveConfig
                 .setSkipTargetCleanupOnRollback(true)
                 .setBucketExecutionEnabled(false)
                 .setSortedWritingEnabled(false)
+                .setSortedReadingEnabled(true)
+                .setCombineSmallFiles(true)
                 .setFileSystemMaxCacheSize(1010)
                 .setTableStatisticsEnabled(false)
                 .setOptimizeMismatchedBucketCount(true)
@@ -294,7 +319,9 @@ public class TestHiveConfig
                 .setTemporaryStagingDirectoryPath("updated")
                 .setFileStatusCacheTables("foo.bar1,foo.bar2")
                 .setFileStatusCacheMaxSize(1000)
-                .setFileStatusCacheExpireAfterWrite(new Duration(30, TimeUnit.MINUTES));
+                .setFileStatusCacheExpireAfterWrite(new Duration(30, TimeUnit.MINUTES))
+                .setFileMetadataCacheMaxSize(new DataSize(1, Unit.GIGABYTE))
+                .setReadAheadThreads(64);
 
         assertFullMapping(properties, expected);
     }
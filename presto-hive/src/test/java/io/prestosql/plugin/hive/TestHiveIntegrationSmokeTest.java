@@ -115,6 +115,7 @@ import static io.prestosql.spi.type.VarcharType.createVarcharType;
 import static io.prestosql.sql.analyzer.FeaturesConfig.JoinDistributionType.BROADCAST;
 import static io.prestosql.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
 import static io.prestosql.sql.planner.planprinter.PlanPrinter.textLogicalPlan;
+import static io.prestosql.sql.tree.ExplainType.Type.LOGICAL;
 import static io.prestosql.testing.MaterializedResult.resultBuilder;
 import static io.prestosql.testing.TestingAccessControlManager.TestingPrivilegeType.SELECT_COLUMN;
 import static io.prestosql.testing.TestingAccessControlManager.privilege;
@@ -295,6 +296,50 @@ public class TestHiveIntegrationSmokeTest
         assertUpdate(session, "DROP TABLE test_read_no_columns");
     }
 
+    @Test
+    public void testReadFilteredColumns()
+    {
+        testWithAllStorageFormats(this::testReadFilteredColumns);
+    }
+
+    private void testReadFilteredColumns(Session session, HiveStorageFormat storageFormat)
+    {
+        // the projected columns are only decoded at the positions selected by the filter
+        assertUpdate(session, format("CREATE TABLE test_read_filtered_columns WITH (format = '%s') AS SELECT orderkey, comment, orderstatus, totalprice FROM orders", storageFormat), "SELECT count(*) FROM orders");
+        assertQuery(session, "SELECT comment, orderstatus, totalprice FROM test_read_filtered_columns WHERE orderkey % 17 = 3", "SELECT comment, orderstatus, totalprice FROM orders WHERE orderkey % 17 = 3");
+        assertQuery(session, "SELECT orderkey, upper(comment) FROM test_read_filtered_columns WHERE totalprice < 2000", "SELECT orderkey, upper(comment) FROM orders WHERE totalprice < 2000");
+        assertUpdate(session, "DROP TABLE test_read_filtered_columns");
+    }
+
+    @Test
+    public void testAggregationPushdown()
+    {
+        testWithAllStorageFormats(this::testAggregationPushdown);
+
+        assertUpdate("CREATE TABLE test_aggregation_pushdown_plan WITH (partitioned_by = ARRAY['ds']) AS SELECT orderkey, orderstatus ds FROM orders", "SELECT count(*) FROM orders");
+        // the splits produce the partial results, which are combined by the final aggregation
+        assertFalse(getExplainPlan("SELECT count(*), min(ds), max(orderkey) FROM test_aggregation_pushdown_plan WHERE ds <> 'F'", LOGICAL).contains("Aggregate(PARTIAL)"));
+        assertTrue(getExplainPlan("SELECT count(*) FROM test_aggregation_pushdown_plan WHERE orderkey > 10", LOGICAL).contains("Aggregate(PARTIAL)"));
+        assertTrue(getExplainPlan("SELECT ds, count(*) FROM test_aggregation_pushdown_plan GROUP BY ds", LOGICAL).contains("Aggregate(PARTIAL)"));
+        assertUpdate("DROP TABLE test_aggregation_pushdown_plan");
+    }
+
+    private void testAggregationPushdown(Session session, HiveStorageFormat storageFormat)
+    {
+        assertUpdate(
+                session,
+                format("CREATE TABLE test_aggregation_pushdown WITH (format = '%s', partitioned_by = ARRAY['ds']) AS SELECT orderkey, custkey, orderdate, comment, orderstatus ds FROM orders", storageFormat),
+                "SELECT count(*) FROM orders");
+        assertQuery(
+                session,
+                "SELECT count(*), count(comment), min(ds), max(ds), min(orderkey), max(custkey), min(orderdate), max(orderdate) FROM test_aggregation_pushdown",
+                "SELECT count(*), count(comment), min(orderstatus), max(orderstatus), min(orderkey), max(custkey), min(orderdate), max(orderdate) FROM orders");
+        assertQuery(session, "SELECT count(*), max(orderkey) FROM test_aggregation_pushdown WHERE ds = 'O'", "SELECT count(*), max(orderkey) FROM orders WHERE orderstatus = 'O'");
+        assertQuery(session, "SELECT count(*), max(orderkey) FROM test_aggregation_pushdown WHERE custkey < 100", "SELECT count(*), max(orderkey) FROM orders WHERE custkey < 100");
+        assertQuery(session, "SELECT count(*), min(orderkey) FROM test_aggregation_pushdown WHERE ds = 'X'", "SELECT 0, NULL");
+        assertUpdate(session, "DROP TABLE test_aggregation_pushdown");
+    }
+
     @Test
     public void createTableWithEveryType()
     {
@@ -2050,6 +2095,55 @@ public class TestHiveIntegrationSmokeTest
                 "SELECT custkey, COUNT(*) FROM orders GROUP BY custkey");
     }
 
+    @Test
+    public void testSortedBucketRead()
+    {
+        try {
+            assertUpdate(
+                    "CREATE TABLE test_sorted_bucket_read " +
+                            "WITH (bucketed_by = ARRAY['custkey'], bucket_count = 11, sorted_by = ARRAY['custkey', 'orderkey']) " +
+                            "AS SELECT custkey, orderkey, totalprice FROM tpch.tiny.orders",
+                    15000);
+
+            Session sortedReading = Session.builder(getSession())
+                    .setCatalogSessionProperty(catalog, "sorted_reading_enabled", "true")
+                    .build();
+            String query = "SELECT custkey, count(*), sum(totalprice) FROM test_sorted_bucket_read GROUP BY custkey";
+
+            assertFalse(((String) computeScalar("EXPLAIN " + query)).contains("(STREAMING)"));
+            assertTrue(((String) computeActual(sortedReading, "EXPLAIN " + query).getOnlyValue()).contains("Aggregate(STREAMING)"));
+            assertQuery(sortedReading, query, "SELECT custkey, count(*), sum(totalprice) FROM orders GROUP BY custkey");
+            assertQuery(sortedReading, "SELECT count(DISTINCT custkey) FROM test_sorted_bucket_read", "SELECT count(DISTINCT custkey) FROM orders");
+        }
+        finally {
+            assertUpdate("DROP TABLE IF EXISTS test_sorted_bucket_read");
+        }
+    }
+
+    @Test
+    public void testCombineSmallFiles()
+    {
+        try {
+            assertUpdate("CREATE TABLE test_combine_small_files AS SELECT orderkey, custkey FROM tpch.tiny.orders WHERE orderkey % 3 = 0", "SELECT count(*) FROM orders WHERE orderkey % 3 = 0");
+            assertUpdate("INSERT INTO test_combine_small_files SELECT orderkey, custkey FROM tpch.tiny.orders WHERE orderkey % 3 = 1", "SELECT count(*) FROM orders WHERE orderkey % 3 = 1");
+            assertUpdate("INSERT INTO test_combine_small_files SELECT orderkey, custkey FROM tpch.tiny.orders WHERE orderkey % 3 = 2", "SELECT count(*) FROM orders WHERE orderkey % 3 = 2");
+
+            Session combineSmallFiles = Session.builder(getSession())
+                    .setCatalogSessionProperty(catalog, "combine_small_files", "true")
+                    .build();
+
+            assertQuery(combineSmallFiles, "SELECT count(*), sum(orderkey), sum(custkey) FROM test_combine_small_files", "SELECT count(*), sum(orderkey), sum(custkey) FROM orders");
+            assertQuery(combineSmallFiles, "SELECT count(*) FROM test_combine_small_files WHERE custkey = 100", "SELECT count(*) FROM orders WHERE custkey = 100");
+
+            // every file still reports its own path
+            String pathQuery = "SELECT \"$path\", count(*), min(orderkey % 3), max(orderkey % 3) FROM test_combine_small_files GROUP BY 1";
+            assertEqualsIgnoreOrder(computeActual(combineSmallFiles, pathQuery).getMaterializedRows(), computeActual(pathQuery).getMaterializedRows());
+        }
+        finally {
+            assertUpdate("DROP TABLE IF EXISTS test_combine_small_files");
+        }
+    }
+
     @Test
     public void testScaleWriters()
     {
@@ -3294,6 +3388,33 @@ public class TestHiveIntegrationSmokeTest
                             "(5, 2)",
                     assertRemoteExchangesCount(1));
 
+            //
+            // Table write with matching bucketing
+            // ===================================
+            @Language("SQL") String createBucketedCopy =
+                    "CREATE TABLE test_grouped_write\n" +
+                            "WITH (bucket_count = 13, bucketed_by = ARRAY['key']) AS\n" +
+                            "SELECT key1 key, value1 value FROM test_grouped_join1";
+            @Language("SQL") String insertBucketedCopy =
+                    "INSERT INTO test_grouped_write\n" +
+                            "SELECT key2, value2 FROM test_grouped_join2";
+
+            assertThat((String) computeActual(notColocated, "EXPLAIN (TYPE DISTRIBUTED) " + createBucketedCopy).getOnlyValue())
+                    .doesNotContain("LIFESPAN_SCHEDULE_GROUPED_EXECUTION");
+            assertThat((String) computeActual(colocatedOneGroupAtATime, "EXPLAIN (TYPE DISTRIBUTED) " + createBucketedCopy).getOnlyValue())
+                    .contains("FIXED_LIFESPAN_SCHEDULE_GROUPED_EXECUTION");
+            assertThat((String) computeActual(colocatedOneGroupAtATimeDynamic, "EXPLAIN (TYPE DISTRIBUTED) " + createBucketedCopy).getOnlyValue())
+                    .contains("DYNAMIC_LIFESPAN_SCHEDULE_GROUPED_EXECUTION");
+            for (Session session : ImmutableList.of(notColocated, colocatedAllGroupsAtOnce, colocatedOneGroupAtATime, colocatedOneGroupAtATimeDynamic)) {
+                // no remote exchange between the scan and the writer
+                assertUpdate(session, createBucketedCopy, 15000, assertRemoteExchangesCount(1));
+                assertUpdate(session, insertBucketedCopy, 15000, assertRemoteExchangesCount(1));
+                assertQuery(
+                        "SELECT key, value, \"$bucket\" FROM test_grouped_write",
+                        "SELECT orderkey, comment, mod(orderkey, 13) FROM orders UNION ALL SELECT orderkey, comment, mod(orderkey, 13) FROM orders");
+                assertUpdate("DROP TABLE test_grouped_write");
+            }
+
             //
             // Filter out all or majority of splits
             // ====================================
@@ -3339,6 +3460,7 @@ public class TestHiveIntegrationSmokeTest
             assertUpdate("DROP TABLE IF EXISTS test_grouped_joinN");
             assertUpdate("DROP TABLE IF EXISTS test_grouped_joinDual");
             assertUpdate("DROP TABLE IF EXISTS test_grouped_window");
+            assertUpdate("DROP TABLE IF EXISTS test_grouped_write");
         }
     }
 
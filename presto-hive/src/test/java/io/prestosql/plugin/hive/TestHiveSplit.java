@@ -17,17 +17,21 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.json.JsonCodec;
 import io.prestosql.plugin.hive.HiveColumnHandle.ColumnType;
+import io.prestosql.plugin.hive.HiveSplit.CombinedFile;
 import io.prestosql.spi.HostAddress;
 import org.testng.annotations.Test;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Properties;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.prestosql.plugin.hive.HiveType.HIVE_LONG;
 import static io.prestosql.plugin.hive.HiveType.HIVE_STRING;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 public class TestHiveSplit
 {
@@ -50,6 +54,7 @@ public class TestHiveSplit
                 42,
                 87,
                 88,
+                123,
                 schema,
                 partitionKeys,
                 addresses,
@@ -60,7 +65,8 @@ public class TestHiveSplit
                         32,
                         16,
                         ImmutableList.of(new HiveColumnHandle("col", HIVE_LONG, BIGINT.getTypeSignature(), 5, ColumnType.REGULAR, Optional.of("comment"))))),
-                false);
+                false,
+                ImmutableList.of());
 
         String json = codec.toJson(expected);
         HiveSplit actual = codec.fromJson(json);
@@ -72,6 +78,7 @@ public class TestHiveSplit
         assertEquals(actual.getStart(), expected.getStart());
         assertEquals(actual.getLength(), expected.getLength());
         assertEquals(actual.getFileSize(), expected.getFileSize());
+        assertEquals(actual.getFileModifiedTime(), expected.getFileModifiedTime());
         assertEquals(actual.getSchema(), expected.getSchema());
         assertEquals(actual.getPartitionKeys(), expected.getPartitionKeys());
         assertEquals(actual.getAddresses(), expected.getAddresses());
@@ -79,5 +86,39 @@ public class TestHiveSplit
         assertEquals(actual.getBucketConversion(), expected.getBucketConversion());
         assertEquals(actual.isForceLocalScheduling(), expected.isForceLocalScheduling());
         assertEquals(actual.isS3SelectPushdownEnabled(), expected.isS3SelectPushdownEnabled());
+        assertEquals(actual.getCombinedFiles(), expected.getCombinedFiles());
+    }
+
+    @Test
+    public void testCombinedFiles()
+    {
+        HiveSplit expected = new HiveSplit(
+                "db",
+                "table",
+                "partitionId",
+                "path",
+                0,
+                88,
+                88,
+                123,
+                new Properties(),
+                ImmutableList.of(),
+                ImmutableList.of(),
+                OptionalInt.empty(),
+                false,
+                ImmutableMap.of(),
+                Optional.empty(),
+                false,
+                ImmutableList.of(new CombinedFile("path2", 10, 456), new CombinedFile("path3", 20, 789)));
+
+        HiveSplit actual = codec.fromJson(codec.toJson(expected));
+        assertEquals(actual.getCombinedFiles(), expected.getCombinedFiles());
+
+        List<HiveSplit> fileSplits = actual.getFileSplits();
+        assertEquals(fileSplits.stream().map(HiveSplit::getPath).collect(toImmutableList()), ImmutableList.of("path", "path2", "path3"));
+        assertEquals(fileSplits.stream().map(HiveSplit::getLength).collect(toImmutableList()), ImmutableList.of(88L, 10L, 20L));
+        assertEquals(fileSplits.get(2).getFileModifiedTime(), 789);
+        assertEquals(fileSplits.get(2).getStart(), 0);
+        assertTrue(fileSplits.stream().allMatch(split -> split.getCombinedFiles().isEmpty()));
     }
 }
@@ -19,8 +19,10 @@ import com.google.common.util.concurrent.SettableFuture;
 import io.airlift.stats.CounterStat;
 import io.airlift.units.DataSize;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplit;
 import io.prestosql.spi.connector.ConnectorSplitSource;
+import io.prestosql.testing.TestingConnectorSession;
 import org.testng.annotations.Test;
 
 import java.util.List;
@@ -31,8 +33,10 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.airlift.testing.Assertions.assertContains;
+import static io.airlift.units.DataSize.Unit.BYTE;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.prestosql.plugin.hive.HiveTestUtils.SESSION;
 import static io.prestosql.spi.connector.NotPartitionedPartitionHandle.NOT_PARTITIONED;
@@ -77,6 +81,38 @@ public class TestHiveSplitSource
         assertEquals(hiveSplitSource.getBufferedInternalSplitCount(), 0);
     }
 
+    @Test
+    public void testCombineSmallFiles()
+    {
+        ConnectorSession session = new TestingConnectorSession(
+                new HiveSessionProperties(new HiveConfig().setCombineSmallFiles(true).setMaxSplitSize(new DataSize(450, BYTE)), new OrcFileWriterConfig(), new ParquetFileWriterConfig()).getSessionProperties());
+        HiveSplitSource hiveSplitSource = HiveSplitSource.allAtOnce(
+                session,
+                "database",
+                "table",
+                0,
+                20,
+                new DataSize(1, MEGABYTE),
+                Integer.MAX_VALUE,
+                new TestingHiveSplitLoader(),
+                Executors.newFixedThreadPool(5),
+                new CounterStat());
+
+        for (int i = 0; i < 10; i++) {
+            hiveSplitSource.addToQueue(new TestSplit(i));
+        }
+        hiveSplitSource.addToQueue(new TestSplit(10, OptionalInt.of(1)));
+        assertEquals(hiveSplitSource.getBufferedInternalSplitCount(), 11);
+
+        // the files are combined up to the max split size, except the one with a bucket
+        List<HiveSplit> splits = getSplits(hiveSplitSource, 20).stream()
+                .map(HiveSplit.class::cast)
+                .collect(toImmutableList());
+        assertEquals(splits.stream().map(split -> split.getCombinedFiles().size()).collect(toImmutableList()), ImmutableList.of(3, 3, 0, 1));
+        assertEquals(splits.stream().mapToInt(split -> split.getFileSplits().size()).sum(), 11);
+        assertEquals(hiveSplitSource.getBufferedInternalSplitCount(), 0);
+    }
+
     @Test
     public void testFail()
     {
@@ -298,6 +334,7 @@ public class TestHiveSplitSource
                     0,
                     100,
                     100,
+                    0,
                     properties("id", String.valueOf(id)),
                     ImmutableList.of(),
                     ImmutableList.of(new InternalHiveBlock(0, 100, ImmutableList.of())),
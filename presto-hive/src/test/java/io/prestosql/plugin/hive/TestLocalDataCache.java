@@ -0,0 +1,263 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import com.google.common.io.Files;
+import io.airlift.units.DataSize;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class TestLocalDataCache
+{
+    private static final int BLOCK_SIZE = 4096;
+    private static final int FILE_SIZE = 5 * BLOCK_SIZE + 123;
+
+    private File tempDir;
+    private File cacheDir;
+    private byte[] data;
+    private Path path;
+    private FileSystem fileSystem;
+
+    @BeforeMethod
+    public void setUp()
+            throws IOException
+    {
+        tempDir = Files.createTempDir();
+        cacheDir = new File(tempDir, "cache");
+        data = new byte[FILE_SIZE];
+        new Random(42).nextBytes(data);
+        File file = new File(tempDir, "data");
+        Files.write(data, file);
+        path = new Path(file.toURI());
+        fileSystem = new RawLocalFileSystem();
+        fileSystem.initialize(file.toURI(), new Configuration(false));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        fileSystem.close();
+        deleteRecursively(tempDir.toPath(), ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testDisabled()
+            throws IOException
+    {
+        LocalDataCache cache = LocalDataCache.disabled();
+        try (FSDataInputStream inputStream = fileSystem.open(path)) {
+            assertSame(cache.wrap(path, FILE_SIZE, 1, inputStream), inputStream);
+        }
+        assertFalse(cacheDir.exists());
+    }
+
+    @Test
+    public void testReadThrough()
+            throws Exception
+    {
+        LocalDataCache cache = createCache();
+        try (FSDataInputStream inputStream = cache.wrap(path, FILE_SIZE, 1, fileSystem.open(path))) {
+            assertRead(inputStream, 100, 10);
+            assertEquals(cache.getMisses().getTotalCount(), 1);
+            assertEquals(cache.getRemoteBytesRead().getTotalCount(), BLOCK_SIZE);
+            waitForBlocks(cache, 1);
+
+            // the first block is served from local disk, the next two are read from the remote file in a single read
+            assertRead(inputStream, BLOCK_SIZE - 10, BLOCK_SIZE + 20);
+            assertEquals(cache.getHits().getTotalCount(), 1);
+            assertEquals(cache.getMisses().getTotalCount(), 3);
+            assertEquals(cache.getRemoteBytesRead().getTotalCount(), 3 * BLOCK_SIZE);
+            waitForBlocks(cache, 3);
+
+            assertRead(inputStream, 0, FILE_SIZE);
+            assertEquals(cache.getHits().getTotalCount(), 4);
+            assertEquals(cache.getMisses().getTotalCount(), 6);
+            assertEquals(cache.getRemoteBytesRead().getTotalCount(), FILE_SIZE);
+            waitForBlocks(cache, 6);
+            assertEquals(cache.getCachedBytes(), FILE_SIZE);
+
+            assertRead(inputStream, 3, FILE_SIZE - 3);
+            assertEquals(cache.getHits().getTotalCount(), 10);
+            assertEquals(cache.getRemoteBytesRead().getTotalCount(), FILE_SIZE);
+            assertEquals(cache.getCachedBytesRead().getTotalCount(), 10 + 3 * BLOCK_SIZE + FILE_SIZE - 3);
+        }
+    }
+
+    @Test
+    public void testStreamRead()
+            throws Exception
+    {
+        LocalDataCache cache = createCache();
+        try (FSDataInputStream inputStream = cache.wrap(path, FILE_SIZE, 1, fileSystem.open(path))) {
+            inputStream.seek(FILE_SIZE - 2);
+            assertEquals(inputStream.read(), data[FILE_SIZE - 2] & 0xFF);
+            byte[] buffer = new byte[10];
+            assertEquals(inputStream.read(buffer, 0, buffer.length), 1);
+            assertEquals(buffer[0], data[FILE_SIZE - 1]);
+            assertEquals(inputStream.read(), -1);
+            assertEquals(inputStream.getPos(), FILE_SIZE);
+        }
+    }
+
+    @Test
+    public void testFileModified()
+            throws Exception
+    {
+        LocalDataCache cache = createCache();
+        try (FSDataInputStream inputStream = cache.wrap(path, FILE_SIZE, 1, fileSystem.open(path))) {
+            assertRead(inputStream, 0, 10);
+            waitForBlocks(cache, 1);
+        }
+        try (FSDataInputStream inputStream = cache.wrap(path, FILE_SIZE, 2, fileSystem.open(path))) {
+            assertRead(inputStream, 0, 10);
+        }
+        assertEquals(cache.getHits().getTotalCount(), 0);
+        assertEquals(cache.getMisses().getTotalCount(), 2);
+    }
+
+    @Test
+    public void testMissingBlockFile()
+            throws Exception
+    {
+        LocalDataCache cache = createCache();
+        try (FSDataInputStream inputStream = cache.wrap(path, FILE_SIZE, 1, fileSystem.open(path))) {
+            assertRead(inputStream, 0, 10);
+            waitForBlocks(cache, 1);
+
+            deleteBlockFiles();
+            assertRead(inputStream, 0, 10);
+            assertEquals(cache.getHits().getTotalCount(), 0);
+            assertEquals(cache.getMisses().getTotalCount(), 2);
+        }
+    }
+
+    @Test
+    public void testEviction()
+            throws Exception
+    {
+        LocalDataCache cache = new LocalDataCache(createConfig().setMaxSize(new DataSize(2 * BLOCK_SIZE, DataSize.Unit.BYTE)));
+        try (FSDataInputStream inputStream = cache.wrap(path, FILE_SIZE, 1, fileSystem.open(path))) {
+            for (int block = 0; block < 4; block++) {
+                assertRead(inputStream, block * BLOCK_SIZE, 1);
+                waitForAdmissions(cache);
+            }
+            assertTrue(cache.getCachedBytes() <= 2 * BLOCK_SIZE);
+            assertEquals(cache.getCachedBytes(), cache.getBlockCount() * BLOCK_SIZE);
+            assertEquals(countBlockFiles(), cache.getBlockCount());
+
+            cache.flushCache();
+            assertEquals(cache.getBlockCount(), 0);
+            assertEquals(cache.getCachedBytes(), 0);
+            assertEquals(countBlockFiles(), 0);
+        }
+        finally {
+            cache.shutdown();
+        }
+    }
+
+    @Test
+    public void testStartupCleanup()
+            throws Exception
+    {
+        LocalDataCache cache = createCache();
+        try (FSDataInputStream inputStream = cache.wrap(path, FILE_SIZE, 1, fileSystem.open(path))) {
+            assertRead(inputStream, 0, FILE_SIZE);
+            waitForBlocks(cache, 6);
+        }
+        cache.shutdown();
+        File unrelated = new File(cacheDir, "unrelated");
+        Files.write(new byte[1], unrelated);
+
+        createCache();
+        assertEquals(countBlockFiles(), 0);
+        assertTrue(unrelated.exists());
+    }
+
+    private LocalDataCache createCache()
+    {
+        return new LocalDataCache(createConfig());
+    }
+
+    private LocalDataCacheConfig createConfig()
+    {
+        return new LocalDataCacheConfig()
+                .setEnabled(true)
+                .setDirectory(cacheDir.getPath())
+                .setMaxSize(new DataSize(1, MEGABYTE))
+                .setBlockSize(new DataSize(BLOCK_SIZE / 1024, KILOBYTE));
+    }
+
+    private void assertRead(FSDataInputStream inputStream, int position, int length)
+            throws IOException
+    {
+        byte[] buffer = new byte[length + 2];
+        inputStream.readFully(position, buffer, 1, length);
+        assertEquals(Arrays.copyOfRange(buffer, 1, length + 1), Arrays.copyOfRange(data, position, position + length));
+        assertEquals(buffer[0], 0);
+        assertEquals(buffer[length + 1], 0);
+    }
+
+    private static void waitForBlocks(LocalDataCache cache, long blocks)
+            throws InterruptedException
+    {
+        waitForAdmissions(cache);
+        assertEquals(cache.getBlockCount(), blocks);
+    }
+
+    private static void waitForAdmissions(LocalDataCache cache)
+            throws InterruptedException
+    {
+        while (cache.getPendingAdmissions() > 0) {
+            Thread.sleep(10);
+        }
+    }
+
+    private long countBlockFiles()
+            throws IOException
+    {
+        try (Stream<java.nio.file.Path> files = java.nio.file.Files.walk(cacheDir.toPath())) {
+            return files.filter(file -> file.toString().endsWith(".block")).count();
+        }
+    }
+
+    private void deleteBlockFiles()
+            throws IOException
+    {
+        try (Stream<java.nio.file.Path> files = java.nio.file.Files.walk(cacheDir.toPath())) {
+            files.filter(file -> file.toString().endsWith(".block")).forEach(file -> file.toFile().delete());
+        }
+    }
+}
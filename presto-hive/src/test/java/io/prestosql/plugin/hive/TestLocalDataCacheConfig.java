@@ -0,0 +1,65 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static io.airlift.configuration.testing.ConfigAssertions.assertFullMapping;
+import static io.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
+import static io.airlift.configuration.testing.ConfigAssertions.recordDefaults;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+
+public class TestLocalDataCacheConfig
+{
+    @Test
+    public void testDefaults()
+    {
+        assertRecordedDefaults(recordDefaults(LocalDataCacheConfig.class)
+                .setEnabled(false)
+                .setDirectory(null)
+                .setMaxSize(new DataSize(10, GIGABYTE))
+                .setBlockSize(new DataSize(1, MEGABYTE))
+                .setAdmissionThreads(2)
+                .setMaxPendingAdmissions(64));
+    }
+
+    @Test
+    public void testExplicitPropertyMappings()
+    {
+        Map<String, String> properties = new ImmutableMap.Builder<String, String>()
+                .put("hive.local-cache.enabled", "true")
+                .put("hive.local-cache.directory", "/mnt/ssd/presto-cache")
+                .put("hive.local-cache.max-size", "200GB")
+                .put("hive.local-cache.block-size", "256kB")
+                .put("hive.local-cache.admission-threads", "8")
+                .put("hive.local-cache.max-pending-admissions", "512")
+                .build();
+
+        LocalDataCacheConfig expected = new LocalDataCacheConfig()
+                .setEnabled(true)
+                .setDirectory("/mnt/ssd/presto-cache")
+                .setMaxSize(new DataSize(200, GIGABYTE))
+                .setBlockSize(new DataSize(256, KILOBYTE))
+                .setAdmissionThreads(8)
+                .setMaxPendingAdmissions(512);
+
+        assertFullMapping(properties, expected);
+    }
+}
@@ -205,6 +205,44 @@ public class TestCachingHiveMetastore
         assertEquals(mockClient.getAccessCount(), 7);
     }
 
+    @Test
+    public void testGetPartitionsByNamesInConcurrentBatches()
+    {
+        ThriftHiveMetastore thriftHiveMetastore = new ThriftHiveMetastore(
+                new MockMetastoreLocator(mockClient),
+                new ThriftHiveMetastoreConfig().setPartitionFetchBatchSize(1));
+        try {
+            assertEquals(thriftHiveMetastore.getPartitionsByNames(TEST_DATABASE, TEST_TABLE, ImmutableList.of(TEST_PARTITION1, TEST_PARTITION2)).size(), 2);
+            // one metastore call per batch
+            assertEquals(mockClient.getAccessCount(), 2);
+            assertEquals(thriftHiveMetastore.getStats().getGetPartitionsByNames().getTime().getAllTime().getCount(), 2.0);
+            assertEquals(thriftHiveMetastore.getStats().getGetPartitionsByNamesConcurrent().getAllTime().getCount(), 1.0);
+        }
+        finally {
+            thriftHiveMetastore.shutdown();
+        }
+    }
+
+    @Test
+    public void testWarmPartitionCache()
+    {
+        // nothing has been queried yet
+        metastore.warmPartitionCache();
+        assertEquals(mockClient.getAccessCount(), 0);
+
+        assertEquals(metastore.getPartitionNames(TEST_DATABASE, TEST_TABLE).get(), ImmutableList.of(TEST_PARTITION1, TEST_PARTITION2));
+        assertEquals(mockClient.getAccessCount(), 1);
+
+        metastore.warmPartitionCache();
+        int accessCount = mockClient.getAccessCount();
+        assertTrue(accessCount > 1);
+
+        // partition names and partitions are served from the cache
+        assertEquals(metastore.getPartitionNames(TEST_DATABASE, TEST_TABLE).get(), ImmutableList.of(TEST_PARTITION1, TEST_PARTITION2));
+        assertEquals(metastore.getPartitionsByNames(TEST_DATABASE, TEST_TABLE, ImmutableList.of(TEST_PARTITION1, TEST_PARTITION2)).size(), 2);
+        assertEquals(mockClient.getAccessCount(), accessCount);
+    }
+
     @Test
     public void testListRoles()
             throws Exception
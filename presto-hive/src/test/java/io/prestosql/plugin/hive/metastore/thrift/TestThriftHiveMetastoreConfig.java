@@ -34,7 +34,9 @@ public class TestThriftHiveMetastoreConfig
                 .setBackoffScaleFactor(2.0)
                 .setMinBackoffDelay(new Duration(1, SECONDS))
                 .setMaxBackoffDelay(new Duration(1, SECONDS))
-                .setMaxRetryTime(new Duration(30, SECONDS)));
+                .setMaxRetryTime(new Duration(30, SECONDS))
+                .setPartitionFetchBatchSize(100)
+                .setMaxPartitionFetchThreads(4));
     }
 
     @Test
@@ -46,6 +48,8 @@ public class TestThriftHiveMetastoreConfig
                 .put("hive.metastore.thrift.client.min-backoff-delay", "2s")
                 .put("hive.metastore.thrift.client.max-backoff-delay", "4s")
                 .put("hive.metastore.thrift.client.max-retry-time", "60s")
+                .put("hive.metastore.thrift.partition-fetch.batch-size", "50")
+                .put("hive.metastore.thrift.partition-fetch.max-threads", "8")
                 .build();
 
         ThriftHiveMetastoreConfig expected = new ThriftHiveMetastoreConfig()
@@ -53,7 +57,9 @@ public class TestThriftHiveMetastoreConfig
                 .setBackoffScaleFactor(3.0)
                 .setMinBackoffDelay(new Duration(2, SECONDS))
                 .setMaxBackoffDelay(new Duration(4, SECONDS))
-                .setMaxRetryTime(new Duration(60, SECONDS));
+                .setMaxRetryTime(new Duration(60, SECONDS))
+                .setPartitionFetchBatchSize(50)
+                .setMaxPartitionFetchThreads(8);
 
         assertFullMapping(properties, expected);
     }
@@ -14,10 +14,15 @@
 package io.prestosql.plugin.hive.s3;
 
 import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.CannedAccessControlList;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadResult;
 import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
 import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
@@ -26,8 +31,13 @@ import com.amazonaws.services.s3.model.PutObjectResult;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.s3.model.StorageClass;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+import com.google.common.collect.ImmutableList;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import static java.net.HttpURLConnection.HTTP_OK;
 
@@ -39,6 +49,11 @@ public class MockAmazonS3
     private GetObjectMetadataRequest getObjectMetadataRequest;
     private CannedAccessControlList acl;
     private boolean hasGlacierObjects;
+    private int putObjectCount;
+    private final List<Long> uploadedPartSizes = new ArrayList<>();
+    private boolean failUploadPart;
+    private boolean multipartUploadCompleted;
+    private boolean multipartUploadAborted;
 
     public void setGetObjectHttpErrorCode(int getObjectHttpErrorCode)
     {
@@ -60,6 +75,31 @@ public class MockAmazonS3
         this.hasGlacierObjects = hasGlacierObjects;
     }
 
+    public int getPutObjectCount()
+    {
+        return putObjectCount;
+    }
+
+    public synchronized List<Long> getUploadedPartSizes()
+    {
+        return ImmutableList.copyOf(uploadedPartSizes);
+    }
+
+    public void setFailUploadPart(boolean failUploadPart)
+    {
+        this.failUploadPart = failUploadPart;
+    }
+
+    public boolean isMultipartUploadCompleted()
+    {
+        return multipartUploadCompleted;
+    }
+
+    public boolean isMultipartUploadAborted()
+    {
+        return multipartUploadAborted;
+    }
+
     public GetObjectMetadataRequest getGetObjectMetadataRequest()
     {
         return getObjectMetadataRequest;
@@ -92,9 +132,45 @@ public class MockAmazonS3
     public PutObjectResult putObject(PutObjectRequest putObjectRequest)
     {
         this.acl = putObjectRequest.getCannedAcl();
+        putObjectCount++;
         return new PutObjectResult();
     }
 
+    @Override
+    public InitiateMultipartUploadResult initiateMultipartUpload(InitiateMultipartUploadRequest request)
+    {
+        this.acl = request.getCannedACL();
+        InitiateMultipartUploadResult result = new InitiateMultipartUploadResult();
+        result.setUploadId("test-upload");
+        return result;
+    }
+
+    @Override
+    public synchronized UploadPartResult uploadPart(UploadPartRequest request)
+    {
+        if (failUploadPart) {
+            throw new AmazonS3Exception("Failing uploadPart call");
+        }
+        uploadedPartSizes.add(request.getPartSize());
+        UploadPartResult result = new UploadPartResult();
+        result.setPartNumber(request.getPartNumber());
+        result.setETag("etag-" + request.getPartNumber());
+        return result;
+    }
+
+    @Override
+    public CompleteMultipartUploadResult completeMultipartUpload(CompleteMultipartUploadRequest request)
+    {
+        multipartUploadCompleted = true;
+        return new CompleteMultipartUploadResult();
+    }
+
+    @Override
+    public void abortMultipartUpload(AbortMultipartUploadRequest request)
+    {
+        multipartUploadAborted = true;
+    }
+
     @Override
     public ObjectListing listObjects(ListObjectsRequest listObjectsRequest)
     {
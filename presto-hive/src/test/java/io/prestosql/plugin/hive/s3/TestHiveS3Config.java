@@ -62,7 +62,9 @@ public class TestHiveS3Config
                 .setS3UserAgentPrefix("")
                 .setS3AclType(PrestoS3AclType.PRIVATE)
                 .setSkipGlacierObjects(false)
-                .setRequesterPaysEnabled(false));
+                .setRequesterPaysEnabled(false)
+                .setS3StreamingUploadEnabled(false)
+                .setS3StreamingPartSize(new DataSize(16, Unit.MEGABYTE)));
     }
 
     @Test
@@ -98,6 +100,8 @@ public class TestHiveS3Config
                 .put("hive.s3.upload-acl-type", "PUBLIC_READ")
                 .put("hive.s3.skip-glacier-objects", "true")
                 .put("hive.s3.requester-pays.enabled", "true")
+                .put("hive.s3.streaming.enabled", "true")
+                .put("hive.s3.streaming.part-size", "15MB")
                 .build();
 
         HiveS3Config expected = new HiveS3Config()
@@ -129,7 +133,9 @@ public class TestHiveS3Config
                 .setS3UserAgentPrefix("user-agent-prefix")
                 .setS3AclType(PrestoS3AclType.PUBLIC_READ)
                 .setSkipGlacierObjects(true)
-                .setRequesterPaysEnabled(true);
+                .setRequesterPaysEnabled(true)
+                .setS3StreamingUploadEnabled(true)
+                .setS3StreamingPartSize(new DataSize(15, Unit.MEGABYTE));
 
         assertFullMapping(properties, expected);
     }
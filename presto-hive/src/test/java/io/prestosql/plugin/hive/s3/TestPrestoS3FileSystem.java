@@ -31,6 +31,8 @@ import com.amazonaws.services.s3.model.EncryptionMaterialsProvider;
 import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.google.common.base.VerifyException;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultiset;
 import io.prestosql.plugin.hive.s3.PrestoS3FileSystem.UnrecoverableS3OperationException;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
@@ -70,6 +72,8 @@ import static io.prestosql.plugin.hive.s3.PrestoS3FileSystem.S3_SECRET_KEY;
 import static io.prestosql.plugin.hive.s3.PrestoS3FileSystem.S3_SIGNER_TYPE;
 import static io.prestosql.plugin.hive.s3.PrestoS3FileSystem.S3_SKIP_GLACIER_OBJECTS;
 import static io.prestosql.plugin.hive.s3.PrestoS3FileSystem.S3_STAGING_DIRECTORY;
+import static io.prestosql.plugin.hive.s3.PrestoS3FileSystem.S3_STREAMING_UPLOAD_ENABLED;
+import static io.prestosql.plugin.hive.s3.PrestoS3FileSystem.S3_STREAMING_UPLOAD_PART_SIZE;
 import static io.prestosql.plugin.hive.s3.PrestoS3FileSystem.S3_USER_AGENT_PREFIX;
 import static io.prestosql.plugin.hive.s3.PrestoS3FileSystem.S3_USER_AGENT_SUFFIX;
 import static io.prestosql.plugin.hive.s3.PrestoS3FileSystem.S3_USE_INSTANCE_CREDENTIALS;
@@ -79,6 +83,8 @@ import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
 import static java.nio.file.Files.createTempDirectory;
 import static java.nio.file.Files.createTempFile;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertThrows;
 import static org.testng.Assert.assertTrue;
 
 public class TestPrestoS3FileSystem
@@ -620,6 +626,71 @@ public class TestPrestoS3FileSystem
         }
     }
 
+    @Test
+    public void testStreamingUploadSmallFile()
+            throws Exception
+    {
+        Configuration config = new Configuration();
+        config.setBoolean(S3_STREAMING_UPLOAD_ENABLED, true);
+        config.setLong(S3_STREAMING_UPLOAD_PART_SIZE, 10);
+
+        try (PrestoS3FileSystem fs = new PrestoS3FileSystem()) {
+            MockAmazonS3 s3 = new MockAmazonS3();
+            fs.initialize(new URI("s3n://test-bucket/"), config);
+            fs.setS3Client(s3);
+            try (FSDataOutputStream stream = fs.create(new Path("s3n://test-bucket/test"))) {
+                stream.write(new byte[5]);
+            }
+            assertEquals(s3.getPutObjectCount(), 1);
+            assertEquals(s3.getUploadedPartSizes(), ImmutableList.of());
+            assertEquals(s3.getAcl(), CannedAccessControlList.Private);
+        }
+    }
+
+    @Test
+    public void testStreamingUploadMultipleParts()
+            throws Exception
+    {
+        Configuration config = new Configuration();
+        config.setBoolean(S3_STREAMING_UPLOAD_ENABLED, true);
+        config.setLong(S3_STREAMING_UPLOAD_PART_SIZE, 10);
+
+        try (PrestoS3FileSystem fs = new PrestoS3FileSystem()) {
+            MockAmazonS3 s3 = new MockAmazonS3();
+            fs.initialize(new URI("s3n://test-bucket/"), config);
+            fs.setS3Client(s3);
+            try (FSDataOutputStream stream = fs.create(new Path("s3n://test-bucket/test"))) {
+                stream.write(new byte[25]);
+                stream.write(1);
+            }
+            assertEquals(s3.getPutObjectCount(), 0);
+            assertEquals(ImmutableMultiset.copyOf(s3.getUploadedPartSizes()), ImmutableMultiset.of(10L, 10L, 6L));
+            assertTrue(s3.isMultipartUploadCompleted());
+            assertFalse(s3.isMultipartUploadAborted());
+        }
+    }
+
+    @Test
+    public void testStreamingUploadFailure()
+            throws Exception
+    {
+        Configuration config = new Configuration();
+        config.setBoolean(S3_STREAMING_UPLOAD_ENABLED, true);
+        config.setLong(S3_STREAMING_UPLOAD_PART_SIZE, 10);
+
+        try (PrestoS3FileSystem fs = new PrestoS3FileSystem()) {
+            MockAmazonS3 s3 = new MockAmazonS3();
+            s3.setFailUploadPart(true);
+            fs.initialize(new URI("s3n://test-bucket/"), config);
+            fs.setS3Client(s3);
+            FSDataOutputStream stream = fs.create(new Path("s3n://test-bucket/test"));
+            stream.write(new byte[15]);
+            assertThrows(IOException.class, stream::close);
+            assertFalse(s3.isMultipartUploadCompleted());
+            assertTrue(s3.isMultipartUploadAborted());
+        }
+    }
+
     @Test
     public void testEmptyDirectory()
             throws Exception
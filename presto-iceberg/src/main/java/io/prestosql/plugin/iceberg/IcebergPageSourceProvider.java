@@ -228,7 +228,8 @@ public class IcebergPageSourceProvider
                     typeManager,
                     new Properties(),
                     columnNameReplaced,
-                    useParquetColumnNames);
+                    useParquetColumnNames,
+                    fileFormatDataSourceStats);
 
             return new HivePageSource(
                     columnMappings,
@@ -67,6 +67,7 @@ import static io.prestosql.type.IntervalDayTimeType.INTERVAL_DAY_TIME;
 import static io.prestosql.type.IntervalYearMonthType.INTERVAL_YEAR_MONTH;
 import static io.prestosql.type.IpAddressType.IPADDRESS;
 import static io.prestosql.type.JoniRegexpType.JONI_REGEXP;
+import static io.prestosql.type.JsonPathTrieType.JSON_PATH_TRIE;
 import static io.prestosql.type.JsonPathType.JSON_PATH;
 import static io.prestosql.type.JsonType.JSON;
 import static io.prestosql.type.LikePatternType.LIKE_PATTERN;
@@ -117,6 +118,7 @@ final class TypeRegistry
         addType(RE2J_REGEXP);
         addType(LIKE_PATTERN);
         addType(JSON_PATH);
+        addType(JSON_PATH_TRIE);
         addType(COLOR);
         addType(JSON);
         addType(CODE_POINTS);
@@ -40,6 +40,7 @@ public class FilterAndProjectOperator
 {
     private final PageBuffer pageBuffer = new PageBuffer();
     private final WorkProcessor<Page> pages;
+    private final PageProcessor pageProcessor;
 
     public FilterAndProjectOperator(
             Session session,
@@ -51,6 +52,7 @@ public class FilterAndProjectOperator
             DataSize minOutputPageSize,
             int minOutputPageRowCount)
     {
+        this.pageProcessor = requireNonNull(pageProcessor, "pageProcessor is null");
         AggregatedMemoryContext localAggregatedMemoryContext = newSimpleAggregatedMemoryContext();
         LocalMemoryContext outputMemoryContext = localAggregatedMemoryContext.newLocalMemoryContext(FilterAndProjectOperator.class.getSimpleName());
 
@@ -89,6 +91,12 @@ public class FilterAndProjectOperator
         return pages;
     }
 
+    @Override
+    public Optional<OperatorInfo> getOperatorInfo()
+    {
+        return pageProcessor.getOperatorInfo();
+    }
+
     @Override
     public void close()
             throws Exception
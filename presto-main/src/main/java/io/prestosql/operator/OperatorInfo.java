@@ -18,6 +18,7 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import io.prestosql.operator.PartitionedOutputOperator.PartitionedOutputInfo;
 import io.prestosql.operator.TableWriterOperator.TableWriterInfo;
 import io.prestosql.operator.exchange.LocalExchangeBufferInfo;
+import io.prestosql.operator.project.FilterConjunctsInfo;
 
 @JsonTypeInfo(
         use = JsonTypeInfo.Id.NAME,
@@ -32,7 +33,8 @@ import io.prestosql.operator.exchange.LocalExchangeBufferInfo;
         @JsonSubTypes.Type(value = PartitionedOutputInfo.class, name = "partitionedOutput"),
         @JsonSubTypes.Type(value = JoinOperatorInfo.class, name = "joinOperatorInfo"),
         @JsonSubTypes.Type(value = WindowInfo.class, name = "windowInfo"),
-        @JsonSubTypes.Type(value = TableWriterInfo.class, name = "tableWriter")})
+        @JsonSubTypes.Type(value = TableWriterInfo.class, name = "tableWriter"),
+        @JsonSubTypes.Type(value = FilterConjunctsInfo.class, name = "filterConjuncts")})
 public interface OperatorInfo
 {
     /**
@@ -16,6 +16,7 @@ package io.prestosql.operator;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.LazyBlock;
+import io.prestosql.spi.block.LazyBlockLoader;
 
 import java.util.function.LongConsumer;
 
@@ -38,11 +39,7 @@ public final class PageUtils
             }
             else {
                 // TODO: block might be partially loaded
-                blocks[i] = new LazyBlock(page.getPositionCount(), lazyBlock -> {
-                    Block loadedBlock = block.getLoadedBlock();
-                    sizeInBytesConsumer.accept(loadedBlock.getSizeInBytes());
-                    lazyBlock.setBlock(loadedBlock);
-                });
+                blocks[i] = new LazyBlock(page.getPositionCount(), new RecordingLazyBlockLoader(block, sizeInBytesConsumer));
                 allBlocksLoaded = false;
             }
         }
@@ -57,4 +54,33 @@ public final class PageUtils
 
         return new Page(page.getPositionCount(), blocks);
     }
+
+    private static final class RecordingLazyBlockLoader
+            implements LazyBlockLoader<LazyBlock>
+    {
+        private final Block block;
+        private final LongConsumer sizeInBytesConsumer;
+
+        private RecordingLazyBlockLoader(Block block, LongConsumer sizeInBytesConsumer)
+        {
+            this.block = block;
+            this.sizeInBytesConsumer = sizeInBytesConsumer;
+        }
+
+        @Override
+        public void load(LazyBlock lazyBlock)
+        {
+            Block loadedBlock = block.getLoadedBlock();
+            sizeInBytesConsumer.accept(loadedBlock.getSizeInBytes());
+            lazyBlock.setBlock(loadedBlock);
+        }
+
+        @Override
+        public void setSelectedPositions(int[] positions, int offset, int length)
+        {
+            if (block instanceof LazyBlock) {
+                ((LazyBlock) block).setSelectedPositions(positions, offset, length);
+            }
+        }
+    }
 }
@@ -63,6 +63,7 @@ public class ScanFilterAndProjectOperator
         implements WorkProcessorSourceOperator
 {
     private final WorkProcessor<Page> pages;
+    private final PageProcessor pageProcessor;
 
     private RecordCursor cursor;
     private ConnectorPageSource pageSource;
@@ -87,6 +88,7 @@ public class ScanFilterAndProjectOperator
             int minOutputPageRowCount,
             boolean avoidPageMaterialization)
     {
+        this.pageProcessor = requireNonNull(pageProcessor, "pageProcessor is null");
         pages = splits.flatTransform(
                 new SplitToPages(
                         session,
@@ -150,6 +152,12 @@ public class ScanFilterAndProjectOperator
         return pages;
     }
 
+    @Override
+    public Optional<OperatorInfo> getOperatorInfo()
+    {
+        return pageProcessor.getOperatorInfo();
+    }
+
     @Override
     public void close()
     {
@@ -101,7 +101,7 @@ public class WorkProcessorSourceOperatorAdapter
 
         Object splitInfo = split.getInfo();
         if (splitInfo != null) {
-            operatorContext.setInfoSupplier(() -> new SplitOperatorInfo(splitInfo));
+            operatorContext.setInfoSupplier(() -> sourceOperator.getOperatorInfo().orElseGet(() -> new SplitOperatorInfo(splitInfo)));
         }
 
         splitBuffer.add(split);
@@ -0,0 +1,274 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import io.prestosql.operator.project.FilterConjunctsInfo.ConjunctStats;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.connector.ConnectorSession;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Ticker.systemTicker;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Filters a page with the conjuncts of a top level AND one at a time, each on the positions
+ * selected by the previous ones. The cost per position and the selectivity of every conjunct
+ * are measured, and the conjuncts are periodically reordered so the cheap and selective ones
+ * run first.
+ * <p>
+ * A conjunct evaluated out of the written order may fail on a position that an earlier conjunct
+ * would have removed, e.g. {@code x <> 0 AND y / x > 1}. When that happens, the page is filtered
+ * again in the written order and the filter stops reordering.
+ */
+public class AdaptiveConjunctPageFilter
+        implements PageFilter
+{
+    @VisibleForTesting
+    static final int REORDER_INTERVAL_PAGES = 16;
+
+    private final List<String> expressions;
+    private final List<PageFilter> conjuncts;
+    private final InputChannels inputChannels;
+    // channels of each conjunct in the page passed to this filter
+    private final List<InputChannels> conjunctChannels;
+    private final Ticker ticker;
+
+    private final long[] inputPositions;
+    private final long[] outputPositions;
+    private final long[] cpuNanos;
+    // statistics since the previous reordering, with older pages weighted down
+    private final double[] recentInputPositions;
+    private final double[] recentOutputPositions;
+    private final double[] recentCpuNanos;
+
+    private int[] evaluationOrder;
+    private boolean adaptive = true;
+    private int pagesSinceReorder;
+
+    public AdaptiveConjunctPageFilter(List<String> expressions, List<PageFilter> conjuncts)
+    {
+        this(expressions, conjuncts, systemTicker());
+    }
+
+    @VisibleForTesting
+    AdaptiveConjunctPageFilter(List<String> expressions, List<PageFilter> conjuncts, Ticker ticker)
+    {
+        this.expressions = ImmutableList.copyOf(requireNonNull(expressions, "expressions is null"));
+        this.conjuncts = ImmutableList.copyOf(requireNonNull(conjuncts, "conjuncts is null"));
+        this.ticker = requireNonNull(ticker, "ticker is null");
+        checkArgument(expressions.size() == conjuncts.size(), "expressions and conjuncts have different sizes");
+        checkArgument(conjuncts.size() > 1, "at least two conjuncts are required");
+        checkArgument(conjuncts.stream().allMatch(PageFilter::isDeterministic), "conjuncts must be deterministic");
+
+        Map<Integer, Integer> channels = new LinkedHashMap<>();
+        ImmutableList.Builder<InputChannels> conjunctChannels = ImmutableList.builder();
+        for (PageFilter conjunct : conjuncts) {
+            List<Integer> mapped = new ArrayList<>();
+            for (int channel : conjunct.getInputChannels().getInputChannels()) {
+                mapped.add(channels.computeIfAbsent(channel, ignored -> channels.size()));
+            }
+            conjunctChannels.add(new InputChannels(mapped));
+        }
+        this.inputChannels = new InputChannels(ImmutableList.copyOf(channels.keySet()));
+        this.conjunctChannels = conjunctChannels.build();
+
+        int count = conjuncts.size();
+        inputPositions = new long[count];
+        outputPositions = new long[count];
+        cpuNanos = new long[count];
+        recentInputPositions = new double[count];
+        recentOutputPositions = new double[count];
+        recentCpuNanos = new double[count];
+        evaluationOrder = writtenOrder(count);
+    }
+
+    @Override
+    public boolean isDeterministic()
+    {
+        return true;
+    }
+
+    @Override
+    public InputChannels getInputChannels()
+    {
+        return inputChannels;
+    }
+
+    @Override
+    public SelectedPositions filter(ConnectorSession session, Page page)
+    {
+        SelectedPositions selectedPositions;
+        if (!adaptive) {
+            selectedPositions = filter(session, page, evaluationOrder);
+        }
+        else {
+            try {
+                selectedPositions = filter(session, page, evaluationOrder);
+            }
+            catch (RuntimeException e) {
+                if (isWrittenOrder(evaluationOrder)) {
+                    throw e;
+                }
+                adaptive = false;
+                evaluationOrder = writtenOrder(conjuncts.size());
+                selectedPositions = filter(session, page, evaluationOrder);
+            }
+        }
+
+        pagesSinceReorder++;
+        if (adaptive && pagesSinceReorder >= REORDER_INTERVAL_PAGES) {
+            reorder();
+        }
+        return selectedPositions;
+    }
+
+    private SelectedPositions filter(ConnectorSession session, Page page, int[] order)
+    {
+        int positionCount = page.getPositionCount();
+        // null while all positions are selected
+        int[] positions = null;
+        int selectedCount = positionCount;
+
+        for (int conjunct : order) {
+            if (selectedCount == 0) {
+                break;
+            }
+
+            Page conjunctPage = conjunctChannels.get(conjunct).getInputChannels(page);
+            if (positions != null) {
+                conjunctPage = conjunctPage.getPositions(positions, 0, selectedCount);
+            }
+
+            long start = ticker.read();
+            SelectedPositions result = conjuncts.get(conjunct).filter(session, conjunctPage);
+            long nanos = ticker.read() - start;
+            recordStats(conjunct, selectedCount, result.size(), nanos);
+
+            if (result.size() == selectedCount) {
+                continue;
+            }
+            int[] selected = new int[result.size()];
+            for (int i = 0; i < result.size(); i++) {
+                int position = result.isList() ? result.getPositions()[result.getOffset() + i] : result.getOffset() + i;
+                selected[i] = positions == null ? position : positions[position];
+            }
+            positions = selected;
+            selectedCount = selected.length;
+        }
+
+        if (positions == null) {
+            return SelectedPositions.positionsRange(0, positionCount);
+        }
+        if (selectedCount == 0) {
+            return SelectedPositions.positionsRange(0, 0);
+        }
+        return SelectedPositions.positionsList(positions, 0, selectedCount);
+    }
+
+    private void recordStats(int conjunct, int input, int output, long nanos)
+    {
+        inputPositions[conjunct] += input;
+        outputPositions[conjunct] += output;
+        cpuNanos[conjunct] += nanos;
+        recentInputPositions[conjunct] += input;
+        recentOutputPositions[conjunct] += output;
+        recentCpuNanos[conjunct] += nanos;
+    }
+
+    private void reorder()
+    {
+        pagesSinceReorder = 0;
+
+        double[] ranks = new double[conjuncts.size()];
+        for (int conjunct = 0; conjunct < conjuncts.size(); conjunct++) {
+            ranks[conjunct] = rank(recentInputPositions[conjunct], recentOutputPositions[conjunct], recentCpuNanos[conjunct]);
+
+            // let the data of the next interval count as much as everything before
+            recentInputPositions[conjunct] /= 2;
+            recentOutputPositions[conjunct] /= 2;
+            recentCpuNanos[conjunct] /= 2;
+        }
+
+        // conjuncts that have not seen any position yet keep their relative position at the end
+        List<Integer> order = new ArrayList<>(Ints.asList(evaluationOrder));
+        order.sort(Comparator.comparingDouble(conjunct -> ranks[conjunct]));
+        evaluationOrder = Ints.toArray(order);
+    }
+
+    /**
+     * Orders conjuncts by the cost of removing a position, so a conjunct runs before another one
+     * when its cost per position divided by the fraction of positions it removes is lower.
+     */
+    @VisibleForTesting
+    static double rank(double inputPositions, double outputPositions, double cpuNanos)
+    {
+        if (inputPositions == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double removedFraction = 1 - outputPositions / inputPositions;
+        if (removedFraction <= 0) {
+            return Double.MAX_VALUE;
+        }
+        return (cpuNanos / inputPositions) / removedFraction;
+    }
+
+    public FilterConjunctsInfo getInfo()
+    {
+        ImmutableList.Builder<ConjunctStats> stats = ImmutableList.builder();
+        for (int conjunct = 0; conjunct < conjuncts.size(); conjunct++) {
+            stats.add(new ConjunctStats(expressions.get(conjunct), inputPositions[conjunct], outputPositions[conjunct], cpuNanos[conjunct]));
+        }
+        return new FilterConjunctsInfo(stats.build(), Ints.asList(evaluationOrder.clone()));
+    }
+
+    private static int[] writtenOrder(int count)
+    {
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    private static boolean isWrittenOrder(int[] order)
+    {
+        for (int i = 0; i < order.length; i++) {
+            if (order[i] != i) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("expressions", expressions)
+                .add("evaluationOrder", Ints.asList(evaluationOrder))
+                .add("adaptive", adaptive)
+                .toString();
+    }
+}
@@ -0,0 +1,473 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.metadata.Signature;
+import io.prestosql.spi.function.OperatorType;
+import io.prestosql.sql.relational.CallExpression;
+import io.prestosql.sql.relational.ConstantExpression;
+import io.prestosql.sql.relational.DeterminismEvaluator;
+import io.prestosql.sql.relational.InputReferenceExpression;
+import io.prestosql.sql.relational.LambdaDefinitionExpression;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.relational.RowExpressionVisitor;
+import io.prestosql.sql.relational.SpecialForm;
+import io.prestosql.sql.relational.VariableReferenceExpression;
+import io.prestosql.type.FunctionType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static io.prestosql.sql.relational.Expressions.field;
+import static io.prestosql.sql.relational.Expressions.subExpressions;
+import static io.prestosql.sql.relational.SpecialForm.Form.BIND;
+import static io.prestosql.sql.relational.SpecialForm.Form.ROW_CONSTRUCTOR;
+import static io.prestosql.sql.relational.SpecialForm.Form.WHEN;
+import static java.util.Arrays.stream;
+import static java.util.Comparator.comparingInt;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Extracts deterministic subexpressions that occur more than once in the filter and projections
+ * of a page processor, so they can be computed once per position and read as additional input channels.
+ * <p>
+ * A subexpression is only extracted if computing it for every position of its domain does not
+ * evaluate it where the original expressions would not. Subexpressions that are always evaluated
+ * by the filter are computed for all positions before filtering and are shared by the filter and the projections.
+ * Subexpressions that are always evaluated by a projection are computed for the selected positions only,
+ * and are shared by the projections. Occurrences under a conditional (e.g. a branch of {@code IF},
+ * the second operand of {@code AND}, or an argument that is skipped when a preceding argument is null)
+ * can read a shared value, but never cause one to be computed.
+ */
+public final class CommonSubExpressionRewriter
+{
+    private static final Set<String> OPERATOR_NAMES = stream(OperatorType.values())
+            .map(Signature::mangleOperatorName)
+            .collect(toImmutableSet());
+
+    private CommonSubExpressionRewriter() {}
+
+    public static Result rewriteCommonSubExpressions(Optional<RowExpression> filter, List<? extends RowExpression> projections, DeterminismEvaluator determinismEvaluator)
+    {
+        requireNonNull(filter, "filter is null");
+        requireNonNull(projections, "projections is null");
+        requireNonNull(determinismEvaluator, "determinismEvaluator is null");
+
+        ImmutableList.Builder<RowExpression> expressions = ImmutableList.builder();
+        filter.ifPresent(expressions::add);
+        expressions.addAll(projections);
+
+        // the extracted subexpressions are appended after the last channel read by the expressions
+        int firstChannel = 0;
+        for (RowExpression expression : subExpressions(expressions.build())) {
+            if (expression instanceof InputReferenceExpression) {
+                firstChannel = Math.max(firstChannel, ((InputReferenceExpression) expression).getField() + 1);
+            }
+        }
+
+        Optional<RowExpression> rewrittenFilter = filter;
+        List<RowExpression> rewrittenProjections = ImmutableList.copyOf(projections);
+        List<RowExpression> extracted = new ArrayList<>();
+        List<Boolean> extractedBeforeFilter = new ArrayList<>();
+        Set<RowExpression> rejected = new HashSet<>();
+        while (true) {
+            Map<RowExpression, Occurrences> occurrences = new LinkedHashMap<>();
+            rewrittenFilter.ifPresent(expression -> expression.accept(new OccurrenceCollector(occurrences, Source.FILTER), true));
+            for (RowExpression projection : rewrittenProjections) {
+                projection.accept(new OccurrenceCollector(occurrences, Source.PROJECTION), true);
+            }
+            for (int i = 0; i < extracted.size(); i++) {
+                if (!extractedBeforeFilter.get(i)) {
+                    extracted.get(i).accept(new OccurrenceCollector(occurrences, Source.PROJECTION_SUB_EXPRESSION), true);
+                }
+            }
+
+            // extract the largest candidate first, as this also removes the occurrences of its subexpressions
+            Optional<Map.Entry<RowExpression, Occurrences>> candidate = occurrences.entrySet().stream()
+                    .filter(entry -> entry.getValue().isBeforeFilterCandidate() || entry.getValue().isAfterFilterCandidate())
+                    .filter(entry -> !rejected.contains(entry.getKey()))
+                    .max(comparingInt(entry -> size(entry.getKey())));
+            if (!candidate.isPresent()) {
+                break;
+            }
+
+            RowExpression expression = candidate.get().getKey();
+            if (!isExtractable(expression, determinismEvaluator)) {
+                rejected.add(expression);
+                continue;
+            }
+
+            boolean beforeFilter = candidate.get().getValue().isBeforeFilterCandidate();
+            Replacer replacer = new Replacer(expression, field(firstChannel + extracted.size(), expression.getType()));
+            extracted.add(expression);
+            extractedBeforeFilter.add(beforeFilter);
+            if (beforeFilter) {
+                // the projection subexpressions are computed after the filter subexpressions, so they can read them too
+                rewrittenFilter = rewrittenFilter.map(filterExpression -> filterExpression.accept(replacer, null));
+                for (int i = 0; i < extracted.size() - 1; i++) {
+                    if (!extractedBeforeFilter.get(i)) {
+                        extracted.set(i, extracted.get(i).accept(replacer, null));
+                    }
+                }
+            }
+            rewrittenProjections = rewrittenProjections.stream()
+                    .map(projection -> projection.accept(replacer, null))
+                    .collect(toImmutableList());
+        }
+
+        // renumber the channels, so the subexpressions computed before the filter come first
+        int filterSubExpressionCount = (int) extractedBeforeFilter.stream().filter(Boolean::booleanValue).count();
+        int nextFilterSubExpressionChannel = firstChannel;
+        int nextProjectionSubExpressionChannel = firstChannel + filterSubExpressionCount;
+        Map<Integer, Integer> channels = new HashMap<>();
+        for (int i = 0; i < extracted.size(); i++) {
+            channels.put(firstChannel + i, extractedBeforeFilter.get(i) ? nextFilterSubExpressionChannel++ : nextProjectionSubExpressionChannel++);
+        }
+        ChannelRenumberer renumberer = new ChannelRenumberer(channels);
+
+        ImmutableList.Builder<RowExpression> filterSubExpressions = ImmutableList.builder();
+        ImmutableList.Builder<RowExpression> projectionSubExpressions = ImmutableList.builder();
+        for (int i = 0; i < extracted.size(); i++) {
+            if (extractedBeforeFilter.get(i)) {
+                filterSubExpressions.add(extracted.get(i));
+            }
+            else {
+                projectionSubExpressions.add(extracted.get(i).accept(renumberer, null));
+            }
+        }
+        return new Result(
+                rewrittenFilter.map(expression -> expression.accept(renumberer, null)),
+                rewrittenProjections.stream()
+                        .map(projection -> projection.accept(renumberer, null))
+                        .collect(toImmutableList()),
+                firstChannel,
+                filterSubExpressions.build(),
+                projectionSubExpressions.build());
+    }
+
+    private static boolean isExtractable(RowExpression expression, DeterminismEvaluator determinismEvaluator)
+    {
+        if (expression.getType() instanceof FunctionType || !determinismEvaluator.isDeterministic(expression)) {
+            return false;
+        }
+        if (expression instanceof SpecialForm && (((SpecialForm) expression).getForm() == WHEN || ((SpecialForm) expression).getForm() == BIND)) {
+            return false;
+        }
+
+        List<RowExpression> subExpressions = subExpressions(ImmutableList.of(expression));
+        if (subExpressions.stream().anyMatch(subExpression -> subExpression instanceof LambdaDefinitionExpression || subExpression instanceof VariableReferenceExpression)) {
+            return false;
+        }
+        if (subExpressions.stream().noneMatch(InputReferenceExpression.class::isInstance)) {
+            return false;
+        }
+
+        if (JsonExtractRewriter.isCombinedElement(expression)) {
+            return false;
+        }
+
+        // an operator applied to columns and constants is cheaper to compute again than to materialize
+        if (expression instanceof CallExpression && OPERATOR_NAMES.contains(((CallExpression) expression).getSignature().getName())) {
+            return !((CallExpression) expression).getArguments().stream()
+                    .allMatch(argument -> argument instanceof InputReferenceExpression || argument instanceof ConstantExpression);
+        }
+        return true;
+    }
+
+    private static int size(RowExpression expression)
+    {
+        return subExpressions(ImmutableList.of(expression)).size();
+    }
+
+    private enum Source
+    {
+        FILTER,
+        PROJECTION,
+        PROJECTION_SUB_EXPRESSION,
+    }
+
+    private static class Occurrences
+    {
+        private int filterCount;
+        private boolean unconditionalInFilter;
+        private int projectionCount;
+        private boolean unconditionalInProjection;
+        private int projectionSubExpressionCount;
+
+        public void add(Source source, boolean unconditional)
+        {
+            switch (source) {
+                case FILTER:
+                    filterCount++;
+                    unconditionalInFilter |= unconditional;
+                    break;
+                case PROJECTION:
+                    projectionCount++;
+                    unconditionalInProjection |= unconditional;
+                    break;
+                case PROJECTION_SUB_EXPRESSION:
+                    projectionSubExpressionCount++;
+                    break;
+            }
+        }
+
+        public boolean isBeforeFilterCandidate()
+        {
+            return unconditionalInFilter && filterCount + projectionCount + projectionSubExpressionCount > 1;
+        }
+
+        public boolean isAfterFilterCandidate()
+        {
+            // projection subexpressions are computed together, so they cannot read each other
+            return unconditionalInProjection && projectionCount > 1;
+        }
+    }
+
+    /**
+     * Records the occurrences of the call and special form subexpressions, and whether they are
+     * evaluated whenever the whole expression is. Lambda bodies are not visited.
+     */
+    private static class OccurrenceCollector
+            implements RowExpressionVisitor<Void, Boolean>
+    {
+        private final Map<RowExpression, Occurrences> occurrences;
+        private final Source source;
+
+        public OccurrenceCollector(Map<RowExpression, Occurrences> occurrences, Source source)
+        {
+            this.occurrences = occurrences;
+            this.source = source;
+        }
+
+        @Override
+        public Void visitCall(CallExpression call, Boolean unconditional)
+        {
+            occurrences.computeIfAbsent(call, key -> new Occurrences()).add(source, unconditional);
+
+            // an argument is not evaluated if a preceding argument is null
+            boolean argumentUnconditional = unconditional;
+            for (RowExpression argument : call.getArguments()) {
+                argument.accept(this, argumentUnconditional);
+                argumentUnconditional &= argument instanceof ConstantExpression && ((ConstantExpression) argument).getValue() != null;
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitSpecialForm(SpecialForm specialForm, Boolean unconditional)
+        {
+            occurrences.computeIfAbsent(specialForm, key -> new Occurrences()).add(source, unconditional);
+
+            // except for row constructors, only the first argument of a special form is always evaluated
+            List<RowExpression> arguments = specialForm.getArguments();
+            for (int i = 0; i < arguments.size(); i++) {
+                arguments.get(i).accept(this, unconditional && (i == 0 || specialForm.getForm() == ROW_CONSTRUCTOR));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitInputReference(InputReferenceExpression reference, Boolean unconditional)
+        {
+            return null;
+        }
+
+        @Override
+        public Void visitConstant(ConstantExpression literal, Boolean unconditional)
+        {
+            return null;
+        }
+
+        @Override
+        public Void visitLambda(LambdaDefinitionExpression lambda, Boolean unconditional)
+        {
+            return null;
+        }
+
+        @Override
+        public Void visitVariableReference(VariableReferenceExpression reference, Boolean unconditional)
+        {
+            return null;
+        }
+    }
+
+    private abstract static class RewritingVisitor
+            implements RowExpressionVisitor<RowExpression, Void>
+    {
+        @Override
+        public RowExpression visitCall(CallExpression call, Void context)
+        {
+            return new CallExpression(
+                    call.getSignature(),
+                    call.getType(),
+                    call.getArguments().stream()
+                            .map(expression -> expression.accept(this, context))
+                            .collect(toImmutableList()));
+        }
+
+        @Override
+        public RowExpression visitSpecialForm(SpecialForm specialForm, Void context)
+        {
+            return new SpecialForm(
+                    specialForm.getForm(),
+                    specialForm.getType(),
+                    specialForm.getArguments().stream()
+                            .map(expression -> expression.accept(this, context))
+                            .collect(toImmutableList()));
+        }
+
+        @Override
+        public RowExpression visitInputReference(InputReferenceExpression reference, Void context)
+        {
+            return reference;
+        }
+
+        @Override
+        public RowExpression visitConstant(ConstantExpression literal, Void context)
+        {
+            return literal;
+        }
+
+        @Override
+        public RowExpression visitLambda(LambdaDefinitionExpression lambda, Void context)
+        {
+            // lambda bodies cannot reference input channels
+            return lambda;
+        }
+
+        @Override
+        public RowExpression visitVariableReference(VariableReferenceExpression reference, Void context)
+        {
+            return reference;
+        }
+    }
+
+    private static class Replacer
+            extends RewritingVisitor
+    {
+        private final RowExpression expression;
+        private final InputReferenceExpression replacement;
+
+        public Replacer(RowExpression expression, InputReferenceExpression replacement)
+        {
+            this.expression = expression;
+            this.replacement = replacement;
+        }
+
+        @Override
+        public RowExpression visitCall(CallExpression call, Void context)
+        {
+            if (call.equals(expression)) {
+                return replacement;
+            }
+            return super.visitCall(call, context);
+        }
+
+        @Override
+        public RowExpression visitSpecialForm(SpecialForm specialForm, Void context)
+        {
+            if (specialForm.equals(expression)) {
+                return replacement;
+            }
+            return super.visitSpecialForm(specialForm, context);
+        }
+    }
+
+    private static class ChannelRenumberer
+            extends RewritingVisitor
+    {
+        private final Map<Integer, Integer> channels;
+
+        public ChannelRenumberer(Map<Integer, Integer> channels)
+        {
+            this.channels = channels;
+        }
+
+        @Override
+        public RowExpression visitInputReference(InputReferenceExpression reference, Void context)
+        {
+            Integer channel = channels.get(reference.getField());
+            if (channel == null) {
+                return reference;
+            }
+            return field(channel, reference.getType());
+        }
+    }
+
+    public static class Result
+    {
+        private final Optional<RowExpression> rewrittenFilter;
+        private final List<RowExpression> rewrittenProjections;
+        private final int firstSubExpressionChannel;
+        private final List<RowExpression> filterSubExpressions;
+        private final List<RowExpression> projectionSubExpressions;
+
+        public Result(
+                Optional<RowExpression> rewrittenFilter,
+                List<RowExpression> rewrittenProjections,
+                int firstSubExpressionChannel,
+                List<RowExpression> filterSubExpressions,
+                List<RowExpression> projectionSubExpressions)
+        {
+            this.rewrittenFilter = requireNonNull(rewrittenFilter, "rewrittenFilter is null");
+            this.rewrittenProjections = ImmutableList.copyOf(requireNonNull(rewrittenProjections, "rewrittenProjections is null"));
+            this.firstSubExpressionChannel = firstSubExpressionChannel;
+            this.filterSubExpressions = ImmutableList.copyOf(requireNonNull(filterSubExpressions, "filterSubExpressions is null"));
+            this.projectionSubExpressions = ImmutableList.copyOf(requireNonNull(projectionSubExpressions, "projectionSubExpressions is null"));
+        }
+
+        public Optional<RowExpression> getRewrittenFilter()
+        {
+            return rewrittenFilter;
+        }
+
+        public List<RowExpression> getRewrittenProjections()
+        {
+            return rewrittenProjections;
+        }
+
+        /**
+         * Channels of the input page from this one on are replaced with the extracted subexpressions.
+         */
+        public int getFirstSubExpressionChannel()
+        {
+            return firstSubExpressionChannel;
+        }
+
+        /**
+         * Subexpressions computed for all positions before the filter is applied.
+         */
+        public List<RowExpression> getFilterSubExpressions()
+        {
+            return filterSubExpressions;
+        }
+
+        /**
+         * Subexpressions computed for the selected positions after the filter is applied.
+         */
+        public List<RowExpression> getProjectionSubExpressions()
+        {
+            return projectionSubExpressions;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import io.prestosql.operator.OperatorInfo;
+import io.prestosql.util.Mergeable;
+
+import java.util.List;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Statistics of a filter whose conjuncts are evaluated separately, see {@link AdaptiveConjunctPageFilter}.
+ */
+public class FilterConjunctsInfo
+        implements Mergeable<FilterConjunctsInfo>, OperatorInfo
+{
+    private final List<ConjunctStats> conjuncts;
+    private final List<Integer> evaluationOrder;
+
+    @JsonCreator
+    public FilterConjunctsInfo(
+            @JsonProperty("conjuncts") List<ConjunctStats> conjuncts,
+            @JsonProperty("evaluationOrder") List<Integer> evaluationOrder)
+    {
+        this.conjuncts = ImmutableList.copyOf(requireNonNull(conjuncts, "conjuncts is null"));
+        this.evaluationOrder = ImmutableList.copyOf(requireNonNull(evaluationOrder, "evaluationOrder is null"));
+        checkArgument(conjuncts.size() == evaluationOrder.size(), "conjuncts and evaluationOrder have different sizes");
+    }
+
+    /**
+     * Returns the conjuncts in the order they are written in the query.
+     */
+    @JsonProperty
+    public List<ConjunctStats> getConjuncts()
+    {
+        return conjuncts;
+    }
+
+    /**
+     * Returns the indexes of the conjuncts in the order they are currently evaluated.
+     */
+    @JsonProperty
+    public List<Integer> getEvaluationOrder()
+    {
+        return evaluationOrder;
+    }
+
+    @Override
+    public FilterConjunctsInfo mergeWith(FilterConjunctsInfo other)
+    {
+        checkArgument(conjuncts.size() == other.conjuncts.size(), "Can not merge stats of different filters");
+        ImmutableList.Builder<ConjunctStats> merged = ImmutableList.builder();
+        for (int i = 0; i < conjuncts.size(); i++) {
+            merged.add(conjuncts.get(i).mergeWith(other.conjuncts.get(i)));
+        }
+        // drivers usually settle on the same order, keep the one of the driver that processed more rows
+        List<Integer> order = conjuncts.get(evaluationOrder.get(0)).getInputPositions() >= other.conjuncts.get(other.evaluationOrder.get(0)).getInputPositions() ?
+                evaluationOrder :
+                other.evaluationOrder;
+        return new FilterConjunctsInfo(merged.build(), order);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("conjuncts", conjuncts)
+                .add("evaluationOrder", evaluationOrder)
+                .toString();
+    }
+
+    public static class ConjunctStats
+            implements Mergeable<ConjunctStats>
+    {
+        private final String expression;
+        private final long inputPositions;
+        private final long outputPositions;
+        private final long cpuNanos;
+
+        @JsonCreator
+        public ConjunctStats(
+                @JsonProperty("expression") String expression,
+                @JsonProperty("inputPositions") long inputPositions,
+                @JsonProperty("outputPositions") long outputPositions,
+                @JsonProperty("cpuNanos") long cpuNanos)
+        {
+            this.expression = requireNonNull(expression, "expression is null");
+            this.inputPositions = inputPositions;
+            this.outputPositions = outputPositions;
+            this.cpuNanos = cpuNanos;
+        }
+
+        @JsonProperty
+        public String getExpression()
+        {
+            return expression;
+        }
+
+        @JsonProperty
+        public long getInputPositions()
+        {
+            return inputPositions;
+        }
+
+        @JsonProperty
+        public long getOutputPositions()
+        {
+            return outputPositions;
+        }
+
+        @JsonProperty
+        public long getCpuNanos()
+        {
+            return cpuNanos;
+        }
+
+        public double getSelectivity()
+        {
+            return inputPositions == 0 ? Double.NaN : (double) outputPositions / inputPositions;
+        }
+
+        public double getCpuNanosPerPosition()
+        {
+            return inputPositions == 0 ? Double.NaN : (double) cpuNanos / inputPositions;
+        }
+
+        @Override
+        public ConjunctStats mergeWith(ConjunctStats other)
+        {
+            return new ConjunctStats(
+                    expression,
+                    inputPositions + other.inputPositions,
+                    outputPositions + other.outputPositions,
+                    cpuNanos + other.cpuNanos);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("expression", expression)
+                    .add("inputPositions", inputPositions)
+                    .add("outputPositions", outputPositions)
+                    .add("cpuNanos", cpuNanos)
+                    .toString();
+        }
+    }
+}
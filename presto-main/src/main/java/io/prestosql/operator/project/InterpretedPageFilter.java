@@ -0,0 +1,76 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import io.prestosql.spi.Page;
+import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.relational.RowExpressionInterpreter;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static io.prestosql.operator.project.PageFilter.positionsArrayToSelectedPositions;
+import static java.util.Objects.requireNonNull;
+
+public class InterpretedPageFilter
+        implements PageFilter
+{
+    private final RowExpression filter;
+    private final boolean isDeterministic;
+    private final InputChannels inputChannels;
+    private final RowExpressionInterpreter interpreter;
+
+    private boolean[] selectedPositions = new boolean[0];
+
+    public InterpretedPageFilter(RowExpression filter, boolean isDeterministic, InputChannels inputChannels, RowExpressionInterpreter interpreter)
+    {
+        this.filter = requireNonNull(filter, "filter is null");
+        this.isDeterministic = isDeterministic;
+        this.inputChannels = requireNonNull(inputChannels, "inputChannels is null");
+        this.interpreter = requireNonNull(interpreter, "interpreter is null");
+    }
+
+    @Override
+    public boolean isDeterministic()
+    {
+        return isDeterministic;
+    }
+
+    @Override
+    public InputChannels getInputChannels()
+    {
+        return inputChannels;
+    }
+
+    @Override
+    public SelectedPositions filter(ConnectorSession session, Page page)
+    {
+        int positionCount = page.getPositionCount();
+        if (selectedPositions.length < positionCount) {
+            selectedPositions = new boolean[positionCount];
+        }
+
+        for (int position = 0; position < positionCount; position++) {
+            selectedPositions[position] = Boolean.TRUE.equals(interpreter.evaluate(session, page, position));
+        }
+        return positionsArrayToSelectedPositions(selectedPositions, positionCount);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("filter", filter)
+                .toString();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import io.prestosql.operator.CompletedWork;
+import io.prestosql.operator.DriverYieldSignal;
+import io.prestosql.operator.Work;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.relational.RowExpressionInterpreter;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static io.prestosql.spi.type.TypeUtils.writeNativeValue;
+import static java.util.Objects.requireNonNull;
+
+public class InterpretedPageProjection
+        implements PageProjection
+{
+    private final RowExpression projection;
+    private final boolean isDeterministic;
+    private final InputChannels inputChannels;
+    private final RowExpressionInterpreter interpreter;
+
+    private BlockBuilder blockBuilder;
+
+    public InterpretedPageProjection(RowExpression projection, boolean isDeterministic, InputChannels inputChannels, RowExpressionInterpreter interpreter)
+    {
+        this.projection = requireNonNull(projection, "projection is null");
+        this.isDeterministic = isDeterministic;
+        this.inputChannels = requireNonNull(inputChannels, "inputChannels is null");
+        this.interpreter = requireNonNull(interpreter, "interpreter is null");
+        this.blockBuilder = projection.getType().createBlockBuilder(null, 1);
+    }
+
+    @Override
+    public Type getType()
+    {
+        return projection.getType();
+    }
+
+    @Override
+    public boolean isDeterministic()
+    {
+        return isDeterministic;
+    }
+
+    @Override
+    public InputChannels getInputChannels()
+    {
+        return inputChannels;
+    }
+
+    @Override
+    public Work<Block> project(ConnectorSession session, DriverYieldSignal yieldSignal, Page page, SelectedPositions selectedPositions)
+    {
+        blockBuilder = blockBuilder.newBlockBuilderLike(null);
+        Type type = projection.getType();
+        int offset = selectedPositions.getOffset();
+        int[] positions = selectedPositions.isList() ? selectedPositions.getPositions() : null;
+        for (int index = offset; index < offset + selectedPositions.size(); index++) {
+            int position = positions == null ? index : positions[index];
+            writeNativeValue(type, blockBuilder, interpreter.evaluate(session, page, position));
+        }
+        return new CompletedWork<>(blockBuilder.build());
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("projection", projection)
+                .toString();
+    }
+}
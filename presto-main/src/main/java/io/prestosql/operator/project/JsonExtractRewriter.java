@@ -0,0 +1,406 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.metadata.Signature;
+import io.prestosql.operator.scalar.JsonPath;
+import io.prestosql.operator.scalar.JsonPathTrie;
+import io.prestosql.spi.type.ArrayType;
+import io.prestosql.sql.relational.CallExpression;
+import io.prestosql.sql.relational.ConstantExpression;
+import io.prestosql.sql.relational.DeterminismEvaluator;
+import io.prestosql.sql.relational.InputReferenceExpression;
+import io.prestosql.sql.relational.LambdaDefinitionExpression;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.relational.RowExpressionVisitor;
+import io.prestosql.sql.relational.SpecialForm;
+import io.prestosql.sql.relational.VariableReferenceExpression;
+import io.prestosql.sql.tree.QualifiedName;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.metadata.Signature.mangleOperatorName;
+import static io.prestosql.spi.function.OperatorType.SUBSCRIPT;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.sql.analyzer.TypeSignatureProvider.fromTypes;
+import static io.prestosql.sql.relational.Expressions.call;
+import static io.prestosql.sql.relational.Expressions.constant;
+import static io.prestosql.sql.relational.Expressions.subExpressions;
+import static io.prestosql.sql.relational.SpecialForm.Form.ROW_CONSTRUCTOR;
+import static io.prestosql.type.JsonPathTrieType.JSON_PATH_TRIE;
+import static io.prestosql.type.JsonType.JSON;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Combines the {@code json_extract} and {@code json_extract_scalar} calls with constant paths
+ * on the same input of a page processor into a single {@code $json_extract_multiple} call,
+ * which parses each document once for all the paths. Each original call is replaced by an
+ * access to an element of the combined call, so the combined call is a common subexpression
+ * that {@link CommonSubExpressionRewriter} computes once per position.
+ * <p>
+ * The calls are only combined when {@link CommonSubExpressionRewriter} then extracts the combined call,
+ * as each of its occurrences would otherwise parse the document for all the paths.
+ */
+public final class JsonExtractRewriter
+{
+    private static final String JSON_EXTRACT = "json_extract";
+    private static final String JSON_EXTRACT_SCALAR = "json_extract_scalar";
+    private static final String JSON_EXTRACT_MULTIPLE = "$json_extract_multiple";
+    private static final String JSON_EXTRACT_MULTIPLE_JSON = "$json_extract_multiple_json";
+
+    private static final ArrayType VARCHAR_ARRAY = new ArrayType(VARCHAR);
+
+    private JsonExtractRewriter() {}
+
+    public static Result rewriteJsonExtracts(
+            Optional<RowExpression> filter,
+            List<? extends RowExpression> projections,
+            Metadata metadata,
+            DeterminismEvaluator determinismEvaluator)
+    {
+        requireNonNull(filter, "filter is null");
+        requireNonNull(projections, "projections is null");
+        requireNonNull(metadata, "metadata is null");
+        requireNonNull(determinismEvaluator, "determinismEvaluator is null");
+
+        Map<RowExpression, Extractions> extractions = new LinkedHashMap<>();
+        filter.ifPresent(expression -> expression.accept(new ExtractionCollector(extractions, true), true));
+        for (RowExpression projection : projections) {
+            projection.accept(new ExtractionCollector(extractions, false), true);
+        }
+
+        Map<RowExpression, Combined> combined = new HashMap<>();
+        for (Map.Entry<RowExpression, Extractions> entry : extractions.entrySet()) {
+            RowExpression input = entry.getKey();
+            Extractions inputExtractions = entry.getValue();
+            if (inputExtractions.paths.size() < 2 || !inputExtractions.isExtracted() || !isExtractable(input, determinismEvaluator)) {
+                continue;
+            }
+
+            List<Path> paths = ImmutableList.copyOf(inputExtractions.paths);
+            JsonPathTrie trie = new JsonPathTrie(
+                    paths.stream().map(Path::getJsonPath).collect(toImmutableList()),
+                    paths.stream().map(Path::isScalar).collect(toImmutableList()));
+            Signature signature = metadata.resolveFunction(QualifiedName.of(JSON_EXTRACT_MULTIPLE), fromTypes(input.getType(), JSON_PATH_TRIE));
+            combined.put(input, new Combined(call(signature, VARCHAR_ARRAY, input, constant(trie, JSON_PATH_TRIE)), paths));
+        }
+
+        if (combined.isEmpty()) {
+            return new Result(filter, ImmutableList.copyOf(projections));
+        }
+
+        Rewriter rewriter = new Rewriter(
+                combined,
+                metadata.resolveOperator(SUBSCRIPT, ImmutableList.of(VARCHAR_ARRAY, BIGINT)),
+                metadata.resolveFunction(QualifiedName.of(JSON_EXTRACT_MULTIPLE_JSON), fromTypes(VARCHAR_ARRAY, BIGINT)));
+        return new Result(
+                filter.map(expression -> expression.accept(rewriter, null)),
+                projections.stream()
+                        .map(projection -> projection.accept(rewriter, null))
+                        .collect(toImmutableList()));
+    }
+
+    /**
+     * Returns whether the expression reads an element of a combined call, which is cheaper than materializing it.
+     */
+    static boolean isCombinedElement(RowExpression expression)
+    {
+        if (!(expression instanceof CallExpression)) {
+            return false;
+        }
+        CallExpression call = (CallExpression) expression;
+        String name = call.getSignature().getName();
+        return (name.equals(JSON_EXTRACT_MULTIPLE_JSON) || name.equals(mangleOperatorName(SUBSCRIPT))) &&
+                call.getArguments().get(0) instanceof CallExpression &&
+                ((CallExpression) call.getArguments().get(0)).getSignature().getName().equals(JSON_EXTRACT_MULTIPLE);
+    }
+
+    private static Optional<Path> getPath(CallExpression call)
+    {
+        String name = call.getSignature().getName();
+        if (!name.equals(JSON_EXTRACT) && !name.equals(JSON_EXTRACT_SCALAR)) {
+            return Optional.empty();
+        }
+        List<RowExpression> arguments = call.getArguments();
+        if (arguments.size() != 2 || !(arguments.get(1) instanceof ConstantExpression) || !(((ConstantExpression) arguments.get(1)).getValue() instanceof JsonPath)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Path((JsonPath) ((ConstantExpression) arguments.get(1)).getValue(), name.equals(JSON_EXTRACT_SCALAR)));
+    }
+
+    private static boolean isExtractable(RowExpression input, DeterminismEvaluator determinismEvaluator)
+    {
+        if (!determinismEvaluator.isDeterministic(input)) {
+            return false;
+        }
+        List<RowExpression> subExpressions = subExpressions(ImmutableList.of(input));
+        return subExpressions.stream().noneMatch(subExpression -> subExpression instanceof LambdaDefinitionExpression || subExpression instanceof VariableReferenceExpression) &&
+                subExpressions.stream().anyMatch(InputReferenceExpression.class::isInstance);
+    }
+
+    public static class Result
+    {
+        private final Optional<RowExpression> rewrittenFilter;
+        private final List<RowExpression> rewrittenProjections;
+
+        public Result(Optional<RowExpression> rewrittenFilter, List<RowExpression> rewrittenProjections)
+        {
+            this.rewrittenFilter = requireNonNull(rewrittenFilter, "rewrittenFilter is null");
+            this.rewrittenProjections = ImmutableList.copyOf(requireNonNull(rewrittenProjections, "rewrittenProjections is null"));
+        }
+
+        public Optional<RowExpression> getRewrittenFilter()
+        {
+            return rewrittenFilter;
+        }
+
+        public List<RowExpression> getRewrittenProjections()
+        {
+            return rewrittenProjections;
+        }
+    }
+
+    private static class Path
+    {
+        private final JsonPath jsonPath;
+        private final boolean scalar;
+
+        public Path(JsonPath jsonPath, boolean scalar)
+        {
+            this.jsonPath = jsonPath;
+            this.scalar = scalar;
+        }
+
+        public JsonPath getJsonPath()
+        {
+            return jsonPath;
+        }
+
+        public boolean isScalar()
+        {
+            return scalar;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            Path other = (Path) obj;
+            return jsonPath.getPattern().equals(other.jsonPath.getPattern()) && scalar == other.scalar;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * jsonPath.getPattern().hashCode() + Boolean.hashCode(scalar);
+        }
+    }
+
+    /**
+     * The distinct paths extracted from an input, and where they are extracted.
+     * The combined call is extracted by {@link CommonSubExpressionRewriter} under the same conditions as
+     * a subexpression occurring once for every extraction.
+     */
+    private static class Extractions
+    {
+        private final Set<Path> paths = new LinkedHashSet<>();
+        private int filterCount;
+        private boolean unconditionalInFilter;
+        private int projectionCount;
+        private boolean unconditionalInProjection;
+
+        public void add(Path path, boolean inFilter, boolean unconditional)
+        {
+            paths.add(path);
+            if (inFilter) {
+                filterCount++;
+                unconditionalInFilter |= unconditional;
+            }
+            else {
+                projectionCount++;
+                unconditionalInProjection |= unconditional;
+            }
+        }
+
+        public boolean isExtracted()
+        {
+            return (unconditionalInFilter && filterCount + projectionCount > 1) || (unconditionalInProjection && projectionCount > 1);
+        }
+    }
+
+    private static class Combined
+    {
+        private final CallExpression call;
+        private final Map<Path, Integer> indexes = new HashMap<>();
+
+        public Combined(CallExpression call, List<Path> paths)
+        {
+            this.call = call;
+            for (int i = 0; i < paths.size(); i++) {
+                indexes.put(paths.get(i), i + 1);
+            }
+        }
+    }
+
+    /**
+     * Records the extractions with constant paths, and whether they are evaluated whenever the whole expression is,
+     * following the rules of {@link CommonSubExpressionRewriter}. Lambda bodies are not visited.
+     */
+    private static class ExtractionCollector
+            implements RowExpressionVisitor<Void, Boolean>
+    {
+        private final Map<RowExpression, Extractions> extractions;
+        private final boolean inFilter;
+
+        public ExtractionCollector(Map<RowExpression, Extractions> extractions, boolean inFilter)
+        {
+            this.extractions = extractions;
+            this.inFilter = inFilter;
+        }
+
+        @Override
+        public Void visitCall(CallExpression call, Boolean unconditional)
+        {
+            getPath(call).ifPresent(path -> extractions.computeIfAbsent(call.getArguments().get(0), key -> new Extractions()).add(path, inFilter, unconditional));
+
+            boolean argumentUnconditional = unconditional;
+            for (RowExpression argument : call.getArguments()) {
+                argument.accept(this, argumentUnconditional);
+                argumentUnconditional &= argument instanceof ConstantExpression && ((ConstantExpression) argument).getValue() != null;
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitSpecialForm(SpecialForm specialForm, Boolean unconditional)
+        {
+            List<RowExpression> arguments = specialForm.getArguments();
+            for (int i = 0; i < arguments.size(); i++) {
+                arguments.get(i).accept(this, unconditional && (i == 0 || specialForm.getForm() == ROW_CONSTRUCTOR));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitInputReference(InputReferenceExpression reference, Boolean unconditional)
+        {
+            return null;
+        }
+
+        @Override
+        public Void visitConstant(ConstantExpression literal, Boolean unconditional)
+        {
+            return null;
+        }
+
+        @Override
+        public Void visitLambda(LambdaDefinitionExpression lambda, Boolean unconditional)
+        {
+            return null;
+        }
+
+        @Override
+        public Void visitVariableReference(VariableReferenceExpression reference, Boolean unconditional)
+        {
+            return null;
+        }
+    }
+
+    private static class Rewriter
+            implements RowExpressionVisitor<RowExpression, Void>
+    {
+        private final Map<RowExpression, Combined> combined;
+        private final Signature subscript;
+        private final Signature jsonElement;
+
+        public Rewriter(Map<RowExpression, Combined> combined, Signature subscript, Signature jsonElement)
+        {
+            this.combined = combined;
+            this.subscript = subscript;
+            this.jsonElement = jsonElement;
+        }
+
+        @Override
+        public RowExpression visitCall(CallExpression call, Void context)
+        {
+            Optional<Path> path = getPath(call);
+            if (path.isPresent() && combined.containsKey(call.getArguments().get(0))) {
+                Combined inputCombined = combined.get(call.getArguments().get(0));
+                ConstantExpression index = constant((long) inputCombined.indexes.get(path.get()), BIGINT);
+                if (path.get().isScalar()) {
+                    return call(subscript, VARCHAR, inputCombined.call, index);
+                }
+                return call(jsonElement, JSON, inputCombined.call, index);
+            }
+
+            List<RowExpression> arguments = new ArrayList<>();
+            for (RowExpression argument : call.getArguments()) {
+                arguments.add(argument.accept(this, context));
+            }
+            return new CallExpression(call.getSignature(), call.getType(), arguments);
+        }
+
+        @Override
+        public RowExpression visitSpecialForm(SpecialForm specialForm, Void context)
+        {
+            return new SpecialForm(
+                    specialForm.getForm(),
+                    specialForm.getType(),
+                    specialForm.getArguments().stream()
+                            .map(argument -> argument.accept(this, context))
+                            .collect(toImmutableList()));
+        }
+
+        @Override
+        public RowExpression visitInputReference(InputReferenceExpression reference, Void context)
+        {
+            return reference;
+        }
+
+        @Override
+        public RowExpression visitConstant(ConstantExpression literal, Void context)
+        {
+            return literal;
+        }
+
+        @Override
+        public RowExpression visitLambda(LambdaDefinitionExpression lambda, Void context)
+        {
+            // lambda bodies cannot reference input channels
+            return lambda;
+        }
+
+        @Override
+        public RowExpression visitVariableReference(VariableReferenceExpression reference, Void context)
+        {
+            return reference;
+        }
+    }
+}
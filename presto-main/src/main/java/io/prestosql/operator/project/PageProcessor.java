@@ -14,10 +14,12 @@
 package io.prestosql.operator.project;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import io.airlift.slice.SizeOf;
 import io.prestosql.array.ReferenceCountMap;
 import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.operator.DriverYieldSignal;
+import io.prestosql.operator.OperatorInfo;
 import io.prestosql.operator.Work;
 import io.prestosql.operator.WorkProcessor;
 import io.prestosql.operator.WorkProcessor.ProcessState;
@@ -25,6 +27,7 @@ import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.DictionaryBlock;
 import io.prestosql.spi.block.DictionaryId;
+import io.prestosql.spi.block.LazyBlock;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.sql.gen.ExpressionProfiler;
 
@@ -55,11 +58,16 @@ public class PageProcessor
     public static final int MAX_BATCH_SIZE = 8 * 1024;
     static final int MAX_PAGE_SIZE_IN_BYTES = 4 * 1024 * 1024;
     static final int MIN_PAGE_SIZE_IN_BYTES = 1024 * 1024;
+    private static final DriverYieldSignal NON_YIELDING_SIGNAL = new DriverYieldSignal();
 
     private final ExpressionProfiler expressionProfiler;
     private final DictionarySourceIdFunction dictionarySourceIdFunction = new DictionarySourceIdFunction();
     private final Optional<PageFilter> filter;
+    private final Optional<AdaptiveConjunctPageFilter> adaptiveFilter;
     private final List<PageProjection> projections;
+    private final int firstSubExpressionChannel;
+    private final List<PageProjection> filterSubExpressions;
+    private final List<PageProjection> projectionSubExpressions;
 
     private int projectBatchSize;
 
@@ -71,6 +79,24 @@ public class PageProcessor
 
     @VisibleForTesting
     public PageProcessor(Optional<PageFilter> filter, List<? extends PageProjection> projections, OptionalInt initialBatchSize, ExpressionProfiler expressionProfiler)
+    {
+        this(filter, projections, 0, ImmutableList.of(), ImmutableList.of(), initialBatchSize, expressionProfiler);
+    }
+
+    /**
+     * The subexpressions shared by the filter and the projections are computed once, and replace
+     * the channels of the page from {@code firstSubExpressionChannel} on, which the expressions do not read.
+     * The filter subexpressions are computed for all positions, and the projection subexpressions
+     * for the selected positions only.
+     */
+    public PageProcessor(
+            Optional<PageFilter> filter,
+            List<? extends PageProjection> projections,
+            int firstSubExpressionChannel,
+            List<? extends PageProjection> filterSubExpressions,
+            List<? extends PageProjection> projectionSubExpressions,
+            OptionalInt initialBatchSize,
+            ExpressionProfiler expressionProfiler)
     {
         this.filter = requireNonNull(filter, "filter is null")
                 .map(pageFilter -> {
@@ -79,23 +105,43 @@ public class PageProcessor
                     }
                     return pageFilter;
                 });
+        this.adaptiveFilter = filter
+                .filter(AdaptiveConjunctPageFilter.class::isInstance)
+                .map(AdaptiveConjunctPageFilter.class::cast);
         this.projections = requireNonNull(projections, "projections is null").stream()
-                .map(projection -> {
-                    if (projection.getInputChannels().size() == 1 && projection.isDeterministic()) {
-                        return new DictionaryAwarePageProjection(projection, dictionarySourceIdFunction, projection instanceof InputPageProjection);
-                    }
-                    return projection;
-                })
+                .map(this::dictionaryAwareProjection)
+                .collect(toImmutableList());
+        checkArgument(firstSubExpressionChannel >= 0, "firstSubExpressionChannel is negative");
+        checkArgument(filter.isPresent() || filterSubExpressions.isEmpty(), "filter subexpressions without a filter");
+        this.firstSubExpressionChannel = firstSubExpressionChannel;
+        this.filterSubExpressions = requireNonNull(filterSubExpressions, "filterSubExpressions is null").stream()
+                .map(this::dictionaryAwareProjection)
+                .collect(toImmutableList());
+        this.projectionSubExpressions = requireNonNull(projectionSubExpressions, "projectionSubExpressions is null").stream()
+                .map(this::dictionaryAwareProjection)
                 .collect(toImmutableList());
         this.projectBatchSize = initialBatchSize.orElse(1);
         this.expressionProfiler = requireNonNull(expressionProfiler, "expressionProfiler is null");
     }
 
+    private PageProjection dictionaryAwareProjection(PageProjection projection)
+    {
+        if (projection.getInputChannels().size() == 1 && projection.isDeterministic()) {
+            return new DictionaryAwarePageProjection(projection, dictionarySourceIdFunction, projection instanceof InputPageProjection);
+        }
+        return projection;
+    }
+
     public PageProcessor(Optional<PageFilter> filter, List<? extends PageProjection> projections)
     {
         this(filter, projections, OptionalInt.of(1));
     }
 
+    public Optional<OperatorInfo> getOperatorInfo()
+    {
+        return adaptiveFilter.map(AdaptiveConjunctPageFilter::getInfo);
+    }
+
     public Iterator<Optional<Page>> process(ConnectorSession session, DriverYieldSignal yieldSignal, LocalMemoryContext memoryContext, Page page)
     {
         return process(session, yieldSignal, memoryContext, page, false);
@@ -117,6 +163,10 @@ public class PageProcessor
         }
 
         if (filter.isPresent()) {
+            if (!filterSubExpressions.isEmpty()) {
+                page = computeSubExpressions(session, page, filterSubExpressions, firstSubExpressionChannel, positionsRange(0, page.getPositionCount()));
+            }
+
             SelectedPositions selectedPositions = filter.get().filter(session, filter.get().getInputChannels().getInputChannels(page));
             if (selectedPositions.isEmpty()) {
                 return WorkProcessor.of();
@@ -128,11 +178,84 @@ public class PageProcessor
             }
 
             if (selectedPositions.size() != page.getPositionCount()) {
+                selectPositionsOfLazyBlocks(page, selectedPositions);
+                page = computeProjectionSubExpressions(session, page, selectedPositions);
                 return WorkProcessor.create(new ProjectSelectedPositions(session, yieldSignal, memoryContext, page, selectedPositions, avoidPageMaterialization));
             }
         }
 
-        return WorkProcessor.create(new ProjectSelectedPositions(session, yieldSignal, memoryContext, page, positionsRange(0, page.getPositionCount()), avoidPageMaterialization));
+        SelectedPositions allPositions = positionsRange(0, page.getPositionCount());
+        page = computeProjectionSubExpressions(session, page, allPositions);
+        return WorkProcessor.create(new ProjectSelectedPositions(session, yieldSignal, memoryContext, page, allPositions, avoidPageMaterialization));
+    }
+
+    private Page computeProjectionSubExpressions(ConnectorSession session, Page page, SelectedPositions selectedPositions)
+    {
+        if (projectionSubExpressions.isEmpty()) {
+            return page;
+        }
+        return computeSubExpressions(session, page, projectionSubExpressions, firstSubExpressionChannel + filterSubExpressions.size(), selectedPositions);
+    }
+
+    /**
+     * Returns the first {@code channelCount} channels of the page followed by the values of the subexpressions.
+     * Only the selected positions of the subexpression channels can be read.
+     */
+    private static Page computeSubExpressions(ConnectorSession session, Page page, List<PageProjection> subExpressions, int channelCount, SelectedPositions selectedPositions)
+    {
+        Block[] blocks = new Block[channelCount + subExpressions.size()];
+        for (int channel = 0; channel < channelCount; channel++) {
+            blocks[channel] = page.getBlock(channel);
+        }
+
+        int[] ids = null;
+        for (int i = 0; i < subExpressions.size(); i++) {
+            PageProjection subExpression = subExpressions.get(i);
+            Work<Block> work = subExpression.project(session, NON_YIELDING_SIGNAL, subExpression.getInputChannels().getInputChannels(page), selectedPositions);
+            verify(work.process(), "subexpression projection yielded");
+            Block block = work.getResult();
+
+            if (selectedPositions.isList() || selectedPositions.getOffset() != 0 || selectedPositions.size() != page.getPositionCount()) {
+                // map the positions of the page to the computed values, leaving the other positions at an arbitrary value
+                if (ids == null) {
+                    ids = new int[page.getPositionCount()];
+                    for (int index = 0; index < selectedPositions.size(); index++) {
+                        int position = selectedPositions.isList() ? selectedPositions.getPositions()[selectedPositions.getOffset() + index] : selectedPositions.getOffset() + index;
+                        ids[position] = index;
+                    }
+                }
+                block = new DictionaryBlock(page.getPositionCount(), block, ids);
+            }
+            blocks[channelCount + i] = block;
+        }
+        return new Page(page.getPositionCount(), blocks);
+    }
+
+    private static void selectPositionsOfLazyBlocks(Page page, SelectedPositions selectedPositions)
+    {
+        // Only the selected positions are read from the page after filtering, so lazy
+        // blocks that are not loaded yet can skip decoding the filtered out positions
+        int[] positions = null;
+        for (int channel = 0; channel < page.getChannelCount(); channel++) {
+            Block block = page.getBlock(channel);
+            if (!(block instanceof LazyBlock) || block.isLoaded()) {
+                continue;
+            }
+            if (positions == null) {
+                // copy the positions, since the filter reuses its buffer for the next page
+                // while the lazy blocks may be loaded later
+                positions = new int[selectedPositions.size()];
+                if (selectedPositions.isList()) {
+                    System.arraycopy(selectedPositions.getPositions(), selectedPositions.getOffset(), positions, 0, positions.length);
+                }
+                else {
+                    for (int i = 0; i < positions.length; i++) {
+                        positions[i] = selectedPositions.getOffset() + i;
+                    }
+                }
+            }
+            ((LazyBlock) block).setSelectedPositions(positions, 0, positions.length);
+        }
     }
 
     private class ProjectSelectedPositions
@@ -0,0 +1,73 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.connector.ConnectorSession;
+
+import java.util.function.Supplier;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Filters with the interpreted filter until the compiled filter is ready,
+ * and with the compiled one from the next page on.
+ */
+public class TieredPageFilter
+        implements PageFilter
+{
+    private final ListenableFuture<Supplier<PageFilter>> compiledFilter;
+    private PageFilter filter;
+    private boolean compiled;
+
+    public TieredPageFilter(PageFilter interpretedFilter, ListenableFuture<Supplier<PageFilter>> compiledFilter)
+    {
+        this.filter = requireNonNull(interpretedFilter, "interpretedFilter is null");
+        this.compiledFilter = requireNonNull(compiledFilter, "compiledFilter is null");
+    }
+
+    @Override
+    public boolean isDeterministic()
+    {
+        return filter.isDeterministic();
+    }
+
+    @Override
+    public InputChannels getInputChannels()
+    {
+        return filter.getInputChannels();
+    }
+
+    @Override
+    public SelectedPositions filter(ConnectorSession session, Page page)
+    {
+        if (!compiled && compiledFilter.isDone()) {
+            filter = getFutureValue(compiledFilter).get();
+            compiled = true;
+        }
+        return filter.filter(session, page);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("filter", filter)
+                .add("compiled", compiled)
+                .toString();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import io.prestosql.operator.DriverYieldSignal;
+import io.prestosql.operator.Work;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.type.Type;
+
+import java.util.function.Supplier;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Projects with the interpreted projection until the compiled projection is ready,
+ * and with the compiled one from the next page on.
+ */
+public class TieredPageProjection
+        implements PageProjection
+{
+    private final ListenableFuture<Supplier<PageProjection>> compiledProjection;
+    private PageProjection projection;
+    private boolean compiled;
+
+    public TieredPageProjection(PageProjection interpretedProjection, ListenableFuture<Supplier<PageProjection>> compiledProjection)
+    {
+        this.projection = requireNonNull(interpretedProjection, "interpretedProjection is null");
+        this.compiledProjection = requireNonNull(compiledProjection, "compiledProjection is null");
+    }
+
+    @Override
+    public Type getType()
+    {
+        return projection.getType();
+    }
+
+    @Override
+    public boolean isDeterministic()
+    {
+        return projection.isDeterministic();
+    }
+
+    @Override
+    public InputChannels getInputChannels()
+    {
+        return projection.getInputChannels();
+    }
+
+    @Override
+    public Work<Block> project(ConnectorSession session, DriverYieldSignal yieldSignal, Page page, SelectedPositions selectedPositions)
+    {
+        if (!compiled && compiledProjection.isDone()) {
+            projection = getFutureValue(compiledProjection).get();
+            compiled = true;
+        }
+        return projection.project(session, yieldSignal, page, selectedPositions);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("projection", projection)
+                .add("compiled", compiled)
+                .toString();
+    }
+}
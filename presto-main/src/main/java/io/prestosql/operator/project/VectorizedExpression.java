@@ -0,0 +1,982 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import io.prestosql.metadata.Signature;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.ByteArrayBlock;
+import io.prestosql.spi.block.IntArrayBlock;
+import io.prestosql.spi.block.LongArrayBlock;
+import io.prestosql.spi.function.OperatorType;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.relational.CallExpression;
+import io.prestosql.sql.relational.ConstantExpression;
+import io.prestosql.sql.relational.InputReferenceExpression;
+import io.prestosql.sql.relational.LambdaDefinitionExpression;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.relational.RowExpressionVisitor;
+import io.prestosql.sql.relational.SpecialForm;
+import io.prestosql.sql.relational.VariableReferenceExpression;
+import io.prestosql.type.BigintOperators;
+import io.prestosql.type.IntegerOperators;
+
+import javax.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static io.prestosql.spi.function.OperatorType.GREATER_THAN_OR_EQUAL;
+import static io.prestosql.spi.function.OperatorType.LESS_THAN_OR_EQUAL;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.DateType.DATE;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.sql.relational.Signatures.notSignature;
+import static java.lang.Double.doubleToLongBits;
+import static java.lang.Double.longBitsToDouble;
+import static java.util.Objects.requireNonNull;
+import static java.util.function.Function.identity;
+
+/**
+ * Evaluates arithmetic and comparison expressions over {@code bigint}, {@code integer}, {@code date},
+ * {@code double} and {@code boolean} values a column at a time. The input values are copied into
+ * primitive arrays, each operator runs one loop over the whole arrays, and the result block is
+ * created directly from the result array. The loops have no branches or calls, so C2 can unroll
+ * them and compile them to SIMD instructions.
+ * <p>
+ * Nulls are tracked in separate masks and the values at null positions are ignored. Overflow checks
+ * are accumulated over a whole loop, and when one fails the operator is applied again one position
+ * at a time to raise the same error as the compiled expression.
+ */
+public final class VectorizedExpression
+{
+    private static final Map<String, OperatorType> OPERATORS = Arrays.stream(OperatorType.values())
+            .collect(toImmutableMap(Signature::mangleOperatorName, identity()));
+
+    // x fits in an int if and only if (x + INTEGER_BIAS) >>> 32 == 0
+    private static final long INTEGER_BIAS = 0x8000_0000L;
+
+    private final RowExpression expression;
+    private final Node root;
+
+    private VectorizedExpression(RowExpression expression, Node root)
+    {
+        this.expression = requireNonNull(expression, "expression is null");
+        this.root = requireNonNull(root, "root is null");
+    }
+
+    /**
+     * Returns the vectorized form of an expression whose fields refer to the channels of the evaluated pages,
+     * or empty if the expression uses types, functions or special forms that are not supported.
+     */
+    public static Optional<VectorizedExpression> create(RowExpression expression)
+    {
+        return expression.accept(new NodeBuilder(), null)
+                .map(root -> new VectorizedExpression(expression, root));
+    }
+
+    public Type getType()
+    {
+        return expression.getType();
+    }
+
+    public Block evaluate(Page page, SelectedPositions selectedPositions)
+    {
+        return root.evaluate(page, selectedPositions).toBlock(expression.getType());
+    }
+
+    /**
+     * Returns the positions of the page for which the expression is true.
+     */
+    public SelectedPositions filter(Page page)
+    {
+        int positionCount = page.getPositionCount();
+        Column result = root.evaluate(page, SelectedPositions.positionsRange(0, positionCount));
+        boolean[] values = result.booleans;
+        boolean[] nulls = result.nulls;
+
+        int[] positions = new int[positionCount];
+        int selectedCount = 0;
+        for (int position = 0; position < positionCount; position++) {
+            positions[selectedCount] = position;
+            selectedCount += (values[position] && (nulls == null || !nulls[position])) ? 1 : 0;
+        }
+        if (selectedCount == positionCount) {
+            return SelectedPositions.positionsRange(0, positionCount);
+        }
+        return SelectedPositions.positionsList(positions, 0, selectedCount);
+    }
+
+    @Override
+    public String toString()
+    {
+        return expression.toString();
+    }
+
+    private enum Kind
+    {
+        LONG, DOUBLE, BOOLEAN
+    }
+
+    private static Optional<Kind> kindOf(Type type)
+    {
+        if (type.equals(BIGINT) || type.equals(INTEGER) || type.equals(DATE)) {
+            return Optional.of(Kind.LONG);
+        }
+        if (type.equals(DOUBLE)) {
+            return Optional.of(Kind.DOUBLE);
+        }
+        if (type.equals(BOOLEAN)) {
+            return Optional.of(Kind.BOOLEAN);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Values of one expression for the selected positions. Only the array of the expression kind is set,
+     * and the arrays are never modified once the column is created.
+     */
+    private static final class Column
+    {
+        private final int size;
+        private final long[] longs;
+        private final double[] doubles;
+        private final boolean[] booleans;
+        @Nullable
+        private final boolean[] nulls;
+
+        private Column(int size, long[] longs, double[] doubles, boolean[] booleans, @Nullable boolean[] nulls)
+        {
+            this.size = size;
+            this.longs = longs;
+            this.doubles = doubles;
+            this.booleans = booleans;
+            this.nulls = nulls;
+        }
+
+        public static Column ofLongs(int size, long[] values, @Nullable boolean[] nulls)
+        {
+            return new Column(size, values, null, null, nulls);
+        }
+
+        public static Column ofDoubles(int size, double[] values, @Nullable boolean[] nulls)
+        {
+            return new Column(size, null, values, null, nulls);
+        }
+
+        public static Column ofBooleans(int size, boolean[] values, @Nullable boolean[] nulls)
+        {
+            return new Column(size, null, null, values, nulls);
+        }
+
+        public Block toBlock(Type type)
+        {
+            Optional<boolean[]> valueIsNull = Optional.ofNullable(nulls);
+            if (type.equals(BIGINT)) {
+                long[] values = longs;
+                if (nulls != null) {
+                    values = new long[size];
+                    for (int i = 0; i < size; i++) {
+                        values[i] = nulls[i] ? 0 : longs[i];
+                    }
+                }
+                return new LongArrayBlock(size, valueIsNull, values);
+            }
+            if (type.equals(INTEGER) || type.equals(DATE)) {
+                int[] values = new int[size];
+                for (int i = 0; i < size; i++) {
+                    values[i] = (int) longs[i];
+                }
+                if (nulls != null) {
+                    for (int i = 0; i < size; i++) {
+                        values[i] = nulls[i] ? 0 : values[i];
+                    }
+                }
+                return new IntArrayBlock(size, valueIsNull, values);
+            }
+            if (type.equals(DOUBLE)) {
+                long[] values = new long[size];
+                for (int i = 0; i < size; i++) {
+                    values[i] = doubleToLongBits(doubles[i]);
+                }
+                if (nulls != null) {
+                    for (int i = 0; i < size; i++) {
+                        values[i] = nulls[i] ? 0 : values[i];
+                    }
+                }
+                return new LongArrayBlock(size, valueIsNull, values);
+            }
+            if (type.equals(BOOLEAN)) {
+                byte[] values = new byte[size];
+                for (int i = 0; i < size; i++) {
+                    values[i] = (byte) (booleans[i] ? 1 : 0);
+                }
+                if (nulls != null) {
+                    for (int i = 0; i < size; i++) {
+                        values[i] = nulls[i] ? 0 : values[i];
+                    }
+                }
+                return new ByteArrayBlock(size, valueIsNull, values);
+            }
+            throw new IllegalArgumentException("Unsupported type: " + type);
+        }
+    }
+
+    private interface Node
+    {
+        Column evaluate(Page page, SelectedPositions selectedPositions);
+    }
+
+    private static class NodeBuilder
+            implements RowExpressionVisitor<Optional<Node>, Void>
+    {
+        @Override
+        public Optional<Node> visitInputReference(InputReferenceExpression reference, Void context)
+        {
+            return kindOf(reference.getType())
+                    .map(kind -> new InputNode(reference.getField(), reference.getType()));
+        }
+
+        @Override
+        public Optional<Node> visitConstant(ConstantExpression literal, Void context)
+        {
+            return kindOf(literal.getType())
+                    .map(kind -> new ConstantNode(literal.getValue(), kind));
+        }
+
+        @Override
+        public Optional<Node> visitCall(CallExpression call, Void context)
+        {
+            List<RowExpression> arguments = call.getArguments();
+            if (call.getSignature().equals(notSignature())) {
+                return arguments.get(0).accept(this, null).map(NotNode::new);
+            }
+
+            OperatorType operator = OPERATORS.get(call.getSignature().getName());
+            if (operator == null) {
+                return Optional.empty();
+            }
+
+            Type type = call.getType();
+            Type argumentType = arguments.get(0).getType();
+            if (arguments.stream().anyMatch(argument -> !argument.getType().equals(argumentType))) {
+                return Optional.empty();
+            }
+            Optional<Node> first = arguments.get(0).accept(this, null);
+            Optional<Node> second = arguments.size() > 1 ? arguments.get(1).accept(this, null) : Optional.empty();
+            if (!first.isPresent() || (arguments.size() > 1 && !second.isPresent())) {
+                return Optional.empty();
+            }
+
+            boolean isInteger = argumentType.equals(INTEGER);
+            boolean isExactNumeric = argumentType.equals(BIGINT) || isInteger;
+            switch (operator) {
+                case ADD:
+                case SUBTRACT:
+                case MULTIPLY:
+                    if (isExactNumeric && type.equals(argumentType)) {
+                        return Optional.of(new LongArithmeticNode(operator, isInteger, first.get(), second.get()));
+                    }
+                    if (argumentType.equals(DOUBLE) && type.equals(DOUBLE)) {
+                        return Optional.of(new DoubleArithmeticNode(operator, first.get(), second.get()));
+                    }
+                    return Optional.empty();
+                case DIVIDE:
+                    // integer division is not vectorized by C2 and needs a check for zero divisors
+                    if (argumentType.equals(DOUBLE) && type.equals(DOUBLE)) {
+                        return Optional.of(new DoubleArithmeticNode(operator, first.get(), second.get()));
+                    }
+                    return Optional.empty();
+                case NEGATION:
+                    if (isExactNumeric && type.equals(argumentType)) {
+                        return Optional.of(new LongNegationNode(isInteger, first.get()));
+                    }
+                    if (argumentType.equals(DOUBLE) && type.equals(DOUBLE)) {
+                        return Optional.of(new DoubleNegationNode(first.get()));
+                    }
+                    return Optional.empty();
+                case EQUAL:
+                case NOT_EQUAL:
+                case LESS_THAN:
+                case LESS_THAN_OR_EQUAL:
+                case GREATER_THAN:
+                case GREATER_THAN_OR_EQUAL: {
+                    Optional<Kind> kind = kindOf(argumentType);
+                    if (!kind.isPresent() || kind.get() == Kind.BOOLEAN) {
+                        return Optional.empty();
+                    }
+                    Node left = first.get();
+                    Node right = second.get();
+                    return Optional.of((page, selectedPositions) -> compare(operator, kind.get(), left.evaluate(page, selectedPositions), right.evaluate(page, selectedPositions)));
+                }
+                case CAST:
+                    if (isInteger && type.equals(BIGINT)) {
+                        return first;
+                    }
+                    if (isExactNumeric && type.equals(DOUBLE)) {
+                        return Optional.of(new LongToDoubleNode(first.get()));
+                    }
+                    return Optional.empty();
+                default:
+                    return Optional.empty();
+            }
+        }
+
+        @Override
+        public Optional<Node> visitSpecialForm(SpecialForm specialForm, Void context)
+        {
+            List<RowExpression> arguments = specialForm.getArguments();
+            switch (specialForm.getForm()) {
+                case AND:
+                case OR: {
+                    Optional<Node> left = arguments.get(0).accept(this, null);
+                    Optional<Node> right = arguments.get(1).accept(this, null);
+                    if (!left.isPresent() || !right.isPresent()) {
+                        return Optional.empty();
+                    }
+                    boolean isOr = specialForm.getForm() == SpecialForm.Form.OR;
+                    return Optional.of((page, selectedPositions) -> {
+                        Column leftColumn = left.get().evaluate(page, selectedPositions);
+                        Column rightColumn = right.get().evaluate(page, selectedPositions);
+                        return isOr ? or(leftColumn, rightColumn) : and(leftColumn, rightColumn);
+                    });
+                }
+                case IS_NULL:
+                    return arguments.get(0).accept(this, null).map(IsNullNode::new);
+                case BETWEEN: {
+                    Type valueType = arguments.get(0).getType();
+                    Optional<Kind> kind = kindOf(valueType);
+                    if (!kind.isPresent() || kind.get() == Kind.BOOLEAN || arguments.stream().anyMatch(argument -> !argument.getType().equals(valueType))) {
+                        return Optional.empty();
+                    }
+                    Optional<Node> value = arguments.get(0).accept(this, null);
+                    Optional<Node> min = arguments.get(1).accept(this, null);
+                    Optional<Node> max = arguments.get(2).accept(this, null);
+                    if (!value.isPresent() || !min.isPresent() || !max.isPresent()) {
+                        return Optional.empty();
+                    }
+                    return Optional.of((page, selectedPositions) -> {
+                        Column valueColumn = value.get().evaluate(page, selectedPositions);
+                        return and(
+                                compare(GREATER_THAN_OR_EQUAL, kind.get(), valueColumn, min.get().evaluate(page, selectedPositions)),
+                                compare(LESS_THAN_OR_EQUAL, kind.get(), valueColumn, max.get().evaluate(page, selectedPositions)));
+                    });
+                }
+                default:
+                    return Optional.empty();
+            }
+        }
+
+        @Override
+        public Optional<Node> visitLambda(LambdaDefinitionExpression lambda, Void context)
+        {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Node> visitVariableReference(VariableReferenceExpression reference, Void context)
+        {
+            return Optional.empty();
+        }
+    }
+
+    private static class InputNode
+            implements Node
+    {
+        private final int channel;
+        private final Type type;
+
+        public InputNode(int channel, Type type)
+        {
+            this.channel = channel;
+            this.type = type;
+        }
+
+        @Override
+        public Column evaluate(Page page, SelectedPositions selectedPositions)
+        {
+            Block block = page.getBlock(channel);
+            int size = selectedPositions.size();
+            int offset = selectedPositions.getOffset();
+            int[] positions = selectedPositions.isList() ? selectedPositions.getPositions() : null;
+            boolean[] nulls = readNulls(block, offset, positions, size);
+
+            if (type.equals(BIGINT)) {
+                long[] values = new long[size];
+                for (int i = 0; i < size; i++) {
+                    if (nulls == null || !nulls[i]) {
+                        values[i] = block.getLong(positions == null ? offset + i : positions[offset + i], 0);
+                    }
+                }
+                return Column.ofLongs(size, values, nulls);
+            }
+            if (type.equals(INTEGER) || type.equals(DATE)) {
+                long[] values = new long[size];
+                for (int i = 0; i < size; i++) {
+                    if (nulls == null || !nulls[i]) {
+                        values[i] = block.getInt(positions == null ? offset + i : positions[offset + i], 0);
+                    }
+                }
+                return Column.ofLongs(size, values, nulls);
+            }
+            if (type.equals(DOUBLE)) {
+                double[] values = new double[size];
+                for (int i = 0; i < size; i++) {
+                    if (nulls == null || !nulls[i]) {
+                        values[i] = longBitsToDouble(block.getLong(positions == null ? offset + i : positions[offset + i], 0));
+                    }
+                }
+                return Column.ofDoubles(size, values, nulls);
+            }
+            boolean[] values = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                if (nulls == null || !nulls[i]) {
+                    values[i] = block.getByte(positions == null ? offset + i : positions[offset + i], 0) != 0;
+                }
+            }
+            return Column.ofBooleans(size, values, nulls);
+        }
+
+        @Nullable
+        private static boolean[] readNulls(Block block, int offset, @Nullable int[] positions, int size)
+        {
+            if (!block.mayHaveNull()) {
+                return null;
+            }
+            boolean[] nulls = new boolean[size];
+            boolean hasNull = false;
+            for (int i = 0; i < size; i++) {
+                nulls[i] = block.isNull(positions == null ? offset + i : positions[offset + i]);
+                hasNull |= nulls[i];
+            }
+            return hasNull ? nulls : null;
+        }
+    }
+
+    private static class ConstantNode
+            implements Node
+    {
+        private final Object value;
+        private final Kind kind;
+
+        public ConstantNode(@Nullable Object value, Kind kind)
+        {
+            this.value = value;
+            this.kind = kind;
+        }
+
+        @Override
+        public Column evaluate(Page page, SelectedPositions selectedPositions)
+        {
+            int size = selectedPositions.size();
+            boolean[] nulls = null;
+            if (value == null) {
+                nulls = new boolean[size];
+                Arrays.fill(nulls, true);
+            }
+
+            switch (kind) {
+                case LONG: {
+                    long[] values = new long[size];
+                    if (value != null) {
+                        Arrays.fill(values, (long) value);
+                    }
+                    return Column.ofLongs(size, values, nulls);
+                }
+                case DOUBLE: {
+                    double[] values = new double[size];
+                    if (value != null) {
+                        Arrays.fill(values, (double) value);
+                    }
+                    return Column.ofDoubles(size, values, nulls);
+                }
+                case BOOLEAN: {
+                    boolean[] values = new boolean[size];
+                    if (value != null) {
+                        Arrays.fill(values, (boolean) value);
+                    }
+                    return Column.ofBooleans(size, values, nulls);
+                }
+            }
+            throw new UnsupportedOperationException("Unsupported kind: " + kind);
+        }
+    }
+
+    private static class LongArithmeticNode
+            implements Node
+    {
+        private final OperatorType operator;
+        private final boolean isInteger;
+        private final Node left;
+        private final Node right;
+
+        public LongArithmeticNode(OperatorType operator, boolean isInteger, Node left, Node right)
+        {
+            this.operator = operator;
+            this.isInteger = isInteger;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public Column evaluate(Page page, SelectedPositions selectedPositions)
+        {
+            Column leftColumn = left.evaluate(page, selectedPositions);
+            Column rightColumn = right.evaluate(page, selectedPositions);
+            int size = leftColumn.size;
+            long[] a = leftColumn.longs;
+            long[] b = rightColumn.longs;
+            long[] result = new long[size];
+            boolean[] nulls = mergeNulls(leftColumn.nulls, rightColumn.nulls, size);
+
+            boolean mayOverflow;
+            if (isInteger) {
+                // the operands are in the integer range, so the exact result fits in a long
+                long bits = 0;
+                switch (operator) {
+                    case ADD:
+                        for (int i = 0; i < size; i++) {
+                            result[i] = a[i] + b[i];
+                            bits |= result[i] + INTEGER_BIAS;
+                        }
+                        break;
+                    case SUBTRACT:
+                        for (int i = 0; i < size; i++) {
+                            result[i] = a[i] - b[i];
+                            bits |= result[i] + INTEGER_BIAS;
+                        }
+                        break;
+                    case MULTIPLY:
+                        for (int i = 0; i < size; i++) {
+                            result[i] = a[i] * b[i];
+                            bits |= result[i] + INTEGER_BIAS;
+                        }
+                        break;
+                    default:
+                        throw new UnsupportedOperationException("Unsupported operator: " + operator);
+                }
+                mayOverflow = (bits >>> 32) != 0;
+            }
+            else {
+                long bits = 0;
+                switch (operator) {
+                    case ADD:
+                        for (int i = 0; i < size; i++) {
+                            long x = a[i];
+                            long y = b[i];
+                            long r = x + y;
+                            result[i] = r;
+                            // the sign of the result differs from the signs of both operands
+                            bits |= (x ^ r) & (y ^ r);
+                        }
+                        mayOverflow = bits < 0;
+                        break;
+                    case SUBTRACT:
+                        for (int i = 0; i < size; i++) {
+                            long x = a[i];
+                            long y = b[i];
+                            long r = x - y;
+                            result[i] = r;
+                            bits |= (x ^ y) & (x ^ r);
+                        }
+                        mayOverflow = bits < 0;
+                        break;
+                    case MULTIPLY:
+                        for (int i = 0; i < size; i++) {
+                            long x = a[i];
+                            long y = b[i];
+                            result[i] = x * y;
+                            // the product of two values in the integer range can not overflow
+                            bits |= (x + INTEGER_BIAS) | (y + INTEGER_BIAS);
+                        }
+                        mayOverflow = (bits >>> 32) != 0;
+                        break;
+                    default:
+                        throw new UnsupportedOperationException("Unsupported operator: " + operator);
+                }
+            }
+
+            if (mayOverflow) {
+                for (int i = 0; i < size; i++) {
+                    if (nulls == null || !nulls[i]) {
+                        result[i] = exact(a[i], b[i]);
+                    }
+                }
+            }
+            return Column.ofLongs(size, result, nulls);
+        }
+
+        private long exact(long left, long right)
+        {
+            switch (operator) {
+                case ADD:
+                    return isInteger ? IntegerOperators.add(left, right) : BigintOperators.add(left, right);
+                case SUBTRACT:
+                    return isInteger ? IntegerOperators.subtract(left, right) : BigintOperators.subtract(left, right);
+                case MULTIPLY:
+                    return isInteger ? IntegerOperators.multiply(left, right) : BigintOperators.multiply(left, right);
+                default:
+                    throw new UnsupportedOperationException("Unsupported operator: " + operator);
+            }
+        }
+    }
+
+    private static class DoubleArithmeticNode
+            implements Node
+    {
+        private final OperatorType operator;
+        private final Node left;
+        private final Node right;
+
+        public DoubleArithmeticNode(OperatorType operator, Node left, Node right)
+        {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public Column evaluate(Page page, SelectedPositions selectedPositions)
+        {
+            Column leftColumn = left.evaluate(page, selectedPositions);
+            Column rightColumn = right.evaluate(page, selectedPositions);
+            int size = leftColumn.size;
+            double[] a = leftColumn.doubles;
+            double[] b = rightColumn.doubles;
+            double[] result = new double[size];
+            switch (operator) {
+                case ADD:
+                    for (int i = 0; i < size; i++) {
+                        result[i] = a[i] + b[i];
+                    }
+                    break;
+                case SUBTRACT:
+                    for (int i = 0; i < size; i++) {
+                        result[i] = a[i] - b[i];
+                    }
+                    break;
+                case MULTIPLY:
+                    for (int i = 0; i < size; i++) {
+                        result[i] = a[i] * b[i];
+                    }
+                    break;
+                case DIVIDE:
+                    for (int i = 0; i < size; i++) {
+                        result[i] = a[i] / b[i];
+                    }
+                    break;
+                default:
+                    throw new UnsupportedOperationException("Unsupported operator: " + operator);
+            }
+            return Column.ofDoubles(size, result, mergeNulls(leftColumn.nulls, rightColumn.nulls, size));
+        }
+    }
+
+    private static class LongNegationNode
+            implements Node
+    {
+        private final boolean isInteger;
+        private final Node value;
+
+        public LongNegationNode(boolean isInteger, Node value)
+        {
+            this.isInteger = isInteger;
+            this.value = value;
+        }
+
+        @Override
+        public Column evaluate(Page page, SelectedPositions selectedPositions)
+        {
+            Column column = value.evaluate(page, selectedPositions);
+            int size = column.size;
+            long[] values = column.longs;
+            long[] result = new long[size];
+            long bits = 0;
+            boolean mayOverflow;
+            if (isInteger) {
+                for (int i = 0; i < size; i++) {
+                    result[i] = -values[i];
+                    bits |= result[i] + INTEGER_BIAS;
+                }
+                mayOverflow = (bits >>> 32) != 0;
+            }
+            else {
+                for (int i = 0; i < size; i++) {
+                    result[i] = -values[i];
+                    // only the minimum value is negative before and after negation
+                    bits |= values[i] & result[i];
+                }
+                mayOverflow = bits < 0;
+            }
+
+            if (mayOverflow) {
+                for (int i = 0; i < size; i++) {
+                    if (column.nulls == null || !column.nulls[i]) {
+                        result[i] = isInteger ? IntegerOperators.negate(values[i]) : BigintOperators.negate(values[i]);
+                    }
+                }
+            }
+            return Column.ofLongs(size, result, column.nulls);
+        }
+    }
+
+    private static class DoubleNegationNode
+            implements Node
+    {
+        private final Node value;
+
+        public DoubleNegationNode(Node value)
+        {
+            this.value = value;
+        }
+
+        @Override
+        public Column evaluate(Page page, SelectedPositions selectedPositions)
+        {
+            Column column = value.evaluate(page, selectedPositions);
+            int size = column.size;
+            double[] values = column.doubles;
+            double[] result = new double[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = -values[i];
+            }
+            return Column.ofDoubles(size, result, column.nulls);
+        }
+    }
+
+    private static class LongToDoubleNode
+            implements Node
+    {
+        private final Node value;
+
+        public LongToDoubleNode(Node value)
+        {
+            this.value = value;
+        }
+
+        @Override
+        public Column evaluate(Page page, SelectedPositions selectedPositions)
+        {
+            Column column = value.evaluate(page, selectedPositions);
+            int size = column.size;
+            long[] values = column.longs;
+            double[] result = new double[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = values[i];
+            }
+            return Column.ofDoubles(size, result, column.nulls);
+        }
+    }
+
+    private static class NotNode
+            implements Node
+    {
+        private final Node value;
+
+        public NotNode(Node value)
+        {
+            this.value = value;
+        }
+
+        @Override
+        public Column evaluate(Page page, SelectedPositions selectedPositions)
+        {
+            Column column = value.evaluate(page, selectedPositions);
+            int size = column.size;
+            boolean[] values = column.booleans;
+            boolean[] result = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = !values[i];
+            }
+            return Column.ofBooleans(size, result, column.nulls);
+        }
+    }
+
+    private static class IsNullNode
+            implements Node
+    {
+        private final Node value;
+
+        public IsNullNode(Node value)
+        {
+            this.value = value;
+        }
+
+        @Override
+        public Column evaluate(Page page, SelectedPositions selectedPositions)
+        {
+            Column column = value.evaluate(page, selectedPositions);
+            boolean[] result = column.nulls == null ? new boolean[column.size] : column.nulls;
+            return Column.ofBooleans(column.size, result, null);
+        }
+    }
+
+    private static Column compare(OperatorType operator, Kind kind, Column left, Column right)
+    {
+        int size = left.size;
+        boolean[] result = new boolean[size];
+        if (kind == Kind.LONG) {
+            long[] a = left.longs;
+            long[] b = right.longs;
+            switch (operator) {
+                case EQUAL:
+                    for (int i = 0; i < size; i++) {
+                        result[i] = a[i] == b[i];
+                    }
+                    break;
+                case NOT_EQUAL:
+                    for (int i = 0; i < size; i++) {
+                        result[i] = a[i] != b[i];
+                    }
+                    break;
+                case LESS_THAN:
+                    for (int i = 0; i < size; i++) {
+                        result[i] = a[i] < b[i];
+                    }
+                    break;
+                case LESS_THAN_OR_EQUAL:
+                    for (int i = 0; i < size; i++) {
+                        result[i] = a[i] <= b[i];
+                    }
+                    break;
+                case GREATER_THAN:
+                    for (int i = 0; i < size; i++) {
+                        result[i] = a[i] > b[i];
+                    }
+                    break;
+                case GREATER_THAN_OR_EQUAL:
+                    for (int i = 0; i < size; i++) {
+                        result[i] = a[i] >= b[i];
+                    }
+                    break;
+                default:
+                    throw new UnsupportedOperationException("Unsupported operator: " + operator);
+            }
+        }
+        else {
+            double[] a = left.doubles;
+            double[] b = right.doubles;
+            switch (operator) {
+                case EQUAL:
+                    for (int i = 0; i < size; i++) {
+                        result[i] = a[i] == b[i];
+                    }
+                    break;
+                case NOT_EQUAL:
+                    for (int i = 0; i < size; i++) {
+                        result[i] = a[i] != b[i];
+                    }
+                    break;
+                case LESS_THAN:
+                    for (int i = 0; i < size; i++) {
+                        result[i] = a[i] < b[i];
+                    }
+                    break;
+                case LESS_THAN_OR_EQUAL:
+                    for (int i = 0; i < size; i++) {
+                        result[i] = a[i] <= b[i];
+                    }
+                    break;
+                case GREATER_THAN:
+                    for (int i = 0; i < size; i++) {
+                        result[i] = a[i] > b[i];
+                    }
+                    break;
+                case GREATER_THAN_OR_EQUAL:
+                    for (int i = 0; i < size; i++) {
+                        result[i] = a[i] >= b[i];
+                    }
+                    break;
+                default:
+                    throw new UnsupportedOperationException("Unsupported operator: " + operator);
+            }
+        }
+        return Column.ofBooleans(size, result, mergeNulls(left.nulls, right.nulls, size));
+    }
+
+    /**
+     * Three valued AND: false if either side is false, otherwise null if either side is null.
+     */
+    private static Column and(Column left, Column right)
+    {
+        int size = left.size;
+        boolean[] a = left.booleans;
+        boolean[] b = right.booleans;
+        boolean[] result = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = a[i] & b[i];
+        }
+        if (left.nulls == null && right.nulls == null) {
+            return Column.ofBooleans(size, result, null);
+        }
+
+        boolean[] leftNulls = left.nulls == null ? new boolean[size] : left.nulls;
+        boolean[] rightNulls = right.nulls == null ? new boolean[size] : right.nulls;
+        boolean[] nulls = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            boolean isFalse = (!leftNulls[i] & !a[i]) | (!rightNulls[i] & !b[i]);
+            nulls[i] = !isFalse & (leftNulls[i] | rightNulls[i]);
+        }
+        return Column.ofBooleans(size, result, nulls);
+    }
+
+    /**
+     * Three valued OR: true if either side is true, otherwise null if either side is null.
+     */
+    private static Column or(Column left, Column right)
+    {
+        int size = left.size;
+        boolean[] a = left.booleans;
+        boolean[] b = right.booleans;
+        boolean[] result = new boolean[size];
+        if (left.nulls == null && right.nulls == null) {
+            for (int i = 0; i < size; i++) {
+                result[i] = a[i] | b[i];
+            }
+            return Column.ofBooleans(size, result, null);
+        }
+
+        boolean[] leftNulls = left.nulls == null ? new boolean[size] : left.nulls;
+        boolean[] rightNulls = right.nulls == null ? new boolean[size] : right.nulls;
+        boolean[] nulls = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            // values at null positions are arbitrary, so they must not make the result true
+            boolean isTrue = (!leftNulls[i] & a[i]) | (!rightNulls[i] & b[i]);
+            result[i] = isTrue;
+            nulls[i] = !isTrue & (leftNulls[i] | rightNulls[i]);
+        }
+        return Column.ofBooleans(size, result, nulls);
+    }
+
+    @Nullable
+    private static boolean[] mergeNulls(@Nullable boolean[] left, @Nullable boolean[] right, int size)
+    {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        boolean[] nulls = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            nulls[i] = left[i] | right[i];
+        }
+        return nulls;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import io.prestosql.spi.Page;
+import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.type.BooleanType;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+public class VectorizedPageFilter
+        implements PageFilter
+{
+    private final VectorizedExpression filter;
+    private final InputChannels inputChannels;
+
+    public VectorizedPageFilter(VectorizedExpression filter, InputChannels inputChannels)
+    {
+        this.filter = requireNonNull(filter, "filter is null");
+        this.inputChannels = requireNonNull(inputChannels, "inputChannels is null");
+        checkArgument(filter.getType() instanceof BooleanType, "filter must return a boolean");
+    }
+
+    @Override
+    public boolean isDeterministic()
+    {
+        return true;
+    }
+
+    @Override
+    public InputChannels getInputChannels()
+    {
+        return inputChannels;
+    }
+
+    @Override
+    public SelectedPositions filter(ConnectorSession session, Page page)
+    {
+        return filter.filter(page);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("filter", filter)
+                .toString();
+    }
+}
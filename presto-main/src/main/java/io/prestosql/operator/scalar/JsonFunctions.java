@@ -36,6 +36,7 @@ import io.prestosql.spi.function.SqlType;
 import io.prestosql.spi.type.SqlDecimal;
 import io.prestosql.spi.type.StandardTypes;
 import io.prestosql.spi.type.Type;
+import io.prestosql.type.JsonPathTrieType;
 import io.prestosql.type.JsonPathType;
 
 import java.io.IOException;
@@ -57,8 +58,10 @@ import static com.fasterxml.jackson.databind.SerializationFeature.ORDER_MAP_ENTR
 import static io.airlift.slice.Slices.utf8Slice;
 import static io.prestosql.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
 import static io.prestosql.spi.type.Chars.padSpaces;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static io.prestosql.util.JsonUtil.createJsonParser;
 import static io.prestosql.util.JsonUtil.truncateIfNecessaryForErrorMessage;
+import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 
 public final class JsonFunctions
@@ -465,6 +468,36 @@ public final class JsonFunctions
         return JsonExtract.extract(json, jsonPath.getObjectExtractor());
     }
 
+    @ScalarFunction(value = "$json_extract_multiple", hidden = true)
+    @LiteralParameters("x")
+    @SqlType("array(varchar)")
+    public static Block varcharJsonExtractMultiple(@SqlType("varchar(x)") Slice json, @SqlType(JsonPathTrieType.NAME) JsonPathTrie jsonPaths)
+    {
+        return jsonPaths.extract(json);
+    }
+
+    @ScalarFunction(value = "$json_extract_multiple", hidden = true)
+    @SqlType("array(varchar)")
+    public static Block jsonExtractMultiple(@SqlType(StandardTypes.JSON) Slice json, @SqlType(JsonPathTrieType.NAME) JsonPathTrie jsonPaths)
+    {
+        return jsonPaths.extract(json);
+    }
+
+    /**
+     * Returns an element extracted by {@code $json_extract_multiple} for a path extracted as JSON.
+     */
+    @ScalarFunction(value = "$json_extract_multiple_json", hidden = true)
+    @SqlNullable
+    @SqlType(StandardTypes.JSON)
+    public static Slice jsonExtractMultipleJson(@SqlType("array(varchar)") Block values, @SqlType(StandardTypes.BIGINT) long index)
+    {
+        int position = toIntExact(index - 1);
+        if (values.isNull(position)) {
+            return null;
+        }
+        return VARCHAR.getSlice(values, position);
+    }
+
     @ScalarFunction("json_size")
     @LiteralParameters("x")
     @SqlNullable
@@ -0,0 +1,367 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.scalar;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.fasterxml.jackson.core.JsonFactory.Feature.CANONICALIZE_FIELD_NAMES;
+import static com.fasterxml.jackson.core.JsonToken.END_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.END_OBJECT;
+import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.util.JsonUtil.createJsonParser;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Extracts the values of several JSON paths from a document while parsing it once.
+ * <p>
+ * The paths are merged into a trie of their {@link JsonPathTokenizer} tokens, which is walked
+ * together with the document. The value of each path is the one {@code json_extract_scalar}
+ * (for scalar paths) or {@code json_extract} (otherwise) would return: the first matching field wins,
+ * and a parse error hides the values of the paths that were not resolved before it.
+ * A path below a path extracted as JSON is extracted separately, as the value of the outer path
+ * is copied while it is parsed.
+ */
+public final class JsonPathTrie
+{
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(CANONICALIZE_FIELD_NAMES);
+
+    private static final JsonExtract.JsonExtractor<Slice> SCALAR_EXTRACTOR = new JsonExtract.ScalarValueJsonExtractor();
+    private static final JsonExtract.JsonExtractor<Slice> JSON_EXTRACTOR = new JsonExtract.JsonValueJsonExtractor();
+
+    private final List<JsonPath> paths;
+    private final List<Boolean> scalar;
+    private final Node root;
+    private final int nodeCount;
+    private final int terminalCount;
+    // paths extracted on their own, by position
+    private final Map<Integer, JsonExtract.JsonExtractor<Slice>> separateExtractors = new HashMap<>();
+
+    /**
+     * @param paths the paths to extract
+     * @param scalar whether the path at the same position is extracted as a scalar rather than as JSON
+     */
+    public JsonPathTrie(List<JsonPath> paths, List<Boolean> scalar)
+    {
+        this.paths = ImmutableList.copyOf(requireNonNull(paths, "paths is null"));
+        this.scalar = ImmutableList.copyOf(requireNonNull(scalar, "scalar is null"));
+        checkArgument(paths.size() == scalar.size(), "paths and scalar have different sizes");
+
+        List<List<String>> tokens = new ArrayList<>();
+        for (JsonPath path : paths) {
+            tokens.add(ImmutableList.copyOf(new JsonPathTokenizer(path.getPattern())));
+        }
+
+        NodeBuilder rootBuilder = new NodeBuilder();
+        for (int i = 0; i < paths.size(); i++) {
+            if (isBelowJsonPath(tokens, i) || hasAmbiguousIndex(tokens.get(i))) {
+                separateExtractors.put(i, this.scalar.get(i) ? paths.get(i).getScalarExtractor() : paths.get(i).getObjectExtractor());
+                continue;
+            }
+            NodeBuilder node = rootBuilder;
+            for (String token : tokens.get(i)) {
+                node = node.child(token);
+            }
+            if (this.scalar.get(i)) {
+                node.scalarPositions.add(i);
+            }
+            else {
+                node.jsonPositions.add(i);
+            }
+        }
+
+        int[] counters = new int[2];
+        root = rootBuilder.build(counters);
+        nodeCount = counters[0];
+        terminalCount = counters[1];
+    }
+
+    public int size()
+    {
+        return paths.size();
+    }
+
+    /**
+     * Returns an array of the values of the paths in the document, with a null element for a path without a value.
+     */
+    public Block extract(Slice json)
+    {
+        requireNonNull(json, "json is null");
+
+        Slice[] values = new Slice[paths.size()];
+        try (JsonParser parser = createJsonParser(JSON_FACTORY, json)) {
+            if (parser.nextToken() != null) {
+                new Walker(parser, values).walk(root);
+            }
+        }
+        catch (JsonParseException e) {
+            // the paths not resolved yet have no value
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        for (Map.Entry<Integer, JsonExtract.JsonExtractor<Slice>> entry : separateExtractors.entrySet()) {
+            values[entry.getKey()] = JsonExtract.extract(json, entry.getValue());
+        }
+
+        BlockBuilder blockBuilder = VARCHAR.createBlockBuilder(null, values.length);
+        for (Slice value : values) {
+            if (value == null) {
+                blockBuilder.appendNull();
+            }
+            else {
+                VARCHAR.writeSlice(blockBuilder, value);
+            }
+        }
+        return blockBuilder.build();
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("paths", paths.stream().map(JsonPath::getPattern).collect(toImmutableList()))
+                .add("scalar", scalar)
+                .toString();
+    }
+
+    private boolean isBelowJsonPath(List<List<String>> tokens, int position)
+    {
+        List<String> pathTokens = tokens.get(position);
+        for (int i = 0; i < tokens.size(); i++) {
+            List<String> otherTokens = tokens.get(i);
+            if (!scalar.get(i) && otherTokens.size() < pathTokens.size() && pathTokens.subList(0, otherTokens.size()).equals(otherTokens)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasAmbiguousIndex(List<String> tokens)
+    {
+        // an index like 01 selects the same array element as 1, but a different object field
+        for (String token : tokens) {
+            int index = tryParseIndex(token);
+            if (index >= 0 && !String.valueOf(index).equals(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int tryParseIndex(String token)
+    {
+        try {
+            return Integer.parseInt(token);
+        }
+        catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static class NodeBuilder
+    {
+        private final Map<String, NodeBuilder> children = new HashMap<>();
+        private final List<Integer> scalarPositions = new ArrayList<>();
+        private final List<Integer> jsonPositions = new ArrayList<>();
+
+        public NodeBuilder child(String token)
+        {
+            return children.computeIfAbsent(token, key -> new NodeBuilder());
+        }
+
+        public Node build(int[] counters)
+        {
+            int id = counters[0]++;
+            boolean terminal = !scalarPositions.isEmpty() || !jsonPositions.isEmpty();
+            if (terminal) {
+                counters[1]++;
+            }
+
+            Map<String, Node> fields = new HashMap<>();
+            Map<Integer, Node> elements = new HashMap<>();
+            for (Map.Entry<String, NodeBuilder> entry : children.entrySet()) {
+                Node child = entry.getValue().build(counters);
+                fields.put(entry.getKey(), child);
+                int index = tryParseIndex(entry.getKey());
+                if (index >= 0) {
+                    elements.put(index, child);
+                }
+            }
+            return new Node(
+                    id,
+                    terminal,
+                    scalarPositions.stream().mapToInt(Integer::intValue).toArray(),
+                    jsonPositions.stream().mapToInt(Integer::intValue).toArray(),
+                    fields,
+                    elements);
+        }
+    }
+
+    private static class Node
+    {
+        private final int id;
+        private final boolean terminal;
+        private final int[] scalarPositions;
+        private final int[] jsonPositions;
+        // children by field name, and by array index for the names that are indexes
+        private final Map<String, Node> fields;
+        private final Map<Integer, Node> elements;
+
+        public Node(int id, boolean terminal, int[] scalarPositions, int[] jsonPositions, Map<String, Node> fields, Map<Integer, Node> elements)
+        {
+            this.id = id;
+            this.terminal = terminal;
+            this.scalarPositions = scalarPositions;
+            this.jsonPositions = jsonPositions;
+            this.fields = fields;
+            this.elements = elements;
+        }
+    }
+
+    private class Walker
+    {
+        private final JsonParser parser;
+        private final Slice[] values;
+        // a node is resolved once its value was walked, or the value of an ancestor was walked without reaching it
+        private final boolean[] resolved = new boolean[nodeCount];
+        private int unresolvedTerminals = terminalCount;
+
+        public Walker(JsonParser parser, Slice[] values)
+        {
+            this.parser = parser;
+            this.values = values;
+        }
+
+        /**
+         * Walks the value the parser is on, and leaves the parser on its last token,
+         * unless all the paths were resolved before reaching it.
+         */
+        public void walk(Node node)
+                throws IOException
+        {
+            boolean consumed = false;
+            if (node.terminal) {
+                for (int position : node.scalarPositions) {
+                    values[position] = SCALAR_EXTRACTOR.extract(parser);
+                }
+                if (node.jsonPositions.length > 0) {
+                    // no path is below a path extracted as JSON
+                    Slice value = JSON_EXTRACTOR.extract(parser);
+                    for (int position : node.jsonPositions) {
+                        values[position] = value;
+                    }
+                    consumed = true;
+                }
+            }
+
+            if (!consumed) {
+                JsonToken token = parser.getCurrentToken();
+                if (token == START_OBJECT && !node.fields.isEmpty()) {
+                    walkObject(node);
+                }
+                else if (token == START_ARRAY && !node.elements.isEmpty()) {
+                    walkArray(node);
+                }
+                else {
+                    parser.skipChildren();
+                }
+            }
+            resolve(node);
+        }
+
+        private void walkObject(Node node)
+                throws IOException
+        {
+            while (true) {
+                JsonToken token = parser.nextToken();
+                if (token == null) {
+                    throw new JsonParseException(parser, "Unexpected end of object");
+                }
+                if (token == END_OBJECT) {
+                    return;
+                }
+                Node child = node.fields.get(parser.getCurrentName());
+                parser.nextToken();
+                if (child == null || resolved[child.id]) {
+                    parser.skipChildren();
+                    continue;
+                }
+                walk(child);
+                if (unresolvedTerminals == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void walkArray(Node node)
+                throws IOException
+        {
+            int index = 0;
+            while (true) {
+                JsonToken token = parser.nextToken();
+                if (token == null) {
+                    throw new JsonParseException(parser, "Unexpected end of array");
+                }
+                if (token == END_ARRAY) {
+                    return;
+                }
+                Node child = node.elements.get(index);
+                index++;
+                if (child == null || resolved[child.id]) {
+                    parser.skipChildren();
+                    continue;
+                }
+                walk(child);
+                if (unresolvedTerminals == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void resolve(Node node)
+        {
+            if (resolved[node.id]) {
+                return;
+            }
+            resolved[node.id] = true;
+            if (node.terminal) {
+                unresolvedTerminals--;
+            }
+            for (Node child : node.fields.values()) {
+                resolve(child);
+            }
+        }
+    }
+}
@@ -21,11 +21,14 @@ import com.google.common.collect.ImmutableList;
 import io.airlift.bytecode.ClassDefinition;
 import io.airlift.bytecode.CompilationException;
 import io.prestosql.metadata.Metadata;
+import io.prestosql.operator.project.CommonSubExpressionRewriter;
 import io.prestosql.operator.project.CursorProcessor;
+import io.prestosql.operator.project.JsonExtractRewriter;
 import io.prestosql.operator.project.PageFilter;
 import io.prestosql.operator.project.PageProcessor;
 import io.prestosql.operator.project.PageProjection;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.sql.relational.DeterminismEvaluator;
 import io.prestosql.sql.relational.RowExpression;
 import org.weakref.jmx.Managed;
 import org.weakref.jmx.Nested;
@@ -44,6 +47,8 @@ import static io.airlift.bytecode.Access.FINAL;
 import static io.airlift.bytecode.Access.PUBLIC;
 import static io.airlift.bytecode.Access.a;
 import static io.airlift.bytecode.ParameterizedType.type;
+import static io.prestosql.operator.project.CommonSubExpressionRewriter.rewriteCommonSubExpressions;
+import static io.prestosql.operator.project.JsonExtractRewriter.rewriteJsonExtracts;
 import static io.prestosql.spi.StandardErrorCode.COMPILER_ERROR;
 import static io.prestosql.spi.type.BooleanType.BOOLEAN;
 import static io.prestosql.sql.gen.BytecodeUtils.invoke;
@@ -54,15 +59,18 @@ import static java.util.Objects.requireNonNull;
 
 public class ExpressionCompiler
 {
+    private final Metadata metadata;
     private final PageFunctionCompiler pageFunctionCompiler;
+    private final DeterminismEvaluator determinismEvaluator;
     private final LoadingCache<CacheKey, Class<? extends CursorProcessor>> cursorProcessors;
     private final CacheStatsMBean cacheStatsMBean;
 
     @Inject
     public ExpressionCompiler(Metadata metadata, PageFunctionCompiler pageFunctionCompiler)
     {
-        requireNonNull(metadata, "metadata is null");
+        this.metadata = requireNonNull(metadata, "metadata is null");
         this.pageFunctionCompiler = requireNonNull(pageFunctionCompiler, "pageFunctionCompiler is null");
+        this.determinismEvaluator = new DeterminismEvaluator(metadata);
         this.cursorProcessors = CacheBuilder.newBuilder()
                 .recordStats()
                 .maximumSize(1000)
@@ -101,18 +109,39 @@ public class ExpressionCompiler
             Optional<String> classNameSuffix,
             OptionalInt initialBatchSize)
     {
-        Optional<Supplier<PageFilter>> filterFunctionSupplier = filter.map(expression -> pageFunctionCompiler.compileFilter(expression, classNameSuffix));
-        List<Supplier<PageProjection>> pageProjectionSuppliers = projections.stream()
+        // parse a JSON document once for all the paths extracted from it
+        JsonExtractRewriter.Result jsonExtractResult = rewriteJsonExtracts(filter, projections, metadata, determinismEvaluator);
+
+        // compute the subexpressions shared by the filter and projections only once
+        CommonSubExpressionRewriter.Result result = rewriteCommonSubExpressions(jsonExtractResult.getRewrittenFilter(), jsonExtractResult.getRewrittenProjections(), determinismEvaluator);
+
+        Optional<Supplier<PageFilter>> filterFunctionSupplier = result.getRewrittenFilter().map(expression -> pageFunctionCompiler.compileFilter(expression, classNameSuffix));
+        List<Supplier<PageProjection>> pageProjectionSuppliers = compileProjections(result.getRewrittenProjections(), classNameSuffix);
+        List<Supplier<PageProjection>> filterSubExpressionSuppliers = compileProjections(result.getFilterSubExpressions(), classNameSuffix);
+        List<Supplier<PageProjection>> projectionSubExpressionSuppliers = compileProjections(result.getProjectionSubExpressions(), classNameSuffix);
+
+        return () -> new PageProcessor(
+                filterFunctionSupplier.map(Supplier::get),
+                getProjections(pageProjectionSuppliers),
+                result.getFirstSubExpressionChannel(),
+                getProjections(filterSubExpressionSuppliers),
+                getProjections(projectionSubExpressionSuppliers),
+                initialBatchSize,
+                new ExpressionProfiler());
+    }
+
+    private List<Supplier<PageProjection>> compileProjections(List<RowExpression> projections, Optional<String> classNameSuffix)
+    {
+        return projections.stream()
                 .map(projection -> pageFunctionCompiler.compileProjection(projection, classNameSuffix))
                 .collect(toImmutableList());
+    }
 
-        return () -> {
-            Optional<PageFilter> filterFunction = filterFunctionSupplier.map(Supplier::get);
-            List<PageProjection> pageProjections = pageProjectionSuppliers.stream()
-                    .map(Supplier::get)
-                    .collect(toImmutableList());
-            return new PageProcessor(filterFunction, pageProjections, initialBatchSize);
-        };
+    private static List<PageProjection> getProjections(List<Supplier<PageProjection>> suppliers)
+    {
+        return suppliers.stream()
+                .map(Supplier::get)
+                .collect(toImmutableList());
     }
 
     public Supplier<PageProcessor> compilePageProcessor(Optional<RowExpression> filter, List<? extends RowExpression> projections)
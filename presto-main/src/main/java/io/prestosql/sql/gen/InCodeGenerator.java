@@ -24,6 +24,7 @@ import io.airlift.bytecode.Variable;
 import io.airlift.bytecode.control.IfStatement;
 import io.airlift.bytecode.control.SwitchStatement.SwitchBuilder;
 import io.airlift.bytecode.instruction.LabelNode;
+import io.airlift.slice.Slice;
 import io.prestosql.metadata.Metadata;
 import io.prestosql.metadata.Signature;
 import io.prestosql.operator.scalar.ScalarFunctionImplementation;
@@ -32,8 +33,12 @@ import io.prestosql.spi.type.BigintType;
 import io.prestosql.spi.type.DateType;
 import io.prestosql.spi.type.IntegerType;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spi.type.VarbinaryType;
+import io.prestosql.spi.type.VarcharType;
 import io.prestosql.sql.relational.ConstantExpression;
 import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.util.ConstantLongSet;
+import io.prestosql.util.ConstantSliceSet;
 import io.prestosql.util.FastutilSetHelper;
 
 import java.lang.invoke.MethodHandle;
@@ -44,6 +49,7 @@ import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Throwables.throwIfUnchecked;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.airlift.bytecode.expression.BytecodeExpressions.constantFalse;
 import static io.airlift.bytecode.expression.BytecodeExpressions.constantTrue;
 import static io.airlift.bytecode.expression.BytecodeExpressions.invokeStatic;
@@ -84,7 +90,7 @@ public class InCodeGenerator
             return SwitchGenerationCase.SET_CONTAINS;
         }
 
-        if (!(type instanceof IntegerType || type instanceof BigintType || type instanceof DateType)) {
+        if (!hasNativeEquality(type)) {
             return SwitchGenerationCase.HASH_SWITCH;
         }
         for (RowExpression expression : values) {
@@ -129,8 +135,6 @@ public class InCodeGenerator
         ImmutableSet.Builder<Object> constantValuesBuilder = ImmutableSet.builder();
 
         for (RowExpression testValue : values) {
-            BytecodeNode testBytecode = generatorContext.generate(testValue);
-
             if (isDeterminateConstant(testValue, isIndeterminateFunction.getMethodHandle())) {
                 ConstantExpression constant = (ConstantExpression) testValue;
                 Object object = constant.getValue();
@@ -142,7 +146,7 @@ public class InCodeGenerator
                     case HASH_SWITCH:
                         try {
                             int hashCode = toIntExact(Long.hashCode((Long) hashCodeFunction.invoke(object)));
-                            hashBucketsBuilder.put(hashCode, testBytecode);
+                            hashBucketsBuilder.put(hashCode, generatorContext.generate(testValue));
                         }
                         catch (Throwable throwable) {
                             throw new IllegalArgumentException("Error processing IN statement: error calculating hash code for " + object, throwable);
@@ -153,7 +157,7 @@ public class InCodeGenerator
                 }
             }
             else {
-                defaultBucket.add(testBytecode);
+                defaultBucket.add(generatorContext.generate(testValue));
             }
         }
         ImmutableListMultimap<Integer, BytecodeNode> hashBuckets = hashBucketsBuilder.build();
@@ -174,7 +178,7 @@ public class InCodeGenerator
 
         switch (switchGenerationCase) {
             case DIRECT_SWITCH:
-                // A white-list is used to select types eligible for DIRECT_SWITCH.
+                // Only the types with native equality are eligible for DIRECT_SWITCH.
                 // For these types, it's safe to not use presto HASH_CODE and EQUAL operator.
                 for (Object constantValue : constantValues) {
                     switchBuilder.addCase(toIntExact((Long) constantValue), jump(match));
@@ -218,6 +222,29 @@ public class InCodeGenerator
                         .append(switchBuilder.build());
                 break;
             case SET_CONTAINS:
+                if (hasNativeEquality(type) || type instanceof VarcharType || type instanceof VarbinaryType) {
+                    // look the value up directly in a set of the native values, without calling the HASH_CODE and EQUAL operators
+                    Object nativeSet;
+                    if (javaType == long.class) {
+                        nativeSet = new ConstantLongSet(constantValues.stream().map(Long.class::cast).collect(toImmutableList()));
+                    }
+                    else {
+                        nativeSet = new ConstantSliceSet(constantValues.stream().map(Slice.class::cast).collect(toImmutableList()));
+                    }
+                    Binding nativeSetBinding = generatorContext.getCallSiteBinder().bind(nativeSet, nativeSet.getClass());
+                    switchBlock = new BytecodeBlock()
+                            .comment("inListSet.contains(<stackValue>)")
+                            .append(new IfStatement()
+                                    .condition(new BytecodeBlock()
+                                            .comment("set")
+                                            .append(loadConstant(nativeSetBinding))
+                                            .comment("value")
+                                            .getVariable(value)
+                                            .invokeVirtual(nativeSet.getClass(), "contains", boolean.class, javaType))
+                                    .ifTrue(jump(match)));
+                    break;
+                }
+
                 Set<?> constantValuesSet = toFastutilHashSet(constantValues, type, metadata);
                 Binding constant = generatorContext.getCallSiteBinder().bind(constantValuesSet, constantValuesSet.getClass());
 
@@ -279,6 +306,14 @@ public class InCodeGenerator
         return block;
     }
 
+    /**
+     * Returns whether the HASH_CODE and EQUAL operators of the type are equivalent to comparing the native long values.
+     */
+    private static boolean hasNativeEquality(Type type)
+    {
+        return type instanceof IntegerType || type instanceof BigintType || type instanceof DateType;
+    }
+
     public static boolean isInteger(long value)
     {
         return value == (int) value;
@@ -13,12 +13,15 @@
  */
 package io.prestosql.sql.gen;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Primitives;
+import com.google.common.util.concurrent.ListenableFutureTask;
 import io.airlift.bytecode.BytecodeBlock;
 import io.airlift.bytecode.BytecodeNode;
 import io.airlift.bytecode.ClassDefinition;
@@ -30,16 +33,25 @@ import io.airlift.bytecode.Scope;
 import io.airlift.bytecode.Variable;
 import io.airlift.bytecode.control.ForLoop;
 import io.airlift.bytecode.control.IfStatement;
+import io.airlift.stats.TimeStat;
 import io.prestosql.metadata.Metadata;
 import io.prestosql.operator.Work;
+import io.prestosql.operator.project.AdaptiveConjunctPageFilter;
 import io.prestosql.operator.project.ConstantPageProjection;
 import io.prestosql.operator.project.GeneratedPageProjection;
 import io.prestosql.operator.project.InputChannels;
 import io.prestosql.operator.project.InputPageProjection;
+import io.prestosql.operator.project.InterpretedPageFilter;
+import io.prestosql.operator.project.InterpretedPageProjection;
 import io.prestosql.operator.project.PageFieldsToInputParametersRewriter;
 import io.prestosql.operator.project.PageFilter;
 import io.prestosql.operator.project.PageProjection;
 import io.prestosql.operator.project.SelectedPositions;
+import io.prestosql.operator.project.TieredPageFilter;
+import io.prestosql.operator.project.TieredPageProjection;
+import io.prestosql.operator.project.VectorizedExpression;
+import io.prestosql.operator.project.VectorizedPageFilter;
+import io.prestosql.operator.project.VectorizedPageProjection;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.block.Block;
@@ -47,28 +59,37 @@ import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.sql.gen.LambdaBytecodeGenerator.CompiledLambda;
 import io.prestosql.sql.planner.CompilerConfig;
+import io.prestosql.sql.relational.CallExpression;
 import io.prestosql.sql.relational.ConstantExpression;
 import io.prestosql.sql.relational.DeterminismEvaluator;
 import io.prestosql.sql.relational.Expressions;
 import io.prestosql.sql.relational.InputReferenceExpression;
 import io.prestosql.sql.relational.LambdaDefinitionExpression;
 import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.relational.RowExpressionInterpreter;
 import io.prestosql.sql.relational.RowExpressionVisitor;
+import io.prestosql.sql.relational.SpecialForm;
+import io.prestosql.sql.relational.VariableReferenceExpression;
 import org.weakref.jmx.Managed;
 import org.weakref.jmx.Nested;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.airlift.bytecode.Access.FINAL;
 import static io.airlift.bytecode.Access.PRIVATE;
 import static io.airlift.bytecode.Access.PUBLIC;
@@ -85,15 +106,24 @@ import static io.airlift.bytecode.expression.BytecodeExpressions.invokeStatic;
 import static io.airlift.bytecode.expression.BytecodeExpressions.lessThan;
 import static io.airlift.bytecode.expression.BytecodeExpressions.newArray;
 import static io.airlift.bytecode.expression.BytecodeExpressions.not;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.prestosql.operator.project.PageFieldsToInputParametersRewriter.rewritePageFieldsToInputParameters;
 import static io.prestosql.spi.StandardErrorCode.COMPILER_ERROR;
 import static io.prestosql.sql.gen.BytecodeUtils.generateWrite;
 import static io.prestosql.sql.gen.BytecodeUtils.invoke;
 import static io.prestosql.sql.gen.LambdaExpressionExtractor.extractLambdaExpressions;
+import static io.prestosql.sql.relational.SpecialForm.Form.AND;
+import static io.prestosql.sql.relational.SpecialForm.Form.BIND;
+import static io.prestosql.sql.relational.SpecialForm.Form.DEREFERENCE;
+import static io.prestosql.sql.relational.SpecialForm.Form.IN;
 import static io.prestosql.util.CompilerUtils.defineClass;
 import static io.prestosql.util.CompilerUtils.makeClassName;
 import static io.prestosql.util.Reflection.constructorMethodHandle;
+import static java.lang.invoke.MethodHandles.insertArguments;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class PageFunctionCompiler
 {
@@ -102,20 +132,56 @@ public class PageFunctionCompiler
 
     private final LoadingCache<RowExpression, Supplier<PageProjection>> projectionCache;
     private final LoadingCache<RowExpression, Supplier<PageFilter>> filterCache;
+    // generated classes keyed on the expressions with their constants lifted out and their input channels compacted
+    private final LoadingCache<RowExpression, Class<?>> projectionClassCache;
+    private final LoadingCache<RowExpression, Class<? extends PageFilter>> filterClassCache;
 
     private final CacheStatsMBean projectionCacheStats;
     private final CacheStatsMBean filterCacheStats;
+    private final CacheStatsMBean projectionClassCacheStats;
+    private final CacheStatsMBean filterClassCacheStats;
+    private final TimeStat compilationTime = new TimeStat(MILLISECONDS);
+
+    // when present, expressions are interpreted until they are compiled on this executor
+    private final Optional<Executor> tieredCompilationExecutor;
+    private final boolean adaptiveConjunctOrderingEnabled;
+    private final boolean vectorizedEvaluationEnabled;
 
     @Inject
     public PageFunctionCompiler(Metadata metadata, CompilerConfig config)
     {
-        this(metadata, requireNonNull(config, "config is null").getExpressionCacheSize());
+        this(
+                metadata,
+                requireNonNull(config, "config is null").getExpressionCacheSize(),
+                config.isTieredCompilationEnabled() ?
+                        Optional.of(newFixedThreadPool(config.getTieredCompilationThreads(), daemonThreadsNamed("page-function-compiler-%s"))) :
+                        Optional.empty(),
+                config.isAdaptiveConjunctOrderingEnabled(),
+                config.isVectorizedEvaluationEnabled());
     }
 
     public PageFunctionCompiler(Metadata metadata, int expressionCacheSize)
+    {
+        this(metadata, expressionCacheSize, Optional.empty());
+    }
+
+    public PageFunctionCompiler(Metadata metadata, int expressionCacheSize, Optional<Executor> tieredCompilationExecutor)
+    {
+        this(metadata, expressionCacheSize, tieredCompilationExecutor, false, false);
+    }
+
+    public PageFunctionCompiler(
+            Metadata metadata,
+            int expressionCacheSize,
+            Optional<Executor> tieredCompilationExecutor,
+            boolean adaptiveConjunctOrderingEnabled,
+            boolean vectorizedEvaluationEnabled)
     {
         this.metadata = requireNonNull(metadata, "metadata is null");
         this.determinismEvaluator = new DeterminismEvaluator(metadata);
+        this.tieredCompilationExecutor = requireNonNull(tieredCompilationExecutor, "tieredCompilationExecutor is null");
+        this.adaptiveConjunctOrderingEnabled = adaptiveConjunctOrderingEnabled;
+        this.vectorizedEvaluationEnabled = vectorizedEvaluationEnabled;
 
         if (expressionCacheSize > 0) {
             projectionCache = CacheBuilder.newBuilder()
@@ -123,10 +189,17 @@ public class PageFunctionCompiler
                     .maximumSize(expressionCacheSize)
                     .build(CacheLoader.from(projection -> compileProjectionInternal(projection, Optional.empty())));
             projectionCacheStats = new CacheStatsMBean(projectionCache);
+            projectionClassCache = CacheBuilder.newBuilder()
+                    .recordStats()
+                    .maximumSize(expressionCacheSize)
+                    .build(CacheLoader.from(projection -> compileProjectionWorkClass(projection, Optional.empty())));
+            projectionClassCacheStats = new CacheStatsMBean(projectionClassCache);
         }
         else {
             projectionCache = null;
             projectionCacheStats = null;
+            projectionClassCache = null;
+            projectionClassCacheStats = null;
         }
 
         if (expressionCacheSize > 0) {
@@ -135,10 +208,17 @@ public class PageFunctionCompiler
                     .maximumSize(expressionCacheSize)
                     .build(CacheLoader.from(filter -> compileFilterInternal(filter, Optional.empty())));
             filterCacheStats = new CacheStatsMBean(filterCache);
+            filterClassCache = CacheBuilder.newBuilder()
+                    .recordStats()
+                    .maximumSize(expressionCacheSize)
+                    .build(CacheLoader.from(filter -> compileFilterClass(filter, Optional.empty())));
+            filterClassCacheStats = new CacheStatsMBean(filterClassCache);
         }
         else {
             filterCache = null;
             filterCacheStats = null;
+            filterClassCache = null;
+            filterClassCacheStats = null;
         }
     }
 
@@ -158,7 +238,53 @@ public class PageFunctionCompiler
         return filterCacheStats;
     }
 
+    @Nullable
+    @Managed
+    @Nested
+    public CacheStatsMBean getProjectionClassCache()
+    {
+        return projectionClassCacheStats;
+    }
+
+    @Nullable
+    @Managed
+    @Nested
+    public CacheStatsMBean getFilterClassCache()
+    {
+        return filterClassCacheStats;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getCompilationTime()
+    {
+        return compilationTime;
+    }
+
     public Supplier<PageProjection> compileProjection(RowExpression projection, Optional<String> classNameSuffix)
+    {
+        requireNonNull(projection, "projection is null");
+
+        if (vectorizedEvaluationEnabled && !(projection instanceof InputReferenceExpression) && !(projection instanceof ConstantExpression)) {
+            PageFieldsToInputParametersRewriter.Result result = rewritePageFieldsToInputParameters(projection);
+            Optional<VectorizedExpression> vectorizedProjection = VectorizedExpression.create(result.getRewrittenExpression());
+            if (vectorizedProjection.isPresent()) {
+                VectorizedPageProjection projectionFunction = new VectorizedPageProjection(vectorizedProjection.get(), result.getInputChannels());
+                return () -> projectionFunction;
+            }
+        }
+
+        if (tieredCompilationExecutor.isPresent() &&
+                !(projection instanceof InputReferenceExpression) &&
+                !(projection instanceof ConstantExpression) &&
+                (projectionCache == null || projectionCache.getIfPresent(projection) == null) &&
+                RowExpressionInterpreter.isSupported(metadata, projection)) {
+            return compileTieredProjection(projection, classNameSuffix, tieredCompilationExecutor.get());
+        }
+        return compileProjectionCached(projection, classNameSuffix);
+    }
+
+    private Supplier<PageProjection> compileProjectionCached(RowExpression projection, Optional<String> classNameSuffix)
     {
         if (projectionCache == null) {
             return compileProjectionInternal(projection, classNameSuffix);
@@ -166,6 +292,27 @@ public class PageFunctionCompiler
         return projectionCache.getUnchecked(projection);
     }
 
+    private Supplier<PageProjection> compileTieredProjection(RowExpression projection, Optional<String> classNameSuffix, Executor executor)
+    {
+        ListenableFutureTask<Supplier<PageProjection>> compiledProjection = ListenableFutureTask.create(() -> compileProjectionCached(projection, classNameSuffix));
+        executor.execute(compiledProjection);
+
+        PageFieldsToInputParametersRewriter.Result result = rewritePageFieldsToInputParameters(projection);
+        RowExpression rewrittenProjection = result.getRewrittenExpression();
+        boolean isDeterministic = determinismEvaluator.isDeterministic(rewrittenProjection);
+        return () -> {
+            if (compiledProjection.isDone()) {
+                return getFutureValue(compiledProjection).get();
+            }
+            InterpretedPageProjection interpretedProjection = new InterpretedPageProjection(
+                    rewrittenProjection,
+                    isDeterministic,
+                    result.getInputChannels(),
+                    new RowExpressionInterpreter(metadata, rewrittenProjection));
+            return new TieredPageProjection(interpretedProjection, compiledProjection);
+        };
+    }
+
     private Supplier<PageProjection> compileProjectionInternal(RowExpression projection, Optional<String> classNameSuffix)
     {
         requireNonNull(projection, "projection is null");
@@ -182,26 +329,47 @@ public class PageFunctionCompiler
             return () -> projectionFunction;
         }
 
-        PageFieldsToInputParametersRewriter.Result result = rewritePageFieldsToInputParameters(projection);
-
-        CallSiteBinder callSiteBinder = new CallSiteBinder();
-
-        // generate Work
-        ClassDefinition pageProjectionWorkDefinition = definePageProjectWorkClass(result.getRewrittenExpression(), callSiteBinder, classNameSuffix);
+        // expressions that only differ in their constants share the generated class
+        ParameterizedExpression parameterized = parameterizeConstants(projection);
+        PageFieldsToInputParametersRewriter.Result result = rewritePageFieldsToInputParameters(parameterized.getExpression());
 
         Class<?> pageProjectionWorkClass;
-        try {
-            pageProjectionWorkClass = defineClass(pageProjectionWorkDefinition, Work.class, callSiteBinder.getBindings(), getClass().getClassLoader());
+        if (projectionClassCache == null) {
+            pageProjectionWorkClass = compileProjectionWorkClass(result.getRewrittenExpression(), classNameSuffix);
         }
-        catch (Exception e) {
-            throw new PrestoException(COMPILER_ERROR, e);
+        else {
+            pageProjectionWorkClass = projectionClassCache.getUnchecked(result.getRewrittenExpression());
         }
 
+        RowExpression rewrittenProjection = rewritePageFieldsToInputParameters(projection).getRewrittenExpression();
+        boolean isDeterministic = determinismEvaluator.isDeterministic(rewrittenProjection);
+        MethodHandle pageProjectionWorkFactory = insertArguments(
+                constructorMethodHandle(pageProjectionWorkClass, BlockBuilder.class, ConnectorSession.class, Page.class, SelectedPositions.class, Object[].class),
+                4,
+                (Object) parameterized.getConstants());
+
         return () -> new GeneratedPageProjection(
-                result.getRewrittenExpression(),
-                determinismEvaluator.isDeterministic(result.getRewrittenExpression()),
+                rewrittenProjection,
+                isDeterministic,
                 result.getInputChannels(),
-                constructorMethodHandle(pageProjectionWorkClass, BlockBuilder.class, ConnectorSession.class, Page.class, SelectedPositions.class));
+                pageProjectionWorkFactory);
+    }
+
+    private Class<?> compileProjectionWorkClass(RowExpression projection, Optional<String> classNameSuffix)
+    {
+        try (TimeStat.BlockTimer ignored = compilationTime.time()) {
+            CallSiteBinder callSiteBinder = new CallSiteBinder();
+
+            // generate Work
+            ClassDefinition pageProjectionWorkDefinition = definePageProjectWorkClass(projection, callSiteBinder, classNameSuffix);
+
+            try {
+                return defineClass(pageProjectionWorkDefinition, Work.class, callSiteBinder.getBindings(), getClass().getClassLoader());
+            }
+            catch (Exception e) {
+                throw new PrestoException(COMPILER_ERROR, e);
+            }
+        }
     }
 
     private static ParameterizedType generateProjectionWorkClassName(Optional<String> classNameSuffix)
@@ -223,6 +391,7 @@ public class PageFunctionCompiler
         FieldDefinition selectedPositionsField = classDefinition.declareField(a(PRIVATE), "selectedPositions", SelectedPositions.class);
         FieldDefinition nextIndexOrPositionField = classDefinition.declareField(a(PRIVATE), "nextIndexOrPosition", int.class);
         FieldDefinition resultField = classDefinition.declareField(a(PRIVATE), "result", Block.class);
+        Map<ConstantExpression, FieldDefinition> constantFields = declareConstantFields(classDefinition, projection);
 
         CachedInstanceBinder cachedInstanceBinder = new CachedInstanceBinder(classDefinition, callSiteBinder);
 
@@ -235,15 +404,16 @@ public class PageFunctionCompiler
 
         // evaluate
         Map<LambdaDefinitionExpression, CompiledLambda> compiledLambdaMap = generateMethodsForLambda(classDefinition, callSiteBinder, cachedInstanceBinder, projection);
-        generateEvaluateMethod(classDefinition, callSiteBinder, cachedInstanceBinder, compiledLambdaMap, projection, blockBuilderField);
+        generateEvaluateMethod(classDefinition, callSiteBinder, cachedInstanceBinder, compiledLambdaMap, constantFields, projection, blockBuilderField);
 
         // constructor
         Parameter blockBuilder = arg("blockBuilder", BlockBuilder.class);
         Parameter session = arg("session", ConnectorSession.class);
         Parameter page = arg("page", Page.class);
         Parameter selectedPositions = arg("selectedPositions", SelectedPositions.class);
+        Parameter constants = arg("constants", Object[].class);
 
-        MethodDefinition constructorDefinition = classDefinition.declareConstructor(a(PUBLIC), blockBuilder, session, page, selectedPositions);
+        MethodDefinition constructorDefinition = classDefinition.declareConstructor(a(PUBLIC), blockBuilder, session, page, selectedPositions, constants);
 
         BytecodeBlock body = constructorDefinition.getBody();
         Variable thisVariable = constructorDefinition.getThis();
@@ -256,7 +426,8 @@ public class PageFunctionCompiler
                 .append(thisVariable.setField(pageField, page))
                 .append(thisVariable.setField(selectedPositionsField, selectedPositions))
                 .append(thisVariable.setField(nextIndexOrPositionField, selectedPositions.invoke("getOffset", int.class)))
-                .append(thisVariable.setField(resultField, constantNull(Block.class)));
+                .append(thisVariable.setField(resultField, constantNull(Block.class)))
+                .append(initializeConstantFields(thisVariable, constants, constantFields));
 
         cachedInstanceBinder.generateInitializations(thisVariable, body);
         body.ret();
@@ -317,6 +488,7 @@ public class PageFunctionCompiler
             CallSiteBinder callSiteBinder,
             CachedInstanceBinder cachedInstanceBinder,
             Map<LambdaDefinitionExpression, CompiledLambda> compiledLambdaMap,
+            Map<ConstantExpression, FieldDefinition> constantFields,
             RowExpression projection,
             FieldDefinition blockBuilder)
     {
@@ -348,7 +520,8 @@ public class PageFunctionCompiler
                 cachedInstanceBinder,
                 fieldReferenceCompiler(callSiteBinder),
                 metadata,
-                compiledLambdaMap);
+                compiledLambdaMap,
+                constantFields);
 
         body.append(thisVariable.getField(blockBuilder))
                 .append(compiler.compile(projection, scope))
@@ -358,6 +531,58 @@ public class PageFunctionCompiler
     }
 
     public Supplier<PageFilter> compileFilter(RowExpression filter, Optional<String> classNameSuffix)
+    {
+        requireNonNull(filter, "filter is null");
+
+        if (adaptiveConjunctOrderingEnabled) {
+            List<RowExpression> conjuncts = extractConjuncts(filter);
+            if (conjuncts.size() > 1 && determinismEvaluator.isDeterministic(filter)) {
+                List<String> expressions = conjuncts.stream()
+                        .map(RowExpression::toString)
+                        .collect(toImmutableList());
+                List<Supplier<PageFilter>> conjunctFilters = conjuncts.stream()
+                        .map(conjunct -> compileConjunct(conjunct, classNameSuffix))
+                        .collect(toImmutableList());
+                return () -> new AdaptiveConjunctPageFilter(
+                        expressions,
+                        conjunctFilters.stream()
+                                .map(Supplier::get)
+                                .collect(toImmutableList()));
+            }
+        }
+        return compileConjunct(filter, classNameSuffix);
+    }
+
+    private static List<RowExpression> extractConjuncts(RowExpression expression)
+    {
+        if (expression instanceof SpecialForm && ((SpecialForm) expression).getForm() == AND) {
+            return ((SpecialForm) expression).getArguments().stream()
+                    .flatMap(argument -> extractConjuncts(argument).stream())
+                    .collect(toImmutableList());
+        }
+        return ImmutableList.of(expression);
+    }
+
+    private Supplier<PageFilter> compileConjunct(RowExpression filter, Optional<String> classNameSuffix)
+    {
+        if (vectorizedEvaluationEnabled) {
+            PageFieldsToInputParametersRewriter.Result result = rewritePageFieldsToInputParameters(filter);
+            Optional<VectorizedExpression> vectorizedFilter = VectorizedExpression.create(result.getRewrittenExpression());
+            if (vectorizedFilter.isPresent()) {
+                VectorizedPageFilter filterFunction = new VectorizedPageFilter(vectorizedFilter.get(), result.getInputChannels());
+                return () -> filterFunction;
+            }
+        }
+
+        if (tieredCompilationExecutor.isPresent() &&
+                (filterCache == null || filterCache.getIfPresent(filter) == null) &&
+                RowExpressionInterpreter.isSupported(metadata, filter)) {
+            return compileTieredFilter(filter, classNameSuffix, tieredCompilationExecutor.get());
+        }
+        return compileFilterCached(filter, classNameSuffix);
+    }
+
+    private Supplier<PageFilter> compileFilterCached(RowExpression filter, Optional<String> classNameSuffix)
     {
         if (filterCache == null) {
             return compileFilterInternal(filter, classNameSuffix);
@@ -365,26 +590,48 @@ public class PageFunctionCompiler
         return filterCache.getUnchecked(filter);
     }
 
-    private Supplier<PageFilter> compileFilterInternal(RowExpression filter, Optional<String> classNameSuffix)
+    private Supplier<PageFilter> compileTieredFilter(RowExpression filter, Optional<String> classNameSuffix, Executor executor)
     {
-        requireNonNull(filter, "filter is null");
+        ListenableFutureTask<Supplier<PageFilter>> compiledFilter = ListenableFutureTask.create(() -> compileFilterCached(filter, classNameSuffix));
+        executor.execute(compiledFilter);
 
         PageFieldsToInputParametersRewriter.Result result = rewritePageFieldsToInputParameters(filter);
+        RowExpression rewrittenFilter = result.getRewrittenExpression();
+        boolean isDeterministic = determinismEvaluator.isDeterministic(rewrittenFilter);
+        return () -> {
+            if (compiledFilter.isDone()) {
+                return getFutureValue(compiledFilter).get();
+            }
+            InterpretedPageFilter interpretedFilter = new InterpretedPageFilter(
+                    rewrittenFilter,
+                    isDeterministic,
+                    result.getInputChannels(),
+                    new RowExpressionInterpreter(metadata, rewrittenFilter));
+            return new TieredPageFilter(interpretedFilter, compiledFilter);
+        };
+    }
 
-        CallSiteBinder callSiteBinder = new CallSiteBinder();
-        ClassDefinition classDefinition = defineFilterClass(result.getRewrittenExpression(), result.getInputChannels(), callSiteBinder, classNameSuffix);
+    private Supplier<PageFilter> compileFilterInternal(RowExpression filter, Optional<String> classNameSuffix)
+    {
+        requireNonNull(filter, "filter is null");
+
+        // filters that only differ in their constants share the generated class
+        ParameterizedExpression parameterized = parameterizeConstants(filter);
+        PageFieldsToInputParametersRewriter.Result result = rewritePageFieldsToInputParameters(parameterized.getExpression());
 
         Class<? extends PageFilter> functionClass;
-        try {
-            functionClass = defineClass(classDefinition, PageFilter.class, callSiteBinder.getBindings(), getClass().getClassLoader());
+        if (filterClassCache == null) {
+            functionClass = compileFilterClass(result.getRewrittenExpression(), classNameSuffix);
         }
-        catch (Exception e) {
-            throw new PrestoException(COMPILER_ERROR, filter.toString(), e.getCause());
+        else {
+            functionClass = filterClassCache.getUnchecked(result.getRewrittenExpression());
         }
 
+        InputChannels inputChannels = result.getInputChannels();
+        Object[] constants = parameterized.getConstants();
         return () -> {
             try {
-                return functionClass.getConstructor().newInstance();
+                return functionClass.getConstructor(InputChannels.class, Object[].class).newInstance(inputChannels, constants);
             }
             catch (ReflectiveOperationException e) {
                 throw new PrestoException(COMPILER_ERROR, e);
@@ -392,12 +639,27 @@ public class PageFunctionCompiler
         };
     }
 
+    private Class<? extends PageFilter> compileFilterClass(RowExpression filter, Optional<String> classNameSuffix)
+    {
+        try (TimeStat.BlockTimer ignored = compilationTime.time()) {
+            CallSiteBinder callSiteBinder = new CallSiteBinder();
+            ClassDefinition classDefinition = defineFilterClass(filter, callSiteBinder, classNameSuffix);
+
+            try {
+                return defineClass(classDefinition, PageFilter.class, callSiteBinder.getBindings(), getClass().getClassLoader());
+            }
+            catch (Exception e) {
+                throw new PrestoException(COMPILER_ERROR, filter.toString(), e.getCause());
+            }
+        }
+    }
+
     private static ParameterizedType generateFilterClassName(Optional<String> classNameSuffix)
     {
         return makeClassName(PageFilter.class.getSimpleName(), classNameSuffix);
     }
 
-    private ClassDefinition defineFilterClass(RowExpression filter, InputChannels inputChannels, CallSiteBinder callSiteBinder, Optional<String> classNameSuffix)
+    private ClassDefinition defineFilterClass(RowExpression filter, CallSiteBinder callSiteBinder, Optional<String> classNameSuffix)
     {
         ClassDefinition classDefinition = new ClassDefinition(
                 a(PUBLIC, FINAL),
@@ -405,10 +667,13 @@ public class PageFunctionCompiler
                 type(Object.class),
                 type(PageFilter.class));
 
+        FieldDefinition inputChannelsField = classDefinition.declareField(a(PRIVATE, FINAL), "inputChannels", InputChannels.class);
+        Map<ConstantExpression, FieldDefinition> constantFields = declareConstantFields(classDefinition, filter);
+
         CachedInstanceBinder cachedInstanceBinder = new CachedInstanceBinder(classDefinition, callSiteBinder);
 
         Map<LambdaDefinitionExpression, CompiledLambda> compiledLambdaMap = generateMethodsForLambda(classDefinition, callSiteBinder, cachedInstanceBinder, filter);
-        generateFilterMethod(classDefinition, callSiteBinder, cachedInstanceBinder, compiledLambdaMap, filter);
+        generateFilterMethod(classDefinition, callSiteBinder, cachedInstanceBinder, compiledLambdaMap, constantFields, filter);
 
         FieldDefinition selectedPositions = classDefinition.declareField(a(PRIVATE), "selectedPositions", boolean[].class);
         generatePageFilterMethod(classDefinition, selectedPositions);
@@ -420,9 +685,9 @@ public class PageFunctionCompiler
                 .retBoolean();
 
         // getInputChannels
-        classDefinition.declareMethod(a(PUBLIC), "getInputChannels", type(InputChannels.class))
-                .getBody()
-                .append(invoke(callSiteBinder.bind(inputChannels, InputChannels.class), "getInputChannels"))
+        MethodDefinition getInputChannels = classDefinition.declareMethod(a(PUBLIC), "getInputChannels", type(InputChannels.class));
+        getInputChannels.getBody()
+                .append(getInputChannels.getThis().getField(inputChannelsField))
                 .retObject();
 
         // toString
@@ -437,9 +702,14 @@ public class PageFunctionCompiler
                 .retObject();
 
         // constructor
-        generateConstructor(classDefinition, cachedInstanceBinder, compiledLambdaMap, method -> {
+        Parameter inputChannels = arg("inputChannels", InputChannels.class);
+        Parameter constants = arg("constants", Object[].class);
+        generateConstructor(classDefinition, cachedInstanceBinder, ImmutableList.of(inputChannels, constants), method -> {
             Variable thisVariable = method.getScope().getThis();
-            method.getBody().append(thisVariable.setField(selectedPositions, newArray(type(boolean[].class), 0)));
+            method.getBody()
+                    .append(thisVariable.setField(selectedPositions, newArray(type(boolean[].class), 0)))
+                    .append(thisVariable.setField(inputChannelsField, inputChannels))
+                    .append(initializeConstantFields(thisVariable, constants, constantFields));
         });
 
         return classDefinition;
@@ -493,6 +763,7 @@ public class PageFunctionCompiler
             CallSiteBinder callSiteBinder,
             CachedInstanceBinder cachedInstanceBinder,
             Map<LambdaDefinitionExpression, CompiledLambda> compiledLambdaMap,
+            Map<ConstantExpression, FieldDefinition> constantFields,
             RowExpression filter)
     {
         Parameter session = arg("session", ConnectorSession.class);
@@ -522,7 +793,8 @@ public class PageFunctionCompiler
                 cachedInstanceBinder,
                 fieldReferenceCompiler(callSiteBinder),
                 metadata,
-                compiledLambdaMap);
+                compiledLambdaMap,
+                constantFields);
 
         Variable result = scope.declareVariable(boolean.class, "result");
         body.append(compiler.compile(filter, scope))
@@ -561,10 +833,10 @@ public class PageFunctionCompiler
     private static void generateConstructor(
             ClassDefinition classDefinition,
             CachedInstanceBinder cachedInstanceBinder,
-            Map<LambdaDefinitionExpression, CompiledLambda> compiledLambdaMap,
+            List<Parameter> parameters,
             Consumer<MethodDefinition> additionalStatements)
     {
-        MethodDefinition constructorDefinition = classDefinition.declareConstructor(a(PUBLIC));
+        MethodDefinition constructorDefinition = classDefinition.declareConstructor(a(PUBLIC), parameters);
 
         BytecodeBlock body = constructorDefinition.getBody();
         Variable thisVariable = constructorDefinition.getThis();
@@ -579,6 +851,161 @@ public class PageFunctionCompiler
         body.ret();
     }
 
+    private static Map<ConstantExpression, FieldDefinition> declareConstantFields(ClassDefinition classDefinition, RowExpression expression)
+    {
+        Map<ConstantExpression, FieldDefinition> constantFields = new HashMap<>();
+        for (RowExpression subExpression : Expressions.subExpressions(ImmutableList.of(expression))) {
+            if (subExpression instanceof ConstantExpression && ((ConstantExpression) subExpression).getValue() instanceof ConstantParameter) {
+                ConstantExpression constant = (ConstantExpression) subExpression;
+                int index = ((ConstantParameter) constant.getValue()).getIndex();
+                constantFields.computeIfAbsent(constant, key -> classDefinition.declareField(a(PRIVATE, FINAL), "constant_" + index, constant.getType().getJavaType()));
+            }
+        }
+        return ImmutableMap.copyOf(constantFields);
+    }
+
+    private static BytecodeBlock initializeConstantFields(Variable thisVariable, Parameter constants, Map<ConstantExpression, FieldDefinition> constantFields)
+    {
+        BytecodeBlock block = new BytecodeBlock();
+        for (Map.Entry<ConstantExpression, FieldDefinition> entry : constantFields.entrySet()) {
+            int index = ((ConstantParameter) entry.getKey().getValue()).getIndex();
+            Class<?> javaType = entry.getKey().getType().getJavaType();
+            block.append(thisVariable.setField(entry.getValue(), constants.getElement(index).cast(Primitives.wrap(javaType)).cast(javaType)));
+        }
+        return block;
+    }
+
+    /**
+     * Replaces the constants of the expression with parameters, which the generated code reads from instance fields.
+     * Null constants, constants in lambda expressions and constants that code generators inspect
+     * (the values of IN lists, the field indexes of dereferences) are not replaced.
+     */
+    @VisibleForTesting
+    static ParameterizedExpression parameterizeConstants(RowExpression expression)
+    {
+        List<Object> constants = new ArrayList<>();
+        RowExpression parameterized = expression.accept(new RowExpressionVisitor<RowExpression, Void>()
+        {
+            @Override
+            public RowExpression visitCall(CallExpression call, Void context)
+            {
+                return new CallExpression(call.getSignature(), call.getType(), parameterizeArguments(call.getArguments(), true));
+            }
+
+            @Override
+            public RowExpression visitSpecialForm(SpecialForm specialForm, Void context)
+            {
+                boolean parameterize = specialForm.getForm() != IN && specialForm.getForm() != DEREFERENCE && specialForm.getForm() != BIND;
+                return new SpecialForm(specialForm.getForm(), specialForm.getType(), parameterizeArguments(specialForm.getArguments(), parameterize));
+            }
+
+            private List<RowExpression> parameterizeArguments(List<RowExpression> arguments, boolean parameterize)
+            {
+                ImmutableList.Builder<RowExpression> parameterizedArguments = ImmutableList.builder();
+                for (RowExpression argument : arguments) {
+                    if (parameterize && argument instanceof ConstantExpression && ((ConstantExpression) argument).getValue() != null) {
+                        parameterizedArguments.add(new ConstantExpression(new ConstantParameter(constants.size()), argument.getType()));
+                        constants.add(((ConstantExpression) argument).getValue());
+                    }
+                    else {
+                        parameterizedArguments.add(argument.accept(this, null));
+                    }
+                }
+                return parameterizedArguments.build();
+            }
+
+            @Override
+            public RowExpression visitInputReference(InputReferenceExpression reference, Void context)
+            {
+                return reference;
+            }
+
+            @Override
+            public RowExpression visitConstant(ConstantExpression literal, Void context)
+            {
+                return literal;
+            }
+
+            @Override
+            public RowExpression visitLambda(LambdaDefinitionExpression lambda, Void context)
+            {
+                return lambda;
+            }
+
+            @Override
+            public RowExpression visitVariableReference(VariableReferenceExpression reference, Void context)
+            {
+                return reference;
+            }
+        }, null);
+        return new ParameterizedExpression(parameterized, constants.toArray());
+    }
+
+    @VisibleForTesting
+    static class ParameterizedExpression
+    {
+        private final RowExpression expression;
+        private final Object[] constants;
+
+        public ParameterizedExpression(RowExpression expression, Object[] constants)
+        {
+            this.expression = requireNonNull(expression, "expression is null");
+            this.constants = requireNonNull(constants, "constants is null");
+        }
+
+        public RowExpression getExpression()
+        {
+            return expression;
+        }
+
+        public Object[] getConstants()
+        {
+            return constants;
+        }
+    }
+
+    /**
+     * Value of a constant that is replaced with a parameter.
+     */
+    private static final class ConstantParameter
+    {
+        private final int index;
+
+        public ConstantParameter(int index)
+        {
+            this.index = index;
+        }
+
+        public int getIndex()
+        {
+            return index;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            return index == ((ConstantParameter) o).index;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Integer.hashCode(index);
+        }
+
+        @Override
+        public String toString()
+        {
+            return "?" + index;
+        }
+    }
+
     private static void declareBlockVariables(RowExpression expression, Parameter page, Scope scope, BytecodeBlock body)
     {
         for (int channel : getInputChannels(expression)) {
@@ -15,8 +15,10 @@ package io.prestosql.sql.gen;
 
 import com.google.common.base.VerifyException;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.airlift.bytecode.BytecodeBlock;
 import io.airlift.bytecode.BytecodeNode;
+import io.airlift.bytecode.FieldDefinition;
 import io.airlift.bytecode.Scope;
 import io.airlift.bytecode.Variable;
 import io.prestosql.metadata.Metadata;
@@ -53,6 +55,7 @@ public class RowExpressionCompiler
     private final RowExpressionVisitor<BytecodeNode, Scope> fieldReferenceCompiler;
     private final Metadata metadata;
     private final Map<LambdaDefinitionExpression, CompiledLambda> compiledLambdaMap;
+    private final Map<ConstantExpression, FieldDefinition> constantFields;
 
     RowExpressionCompiler(
             CallSiteBinder callSiteBinder,
@@ -60,12 +63,28 @@ public class RowExpressionCompiler
             RowExpressionVisitor<BytecodeNode, Scope> fieldReferenceCompiler,
             Metadata metadata,
             Map<LambdaDefinitionExpression, CompiledLambda> compiledLambdaMap)
+    {
+        this(callSiteBinder, cachedInstanceBinder, fieldReferenceCompiler, metadata, compiledLambdaMap, ImmutableMap.of());
+    }
+
+    /**
+     * The constants in {@code constantFields} are read from the given fields of the instance,
+     * instead of being embedded into the generated code.
+     */
+    RowExpressionCompiler(
+            CallSiteBinder callSiteBinder,
+            CachedInstanceBinder cachedInstanceBinder,
+            RowExpressionVisitor<BytecodeNode, Scope> fieldReferenceCompiler,
+            Metadata metadata,
+            Map<LambdaDefinitionExpression, CompiledLambda> compiledLambdaMap,
+            Map<ConstantExpression, FieldDefinition> constantFields)
     {
         this.callSiteBinder = callSiteBinder;
         this.cachedInstanceBinder = cachedInstanceBinder;
         this.fieldReferenceCompiler = fieldReferenceCompiler;
         this.metadata = metadata;
         this.compiledLambdaMap = compiledLambdaMap;
+        this.constantFields = constantFields;
     }
 
     public BytecodeNode compile(RowExpression rowExpression, Scope scope)
@@ -170,6 +189,13 @@ public class RowExpressionCompiler
             Object value = constant.getValue();
             Class<?> javaType = constant.getType().getJavaType();
 
+            FieldDefinition field = constantFields.get(constant);
+            if (field != null) {
+                return new BytecodeBlock()
+                        .comment("constant parameter " + constant)
+                        .append(context.getScope().getThis().getField(field));
+            }
+
             BytecodeBlock block = new BytecodeBlock();
             if (value == null) {
                 return block.comment("constant null")
@@ -23,6 +23,10 @@ import javax.validation.constraints.Min;
 public class CompilerConfig
 {
     private int expressionCacheSize = 10_000;
+    private boolean tieredCompilationEnabled;
+    private int tieredCompilationThreads = 2;
+    private boolean adaptiveConjunctOrderingEnabled;
+    private boolean vectorizedEvaluationEnabled;
 
     @Min(0)
     public int getExpressionCacheSize()
@@ -37,4 +41,57 @@ public class CompilerConfig
         this.expressionCacheSize = expressionCacheSize;
         return this;
     }
+
+    public boolean isTieredCompilationEnabled()
+    {
+        return tieredCompilationEnabled;
+    }
+
+    @Config("compiler.tiered-compilation-enabled")
+    @Description("Interpret filters and projections while they are compiled in the background")
+    public CompilerConfig setTieredCompilationEnabled(boolean tieredCompilationEnabled)
+    {
+        this.tieredCompilationEnabled = tieredCompilationEnabled;
+        return this;
+    }
+
+    @Min(1)
+    public int getTieredCompilationThreads()
+    {
+        return tieredCompilationThreads;
+    }
+
+    @Config("compiler.tiered-compilation-threads")
+    @Description("Number of threads compiling expressions in the background when tiered compilation is enabled")
+    public CompilerConfig setTieredCompilationThreads(int tieredCompilationThreads)
+    {
+        this.tieredCompilationThreads = tieredCompilationThreads;
+        return this;
+    }
+
+    public boolean isAdaptiveConjunctOrderingEnabled()
+    {
+        return adaptiveConjunctOrderingEnabled;
+    }
+
+    @Config("compiler.adaptive-conjunct-ordering-enabled")
+    @Description("Evaluate the conjuncts of filters separately, ordered by their measured cost and selectivity")
+    public CompilerConfig setAdaptiveConjunctOrderingEnabled(boolean adaptiveConjunctOrderingEnabled)
+    {
+        this.adaptiveConjunctOrderingEnabled = adaptiveConjunctOrderingEnabled;
+        return this;
+    }
+
+    public boolean isVectorizedEvaluationEnabled()
+    {
+        return vectorizedEvaluationEnabled;
+    }
+
+    @Config("compiler.vectorized-evaluation-enabled")
+    @Description("Evaluate simple arithmetic and comparison expressions a column at a time instead of compiling them")
+    public CompilerConfig setVectorizedEvaluationEnabled(boolean vectorizedEvaluationEnabled)
+    {
+        this.vectorizedEvaluationEnabled = vectorizedEvaluationEnabled;
+        return this;
+    }
 }
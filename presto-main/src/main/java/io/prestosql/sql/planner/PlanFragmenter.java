@@ -663,6 +663,18 @@ public class PlanFragmenter
             return GroupedExecutionProperties.notCapable();
         }
 
+        @Override
+        public GroupedExecutionProperties visitTableWriter(TableWriterNode node, Void context)
+        {
+            GroupedExecutionProperties properties = node.getSource().accept(this, null);
+            if (groupedExecutionEnabled && properties.isCurrentNodeCapable() && node.getPartitioningScheme().isPresent()) {
+                // The writer is in the same fragment as the scan, so the source and target bucketing align.
+                // Writing one group at a time bounds the number of open writers, as each group only contains rows of its own buckets.
+                return new GroupedExecutionProperties(true, true, properties.capableTableScanNodes);
+            }
+            return properties;
+        }
+
         @Override
         public GroupedExecutionProperties visitTableScan(TableScanNode node, Void context)
         {
@@ -0,0 +1,214 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner.iterative.rule;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.matching.Capture;
+import io.prestosql.matching.Captures;
+import io.prestosql.matching.Pattern;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.metadata.TableHandle;
+import io.prestosql.spi.connector.AggregateFunction;
+import io.prestosql.spi.connector.AggregationApplicationResult;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.ProjectionApplicationResult.Assignment;
+import io.prestosql.spi.expression.ConnectorExpression;
+import io.prestosql.spi.expression.ConnectorExpressionTranslator;
+import io.prestosql.spi.expression.Variable;
+import io.prestosql.sql.planner.LiteralEncoder;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.iterative.Rule;
+import io.prestosql.sql.planner.plan.AggregationNode;
+import io.prestosql.sql.planner.plan.AggregationNode.Aggregation;
+import io.prestosql.sql.planner.plan.Assignments;
+import io.prestosql.sql.planner.plan.PlanNode;
+import io.prestosql.sql.planner.plan.ProjectNode;
+import io.prestosql.sql.planner.plan.TableScanNode;
+import io.prestosql.sql.tree.Expression;
+import io.prestosql.sql.tree.SymbolReference;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static io.prestosql.matching.Capture.newCapture;
+import static io.prestosql.sql.planner.plan.AggregationNode.Step.FINAL;
+import static io.prestosql.sql.planner.plan.AggregationNode.Step.SINGLE;
+import static io.prestosql.sql.planner.plan.AggregationNode.singleGroupingSet;
+import static io.prestosql.sql.planner.plan.Patterns.aggregation;
+import static io.prestosql.sql.planner.plan.Patterns.source;
+import static io.prestosql.sql.planner.plan.Patterns.tableScan;
+
+public class PushAggregationIntoTableScan
+        implements Rule<AggregationNode>
+{
+    private static final Capture<TableScanNode> TABLE_SCAN = newCapture();
+    private static final Pattern<AggregationNode> PATTERN = aggregation()
+            .matching(PushAggregationIntoTableScan::isPushableAggregation)
+            .with(source().matching(
+                    tableScan().capturedAs(TABLE_SCAN)));
+
+    private final Metadata metadata;
+
+    public PushAggregationIntoTableScan(Metadata metadata)
+    {
+        this.metadata = metadata;
+    }
+
+    @Override
+    public Pattern<AggregationNode> getPattern()
+    {
+        return PATTERN;
+    }
+
+    private static boolean isPushableAggregation(AggregationNode aggregation)
+    {
+        return aggregation.getStep() == SINGLE &&
+                aggregation.getGroupingSetCount() == 1 &&
+                !aggregation.getHashSymbol().isPresent() &&
+                !aggregation.getGroupIdSymbol().isPresent() &&
+                aggregation.getAggregations().values().stream().allMatch(PushAggregationIntoTableScan::isPushableFunction);
+    }
+
+    private static boolean isPushableFunction(Aggregation aggregation)
+    {
+        return !aggregation.getFilter().isPresent() &&
+                !aggregation.getMask().isPresent() &&
+                !aggregation.getOrderingScheme().isPresent() &&
+                aggregation.getArguments().stream().allMatch(SymbolReference.class::isInstance);
+    }
+
+    @Override
+    public Result apply(AggregationNode aggregation, Captures captures, Context context)
+    {
+        TableScanNode tableScan = captures.get(TABLE_SCAN);
+
+        List<Symbol> aggregationOutputs = ImmutableList.copyOf(aggregation.getAggregations().keySet());
+        ImmutableList.Builder<AggregateFunction> aggregates = ImmutableList.builder();
+        for (Symbol output : aggregationOutputs) {
+            Aggregation function = aggregation.getAggregations().get(output);
+            List<ConnectorExpression> inputs = function.getArguments().stream()
+                    .map(Symbol::from)
+                    .map(symbol -> new Variable(symbol.getName(), context.getSymbolAllocator().getTypes().get(symbol)))
+                    .collect(toImmutableList());
+            aggregates.add(new AggregateFunction(
+                    function.getSignature().getName(),
+                    context.getSymbolAllocator().getTypes().get(output),
+                    inputs,
+                    function.isDistinct()));
+        }
+
+        Map<String, ColumnHandle> assignments = tableScan.getAssignments()
+                .entrySet().stream()
+                .collect(toImmutableMap(entry -> entry.getKey().getName(), Map.Entry::getValue));
+
+        List<ColumnHandle> groupingColumns = aggregation.getGroupingKeys().stream()
+                .map(tableScan.getAssignments()::get)
+                .collect(toImmutableList());
+
+        Optional<AggregationApplicationResult<TableHandle>> result = metadata.applyAggregation(
+                context.getSession(),
+                tableScan.getTable(),
+                aggregates.build(),
+                assignments,
+                groupingColumns);
+        if (!result.isPresent() || result.get().getProjections().size() != aggregationOutputs.size()) {
+            return Result.empty();
+        }
+
+        // grouping columns are still produced by the derived table
+        ImmutableList.Builder<Symbol> newScanOutputs = ImmutableList.builder();
+        ImmutableMap.Builder<Symbol, ColumnHandle> newScanAssignments = ImmutableMap.builder();
+        for (Symbol groupingKey : aggregation.getGroupingKeys()) {
+            newScanOutputs.add(groupingKey);
+            newScanAssignments.put(groupingKey, tableScan.getAssignments().get(groupingKey));
+        }
+
+        Map<String, Symbol> variableMappings = new HashMap<>();
+        for (Assignment assignment : result.get().getAssignments()) {
+            Symbol symbol = context.getSymbolAllocator().newSymbol(assignment.getVariable(), assignment.getType());
+
+            newScanOutputs.add(symbol);
+            newScanAssignments.put(symbol, assignment.getColumn());
+            variableMappings.put(assignment.getVariable(), symbol);
+        }
+
+        TableScanNode newTableScan = TableScanNode.newInstance(
+                tableScan.getId(),
+                result.get().getHandle(),
+                newScanOutputs.build(),
+                newScanAssignments.build());
+
+        if (result.get().isPartial()) {
+            return finalAggregation(aggregation, aggregationOutputs, newTableScan, result.get().getProjections(), variableMappings, context)
+                    .map(Result::ofPlanNode)
+                    .orElseGet(Result::empty);
+        }
+
+        Assignments.Builder newProjections = Assignments.builder();
+        for (Symbol groupingKey : aggregation.getGroupingKeys()) {
+            newProjections.putIdentity(groupingKey);
+        }
+        for (int i = 0; i < aggregationOutputs.size(); i++) {
+            ConnectorExpression projection = result.get().getProjections().get(i);
+            newProjections.put(aggregationOutputs.get(i), ConnectorExpressionTranslator.translate(projection, variableMappings, new LiteralEncoder(metadata)));
+        }
+
+        return Result.ofPlanNode(new ProjectNode(context.getIdAllocator().getNextId(), newTableScan, newProjections.build()));
+    }
+
+    private Optional<PlanNode> finalAggregation(
+            AggregationNode aggregation,
+            List<Symbol> aggregationOutputs,
+            TableScanNode source,
+            List<ConnectorExpression> projections,
+            Map<String, Symbol> variableMappings,
+            Context context)
+    {
+        // each partial result must be a column holding the intermediate state of the original function
+        ImmutableMap.Builder<Symbol, Aggregation> finalAggregations = ImmutableMap.builder();
+        for (int i = 0; i < aggregationOutputs.size(); i++) {
+            Aggregation original = aggregation.getAggregations().get(aggregationOutputs.get(i));
+            ConnectorExpression projection = projections.get(i);
+            if (!(projection instanceof Variable) || original.isDistinct()) {
+                return Optional.empty();
+            }
+            if (!metadata.getAggregateFunctionImplementation(original.getSignature()).getIntermediateType().equals(projection.getType())) {
+                return Optional.empty();
+            }
+            Expression intermediate = variableMappings.get(((Variable) projection).getName()).toSymbolReference();
+            finalAggregations.put(aggregationOutputs.get(i), new Aggregation(
+                    original.getSignature(),
+                    ImmutableList.of(intermediate),
+                    false,
+                    Optional.empty(),
+                    Optional.empty(),
+                    Optional.empty()));
+        }
+
+        return Optional.of(new AggregationNode(
+                aggregation.getId(),
+                source,
+                finalAggregations.build(),
+                singleGroupingSet(aggregation.getGroupingKeys()),
+                ImmutableList.of(),
+                FINAL,
+                Optional.empty(),
+                Optional.empty()));
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner.iterative.rule;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.cost.StatsProvider;
+import io.prestosql.matching.Captures;
+import io.prestosql.matching.Pattern;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.metadata.TableHandle;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.JoinApplicationResult;
+import io.prestosql.spi.connector.JoinCondition;
+import io.prestosql.spi.connector.JoinType;
+import io.prestosql.spi.expression.Variable;
+import io.prestosql.sql.ExpressionUtils;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.TypeProvider;
+import io.prestosql.sql.planner.iterative.Lookup;
+import io.prestosql.sql.planner.iterative.Rule;
+import io.prestosql.sql.planner.plan.Assignments;
+import io.prestosql.sql.planner.plan.FilterNode;
+import io.prestosql.sql.planner.plan.JoinNode;
+import io.prestosql.sql.planner.plan.PlanNode;
+import io.prestosql.sql.planner.plan.ProjectNode;
+import io.prestosql.sql.planner.plan.TableScanNode;
+import io.prestosql.sql.tree.ComparisonExpression;
+import io.prestosql.sql.tree.Expression;
+import io.prestosql.sql.tree.SymbolReference;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static io.prestosql.spi.connector.JoinCondition.Operator.EQUAL;
+import static io.prestosql.sql.ExpressionUtils.combineConjuncts;
+import static io.prestosql.sql.planner.DeterminismEvaluator.isDeterministic;
+import static io.prestosql.sql.planner.plan.Patterns.join;
+import static io.prestosql.sql.tree.BooleanLiteral.TRUE_LITERAL;
+import static java.lang.Double.isNaN;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Replaces a join of two table scans of the same connector with a single scan of the joined table,
+ * when the connector supports it. Filters on the preserved sides of the join are evaluated above the
+ * new scan, and the join is only pushed down when it is not estimated to produce more rows than its
+ * inputs, as the joined rows then need to be transferred instead of the rows of both tables.
+ */
+public class PushJoinIntoTableScan
+        implements Rule<JoinNode>
+{
+    private static final Pattern<JoinNode> PATTERN = join()
+            .matching(PushJoinIntoTableScan::isPushableJoin);
+
+    private final Metadata metadata;
+
+    public PushJoinIntoTableScan(Metadata metadata)
+    {
+        this.metadata = requireNonNull(metadata, "metadata is null");
+    }
+
+    @Override
+    public Pattern<JoinNode> getPattern()
+    {
+        return PATTERN;
+    }
+
+    private static boolean isPushableJoin(JoinNode join)
+    {
+        return !join.getLeftHashSymbol().isPresent() &&
+                !join.getRightHashSymbol().isPresent() &&
+                join.getDynamicFilters().isEmpty();
+    }
+
+    @Override
+    public Result apply(JoinNode join, Captures captures, Context context)
+    {
+        // rows filtered out on a side of an outer join that is padded with nulls would reappear
+        // if the filter was evaluated after the join
+        boolean leftPreserved = join.getType() == JoinNode.Type.INNER || join.getType() == JoinNode.Type.LEFT;
+        boolean rightPreserved = join.getType() == JoinNode.Type.INNER || join.getType() == JoinNode.Type.RIGHT;
+
+        Optional<JoinSource> left = JoinSource.resolve(join.getLeft(), leftPreserved, context.getLookup());
+        Optional<JoinSource> right = JoinSource.resolve(join.getRight(), rightPreserved, context.getLookup());
+        if (!left.isPresent() || !right.isPresent()) {
+            return Result.empty();
+        }
+        TableScanNode leftScan = left.get().getScan();
+        TableScanNode rightScan = right.get().getScan();
+        if (!leftScan.getTable().getCatalogName().equals(rightScan.getTable().getCatalogName())) {
+            return Result.empty();
+        }
+
+        TypeProvider types = context.getSymbolAllocator().getTypes();
+        ImmutableList.Builder<JoinCondition> conditions = ImmutableList.builder();
+        for (JoinNode.EquiJoinClause clause : join.getCriteria()) {
+            conditions.add(new JoinCondition(toVariable(clause.getLeft(), types), EQUAL, toVariable(clause.getRight(), types)));
+        }
+        ImmutableList.Builder<Expression> remainingFilter = ImmutableList.builder();
+        for (Expression conjunct : join.getFilter().map(ExpressionUtils::extractConjuncts).orElse(ImmutableList.of())) {
+            Optional<JoinCondition> condition = toJoinCondition(conjunct, leftScan, rightScan, types);
+            if (condition.isPresent()) {
+                conditions.add(condition.get());
+            }
+            else {
+                remainingFilter.add(conjunct);
+            }
+        }
+
+        List<JoinCondition> joinConditions = conditions.build();
+        List<Expression> remainingConjuncts = remainingFilter.build();
+        if (joinConditions.isEmpty()) {
+            // a cross join only multiplies the number of rows to transfer
+            return Result.empty();
+        }
+        if (!remainingConjuncts.isEmpty() && join.getType() != JoinNode.Type.INNER) {
+            return Result.empty();
+        }
+
+        if (!reducesTransferredRows(join, context.getStatsProvider())) {
+            return Result.empty();
+        }
+
+        Optional<JoinApplicationResult<TableHandle>> result = metadata.applyJoin(
+                context.getSession(),
+                toJoinType(join.getType()),
+                leftScan.getTable(),
+                rightScan.getTable(),
+                joinConditions,
+                toAssignments(leftScan),
+                toAssignments(rightScan));
+        if (!result.isPresent()) {
+            return Result.empty();
+        }
+
+        ImmutableList.Builder<Symbol> newScanOutputs = ImmutableList.builder();
+        ImmutableMap.Builder<Symbol, ColumnHandle> newScanAssignments = ImmutableMap.builder();
+        for (Symbol symbol : leftScan.getOutputSymbols()) {
+            ColumnHandle column = result.get().getLeftColumnHandles().get(leftScan.getAssignments().get(symbol));
+            if (column == null) {
+                return Result.empty();
+            }
+            newScanOutputs.add(symbol);
+            newScanAssignments.put(symbol, column);
+        }
+        for (Symbol symbol : rightScan.getOutputSymbols()) {
+            ColumnHandle column = result.get().getRightColumnHandles().get(rightScan.getAssignments().get(symbol));
+            if (column == null) {
+                return Result.empty();
+            }
+            newScanOutputs.add(symbol);
+            newScanAssignments.put(symbol, column);
+        }
+
+        PlanNode newNode = TableScanNode.newInstance(
+                context.getIdAllocator().getNextId(),
+                result.get().getHandle(),
+                newScanOutputs.build(),
+                newScanAssignments.build());
+
+        Expression predicate = combineConjuncts(ImmutableList.<Expression>builder()
+                .addAll(left.get().getFilter())
+                .addAll(right.get().getFilter())
+                .addAll(remainingConjuncts)
+                .build());
+        if (!predicate.equals(TRUE_LITERAL)) {
+            newNode = new FilterNode(context.getIdAllocator().getNextId(), newNode, predicate);
+        }
+        if (!newNode.getOutputSymbols().equals(join.getOutputSymbols())) {
+            newNode = new ProjectNode(context.getIdAllocator().getNextId(), newNode, Assignments.identity(join.getOutputSymbols()));
+        }
+        return Result.ofPlanNode(newNode);
+    }
+
+    private static Optional<JoinCondition> toJoinCondition(Expression conjunct, TableScanNode left, TableScanNode right, TypeProvider types)
+    {
+        if (!(conjunct instanceof ComparisonExpression)) {
+            return Optional.empty();
+        }
+        ComparisonExpression comparison = (ComparisonExpression) conjunct;
+        if (!(comparison.getLeft() instanceof SymbolReference) || !(comparison.getRight() instanceof SymbolReference)) {
+            return Optional.empty();
+        }
+        Symbol first = Symbol.from(comparison.getLeft());
+        Symbol second = Symbol.from(comparison.getRight());
+        if (left.getOutputSymbols().contains(first) && right.getOutputSymbols().contains(second)) {
+            return Optional.of(new JoinCondition(toVariable(first, types), toOperator(comparison.getOperator()), toVariable(second, types)));
+        }
+        if (left.getOutputSymbols().contains(second) && right.getOutputSymbols().contains(first)) {
+            return Optional.of(new JoinCondition(toVariable(second, types), toOperator(comparison.getOperator().flip()), toVariable(first, types)));
+        }
+        return Optional.empty();
+    }
+
+    private static JoinCondition.Operator toOperator(ComparisonExpression.Operator operator)
+    {
+        switch (operator) {
+            case EQUAL:
+                return JoinCondition.Operator.EQUAL;
+            case NOT_EQUAL:
+                return JoinCondition.Operator.NOT_EQUAL;
+            case LESS_THAN:
+                return JoinCondition.Operator.LESS_THAN;
+            case LESS_THAN_OR_EQUAL:
+                return JoinCondition.Operator.LESS_THAN_OR_EQUAL;
+            case GREATER_THAN:
+                return JoinCondition.Operator.GREATER_THAN;
+            case GREATER_THAN_OR_EQUAL:
+                return JoinCondition.Operator.GREATER_THAN_OR_EQUAL;
+            case IS_DISTINCT_FROM:
+                return JoinCondition.Operator.IS_DISTINCT_FROM;
+        }
+        throw new IllegalArgumentException("Unsupported comparison operator: " + operator);
+    }
+
+    private static JoinType toJoinType(JoinNode.Type type)
+    {
+        switch (type) {
+            case INNER:
+                return JoinType.INNER;
+            case LEFT:
+                return JoinType.LEFT_OUTER;
+            case RIGHT:
+                return JoinType.RIGHT_OUTER;
+            case FULL:
+                return JoinType.FULL_OUTER;
+        }
+        throw new IllegalArgumentException("Unsupported join type: " + type);
+    }
+
+    private static Variable toVariable(Symbol symbol, TypeProvider types)
+    {
+        return new Variable(symbol.getName(), types.get(symbol));
+    }
+
+    private static Map<String, ColumnHandle> toAssignments(TableScanNode tableScan)
+    {
+        return tableScan.getAssignments().entrySet().stream()
+                .collect(toImmutableMap(entry -> entry.getKey().getName(), Map.Entry::getValue));
+    }
+
+    private static boolean reducesTransferredRows(JoinNode join, StatsProvider statsProvider)
+    {
+        double joinRows = statsProvider.getStats(join).getOutputRowCount();
+        double leftRows = statsProvider.getStats(join.getLeft()).getOutputRowCount();
+        double rightRows = statsProvider.getStats(join.getRight()).getOutputRowCount();
+        if (isNaN(joinRows) || isNaN(leftRows) || isNaN(rightRows)) {
+            // without estimates, leave the decision to the connector
+            return true;
+        }
+        return joinRows <= leftRows + rightRows;
+    }
+
+    private static class JoinSource
+    {
+        private final TableScanNode scan;
+        private final List<Expression> filter;
+
+        private JoinSource(TableScanNode scan, List<Expression> filter)
+        {
+            this.scan = requireNonNull(scan, "scan is null");
+            this.filter = ImmutableList.copyOf(requireNonNull(filter, "filter is null"));
+        }
+
+        public static Optional<JoinSource> resolve(PlanNode node, boolean preserved, Lookup lookup)
+        {
+            PlanNode source = lookup.resolve(node);
+            if (source instanceof TableScanNode) {
+                return Optional.of(new JoinSource((TableScanNode) source, ImmutableList.of()));
+            }
+            if (!preserved || !(source instanceof FilterNode)) {
+                return Optional.empty();
+            }
+            FilterNode filter = (FilterNode) source;
+            PlanNode filterSource = lookup.resolve(filter.getSource());
+            if (!(filterSource instanceof TableScanNode) || !isDeterministic(filter.getPredicate())) {
+                return Optional.empty();
+            }
+            return Optional.of(new JoinSource((TableScanNode) filterSource, ImmutableList.of(filter.getPredicate())));
+        }
+
+        public TableScanNode getScan()
+        {
+            return scan;
+        }
+
+        public List<Expression> getFilter()
+        {
+            return filter;
+        }
+    }
+}
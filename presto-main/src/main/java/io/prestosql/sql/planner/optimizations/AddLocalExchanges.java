@@ -281,7 +281,11 @@ public class AddLocalExchanges
         @Override
         public PlanWithProperties visitAggregation(AggregationNode node, StreamPreferredProperties parentPreferences)
         {
-            checkState(node.getStep() == AggregationNode.Step.SINGLE, "step of aggregation is expected to be SINGLE, but it is %s", node.getStep());
+            // a final aggregation is only planned at this point over the partial results produced by a connector
+            checkState(
+                    node.getStep() == AggregationNode.Step.SINGLE || node.getStep() == AggregationNode.Step.FINAL,
+                    "step of aggregation is expected to be SINGLE or FINAL, but it is %s",
+                    node.getStep());
 
             if (node.hasSingleNodeExecutionPreference(metadata)) {
                 return planAndEnforceChildren(node, singleStream(), defaultParallelism(session));
@@ -22,6 +22,7 @@ import io.prestosql.operator.OperatorStats;
 import io.prestosql.operator.PipelineStats;
 import io.prestosql.operator.TaskStats;
 import io.prestosql.operator.WindowInfo;
+import io.prestosql.operator.project.FilterConjunctsInfo;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 
 import java.util.ArrayList;
@@ -82,6 +83,7 @@ public final class PlanNodeStatsSummarizer
         Map<PlanNodeId, Map<String, OperatorInputStats>> operatorInputStats = new HashMap<>();
         Map<PlanNodeId, Map<String, OperatorHashCollisionsStats>> operatorHashCollisionsStats = new HashMap<>();
         Map<PlanNodeId, WindowOperatorStats> windowNodeStats = new HashMap<>();
+        Map<PlanNodeId, FilterConjunctsInfo> filterConjunctsInfos = new HashMap<>();
 
         for (PipelineStats pipelineStats : taskStats.getPipelines()) {
             // Due to eventual consistently collected stats, these could be empty
@@ -139,6 +141,10 @@ public final class PlanNodeStatsSummarizer
                     windowNodeStats.merge(planNodeId, WindowOperatorStats.create(windowInfo), (left, right) -> left.mergeWith(right));
                 }
 
+                if (operatorStats.getInfo() instanceof FilterConjunctsInfo) {
+                    filterConjunctsInfos.merge(planNodeId, (FilterConjunctsInfo) operatorStats.getInfo(), FilterConjunctsInfo::mergeWith);
+                }
+
                 planNodeInputPositions.merge(planNodeId, operatorStats.getInputPositions(), Long::sum);
                 planNodeInputBytes.merge(planNodeId, operatorStats.getInputDataSize().toBytes(), Long::sum);
                 processedNodes.add(planNodeId);
@@ -201,6 +207,18 @@ public final class PlanNodeStatsSummarizer
                         operatorInputStats.get(planNodeId),
                         windowNodeStats.get(planNodeId));
             }
+            else if (filterConjunctsInfos.containsKey(planNodeId)) {
+                nodeStats = new FilterConjunctsPlanNodeStats(
+                        planNodeId,
+                        new Duration(planNodeScheduledMillis.get(planNodeId), MILLISECONDS),
+                        new Duration(planNodeCpuMillis.get(planNodeId), MILLISECONDS),
+                        planNodeInputPositions.get(planNodeId),
+                        succinctDataSize(planNodeInputBytes.get(planNodeId), BYTE),
+                        outputPositions,
+                        succinctDataSize(planNodeOutputBytes.getOrDefault(planNodeId, 0L), BYTE),
+                        operatorInputStats.get(planNodeId),
+                        filterConjunctsInfos.get(planNodeId));
+            }
             else {
                 nodeStats = new PlanNodeStats(
                         planNodeId,
@@ -18,6 +18,8 @@ import com.google.common.collect.ImmutableMap;
 import io.airlift.units.DataSize;
 import io.prestosql.cost.PlanCostEstimate;
 import io.prestosql.cost.PlanNodeStatsEstimate;
+import io.prestosql.operator.project.FilterConjunctsInfo;
+import io.prestosql.operator.project.FilterConjunctsInfo.ConjunctStats;
 import io.prestosql.sql.planner.Symbol;
 import io.prestosql.sql.planner.planprinter.NodeRepresentation.TypedSymbol;
 
@@ -132,6 +134,10 @@ public class TextRenderer
             printWindowOperatorStats(output, ((WindowPlanNodeStats) nodeStats).getWindowOperatorStats());
         }
 
+        if (nodeStats instanceof FilterConjunctsPlanNodeStats) {
+            printFilterConjunctsInfo(output, ((FilterConjunctsPlanNodeStats) nodeStats).getFilterConjunctsInfo());
+        }
+
         return output.toString();
     }
 
@@ -197,6 +203,19 @@ public class TextRenderer
         output.append(format("Size of partition: std.dev.: %s\n", formatDouble(stats.getPartitionRowsStdDev())));
     }
 
+    private static void printFilterConjunctsInfo(StringBuilder output, FilterConjunctsInfo info)
+    {
+        // conjuncts are listed in the order they are evaluated
+        for (int index : info.getEvaluationOrder()) {
+            ConjunctStats conjunct = info.getConjuncts().get(index);
+            output.append(format("Conjunct %s: Input: %s, Selectivity: %s%%, CPU: %s ns/row\n",
+                    conjunct.getExpression(),
+                    formatPositions(conjunct.getInputPositions()),
+                    formatDouble(100.0d * conjunct.getSelectivity()),
+                    formatDouble(conjunct.getCpuNanosPerPosition())));
+        }
+    }
+
     private static Map<String, String> translateOperatorTypes(Set<String> operators)
     {
         if (operators.size() == 1) {
@@ -32,7 +32,6 @@ import java.util.List;
 import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
-import static com.google.common.base.Preconditions.checkState;
 import static io.prestosql.sql.planner.plan.AggregationNode.Step.FINAL;
 import static io.prestosql.sql.planner.plan.AggregationNode.Step.INTERMEDIATE;
 import static io.prestosql.sql.planner.plan.AggregationNode.Step.PARTIAL;
@@ -105,8 +104,8 @@ public class ValidateAggregationsWithDefaultValues
                 return Optional.empty();
             }
 
-            checkState(seenExchangesOptional.isPresent(), "No partial aggregation below final aggregation");
-            SeenExchanges seenExchanges = seenExchangesOptional.get();
+            // without a partial aggregation below, the partial results are produced by the table scan of a connector
+            SeenExchanges seenExchanges = seenExchangesOptional.orElse(new SeenExchanges(false, false));
 
             if (seenExchanges.remoteRepartitionExchange) {
                 // Final aggregation separated from partial by remote repartition exchange.
@@ -0,0 +1,469 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.relational;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.metadata.Signature;
+import io.prestosql.operator.scalar.ScalarFunctionImplementation;
+import io.prestosql.operator.scalar.ScalarFunctionImplementation.ArgumentProperty;
+import io.prestosql.operator.scalar.ScalarFunctionImplementation.NullConvention;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.type.Type;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.Defaults.defaultValue;
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static io.prestosql.operator.scalar.ScalarFunctionImplementation.ArgumentType.VALUE_TYPE;
+import static io.prestosql.operator.scalar.ScalarFunctionImplementation.NullConvention.BLOCK_AND_POSITION;
+import static io.prestosql.operator.scalar.ScalarFunctionImplementation.NullConvention.RETURN_NULL_ON_NULL;
+import static io.prestosql.operator.scalar.ScalarFunctionImplementation.NullConvention.USE_NULL_FLAG;
+import static io.prestosql.spi.function.OperatorType.EQUAL;
+import static io.prestosql.spi.type.TypeUtils.readNativeValue;
+import static io.prestosql.sql.relational.Signatures.CAST;
+import static io.prestosql.sql.relational.Signatures.comparisonExpressionSignature;
+import static io.prestosql.sql.tree.ComparisonExpression.Operator.GREATER_THAN_OR_EQUAL;
+import static io.prestosql.sql.tree.ComparisonExpression.Operator.LESS_THAN_OR_EQUAL;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Evaluates a row expression one position at a time by invoking the function implementations
+ * directly, without generating bytecode. This is much slower per row than the compiled form,
+ * but it is ready immediately, so it can process the first pages while the expression is compiled.
+ * <p>
+ * Lambdas, {@code BLOCK_AND_POSITION} arguments and some special forms are not supported,
+ * see {@link #isSupported(Metadata, RowExpression)}.
+ */
+public class RowExpressionInterpreter
+{
+    private final Node root;
+
+    public RowExpressionInterpreter(Metadata metadata, RowExpression expression)
+    {
+        requireNonNull(metadata, "metadata is null");
+        requireNonNull(expression, "expression is null");
+        this.root = expression.accept(new NodeBuilder(metadata), null)
+                .orElseThrow(() -> new IllegalArgumentException("Expression can not be interpreted: " + expression));
+    }
+
+    public static boolean isSupported(Metadata metadata, RowExpression expression)
+    {
+        return expression.accept(new NodeBuilder(metadata), null).isPresent();
+    }
+
+    /**
+     * Returns the value of the expression at the given position as a native stack value, or null.
+     */
+    public Object evaluate(ConnectorSession session, Page page, int position)
+    {
+        return root.evaluate(session, page, position);
+    }
+
+    private interface Node
+    {
+        Object evaluate(ConnectorSession session, Page page, int position);
+    }
+
+    private static class NodeBuilder
+            implements RowExpressionVisitor<Optional<Node>, Void>
+    {
+        private final Metadata metadata;
+
+        public NodeBuilder(Metadata metadata)
+        {
+            this.metadata = metadata;
+        }
+
+        @Override
+        public Optional<Node> visitInputReference(InputReferenceExpression reference, Void context)
+        {
+            int field = reference.getField();
+            Type type = reference.getType();
+            return Optional.of((session, page, position) -> readNativeValue(type, page.getBlock(field), position));
+        }
+
+        @Override
+        public Optional<Node> visitConstant(ConstantExpression literal, Void context)
+        {
+            Object value = literal.getValue();
+            return Optional.of((session, page, position) -> value);
+        }
+
+        @Override
+        public Optional<Node> visitCall(CallExpression call, Void context)
+        {
+            Signature signature = call.getSignature();
+            if (signature.getName().equals(CAST)) {
+                signature = metadata.getCoercion(call.getArguments().get(0).getType(), call.getType());
+            }
+
+            Optional<Invocation> invocation = resolve(signature);
+            Optional<List<Node>> arguments = visitArguments(call.getArguments());
+            if (!invocation.isPresent() || !arguments.isPresent()) {
+                return Optional.empty();
+            }
+            return Optional.of(new CallNode(invocation.get(), arguments.get()));
+        }
+
+        @Override
+        public Optional<Node> visitSpecialForm(SpecialForm specialForm, Void context)
+        {
+            Optional<List<Node>> arguments = visitArguments(specialForm.getArguments());
+            if (!arguments.isPresent()) {
+                return Optional.empty();
+            }
+            List<Node> nodes = arguments.get();
+
+            switch (specialForm.getForm()) {
+                case IF:
+                    return Optional.of((session, page, position) -> Boolean.TRUE.equals(nodes.get(0).evaluate(session, page, position)) ?
+                            nodes.get(1).evaluate(session, page, position) :
+                            nodes.get(2).evaluate(session, page, position));
+                case IS_NULL:
+                    return Optional.of((session, page, position) -> nodes.get(0).evaluate(session, page, position) == null);
+                case COALESCE:
+                    return Optional.of(new CoalesceNode(nodes));
+                case AND:
+                    return Optional.of(new LogicalNode(nodes, false));
+                case OR:
+                    return Optional.of(new LogicalNode(nodes, true));
+                case BETWEEN: {
+                    List<RowExpression> expressions = specialForm.getArguments();
+                    Type valueType = expressions.get(0).getType();
+                    Optional<Invocation> greaterThanOrEqual = resolve(comparisonExpressionSignature(GREATER_THAN_OR_EQUAL, valueType, expressions.get(1).getType()));
+                    Optional<Invocation> lessThanOrEqual = resolve(comparisonExpressionSignature(LESS_THAN_OR_EQUAL, valueType, expressions.get(2).getType()));
+                    if (!greaterThanOrEqual.isPresent() || !lessThanOrEqual.isPresent()) {
+                        return Optional.empty();
+                    }
+                    return Optional.of(new BetweenNode(nodes, greaterThanOrEqual.get(), lessThanOrEqual.get()));
+                }
+                case IN: {
+                    Type valueType = specialForm.getArguments().get(0).getType();
+                    Optional<Invocation> equal = resolve(metadata.resolveOperator(EQUAL, ImmutableList.of(valueType, valueType)));
+                    return equal.map(invocation -> new InNode(nodes, invocation));
+                }
+                case DEREFERENCE: {
+                    int index = (int) ((ConstantExpression) specialForm.getArguments().get(1)).getValue();
+                    Type type = specialForm.getType();
+                    return Optional.of((session, page, position) -> {
+                        Block row = (Block) nodes.get(0).evaluate(session, page, position);
+                        if (row == null || row.isNull(index)) {
+                            return null;
+                        }
+                        return readNativeValue(type, row, index);
+                    });
+                }
+                default:
+                    // NULL_IF, SWITCH and ROW_CONSTRUCTOR are only compiled, lambdas can not be interpreted
+                    return Optional.empty();
+            }
+        }
+
+        @Override
+        public Optional<Node> visitLambda(LambdaDefinitionExpression lambda, Void context)
+        {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Node> visitVariableReference(VariableReferenceExpression reference, Void context)
+        {
+            return Optional.empty();
+        }
+
+        private Optional<List<Node>> visitArguments(List<RowExpression> arguments)
+        {
+            ImmutableList.Builder<Node> nodes = ImmutableList.builder();
+            for (RowExpression argument : arguments) {
+                Optional<Node> node = argument.accept(this, null);
+                if (!node.isPresent()) {
+                    return Optional.empty();
+                }
+                nodes.add(node.get());
+            }
+            return Optional.of(nodes.build());
+        }
+
+        private Optional<Invocation> resolve(Signature signature)
+        {
+            ScalarFunctionImplementation function;
+            try {
+                function = metadata.getScalarFunctionImplementation(signature);
+            }
+            catch (PrestoException e) {
+                return Optional.empty();
+            }
+
+            int argumentCount = signature.getArgumentTypes().size();
+            ImmutableList.Builder<NullConvention> nullConventions = ImmutableList.builder();
+            for (int i = 0; i < argumentCount; i++) {
+                ArgumentProperty argumentProperty = function.getArgumentProperty(i);
+                if (argumentProperty.getArgumentType() != VALUE_TYPE || argumentProperty.getNullConvention() == BLOCK_AND_POSITION) {
+                    return Optional.empty();
+                }
+                nullConventions.add(argumentProperty.getNullConvention());
+            }
+            return Optional.of(new Invocation(function, nullConventions.build()));
+        }
+    }
+
+    private static class Invocation
+    {
+        private final MethodHandle methodHandle;
+        private final List<NullConvention> nullConventions;
+        private final Object instance;
+        private final boolean hasSession;
+
+        public Invocation(ScalarFunctionImplementation function, List<NullConvention> nullConventions)
+        {
+            this.methodHandle = function.getMethodHandle();
+            this.nullConventions = nullConventions;
+
+            // the generated code creates one instance for each generated class instance
+            Optional<MethodHandle> instanceFactory = function.getInstanceFactory();
+            if (instanceFactory.isPresent()) {
+                try {
+                    instance = instanceFactory.get().invoke();
+                }
+                catch (Throwable t) {
+                    throw propagate(t);
+                }
+            }
+            else {
+                instance = null;
+            }
+
+            int sessionParameter = instanceFactory.isPresent() ? 1 : 0;
+            MethodType methodType = methodHandle.type();
+            hasSession = methodType.parameterCount() > sessionParameter && methodType.parameterType(sessionParameter) == ConnectorSession.class;
+        }
+
+        public boolean isReturnNullOnNull(int argument)
+        {
+            return nullConventions.get(argument) == RETURN_NULL_ON_NULL;
+        }
+
+        public Object invoke(ConnectorSession session, List<Object> values)
+        {
+            List<Object> parameters = new ArrayList<>(methodHandle.type().parameterCount());
+            if (instance != null) {
+                parameters.add(instance);
+            }
+            if (hasSession) {
+                parameters.add(session);
+            }
+            for (int i = 0; i < values.size(); i++) {
+                Object value = values.get(i);
+                if (value == null && isReturnNullOnNull(i)) {
+                    return null;
+                }
+                if (nullConventions.get(i) == USE_NULL_FLAG) {
+                    parameters.add(value == null ? defaultValue(methodHandle.type().parameterType(parameters.size())) : value);
+                    parameters.add(value == null);
+                }
+                else {
+                    parameters.add(value);
+                }
+            }
+
+            try {
+                return methodHandle.invokeWithArguments(parameters);
+            }
+            catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+
+        private static RuntimeException propagate(Throwable throwable)
+        {
+            if (throwable instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throwIfUnchecked(throwable);
+            throw new RuntimeException(throwable);
+        }
+    }
+
+    private static class CallNode
+            implements Node
+    {
+        private final Invocation invocation;
+        private final List<Node> arguments;
+
+        public CallNode(Invocation invocation, List<Node> arguments)
+        {
+            this.invocation = invocation;
+            this.arguments = arguments;
+        }
+
+        @Override
+        public Object evaluate(ConnectorSession session, Page page, int position)
+        {
+            List<Object> values = new ArrayList<>(arguments.size());
+            for (int i = 0; i < arguments.size(); i++) {
+                Object value = arguments.get(i).evaluate(session, page, position);
+                // like the generated code, do not evaluate the remaining arguments once the result is known to be null
+                if (value == null && invocation.isReturnNullOnNull(i)) {
+                    return null;
+                }
+                values.add(value);
+            }
+            return invocation.invoke(session, values);
+        }
+    }
+
+    private static class CoalesceNode
+            implements Node
+    {
+        private final List<Node> arguments;
+
+        public CoalesceNode(List<Node> arguments)
+        {
+            this.arguments = arguments;
+        }
+
+        @Override
+        public Object evaluate(ConnectorSession session, Page page, int position)
+        {
+            for (Node argument : arguments) {
+                Object value = argument.evaluate(session, page, position);
+                if (value != null) {
+                    return value;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class LogicalNode
+            implements Node
+    {
+        private final List<Node> arguments;
+        // the value that decides the result: false for AND, true for OR
+        private final Boolean shortCircuitValue;
+
+        public LogicalNode(List<Node> arguments, boolean shortCircuitValue)
+        {
+            this.arguments = arguments;
+            this.shortCircuitValue = shortCircuitValue;
+        }
+
+        @Override
+        public Object evaluate(ConnectorSession session, Page page, int position)
+        {
+            boolean wasNull = false;
+            for (Node argument : arguments) {
+                Object value = argument.evaluate(session, page, position);
+                if (value == null) {
+                    wasNull = true;
+                }
+                else if (value.equals(shortCircuitValue)) {
+                    return shortCircuitValue;
+                }
+            }
+            return wasNull ? null : !shortCircuitValue;
+        }
+    }
+
+    private static class BetweenNode
+            implements Node
+    {
+        private final Node value;
+        private final Node min;
+        private final Node max;
+        private final Invocation greaterThanOrEqual;
+        private final Invocation lessThanOrEqual;
+
+        public BetweenNode(List<Node> arguments, Invocation greaterThanOrEqual, Invocation lessThanOrEqual)
+        {
+            this.value = arguments.get(0);
+            this.min = arguments.get(1);
+            this.max = arguments.get(2);
+            this.greaterThanOrEqual = greaterThanOrEqual;
+            this.lessThanOrEqual = lessThanOrEqual;
+        }
+
+        @Override
+        public Object evaluate(ConnectorSession session, Page page, int position)
+        {
+            Object value = this.value.evaluate(session, page, position);
+            if (value == null) {
+                return null;
+            }
+
+            // value >= min AND value <= max
+            Object aboveMin = greaterThanOrEqual.invoke(session, asList(value, min.evaluate(session, page, position)));
+            if (Boolean.FALSE.equals(aboveMin)) {
+                return false;
+            }
+            Object belowMax = lessThanOrEqual.invoke(session, asList(value, max.evaluate(session, page, position)));
+            if (Boolean.FALSE.equals(belowMax)) {
+                return false;
+            }
+            return aboveMin == null || belowMax == null ? null : true;
+        }
+    }
+
+    private static class InNode
+            implements Node
+    {
+        private final Node value;
+        private final List<Node> testValues;
+        private final Invocation equal;
+
+        public InNode(List<Node> arguments, Invocation equal)
+        {
+            this.value = arguments.get(0);
+            this.testValues = arguments.subList(1, arguments.size());
+            this.equal = equal;
+        }
+
+        @Override
+        public Object evaluate(ConnectorSession session, Page page, int position)
+        {
+            Object value = this.value.evaluate(session, page, position);
+            if (value == null) {
+                return null;
+            }
+
+            boolean wasNull = false;
+            for (Node testValue : testValues) {
+                Object result = equal.invoke(session, asList(value, testValue.evaluate(session, page, position)));
+                if (result == null) {
+                    wasNull = true;
+                }
+                else if ((Boolean) result) {
+                    return true;
+                }
+            }
+            return wasNull ? null : false;
+        }
+    }
+
+    private static List<Object> asList(Object first, Object second)
+    {
+        List<Object> values = new ArrayList<>(2);
+        values.add(first);
+        values.add(second);
+        return values;
+    }
+}
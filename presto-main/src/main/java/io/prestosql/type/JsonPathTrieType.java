@@ -0,0 +1,61 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.type;
+
+import io.prestosql.operator.scalar.JsonPathTrie;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.block.BlockBuilderStatus;
+import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.type.AbstractType;
+import io.prestosql.spi.type.TypeSignature;
+
+import static io.prestosql.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+
+public class JsonPathTrieType
+        extends AbstractType
+{
+    public static final JsonPathTrieType JSON_PATH_TRIE = new JsonPathTrieType();
+    public static final String NAME = "JsonPathTrie";
+
+    public JsonPathTrieType()
+    {
+        super(new TypeSignature(NAME), JsonPathTrie.class);
+    }
+
+    @Override
+    public Object getObjectValue(ConnectorSession session, Block block, int position)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void appendTo(Block block, int position, BlockBuilder blockBuilder)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public BlockBuilder createBlockBuilder(BlockBuilderStatus blockBuilderStatus, int expectedEntries, int expectedBytesPerEntry)
+    {
+        throw new PrestoException(GENERIC_INTERNAL_ERROR, "JsonPathTrie type cannot be serialized");
+    }
+
+    @Override
+    public BlockBuilder createBlockBuilder(BlockBuilderStatus blockBuilderStatus, int expectedEntries)
+    {
+        throw new PrestoException(GENERIC_INTERNAL_ERROR, "JsonPathTrie type cannot be serialized");
+    }
+}
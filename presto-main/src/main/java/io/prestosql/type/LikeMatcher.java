@@ -0,0 +1,342 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.type;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.slice.SliceUtf8.lengthOfCodePointSafe;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
+import static io.prestosql.util.Failures.checkCondition;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Matches values against a LIKE pattern without a regular expression engine.
+ * <p>
+ * The pattern is split at {@code %} into segments of literal bytes and {@code _} wildcards.
+ * The first segment must match at the start of the value and the last one at its end,
+ * while each segment in between is matched at its leftmost occurrence after the previous one.
+ * As segments have a fixed length, the leftmost occurrence never prevents the remaining
+ * segments from matching, so no backtracking is needed. The common shapes {@code abc},
+ * {@code abc%}, {@code %abc} and {@code %abc%} are matched with a single comparison or search.
+ */
+public final class LikeMatcher
+{
+    private enum Shape
+    {
+        EXACT, PREFIX, SUFFIX, CONTAINS, GENERIC
+    }
+
+    private final String pattern;
+    private final Shape shape;
+    // literal of the EXACT, PREFIX, SUFFIX and CONTAINS shapes
+    private final Slice literal;
+
+    private final Segment first;
+    private final List<Segment> middle;
+    private final Segment last;
+
+    private LikeMatcher(String pattern, List<Segment> segments)
+    {
+        this.pattern = requireNonNull(pattern, "pattern is null");
+        checkArgument(!segments.isEmpty(), "segments is empty");
+
+        first = segments.get(0);
+        last = segments.get(segments.size() - 1);
+        if (segments.size() == 1) {
+            middle = ImmutableList.of();
+            shape = first.isLiteral() ? Shape.EXACT : Shape.GENERIC;
+            literal = first.isLiteral() ? first.getLiteral() : null;
+            return;
+        }
+
+        middle = segments.subList(1, segments.size() - 1).stream()
+                .filter(segment -> !segment.isEmpty())
+                .collect(toImmutableList());
+
+        if (middle.isEmpty() && first.isLiteral() && last.isEmpty()) {
+            shape = Shape.PREFIX;
+            literal = first.getLiteral();
+        }
+        else if (middle.isEmpty() && first.isEmpty() && last.isLiteral()) {
+            shape = Shape.SUFFIX;
+            literal = last.getLiteral();
+        }
+        else if (middle.size() == 1 && middle.get(0).isLiteral() && first.isEmpty() && last.isEmpty()) {
+            shape = Shape.CONTAINS;
+            literal = middle.get(0).getLiteral();
+        }
+        else {
+            shape = Shape.GENERIC;
+            literal = null;
+        }
+    }
+
+    public static LikeMatcher compile(String pattern, char escapeChar, boolean shouldEscape)
+    {
+        List<Segment> segments = new ArrayList<>();
+        SegmentBuilder segment = new SegmentBuilder();
+        boolean escaped = false;
+        for (char currentChar : pattern.toCharArray()) {
+            checkEscape(!escaped || currentChar == '%' || currentChar == '_' || currentChar == escapeChar);
+            if (shouldEscape && !escaped && (currentChar == escapeChar)) {
+                escaped = true;
+            }
+            else if (!escaped && currentChar == '%') {
+                segments.add(segment.build());
+                segment = new SegmentBuilder();
+            }
+            else if (!escaped && currentChar == '_') {
+                segment.addWildcard();
+            }
+            else {
+                segment.addLiteral(currentChar);
+                escaped = false;
+            }
+        }
+        checkEscape(!escaped);
+        segments.add(segment.build());
+
+        return new LikeMatcher(pattern, segments);
+    }
+
+    public boolean match(Slice value)
+    {
+        int length = value.length();
+        switch (shape) {
+            case EXACT:
+                return value.equals(literal);
+            case PREFIX:
+                return length >= literal.length() && value.equals(0, literal.length(), literal, 0, literal.length());
+            case SUFFIX:
+                return length >= literal.length() && value.equals(length - literal.length(), literal.length(), literal, 0, literal.length());
+            case CONTAINS:
+                return value.indexOf(literal) >= 0;
+            case GENERIC:
+                break;
+        }
+
+        if (middle.isEmpty() && first == last) {
+            return first.matchAt(value, 0) == length;
+        }
+
+        int position = first.matchAt(value, 0);
+        if (position < 0) {
+            return false;
+        }
+        for (Segment segment : middle) {
+            position = segment.find(value, position);
+            if (position < 0) {
+                return false;
+            }
+        }
+        return last.matchesSuffix(value, position);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("pattern", pattern)
+                .add("shape", shape)
+                .toString();
+    }
+
+    private static void checkEscape(boolean condition)
+    {
+        checkCondition(condition, INVALID_FUNCTION_ARGUMENT, "Escape character must be followed by '%%', '_' or the escape character itself");
+    }
+
+    /**
+     * Skips the given number of characters, or returns -1 if the value is shorter.
+     * Invalid UTF-8 bytes count as one character each.
+     */
+    private static int skipCharacters(Slice value, int position, int count)
+    {
+        int length = value.length();
+        for (int i = 0; i < count; i++) {
+            if (position >= length) {
+                return -1;
+            }
+            position += min(lengthOfCodePointSafe(value, position), length - position);
+        }
+        return position;
+    }
+
+    private static class SegmentBuilder
+    {
+        private final List<Slice> literals = new ArrayList<>();
+        private final List<Integer> wildcards = new ArrayList<>();
+        private final StringBuilder literal = new StringBuilder();
+        private int pendingWildcards;
+
+        public void addLiteral(char value)
+        {
+            if (literal.length() == 0) {
+                wildcards.add(pendingWildcards);
+                pendingWildcards = 0;
+            }
+            literal.append(value);
+        }
+
+        public void addWildcard()
+        {
+            flushLiteral();
+            pendingWildcards++;
+        }
+
+        public Segment build()
+        {
+            flushLiteral();
+            return new Segment(
+                    literals.toArray(new Slice[0]),
+                    wildcards.stream().mapToInt(Integer::intValue).toArray(),
+                    pendingWildcards);
+        }
+
+        private void flushLiteral()
+        {
+            if (literal.length() > 0) {
+                literals.add(utf8Slice(literal.toString()));
+                literal.setLength(0);
+            }
+        }
+    }
+
+    /**
+     * A fixed length part of the pattern: literals, each preceded by a number of single character wildcards.
+     */
+    private static class Segment
+    {
+        private final Slice[] literals;
+        private final int[] wildcardsBefore;
+        private final int trailingWildcards;
+        private final boolean hasWildcards;
+
+        public Segment(Slice[] literals, int[] wildcardsBefore, int trailingWildcards)
+        {
+            checkArgument(literals.length == wildcardsBefore.length, "literals and wildcardsBefore have different sizes");
+            this.literals = literals;
+            this.wildcardsBefore = wildcardsBefore;
+            this.trailingWildcards = trailingWildcards;
+
+            boolean hasWildcards = trailingWildcards > 0;
+            for (int wildcards : wildcardsBefore) {
+                hasWildcards |= wildcards > 0;
+            }
+            this.hasWildcards = hasWildcards;
+        }
+
+        public boolean isEmpty()
+        {
+            return literals.length == 0 && trailingWildcards == 0;
+        }
+
+        public boolean isLiteral()
+        {
+            return literals.length == 1 && !hasWildcards;
+        }
+
+        public Slice getLiteral()
+        {
+            checkArgument(isLiteral(), "segment is not a literal");
+            return literals[0];
+        }
+
+        /**
+         * Returns the end of the segment matched at the given position, or -1 if it does not match there.
+         */
+        public int matchAt(Slice value, int position)
+        {
+            for (int i = 0; i < literals.length; i++) {
+                position = skipCharacters(value, position, wildcardsBefore[i]);
+                if (position < 0) {
+                    return -1;
+                }
+                Slice literal = literals[i];
+                if (value.length() - position < literal.length() || !value.equals(position, literal.length(), literal, 0, literal.length())) {
+                    return -1;
+                }
+                position += literal.length();
+            }
+            return skipCharacters(value, position, trailingWildcards);
+        }
+
+        /**
+         * Returns the end of the leftmost match of the segment starting at or after the given position, or -1 if there is none.
+         */
+        public int find(Slice value, int position)
+        {
+            if (literals.length > 0 && wildcardsBefore[0] == 0) {
+                // only positions where the leading literal occurs can match
+                Slice leadingLiteral = literals[0];
+                while (true) {
+                    position = value.indexOf(leadingLiteral, position);
+                    if (position < 0) {
+                        return -1;
+                    }
+                    int end = matchAt(value, position);
+                    if (end >= 0) {
+                        return end;
+                    }
+                    position++;
+                }
+            }
+
+            int length = value.length();
+            while (position <= length) {
+                int end = matchAt(value, position);
+                if (end >= 0) {
+                    return end;
+                }
+                if (position == length) {
+                    return -1;
+                }
+                position += min(lengthOfCodePointSafe(value, position), length - position);
+            }
+            return -1;
+        }
+
+        /**
+         * Returns whether the segment matches the end of the value, starting at or after the given position.
+         */
+        public boolean matchesSuffix(Slice value, int position)
+        {
+            int length = value.length();
+            if (!hasWildcards) {
+                int literalLength = literals.length == 0 ? 0 : literals[0].length();
+                int start = length - literalLength;
+                return start >= position && matchAt(value, start) == length;
+            }
+            while (position <= length) {
+                if (matchAt(value, position) == length) {
+                    return true;
+                }
+                if (position == length) {
+                    return false;
+                }
+                position += min(lengthOfCodePointSafe(value, position), length - position);
+            }
+            return false;
+        }
+    }
+}
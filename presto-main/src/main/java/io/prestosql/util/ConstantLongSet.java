@@ -0,0 +1,88 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.util;
+
+import java.util.Collection;
+
+import static it.unimi.dsi.fastutil.HashCommon.arraySize;
+import static it.unimi.dsi.fastutil.HashCommon.murmurHash3;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An immutable set of longs compared by value, for the constant values of an IN list.
+ * <p>
+ * The values are stored in an open addressing table at most half full, so a lookup
+ * usually probes one or two adjacent slots. Zero marks an empty slot, so whether the
+ * set contains zero is stored separately.
+ */
+public final class ConstantLongSet
+{
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private final long[] table;
+    private final int mask;
+    private final boolean containsZero;
+    private final int size;
+
+    public ConstantLongSet(Collection<Long> values)
+    {
+        requireNonNull(values, "values is null");
+
+        table = new long[arraySize(values.size(), LOAD_FACTOR)];
+        mask = table.length - 1;
+
+        boolean containsZero = false;
+        int size = 0;
+        for (long value : values) {
+            if (value == 0) {
+                size += containsZero ? 0 : 1;
+                containsZero = true;
+                continue;
+            }
+            int slot = (int) murmurHash3(value) & mask;
+            while (table[slot] != 0 && table[slot] != value) {
+                slot = (slot + 1) & mask;
+            }
+            if (table[slot] == 0) {
+                table[slot] = value;
+                size++;
+            }
+        }
+        this.containsZero = containsZero;
+        this.size = size;
+    }
+
+    public boolean contains(long value)
+    {
+        if (value == 0) {
+            return containsZero;
+        }
+        int slot = (int) murmurHash3(value) & mask;
+        while (true) {
+            long current = table[slot];
+            if (current == value) {
+                return true;
+            }
+            if (current == 0) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public int size()
+    {
+        return size;
+    }
+}
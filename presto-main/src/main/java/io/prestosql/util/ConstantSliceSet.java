@@ -0,0 +1,90 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.util;
+
+import io.airlift.slice.Slice;
+import io.airlift.slice.XxHash64;
+
+import java.util.Collection;
+
+import static it.unimi.dsi.fastutil.HashCommon.arraySize;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An immutable set of slices compared by their bytes, for the constant values of an IN list.
+ * <p>
+ * The values and their hashes are stored in an open addressing table at most half full.
+ * A lookup hashes the value once, and only compares the bytes of values with the same hash.
+ */
+public final class ConstantSliceSet
+{
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private final Slice[] values;
+    private final long[] hashes;
+    private final int mask;
+    private final int size;
+
+    public ConstantSliceSet(Collection<Slice> values)
+    {
+        requireNonNull(values, "values is null");
+
+        int capacity = arraySize(values.size(), LOAD_FACTOR);
+        this.values = new Slice[capacity];
+        hashes = new long[capacity];
+        mask = capacity - 1;
+
+        int size = 0;
+        for (Slice value : values) {
+            long hash = XxHash64.hash(value);
+            int slot = slot(hash);
+            while (this.values[slot] != null && !(hashes[slot] == hash && this.values[slot].equals(value))) {
+                slot = (slot + 1) & mask;
+            }
+            if (this.values[slot] == null) {
+                this.values[slot] = value;
+                hashes[slot] = hash;
+                size++;
+            }
+        }
+        this.size = size;
+    }
+
+    public boolean contains(Slice value)
+    {
+        long hash = XxHash64.hash(value);
+        int slot = slot(hash);
+        while (true) {
+            Slice current = values[slot];
+            if (current == null) {
+                return false;
+            }
+            if (hashes[slot] == hash && current.equals(value)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    private int slot(long hash)
+    {
+        // the low bits of the hash select the slot, and the compared hash rules out most collisions
+        return (int) hash & mask;
+    }
+}
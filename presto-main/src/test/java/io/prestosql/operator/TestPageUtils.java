@@ -16,9 +16,12 @@ package io.prestosql.operator;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.LazyBlock;
+import io.prestosql.spi.block.LazyBlockLoader;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static io.prestosql.block.BlockAssertions.createIntsBlock;
 import static io.prestosql.operator.PageUtils.recordMaterializedBytes;
@@ -45,6 +48,31 @@ public class TestPageUtils
         assertEquals(sizeInBytes.get(), first.getSizeInBytes() * 3);
     }
 
+    @Test
+    public void testRecordMaterializedBytesForwardsSelectedPositions()
+    {
+        Block block = createIntsBlock(1, 2, 3);
+        AtomicReference<int[]> selectedPositions = new AtomicReference<>();
+        LazyBlock lazyBlock = new LazyBlock(3, new LazyBlockLoader<LazyBlock>()
+        {
+            @Override
+            public void load(LazyBlock lazyBlock)
+            {
+                lazyBlock.setBlock(block);
+            }
+
+            @Override
+            public void setSelectedPositions(int[] positions, int offset, int length)
+            {
+                selectedPositions.set(Arrays.copyOfRange(positions, offset, offset + length));
+            }
+        });
+
+        Page page = recordMaterializedBytes(new Page(3, lazyBlock), sizeInBytes -> {});
+        ((LazyBlock) page.getBlock(0)).setSelectedPositions(new int[] {0, 2}, 0, 2);
+        assertEquals(selectedPositions.get(), new int[] {0, 2});
+    }
+
     private static LazyBlock lazyWrapper(Block block)
     {
         return new LazyBlock(block.getPositionCount(), lazyBlock -> lazyBlock.setBlock(block.getLoadedBlock()));
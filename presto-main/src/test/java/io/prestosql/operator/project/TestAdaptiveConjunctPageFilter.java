@@ -0,0 +1,214 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.testing.TestingTicker;
+import io.prestosql.operator.project.FilterConjunctsInfo.ConjunctStats;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.connector.ConnectorSession;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.function.LongPredicate;
+
+import static io.prestosql.block.BlockAssertions.createLongSequenceBlock;
+import static io.prestosql.operator.project.AdaptiveConjunctPageFilter.REORDER_INTERVAL_PAGES;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestAdaptiveConjunctPageFilter
+{
+    @Test
+    public void testInputChannels()
+    {
+        TestingTicker ticker = new TestingTicker();
+        AdaptiveConjunctPageFilter filter = new AdaptiveConjunctPageFilter(
+                ImmutableList.of("a", "b"),
+                ImmutableList.of(
+                        new LongFilter(ticker, 0, 5, value -> value % 2 == 0),
+                        new LongFilter(ticker, 0, 3, 5, value -> value < 50)),
+                ticker);
+        assertEquals(filter.getInputChannels().getInputChannels(), ImmutableList.of(5, 3));
+
+        Page page = new Page(createLongSequenceBlock(0, 100), createLongSequenceBlock(0, 100));
+        assertSelected(filter.filter(null, page), value -> value % 2 == 0 && value < 50, 100);
+    }
+
+    @Test
+    public void testReorder()
+    {
+        TestingTicker ticker = new TestingTicker();
+        AdaptiveConjunctPageFilter filter = new AdaptiveConjunctPageFilter(
+                ImmutableList.of("expensive", "selective"),
+                ImmutableList.of(
+                        new LongFilter(ticker, 100, 0, value -> value % 10 != 0),
+                        new LongFilter(ticker, 1, 0, value -> value % 10 == 1)),
+                ticker);
+
+        Page page = new Page(createLongSequenceBlock(0, 100));
+        for (int i = 0; i < REORDER_INTERVAL_PAGES; i++) {
+            assertEquals(filter.getInfo().getEvaluationOrder(), ImmutableList.of(0, 1));
+            assertSelected(filter.filter(null, page), value -> value % 10 == 1, 100);
+        }
+
+        assertEquals(filter.getInfo().getEvaluationOrder(), ImmutableList.of(1, 0));
+        assertSelected(filter.filter(null, page), value -> value % 10 == 1, 100);
+
+        FilterConjunctsInfo info = filter.getInfo();
+        ConjunctStats expensive = info.getConjuncts().get(0);
+        assertEquals(expensive.getExpression(), "expensive");
+        assertEquals(expensive.getInputPositions(), REORDER_INTERVAL_PAGES * 100 + 10);
+        assertEquals(expensive.getOutputPositions(), REORDER_INTERVAL_PAGES * 90 + 10);
+        assertEquals(expensive.getCpuNanos(), expensive.getInputPositions() * 100);
+        ConjunctStats selective = info.getConjuncts().get(1);
+        assertEquals(selective.getInputPositions(), REORDER_INTERVAL_PAGES * 90 + 100);
+        assertEquals(selective.getOutputPositions(), (REORDER_INTERVAL_PAGES + 1) * 10);
+    }
+
+    @Test
+    public void testFailureOutOfWrittenOrder()
+    {
+        TestingTicker ticker = new TestingTicker();
+        AdaptiveConjunctPageFilter filter = new AdaptiveConjunctPageFilter(
+                ImmutableList.of("x <> 0", "100 / x > 10"),
+                ImmutableList.of(
+                        new LongFilter(ticker, 100, 0, value -> value != 0),
+                        new LongFilter(ticker, 1, 0, value -> 100 / value > 10)),
+                ticker);
+
+        // no zeros until the conjuncts are reordered
+        Page page = new Page(createLongSequenceBlock(1, 101));
+        for (int i = 0; i < REORDER_INTERVAL_PAGES; i++) {
+            filter.filter(null, page);
+        }
+        assertEquals(filter.getInfo().getEvaluationOrder(), ImmutableList.of(1, 0));
+
+        // the page is filtered again in the written order
+        page = new Page(createLongSequenceBlock(0, 100));
+        assertSelected(filter.filter(null, page), value -> value != 0 && 100 / value > 10, 100);
+        assertEquals(filter.getInfo().getEvaluationOrder(), ImmutableList.of(0, 1));
+
+        // and the filter stays in the written order
+        for (int i = 0; i < REORDER_INTERVAL_PAGES; i++) {
+            assertSelected(filter.filter(null, page), value -> value != 0 && 100 / value > 10, 100);
+        }
+        assertEquals(filter.getInfo().getEvaluationOrder(), ImmutableList.of(0, 1));
+    }
+
+    @Test
+    public void testRank()
+    {
+        assertEquals(AdaptiveConjunctPageFilter.rank(0, 0, 0), Double.POSITIVE_INFINITY);
+        assertEquals(AdaptiveConjunctPageFilter.rank(100, 100, 10), Double.MAX_VALUE);
+        assertEquals(AdaptiveConjunctPageFilter.rank(100, 50, 100), 2.0);
+        assertTrue(AdaptiveConjunctPageFilter.rank(100, 10, 100) < AdaptiveConjunctPageFilter.rank(100, 90, 100));
+    }
+
+    @Test
+    public void testInfoMerge()
+    {
+        FilterConjunctsInfo left = new FilterConjunctsInfo(
+                ImmutableList.of(new ConjunctStats("a", 100, 50, 1000), new ConjunctStats("b", 50, 10, 100)),
+                ImmutableList.of(0, 1));
+        FilterConjunctsInfo right = new FilterConjunctsInfo(
+                ImmutableList.of(new ConjunctStats("a", 200, 100, 2000), new ConjunctStats("b", 400, 20, 800)),
+                ImmutableList.of(1, 0));
+
+        FilterConjunctsInfo merged = left.mergeWith(right);
+        assertEquals(merged.getEvaluationOrder(), ImmutableList.of(1, 0));
+        List<ConjunctStats> conjuncts = merged.getConjuncts();
+        assertEquals(conjuncts.get(0).getInputPositions(), 300);
+        assertEquals(conjuncts.get(0).getOutputPositions(), 150);
+        assertEquals(conjuncts.get(0).getCpuNanos(), 3000);
+        assertEquals(conjuncts.get(1).getInputPositions(), 450);
+        assertEquals(conjuncts.get(1).getOutputPositions(), 30);
+        assertEquals(conjuncts.get(1).getCpuNanos(), 900);
+    }
+
+    private static void assertSelected(SelectedPositions selectedPositions, LongPredicate predicate, int positionCount)
+    {
+        IntArrayList expected = new IntArrayList();
+        for (int position = 0; position < positionCount; position++) {
+            if (predicate.test(position)) {
+                expected.add(position);
+            }
+        }
+
+        IntArrayList actual = new IntArrayList();
+        for (int i = 0; i < selectedPositions.size(); i++) {
+            actual.add(selectedPositions.isList() ? selectedPositions.getPositions()[selectedPositions.getOffset() + i] : selectedPositions.getOffset() + i);
+        }
+        assertEquals(actual, expected);
+    }
+
+    private static class LongFilter
+            implements PageFilter
+    {
+        private final TestingTicker ticker;
+        private final long nanosPerPosition;
+        private final InputChannels inputChannels;
+        private final LongPredicate predicate;
+
+        public LongFilter(TestingTicker ticker, long nanosPerPosition, int channel, LongPredicate predicate)
+        {
+            this(ticker, nanosPerPosition, new InputChannels(channel), predicate);
+        }
+
+        public LongFilter(TestingTicker ticker, long nanosPerPosition, int firstChannel, int secondChannel, LongPredicate predicate)
+        {
+            this(ticker, nanosPerPosition, new InputChannels(firstChannel, secondChannel), predicate);
+        }
+
+        private LongFilter(TestingTicker ticker, long nanosPerPosition, InputChannels inputChannels, LongPredicate predicate)
+        {
+            this.ticker = ticker;
+            this.nanosPerPosition = nanosPerPosition;
+            this.inputChannels = inputChannels;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean isDeterministic()
+        {
+            return true;
+        }
+
+        @Override
+        public InputChannels getInputChannels()
+        {
+            return inputChannels;
+        }
+
+        @Override
+        public SelectedPositions filter(ConnectorSession session, Page page)
+        {
+            assertEquals(page.getChannelCount(), inputChannels.size());
+            ticker.increment(nanosPerPosition * page.getPositionCount(), NANOSECONDS);
+
+            // the predicate is evaluated on the first channel
+            Block block = page.getBlock(0);
+            IntArrayList selected = new IntArrayList();
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                if (predicate.test(block.getLong(position, 0))) {
+                    selected.add(position);
+                }
+            }
+            return SelectedPositions.positionsList(selected.toIntArray(), 0, selected.size());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.operator.project.CommonSubExpressionRewriter.Result;
+import io.prestosql.spi.function.OperatorType;
+import io.prestosql.sql.relational.DeterminismEvaluator;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.relational.SpecialForm;
+import io.prestosql.sql.tree.QualifiedName;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.metadata.Signature.internalOperator;
+import static io.prestosql.operator.project.CommonSubExpressionRewriter.rewriteCommonSubExpressions;
+import static io.prestosql.spi.function.OperatorType.ADD;
+import static io.prestosql.spi.function.OperatorType.GREATER_THAN;
+import static io.prestosql.spi.function.OperatorType.SUBTRACT;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.sql.analyzer.TypeSignatureProvider.fromTypes;
+import static io.prestosql.sql.relational.Expressions.call;
+import static io.prestosql.sql.relational.Expressions.constant;
+import static io.prestosql.sql.relational.Expressions.field;
+import static io.prestosql.sql.relational.SpecialForm.Form.AND;
+import static io.prestosql.sql.relational.SpecialForm.Form.IF;
+import static org.testng.Assert.assertEquals;
+
+public class TestCommonSubExpressionRewriter
+{
+    private static final Metadata METADATA = createTestMetadataManager();
+    private static final DeterminismEvaluator DETERMINISM_EVALUATOR = new DeterminismEvaluator(METADATA);
+
+    private static final RowExpression X = field(0, BIGINT);
+    private static final RowExpression Y = field(1, BIGINT);
+    private static final RowExpression ABS_X = call(METADATA.resolveFunction(QualifiedName.of("abs"), fromTypes(BIGINT)), BIGINT, X);
+
+    @Test
+    public void testSharedByFilterAndProjections()
+    {
+        Result result = rewrite(
+                Optional.of(greaterThan(ABS_X, constant(0L, BIGINT))),
+                ImmutableList.of(ABS_X, Y, operator(ADD, ABS_X, Y)));
+
+        assertEquals(result.getFirstSubExpressionChannel(), 2);
+        assertEquals(result.getFilterSubExpressions(), ImmutableList.of(ABS_X));
+        assertEquals(result.getProjectionSubExpressions(), ImmutableList.of());
+        assertEquals(result.getRewrittenFilter(), Optional.of(greaterThan(field(2, BIGINT), constant(0L, BIGINT))));
+        assertEquals(result.getRewrittenProjections(), ImmutableList.of(field(2, BIGINT), Y, operator(ADD, field(2, BIGINT), Y)));
+    }
+
+    @Test
+    public void testSharedByProjections()
+    {
+        Result result = rewrite(
+                Optional.of(greaterThan(Y, constant(0L, BIGINT))),
+                ImmutableList.of(operator(ADD, ABS_X, constant(1L, BIGINT)), operator(ADD, ABS_X, constant(2L, BIGINT))));
+
+        assertEquals(result.getFilterSubExpressions(), ImmutableList.of());
+        assertEquals(result.getProjectionSubExpressions(), ImmutableList.of(ABS_X));
+        assertEquals(result.getRewrittenFilter(), Optional.of(greaterThan(Y, constant(0L, BIGINT))));
+        assertEquals(result.getRewrittenProjections(), ImmutableList.of(
+                operator(ADD, field(2, BIGINT), constant(1L, BIGINT)),
+                operator(ADD, field(2, BIGINT), constant(2L, BIGINT))));
+    }
+
+    @Test
+    public void testFilterAndProjectionSubExpressions()
+    {
+        RowExpression shiftedAbsX = operator(ADD, ABS_X, Y);
+        Result result = rewrite(
+                Optional.of(greaterThan(ABS_X, constant(0L, BIGINT))),
+                ImmutableList.of(operator(SUBTRACT, shiftedAbsX, constant(1L, BIGINT)), shiftedAbsX));
+
+        // the projection subexpression reads the filter subexpression, which gets the first channel
+        assertEquals(result.getFilterSubExpressions(), ImmutableList.of(ABS_X));
+        assertEquals(result.getProjectionSubExpressions(), ImmutableList.of(operator(ADD, field(2, BIGINT), Y)));
+        assertEquals(result.getRewrittenFilter(), Optional.of(greaterThan(field(2, BIGINT), constant(0L, BIGINT))));
+        assertEquals(result.getRewrittenProjections(), ImmutableList.of(operator(SUBTRACT, field(3, BIGINT), constant(1L, BIGINT)), field(3, BIGINT)));
+    }
+
+    @Test
+    public void testConditionalOccurrences()
+    {
+        // only evaluated for some positions in every expression
+        assertNotRewritten(Optional.empty(), ImmutableList.of(
+                new SpecialForm(IF, BIGINT, greaterThan(Y, constant(0L, BIGINT)), ABS_X, constant(0L, BIGINT)),
+                new SpecialForm(IF, BIGINT, greaterThan(Y, constant(1L, BIGINT)), ABS_X, constant(0L, BIGINT))));
+
+        // not evaluated when the preceding argument is null
+        assertNotRewritten(Optional.empty(), ImmutableList.of(operator(ADD, Y, ABS_X), operator(SUBTRACT, Y, ABS_X)));
+
+        // evaluated for all positions by the filter
+        Result result = rewrite(
+                Optional.of(new SpecialForm(AND, BOOLEAN, greaterThan(ABS_X, constant(0L, BIGINT)), greaterThan(ABS_X, Y))),
+                ImmutableList.of());
+        assertEquals(result.getFilterSubExpressions(), ImmutableList.of(ABS_X));
+
+        // conditional in the filter, but evaluated for the selected positions by a projection
+        RowExpression filter = new SpecialForm(AND, BOOLEAN, greaterThan(Y, constant(0L, BIGINT)), greaterThan(ABS_X, constant(1L, BIGINT)));
+        result = rewrite(Optional.of(filter), ImmutableList.of(ABS_X, operator(ADD, ABS_X, Y)));
+        assertEquals(result.getFilterSubExpressions(), ImmutableList.of());
+        assertEquals(result.getProjectionSubExpressions(), ImmutableList.of(ABS_X));
+        assertEquals(result.getRewrittenFilter(), Optional.of(filter));
+        assertEquals(result.getRewrittenProjections(), ImmutableList.of(field(2, BIGINT), operator(ADD, field(2, BIGINT), Y)));
+    }
+
+    @Test
+    public void testNotExtracted()
+    {
+        // cheap operators on columns
+        assertNotRewritten(Optional.of(greaterThan(X, Y)), ImmutableList.of(greaterThan(X, Y), operator(ADD, X, Y), operator(ADD, X, Y)));
+
+        // constants
+        RowExpression constantAbs = call(METADATA.resolveFunction(QualifiedName.of("abs"), fromTypes(BIGINT)), BIGINT, constant(-1L, BIGINT));
+        assertNotRewritten(Optional.empty(), ImmutableList.of(constantAbs, constantAbs));
+
+        // non-deterministic functions
+        RowExpression random = call(METADATA.resolveFunction(QualifiedName.of("random"), fromTypes(BIGINT)), BIGINT, X);
+        assertNotRewritten(Optional.empty(), ImmutableList.of(random, random));
+    }
+
+    private static void assertNotRewritten(Optional<RowExpression> filter, List<RowExpression> projections)
+    {
+        Result result = rewrite(filter, projections);
+        assertEquals(result.getFilterSubExpressions(), ImmutableList.of());
+        assertEquals(result.getProjectionSubExpressions(), ImmutableList.of());
+        assertEquals(result.getRewrittenFilter(), filter);
+        assertEquals(result.getRewrittenProjections(), projections);
+    }
+
+    private static Result rewrite(Optional<RowExpression> filter, List<RowExpression> projections)
+    {
+        return rewriteCommonSubExpressions(filter, projections, DETERMINISM_EVALUATOR);
+    }
+
+    private static RowExpression greaterThan(RowExpression left, RowExpression right)
+    {
+        return call(internalOperator(GREATER_THAN, BOOLEAN, ImmutableList.of(BIGINT, BIGINT)), BOOLEAN, left, right);
+    }
+
+    private static RowExpression operator(OperatorType operator, RowExpression left, RowExpression right)
+    {
+        return call(internalOperator(operator, BIGINT, ImmutableList.of(BIGINT, BIGINT)), BIGINT, left, right);
+    }
+}
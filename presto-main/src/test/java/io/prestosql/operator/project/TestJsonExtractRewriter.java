@@ -0,0 +1,235 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.operator.DriverYieldSignal;
+import io.prestosql.operator.project.JsonExtractRewriter.Result;
+import io.prestosql.operator.scalar.JsonExtract;
+import io.prestosql.operator.scalar.JsonPath;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.sql.gen.ExpressionCompiler;
+import io.prestosql.sql.gen.PageFunctionCompiler;
+import io.prestosql.sql.relational.CallExpression;
+import io.prestosql.sql.relational.ConstantExpression;
+import io.prestosql.sql.relational.DeterminismEvaluator;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.relational.SpecialForm;
+import io.prestosql.sql.tree.QualifiedName;
+import org.testng.annotations.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.collect.Iterators.getOnlyElement;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.operator.project.JsonExtractRewriter.rewriteJsonExtracts;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.sql.analyzer.TypeSignatureProvider.fromTypes;
+import static io.prestosql.sql.relational.Expressions.call;
+import static io.prestosql.sql.relational.Expressions.constant;
+import static io.prestosql.sql.relational.Expressions.field;
+import static io.prestosql.sql.relational.SpecialForm.Form.IF;
+import static io.prestosql.testing.TestingConnectorSession.SESSION;
+import static io.prestosql.type.JsonPathType.JSON_PATH;
+import static io.prestosql.type.JsonType.JSON;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestJsonExtractRewriter
+{
+    private static final Metadata METADATA = createTestMetadataManager();
+    private static final DeterminismEvaluator DETERMINISM_EVALUATOR = new DeterminismEvaluator(METADATA);
+
+    private static final RowExpression X = field(0, VARCHAR);
+    private static final RowExpression Y = field(1, VARCHAR);
+
+    @Test
+    public void testCombinedByProjections()
+    {
+        List<RowExpression> projections = ImmutableList.of(
+                jsonExtractScalar(X, "$.a"),
+                jsonExtractScalar(X, "$.b.c"),
+                jsonExtract(X, "$.b"),
+                jsonExtractScalar(X, "$.a"));
+        Result result = rewrite(Optional.empty(), projections);
+
+        List<RowExpression> rewritten = result.getRewrittenProjections();
+        RowExpression combined = ((CallExpression) rewritten.get(0)).getArguments().get(0);
+        assertEquals(((CallExpression) combined).getSignature().getName(), "$json_extract_multiple");
+        for (RowExpression projection : rewritten) {
+            assertTrue(JsonExtractRewriter.isCombinedElement(projection));
+            assertEquals(((CallExpression) projection).getArguments().get(0), combined);
+        }
+        assertEquals(rewritten.get(3), rewritten.get(0));
+        assertEquals(rewritten.get(2).getType(), JSON);
+
+        assertSameResults(Optional.empty(), projections);
+    }
+
+    @Test
+    public void testCombinedWithinProjection()
+    {
+        List<RowExpression> projections = ImmutableList.of(concat(jsonExtractScalar(X, "$.a"), jsonExtractScalar(X, "$.b")));
+        Result result = rewrite(Optional.empty(), projections);
+
+        CallExpression rewritten = (CallExpression) getOnlyElement(result.getRewrittenProjections().iterator());
+        assertTrue(JsonExtractRewriter.isCombinedElement(rewritten.getArguments().get(0)));
+        assertTrue(JsonExtractRewriter.isCombinedElement(rewritten.getArguments().get(1)));
+    }
+
+    @Test
+    public void testCombinedByFilterAndProjection()
+    {
+        Optional<RowExpression> filter = Optional.of(isNotNull(jsonExtractScalar(X, "$.a")));
+        List<RowExpression> projections = ImmutableList.of(jsonExtract(X, "$.b"));
+        Result result = rewrite(filter, projections);
+
+        assertTrue(JsonExtractRewriter.isCombinedElement(getOnlyElement(result.getRewrittenProjections().iterator())));
+        assertSameResults(filter, projections);
+    }
+
+    @Test
+    public void testNotCombined()
+    {
+        // a single path
+        assertNotRewritten(Optional.empty(), ImmutableList.of(jsonExtractScalar(X, "$.a"), jsonExtractScalar(X, "$.a")));
+
+        // different inputs
+        assertNotRewritten(Optional.empty(), ImmutableList.of(jsonExtractScalar(X, "$.a"), jsonExtractScalar(Y, "$.b")));
+
+        // only evaluated conditionally
+        RowExpression condition = isNotNull(Y);
+        assertNotRewritten(Optional.empty(), ImmutableList.of(
+                new SpecialForm(IF, VARCHAR, condition, jsonExtractScalar(X, "$.a"), Y),
+                new SpecialForm(IF, VARCHAR, condition, jsonExtractScalar(X, "$.b"), Y)));
+    }
+
+    @Test
+    public void testConditionalOccurrences()
+    {
+        RowExpression condition = isNotNull(Y);
+        List<RowExpression> projections = ImmutableList.of(
+                jsonExtractScalar(X, "$.a"),
+                new SpecialForm(IF, VARCHAR, condition, jsonExtractScalar(X, "$.b"), Y));
+        Result result = rewrite(Optional.empty(), projections);
+
+        assertNotEquals(result.getRewrittenProjections(), projections);
+        assertSameResults(Optional.empty(), projections);
+    }
+
+    private static void assertNotRewritten(Optional<RowExpression> filter, List<RowExpression> projections)
+    {
+        Result result = rewrite(filter, projections);
+        assertEquals(result.getRewrittenFilter(), filter);
+        assertEquals(result.getRewrittenProjections(), projections);
+    }
+
+    private static Result rewrite(Optional<RowExpression> filter, List<RowExpression> projections)
+    {
+        return rewriteJsonExtracts(filter, projections, METADATA, DETERMINISM_EVALUATOR);
+    }
+
+    private static void assertSameResults(Optional<RowExpression> filter, List<RowExpression> projections)
+    {
+        List<String> documents = ImmutableList.of(
+                "{\"a\": 1, \"b\": {\"c\": \"x\"}}",
+                "{\"b\": {\"c\": [1, 2]}, \"a\": \"y\"}",
+                "{\"b\": {\"c\": 3}}",
+                "{\"a\": 1, \"b\": bad}",
+                "not json");
+        BlockBuilder blockBuilder = VARCHAR.createBlockBuilder(null, documents.size() + 1);
+        for (String document : documents) {
+            VARCHAR.writeSlice(blockBuilder, utf8Slice(document));
+        }
+        blockBuilder.appendNull();
+        Page page = new Page(blockBuilder.build(), blockBuilder.build());
+
+        PageProcessor processor = new ExpressionCompiler(METADATA, new PageFunctionCompiler(METADATA, 0))
+                .compilePageProcessor(filter, projections, page.getPositionCount())
+                .get();
+        Iterator<Optional<Page>> output = processor.process(
+                SESSION,
+                new DriverYieldSignal(),
+                newSimpleAggregatedMemoryContext().newLocalMemoryContext(PageProcessor.class.getSimpleName()),
+                page);
+        Page actual = getOnlyElement(output).orElseThrow(AssertionError::new);
+
+        // the filter, if any, selects the documents with a value for $.a
+        Block input = page.getBlock(0);
+        int outputPosition = 0;
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            if (filter.isPresent() && (input.isNull(position) || JsonExtract.extract(VARCHAR.getSlice(input, position), new JsonPath("$.a").getScalarExtractor()) == null)) {
+                continue;
+            }
+            for (int channel = 0; channel < projections.size(); channel++) {
+                Block block = actual.getBlock(channel);
+                Object expected = evaluate(projections.get(channel), page, position);
+                assertEquals(block.isNull(outputPosition) ? null : VARCHAR.getSlice(block, outputPosition), expected);
+            }
+            outputPosition++;
+        }
+        assertEquals(actual.getPositionCount(), outputPosition);
+    }
+
+    private static Object evaluate(RowExpression expression, Page page, int position)
+    {
+        if (expression instanceof SpecialForm) {
+            SpecialForm specialForm = (SpecialForm) expression;
+            boolean condition = !page.getBlock(1).isNull(position);
+            RowExpression branch = specialForm.getArguments().get(condition ? 1 : 2);
+            return evaluate(branch, page, position);
+        }
+        if (!(expression instanceof CallExpression)) {
+            return page.getBlock(1).isNull(position) ? null : VARCHAR.getSlice(page.getBlock(1), position);
+        }
+
+        CallExpression call = (CallExpression) expression;
+        Block input = page.getBlock(0);
+        if (input.isNull(position)) {
+            return null;
+        }
+        JsonPath path = (JsonPath) ((ConstantExpression) call.getArguments().get(1)).getValue();
+        boolean scalar = call.getSignature().getName().equals("json_extract_scalar");
+        return JsonExtract.extract(VARCHAR.getSlice(input, position), scalar ? path.getScalarExtractor() : path.getObjectExtractor());
+    }
+
+    private static RowExpression jsonExtractScalar(RowExpression input, String path)
+    {
+        return call(METADATA.resolveFunction(QualifiedName.of("json_extract_scalar"), fromTypes(VARCHAR, JSON_PATH)), VARCHAR, input, constant(new JsonPath(path), JSON_PATH));
+    }
+
+    private static RowExpression jsonExtract(RowExpression input, String path)
+    {
+        return call(METADATA.resolveFunction(QualifiedName.of("json_extract"), fromTypes(VARCHAR, JSON_PATH)), JSON, input, constant(new JsonPath(path), JSON_PATH));
+    }
+
+    private static RowExpression concat(RowExpression left, RowExpression right)
+    {
+        return call(METADATA.resolveFunction(QualifiedName.of("concat"), fromTypes(VARCHAR, VARCHAR)), VARCHAR, left, right);
+    }
+
+    private static RowExpression isNotNull(RowExpression expression)
+    {
+        return call(METADATA.resolveFunction(QualifiedName.of("not"), fromTypes(BOOLEAN)), BOOLEAN, new SpecialForm(SpecialForm.Form.IS_NULL, BOOLEAN, expression));
+    }
+}
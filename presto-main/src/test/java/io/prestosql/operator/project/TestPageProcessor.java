@@ -20,18 +20,23 @@ import io.airlift.testing.TestingTicker;
 import io.airlift.units.Duration;
 import io.prestosql.memory.context.AggregatedMemoryContext;
 import io.prestosql.memory.context.LocalMemoryContext;
+import io.prestosql.metadata.Metadata;
 import io.prestosql.operator.CompletedWork;
 import io.prestosql.operator.DriverYieldSignal;
 import io.prestosql.operator.Work;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.LazyBlock;
+import io.prestosql.spi.block.LazyBlockLoader;
 import io.prestosql.spi.block.VariableWidthBlock;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.type.Type;
+import io.prestosql.sql.gen.ExpressionCompiler;
 import io.prestosql.sql.gen.ExpressionProfiler;
 import io.prestosql.sql.gen.PageFunctionCompiler;
 import io.prestosql.sql.relational.CallExpression;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.tree.QualifiedName;
 import org.openjdk.jol.info.ClassLayout;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.Test;
@@ -47,6 +52,7 @@ import java.util.function.Supplier;
 
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.prestosql.block.BlockAssertions.createLongSequenceBlock;
+import static io.prestosql.block.BlockAssertions.createLongsBlock;
 import static io.prestosql.block.BlockAssertions.createSlicesBlock;
 import static io.prestosql.block.BlockAssertions.createStringsBlock;
 import static io.prestosql.execution.executor.PrioritizedSplitRunner.SPLIT_RUN_QUANTA;
@@ -57,10 +63,15 @@ import static io.prestosql.operator.PageAssertions.assertPageEquals;
 import static io.prestosql.operator.project.PageProcessor.MAX_BATCH_SIZE;
 import static io.prestosql.operator.project.PageProcessor.MAX_PAGE_SIZE_IN_BYTES;
 import static io.prestosql.operator.project.PageProcessor.MIN_PAGE_SIZE_IN_BYTES;
+import static io.prestosql.operator.project.SelectedPositions.positionsList;
 import static io.prestosql.operator.project.SelectedPositions.positionsRange;
 import static io.prestosql.spi.function.OperatorType.ADD;
+import static io.prestosql.spi.function.OperatorType.DIVIDE;
+import static io.prestosql.spi.function.OperatorType.GREATER_THAN;
 import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.sql.analyzer.TypeSignatureProvider.fromTypes;
 import static io.prestosql.sql.relational.Expressions.call;
 import static io.prestosql.sql.relational.Expressions.constant;
 import static io.prestosql.sql.relational.Expressions.field;
@@ -138,6 +149,23 @@ public class TestPageProcessor
         assertPageEquals(ImmutableList.of(BIGINT), outputPages.get(0).orElse(null), new Page(createLongSequenceBlock(25, 75)));
     }
 
+    @Test
+    public void testPartialFilterSelectsLazyBlockPositions()
+    {
+        PageProcessor pageProcessor = new PageProcessor(
+                Optional.of(new TestingPageFilter(positionsList(new int[] {-1, 3, 10, 42, -1}, 1, 3))),
+                ImmutableList.of(new InputPageProjection(1, BIGINT)),
+                OptionalInt.of(MAX_BATCH_SIZE));
+
+        SelectionRecordingLoader loader = new SelectionRecordingLoader(createLongSequenceBlock(0, 100));
+        Page inputPage = new Page(createLongSequenceBlock(0, 100), new LazyBlock(100, loader));
+
+        List<Optional<Page>> outputPages = ImmutableList.copyOf(processAndAssertRetainedPageSize(pageProcessor, inputPage));
+        assertEquals(outputPages.size(), 1);
+        assertPageEquals(ImmutableList.of(BIGINT), outputPages.get(0).orElse(null), new Page(createLongsBlock(3L, 10L, 42L)));
+        assertEquals(loader.getSelectedPositions(), new int[] {3, 10, 42});
+    }
+
     @Test
     public void testSelectAllFilter()
     {
@@ -418,6 +446,34 @@ public class TestPageProcessor
         assertFalse(output.hasNext());
     }
 
+    @Test
+    public void testCommonSubExpressions()
+    {
+        Metadata metadata = createTestMetadataManager();
+        ExpressionCompiler compiler = new ExpressionCompiler(metadata, new PageFunctionCompiler(metadata, 0));
+
+        RowExpression absolute = call(metadata.resolveFunction(QualifiedName.of("abs"), fromTypes(BIGINT)), BIGINT, field(0, BIGINT));
+        RowExpression quotient = call(internalOperator(DIVIDE, BIGINT, ImmutableList.of(BIGINT, BIGINT)), BIGINT, constant(100L, BIGINT), absolute);
+
+        // abs is computed before the filter, and the quotient only for the selected positions, as it fails for the others
+        PageProcessor pageProcessor = compiler.compilePageProcessor(
+                Optional.of(call(internalOperator(GREATER_THAN, BOOLEAN, ImmutableList.of(BIGINT, BIGINT)), BOOLEAN, absolute, constant(0L, BIGINT))),
+                ImmutableList.of(
+                        absolute,
+                        quotient,
+                        call(internalOperator(ADD, BIGINT, ImmutableList.of(BIGINT, BIGINT)), BIGINT, quotient, constant(1L, BIGINT))),
+                MAX_BATCH_SIZE)
+                .get();
+
+        Page inputPage = new Page(createLongsBlock(-2L, 0L, 3L, 0L, 5L), createLongsBlock(1L, 2L, 3L, 4L, 5L));
+        Iterator<Optional<Page>> output = processAndAssertRetainedPageSize(pageProcessor, inputPage);
+
+        assertTrue(output.hasNext());
+        Page expectedPage = new Page(createLongsBlock(2L, 3L, 5L), createLongsBlock(50L, 33L, 20L), createLongsBlock(51L, 34L, 21L));
+        assertPageEquals(ImmutableList.of(BIGINT, BIGINT, BIGINT), output.next().orElse(null), expectedPage);
+        assertFalse(output.hasNext());
+    }
+
     @Test
     public void testExpressionProfiler()
     {
@@ -674,6 +730,35 @@ public class TestPageProcessor
         }
     }
 
+    private static class SelectionRecordingLoader
+            implements LazyBlockLoader<LazyBlock>
+    {
+        private final Block block;
+        private int[] selectedPositions;
+
+        public SelectionRecordingLoader(Block block)
+        {
+            this.block = block;
+        }
+
+        @Override
+        public void load(LazyBlock lazyBlock)
+        {
+            lazyBlock.setBlock(block);
+        }
+
+        @Override
+        public void setSelectedPositions(int[] positions, int offset, int length)
+        {
+            selectedPositions = Arrays.copyOfRange(positions, offset, offset + length);
+        }
+
+        public int[] getSelectedPositions()
+        {
+            return selectedPositions;
+        }
+    }
+
     private static class TestingPageFilter
             implements PageFilter
     {
@@ -0,0 +1,182 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.LongArrayBlock;
+import io.prestosql.spi.function.OperatorType;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.relational.Expressions;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.relational.SpecialForm;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.block.BlockAssertions.createDoublesBlock;
+import static io.prestosql.block.BlockAssertions.createIntsBlock;
+import static io.prestosql.block.BlockAssertions.createLongsBlock;
+import static io.prestosql.metadata.Signature.internalOperator;
+import static io.prestosql.spi.StandardErrorCode.NUMERIC_VALUE_OUT_OF_RANGE;
+import static io.prestosql.spi.function.OperatorType.ADD;
+import static io.prestosql.spi.function.OperatorType.DIVIDE;
+import static io.prestosql.spi.function.OperatorType.GREATER_THAN;
+import static io.prestosql.spi.function.OperatorType.LESS_THAN;
+import static io.prestosql.spi.function.OperatorType.MULTIPLY;
+import static io.prestosql.spi.function.OperatorType.NEGATION;
+import static io.prestosql.spi.function.OperatorType.SUBTRACT;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.sql.relational.Expressions.constant;
+import static io.prestosql.sql.relational.Expressions.constantNull;
+import static io.prestosql.sql.relational.Expressions.field;
+import static io.prestosql.sql.relational.SpecialForm.Form.AND;
+import static io.prestosql.sql.relational.SpecialForm.Form.BETWEEN;
+import static io.prestosql.sql.relational.SpecialForm.Form.IS_NULL;
+import static io.prestosql.sql.relational.SpecialForm.Form.OR;
+import static io.prestosql.testing.TestingConnectorSession.SESSION;
+import static io.prestosql.testing.assertions.PrestoExceptionAssert.assertPrestoExceptionThrownBy;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+public class TestVectorizedExpression
+{
+    @Test
+    public void testArithmetic()
+    {
+        Page page = new Page(
+                createLongsBlock(1L, null, 3L, 4L),
+                createLongsBlock(10L, 20L, null, 40L),
+                createIntsBlock(1, 2, 3, null),
+                createDoublesBlock(1.5, null, 2.5, 4.0));
+
+        // a * 2 - b
+        RowExpression bigint = call(SUBTRACT, BIGINT, call(MULTIPLY, BIGINT, field(0, BIGINT), constant(2L, BIGINT)), field(1, BIGINT));
+        assertEvaluate(page, bigint, -8L, null, null, -32L);
+        assertEvaluate(page, SelectedPositions.positionsList(new int[] {3, 0, 2}, 1, 2), bigint, -8L, null);
+        assertEvaluate(page, SelectedPositions.positionsRange(3, 1), bigint, -32L);
+
+        // -c + 10
+        assertEvaluate(page, call(ADD, INTEGER, call(NEGATION, INTEGER, field(2, INTEGER)), constant(10L, INTEGER)), 9, 8, 7, null);
+
+        // d / 2 * d
+        assertEvaluate(page, call(MULTIPLY, DOUBLE, call(DIVIDE, DOUBLE, field(3, DOUBLE), constant(2.0, DOUBLE)), field(3, DOUBLE)), 1.125, null, 3.125, 8.0);
+
+        // a + null
+        assertEvaluate(page, call(ADD, BIGINT, field(0, BIGINT), constantNull(BIGINT)), null, null, null, null);
+    }
+
+    @Test
+    public void testOverflow()
+    {
+        Page page = new Page(
+                new LongArrayBlock(3, Optional.empty(), new long[] {Long.MAX_VALUE, 1, 3_000_000_000L}),
+                createLongsBlock(null, 1L, 2L),
+                createIntsBlock(Integer.MAX_VALUE, 1, Integer.MIN_VALUE));
+
+        assertPrestoExceptionThrownBy(() -> evaluate(page, call(ADD, BIGINT, field(0, BIGINT), constant(1L, BIGINT))))
+                .hasErrorCode(NUMERIC_VALUE_OUT_OF_RANGE)
+                .hasMessage("bigint addition overflow: 9223372036854775807 + 1");
+        assertPrestoExceptionThrownBy(() -> evaluate(page, call(ADD, INTEGER, field(2, INTEGER), constant(1L, INTEGER))))
+                .hasErrorCode(NUMERIC_VALUE_OUT_OF_RANGE)
+                .hasMessage("integer addition overflow: 2147483647 + 1");
+        assertPrestoExceptionThrownBy(() -> evaluate(page, call(NEGATION, INTEGER, field(2, INTEGER))))
+                .hasErrorCode(NUMERIC_VALUE_OUT_OF_RANGE);
+
+        // overflows at null positions are ignored
+        assertEvaluate(page, call(ADD, BIGINT, call(ADD, BIGINT, field(0, BIGINT), field(1, BIGINT)), constant(1L, BIGINT)), null, 3L, 3_000_000_003L);
+
+        // products of values outside of the integer range are checked exactly
+        assertEvaluate(page, call(MULTIPLY, BIGINT, field(0, BIGINT), field(1, BIGINT)), null, 1L, 6_000_000_000L);
+        assertEvaluate(page, SelectedPositions.positionsRange(1, 2), call(MULTIPLY, BIGINT, field(0, BIGINT), field(0, BIGINT)), 1L, 9_000_000_000_000_000_000L);
+    }
+
+    @Test
+    public void testLogic()
+    {
+        Page page = new Page(
+                createDoublesBlock(1.5, null, Double.NaN, 3.0, 0.5),
+                createLongsBlock(1L, 2L, 3L, null, 5L));
+
+        RowExpression between = new SpecialForm(BETWEEN, BOOLEAN, field(0, DOUBLE), constant(1.0, DOUBLE), constant(3.0, DOUBLE));
+        assertEvaluate(page, between, true, null, false, true, false);
+
+        // NULL AND false is false
+        RowExpression and = new SpecialForm(AND, BOOLEAN, call(GREATER_THAN, BOOLEAN, field(0, DOUBLE), constant(1.0, DOUBLE)), call(LESS_THAN, BOOLEAN, field(1, BIGINT), constant(3L, BIGINT)));
+        assertEvaluate(page, and, true, null, false, null, false);
+        assertEquals(filter(page, and), ImmutableList.of(0));
+
+        // NULL OR true is true
+        RowExpression or = new SpecialForm(OR, BOOLEAN, call(GREATER_THAN, BOOLEAN, field(0, DOUBLE), constant(2.0, DOUBLE)), call(LESS_THAN, BOOLEAN, field(1, BIGINT), constant(3L, BIGINT)));
+        assertEvaluate(page, or, true, true, false, true, false);
+        assertEquals(filter(page, or), ImmutableList.of(0, 1, 3));
+
+        RowExpression isNull = new SpecialForm(IS_NULL, BOOLEAN, call(ADD, DOUBLE, field(0, DOUBLE), call(OperatorType.CAST, DOUBLE, field(1, BIGINT))));
+        assertEvaluate(page, isNull, false, true, false, true, false);
+        assertEquals(filter(page, isNull), ImmutableList.of(1, 3));
+    }
+
+    @Test
+    public void testUnsupported()
+    {
+        assertFalse(VectorizedExpression.create(call(DIVIDE, BIGINT, field(0, BIGINT), field(1, BIGINT))).isPresent());
+        assertFalse(VectorizedExpression.create(call(LESS_THAN, BOOLEAN, field(0, VARCHAR), field(1, VARCHAR))).isPresent());
+        assertFalse(VectorizedExpression.create(call(ADD, BIGINT, field(0, BIGINT), call(OperatorType.CAST, BIGINT, field(2, VARCHAR)))).isPresent());
+    }
+
+    private static RowExpression call(OperatorType operator, Type returnType, RowExpression... arguments)
+    {
+        return Expressions.call(
+                internalOperator(operator, returnType, Arrays.stream(arguments).map(RowExpression::getType).collect(toImmutableList())),
+                returnType,
+                arguments);
+    }
+
+    private static Block evaluate(Page page, RowExpression expression)
+    {
+        return VectorizedExpression.create(expression).get().evaluate(page, SelectedPositions.positionsRange(0, page.getPositionCount()));
+    }
+
+    private static void assertEvaluate(Page page, RowExpression expression, Object... expected)
+    {
+        assertEvaluate(page, SelectedPositions.positionsRange(0, page.getPositionCount()), expression, expected);
+    }
+
+    private static void assertEvaluate(Page page, SelectedPositions selectedPositions, RowExpression expression, Object... expected)
+    {
+        Block block = VectorizedExpression.create(expression).get().evaluate(page, selectedPositions);
+        assertEquals(block.getPositionCount(), expected.length);
+        for (int position = 0; position < expected.length; position++) {
+            assertEquals(expression.getType().getObjectValue(SESSION, block, position), expected[position]);
+        }
+    }
+
+    private static List<Integer> filter(Page page, RowExpression expression)
+    {
+        SelectedPositions selectedPositions = VectorizedExpression.create(expression).get().filter(page);
+        ImmutableList.Builder<Integer> positions = ImmutableList.builder();
+        for (int i = 0; i < selectedPositions.size(); i++) {
+            positions.add(selectedPositions.isList() ? selectedPositions.getPositions()[selectedPositions.getOffset() + i] : selectedPositions.getOffset() + i);
+        }
+        return positions.build();
+    }
+}
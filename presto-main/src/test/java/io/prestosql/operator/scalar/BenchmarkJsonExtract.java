@@ -0,0 +1,240 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.scalar;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.operator.DriverYieldSignal;
+import io.prestosql.operator.project.PageProcessor;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.sql.gen.ExpressionCompiler;
+import io.prestosql.sql.gen.PageFunctionCompiler;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.tree.QualifiedName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+import org.openjdk.jmh.runner.options.WarmupMode;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.sql.analyzer.TypeSignatureProvider.fromTypes;
+import static io.prestosql.sql.relational.Expressions.call;
+import static io.prestosql.sql.relational.Expressions.constant;
+import static io.prestosql.sql.relational.Expressions.field;
+import static io.prestosql.testing.TestingConnectorSession.SESSION;
+import static io.prestosql.type.JsonPathType.JSON_PATH;
+import static java.lang.String.format;
+
+/**
+ * Extracts several fields from event payloads, with the calls on the same document combined into
+ * a single pass over it, or compiled separately as before.
+ */
+@SuppressWarnings("MethodMayBeStatic")
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(3)
+@BenchmarkMode(Mode.AverageTime)
+public class BenchmarkJsonExtract
+{
+    private static final int POSITION_COUNT = 10_000;
+
+    private static final List<String> PATHS = ImmutableList.of(
+            "$.event_type",
+            "$.user.id",
+            "$.context.device.os",
+            "$.properties.price",
+            "$.timestamp",
+            "$.user.country",
+            "$.context.page.url",
+            "$.properties.items[0].sku",
+            "$.session_id",
+            "$.context.device.model",
+            "$.user.plan",
+            "$.properties.currency",
+            "$.context.locale",
+            "$.properties.items[1].quantity",
+            "$.context.campaign.source",
+            "$.user.created_at",
+            "$.context.ip",
+            "$.properties.coupon",
+            "$.context.campaign.medium",
+            "$.version");
+
+    @Benchmark
+    @OperationsPerInvocation(POSITION_COUNT)
+    public List<Optional<Page>> benchmark(BenchmarkData data)
+    {
+        return ImmutableList.copyOf(
+                data.getPageProcessor().process(
+                        SESSION,
+                        new DriverYieldSignal(),
+                        newSimpleAggregatedMemoryContext().newLocalMemoryContext(PageProcessor.class.getSimpleName()),
+                        data.getPage()));
+    }
+
+    @SuppressWarnings("FieldMayBeFinal")
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        @Param({"2", "5", "10", "20"})
+        private int pathCount = 10;
+
+        @Param({"true", "false"})
+        private boolean combined = true;
+
+        private Page page;
+        private PageProcessor pageProcessor;
+
+        @Setup
+        public void setup()
+        {
+            Metadata metadata = createTestMetadataManager();
+            List<RowExpression> projections = PATHS.subList(0, pathCount).stream()
+                    .map(path -> call(
+                            metadata.resolveFunction(QualifiedName.of("json_extract_scalar"), fromTypes(VARCHAR, JSON_PATH)),
+                            VARCHAR,
+                            field(0, VARCHAR),
+                            constant(new JsonPath(path), JSON_PATH)))
+                    .collect(toImmutableList());
+
+            PageFunctionCompiler pageFunctionCompiler = new PageFunctionCompiler(metadata, 0);
+            if (combined) {
+                pageProcessor = new ExpressionCompiler(metadata, pageFunctionCompiler)
+                        .compilePageProcessor(Optional.empty(), projections)
+                        .get();
+            }
+            else {
+                pageProcessor = new PageProcessor(
+                        Optional.empty(),
+                        projections.stream()
+                                .map(projection -> pageFunctionCompiler.compileProjection(projection, Optional.empty()).get())
+                                .collect(toImmutableList()),
+                        OptionalInt.empty());
+            }
+
+            page = new Page(createChannel(POSITION_COUNT));
+        }
+
+        private static Block createChannel(int positionCount)
+        {
+            BlockBuilder blockBuilder = VARCHAR.createBlockBuilder(null, positionCount);
+            for (int position = 0; position < positionCount; position++) {
+                VARCHAR.writeSlice(blockBuilder, utf8Slice(createEvent(ThreadLocalRandom.current())));
+            }
+            return blockBuilder.build();
+        }
+
+        private static String createEvent(ThreadLocalRandom random)
+        {
+            return format("{" +
+                            "\"event_type\": \"%s\", " +
+                            "\"timestamp\": %s, " +
+                            "\"session_id\": \"%s\", " +
+                            "\"user\": {\"id\": %s, \"country\": \"%s\", \"plan\": \"%s\", \"created_at\": \"2019-0%s-1%sT10:00:00Z\", \"traits\": {\"age\": %s, \"newsletter\": %s}}, " +
+                            "\"context\": {" +
+                            "\"ip\": \"10.%s.%s.%s\", \"locale\": \"en-US\", " +
+                            "\"device\": {\"os\": \"%s\", \"model\": \"model-%s\", \"screen\": {\"width\": 1080, \"height\": 1920}}, " +
+                            "\"page\": {\"url\": \"https://example.com/products/%s\", \"referrer\": \"https://search.example.com/?q=%s\", \"title\": \"Product %s\"}, " +
+                            "\"campaign\": {\"source\": \"%s\", \"medium\": \"email\", \"name\": \"spring-sale\"}}, " +
+                            "\"properties\": {\"price\": %s.%s, \"currency\": \"USD\", \"coupon\": %s, " +
+                            "\"items\": [{\"sku\": \"SKU-%s\", \"quantity\": %s}, {\"sku\": \"SKU-%s\", \"quantity\": %s}], \"tags\": [\"a\", \"b\", \"c\"]}, " +
+                            "\"version\": \"1.%s\"}",
+                    random.nextBoolean() ? "page_view" : "purchase",
+                    1550000000000L + random.nextInt(1_000_000_000),
+                    Long.toHexString(random.nextLong()),
+                    random.nextInt(10_000_000),
+                    random.nextBoolean() ? "US" : "DE",
+                    random.nextBoolean() ? "free" : "pro",
+                    random.nextInt(9) + 1,
+                    random.nextInt(10),
+                    random.nextInt(80) + 18,
+                    random.nextBoolean(),
+                    random.nextInt(256),
+                    random.nextInt(256),
+                    random.nextInt(256),
+                    random.nextBoolean() ? "iOS" : "Android",
+                    random.nextInt(100),
+                    random.nextInt(100_000),
+                    random.nextInt(100_000),
+                    random.nextInt(100_000),
+                    random.nextBoolean() ? "newsletter" : "search",
+                    random.nextInt(1000),
+                    random.nextInt(100),
+                    random.nextBoolean() ? "null" : "\"SAVE10\"",
+                    random.nextInt(100_000),
+                    random.nextInt(5) + 1,
+                    random.nextInt(100_000),
+                    random.nextInt(5) + 1,
+                    random.nextInt(10));
+        }
+
+        public PageProcessor getPageProcessor()
+        {
+            return pageProcessor;
+        }
+
+        public Page getPage()
+        {
+            return page;
+        }
+    }
+
+    @Test
+    public void verify()
+    {
+        BenchmarkData data = new BenchmarkData();
+        data.setup();
+        new BenchmarkJsonExtract().benchmark(data);
+    }
+
+    public static void main(String[] args)
+            throws Throwable
+    {
+        // assure the benchmarks are valid before running
+        BenchmarkData data = new BenchmarkData();
+        data.setup();
+        new BenchmarkJsonExtract().benchmark(data);
+
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkJsonExtract.class.getSimpleName() + ".*")
+                .warmupMode(WarmupMode.BULK_INDI)
+                .build();
+        new Runner(options).run();
+    }
+}
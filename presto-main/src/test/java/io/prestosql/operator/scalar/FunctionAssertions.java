@@ -41,11 +41,14 @@ import io.prestosql.operator.SourceOperatorFactory;
 import io.prestosql.operator.project.CursorProcessor;
 import io.prestosql.operator.project.PageProcessor;
 import io.prestosql.operator.project.PageProjection;
+import io.prestosql.operator.project.SelectedPositions;
+import io.prestosql.operator.project.VectorizedExpression;
 import io.prestosql.spi.ErrorCodeSupplier;
 import io.prestosql.spi.HostAddress;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PageBuilder;
 import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorPageSource;
 import io.prestosql.spi.connector.ConnectorSplit;
@@ -69,6 +72,7 @@ import io.prestosql.sql.planner.TypeProvider;
 import io.prestosql.sql.planner.iterative.rule.CanonicalizeExpressionRewriter;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.relational.RowExpressionInterpreter;
 import io.prestosql.sql.tree.Cast;
 import io.prestosql.sql.tree.DefaultTraversalVisitor;
 import io.prestosql.sql.tree.DereferenceExpression;
@@ -123,6 +127,7 @@ import static io.prestosql.spi.type.DateTimeEncoding.packDateTimeWithZone;
 import static io.prestosql.spi.type.DoubleType.DOUBLE;
 import static io.prestosql.spi.type.IntegerType.INTEGER;
 import static io.prestosql.spi.type.TimestampWithTimeZoneType.TIMESTAMP_WITH_TIME_ZONE;
+import static io.prestosql.spi.type.TypeUtils.writeNativeValue;
 import static io.prestosql.spi.type.VarbinaryType.VARBINARY;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static io.prestosql.sql.ExpressionUtils.rewriteIdentifiersToSymbolReferences;
@@ -503,6 +508,18 @@ public final class FunctionAssertions
         Object directOperatorValue = selectSingleValue(operatorFactory, expectedType, session);
         results.add(directOperatorValue);
 
+        // evaluate with the row expression interpreter used until the expression is compiled
+        if (RowExpressionInterpreter.isSupported(metadata, projectionRowExpression)) {
+            results.add(interpretRowExpression(projectionRowExpression, expectedType, session));
+        }
+
+        // evaluate a column at a time
+        Optional<VectorizedExpression> vectorizedProjection = VectorizedExpression.create(projectionRowExpression);
+        if (vectorizedProjection.isPresent()) {
+            Block block = vectorizedProjection.get().evaluate(SOURCE_PAGE, SelectedPositions.positionsRange(0, 1));
+            results.add(expectedType.getObjectValue(session.toConnectorSession(), block, 0));
+        }
+
         // interpret
         Object interpretedValue = interpret(projectionExpression, expectedType, session);
         results.add(interpretedValue);
@@ -600,6 +617,17 @@ public final class FunctionAssertions
             results.add(executeFilterWithNoInputColumns(operatorFactory, session));
         }
 
+        // evaluate with the row expression interpreter used until the expression is compiled
+        if (RowExpressionInterpreter.isSupported(metadata, filterRowExpression)) {
+            results.add(Boolean.TRUE.equals(interpretRowExpression(filterRowExpression, BOOLEAN, session)));
+        }
+
+        // evaluate a column at a time
+        Optional<VectorizedExpression> vectorizedFilter = VectorizedExpression.create(filterRowExpression);
+        if (vectorizedFilter.isPresent()) {
+            results.add(vectorizedFilter.get().filter(SOURCE_PAGE).size() == 1);
+        }
+
         // interpret
         Boolean interpretedValue = (Boolean) interpret(filterExpression, BOOLEAN, session);
         if (interpretedValue == null) {
@@ -767,6 +795,14 @@ public final class FunctionAssertions
         return hasSymbolReferences.get();
     }
 
+    private Object interpretRowExpression(RowExpression expression, Type expectedType, Session session)
+    {
+        Object value = new RowExpressionInterpreter(metadata, expression).evaluate(session.toConnectorSession(), SOURCE_PAGE, 0);
+        BlockBuilder blockBuilder = expression.getType().createBlockBuilder(null, 1);
+        writeNativeValue(expression.getType(), blockBuilder, value);
+        return expectedType.getObjectValue(session.toConnectorSession(), blockBuilder.build(), 0);
+    }
+
     private Object interpret(Expression expression, Type expectedType, Session session)
     {
         Map<NodeRef<Expression>, Type> expressionTypes = typeAnalyzer.getTypes(session, TypeProvider.copyOf(INPUT_TYPES), expression);
@@ -0,0 +1,116 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.scalar;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import io.prestosql.spi.block.Block;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static org.testng.Assert.assertEquals;
+
+public class TestJsonPathTrie
+{
+    private static final List<String> DOCUMENTS = ImmutableList.of(
+            "{\"a\": 1, \"b\": {\"c\": \"x\", \"d\": [10, {\"e\": true}, null]}, \"f\": null}",
+            "{\"b\": {\"d\": [1, 2]}, \"a\": [\"u\", \"v\"], \"g\": {\"01\": 3, \"1\": 4}}",
+            "{\"a\": 1, \"a\": 2, \"b\": {\"c\": 3, \"c\": 4}}",
+            "[{\"a\": 1}, [2, 3], \"s\"]",
+            "{\"a\": 1.0e2, \"b\": {\"c\": -0.50, \"d\": \"caf\\u00e9\"}}",
+            "{\"a\": 1, \"b\": {\"c\": bad}, \"f\": 2}",
+            "{\"a\": 1, \"b\": {\"c\": 2",
+            "{\"a\": {\"b\": {\"c\": 1}}} trailing",
+            "\"scalar\"",
+            "null",
+            "",
+            "{}",
+            "[]");
+
+    private static final List<String> PATHS = ImmutableList.of(
+            "$",
+            "$.a",
+            "$.a[1]",
+            "$.b",
+            "$.b.c",
+            "$.b.d",
+            "$.b.d[0]",
+            "$.b.d[1].e",
+            "$.b.d[01]",
+            "$.f",
+            "$.g.01",
+            "$.g[1]",
+            "$[0].a",
+            "$[1][1]",
+            "$[2]",
+            "$.missing",
+            "$.a.b.c");
+
+    @Test
+    public void testScalarPaths()
+    {
+        assertMatchesSingleExtraction(PATHS, ImmutableList.of());
+    }
+
+    @Test
+    public void testJsonPaths()
+    {
+        assertMatchesSingleExtraction(ImmutableList.of(), PATHS);
+    }
+
+    @Test
+    public void testScalarAndJsonPaths()
+    {
+        assertMatchesSingleExtraction(PATHS, PATHS);
+        assertMatchesSingleExtraction(ImmutableList.of("$.b.c", "$.b.d[0]", "$.a"), ImmutableList.of("$.b", "$.a[1]"));
+        assertMatchesSingleExtraction(ImmutableList.of("$.b"), ImmutableList.of("$.b.c", "$.b.d"));
+    }
+
+    @Test
+    public void testDuplicatePaths()
+    {
+        assertMatchesSingleExtraction(ImmutableList.of("$.a", "$.a", "$.b.c"), ImmutableList.of("$.a", "$.b"));
+    }
+
+    private static void assertMatchesSingleExtraction(List<String> scalarPaths, List<String> jsonPaths)
+    {
+        List<JsonPath> paths = new ArrayList<>();
+        List<Boolean> scalar = new ArrayList<>();
+        for (String path : scalarPaths) {
+            paths.add(new JsonPath(path));
+            scalar.add(true);
+        }
+        for (String path : jsonPaths) {
+            paths.add(new JsonPath(path));
+            scalar.add(false);
+        }
+        JsonPathTrie trie = new JsonPathTrie(paths, scalar);
+
+        for (String document : DOCUMENTS) {
+            Slice json = utf8Slice(document);
+            Block values = trie.extract(json);
+            assertEquals(values.getPositionCount(), paths.size());
+            for (int i = 0; i < paths.size(); i++) {
+                JsonPath path = paths.get(i);
+                Slice expected = JsonExtract.extract(json, scalar.get(i) ? path.getScalarExtractor() : path.getObjectExtractor());
+                Slice actual = values.isNull(i) ? null : VARCHAR.getSlice(values, i);
+                assertEquals(actual, expected, "path " + path.getPattern() + " of " + document);
+            }
+        }
+    }
+}
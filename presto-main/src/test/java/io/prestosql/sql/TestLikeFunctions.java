@@ -13,13 +13,15 @@
  */
 package io.prestosql.sql;
 
-import io.airlift.joni.Regex;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import io.prestosql.operator.scalar.AbstractTestFunctions;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.type.LikeMatcher;
 import org.testng.annotations.Test;
 
+import java.util.Random;
+
 import static io.airlift.slice.Slices.utf8Slice;
 import static io.prestosql.spi.type.BooleanType.BOOLEAN;
 import static io.prestosql.type.LikeFunctions.castCharToLikePattern;
@@ -28,6 +30,7 @@ import static io.prestosql.type.LikeFunctions.likeChar;
 import static io.prestosql.type.LikeFunctions.likePattern;
 import static io.prestosql.type.LikeFunctions.likeVarchar;
 import static io.prestosql.type.LikeFunctions.unescapeLiteralLikePattern;
+import static java.lang.String.format;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertThrows;
@@ -39,20 +42,123 @@ public class TestLikeFunctions
     @Test
     public void testLikeBasic()
     {
-        Regex regex = likePattern(utf8Slice("f%b__"));
-        assertTrue(likeVarchar(utf8Slice("foobar"), regex));
+        LikeMatcher matcher = likePattern(utf8Slice("f%b__"));
+        assertTrue(likeVarchar(utf8Slice("foobar"), matcher));
 
         assertFunction("'foob' LIKE 'f%b__'", BOOLEAN, false);
         assertFunction("'foob' LIKE 'f%b'", BOOLEAN, true);
     }
 
+    @Test
+    public void testLikePatternShapes()
+    {
+        assertLike("abc", "abc", true);
+        assertLike("abcd", "abc", false);
+        assertLike("ab", "abc", false);
+
+        assertLike("abcdef", "abc%", true);
+        assertLike("abc", "abc%", true);
+        assertLike("xabc", "abc%", false);
+
+        assertLike("xyzabc", "%abc", true);
+        assertLike("abcx", "%abc", false);
+
+        assertLike("xabcx", "%abc%", true);
+        assertLike("abc", "%abc%", true);
+        assertLike("abxc", "%abc%", false);
+
+        assertLike("a1b2c", "a%b%c", true);
+        assertLike("abc", "a%b%c", true);
+        assertLike("acb", "a%b%c", false);
+        assertLike("abab", "%ab%ab", true);
+        assertLike("abab", "%ab%ab%ab%", false);
+        assertLike("aXbYYc", "a_b__c", true);
+        assertLike("aXbYc", "a_b__c", false);
+        assertLike("xxaXbYc", "%a_b%c", true);
+        assertLike("abcabd", "%a_d", true);
+        assertLike("ab", "%__", true);
+        assertLike("a", "%__", false);
+
+        assertLike("", "", true);
+        assertLike("", "%", true);
+        assertLike("", "_", false);
+        assertLike("a", "%%", true);
+    }
+
+    @Test
+    public void testLikeUnderscoreMatchesCharacter()
+    {
+        assertLike("\u540d", "_", true);
+        assertLike("\u540d\u8a89", "_", false);
+        assertLike("x\u540dy", "x_y", true);
+        assertLike("x\u540d\u8a89y", "%\u8a89_", true);
+    }
+
+    @Test
+    public void testLikeNewlineAfterMatch()
+    {
+        assertLike("abc\nxyz", "abc", false);
+        assertLike("abc\nxyz", "%abc", false);
+        assertLike("abc\nxyz", "a_c", false);
+        assertLike("abc\n", "abc_", true);
+    }
+
+    @Test
+    public void testLikeRandomPatterns()
+    {
+        Random random = new Random(42);
+        char[] patternCharacters = {'a', 'b', '%', '_'};
+        char[] valueCharacters = {'a', 'b'};
+        for (int i = 0; i < 10_000; i++) {
+            String pattern = randomString(random, patternCharacters, random.nextInt(8));
+            String value = randomString(random, valueCharacters, random.nextInt(10));
+            assertEquals(likeVarchar(utf8Slice(value), likePattern(utf8Slice(pattern))), naiveLike(value, 0, pattern, 0), format("'%s' LIKE '%s'", value, pattern));
+        }
+    }
+
+    private static void assertLike(String value, String pattern, boolean expected)
+    {
+        assertEquals(likeVarchar(utf8Slice(value), likePattern(utf8Slice(pattern))), expected, format("'%s' LIKE '%s'", value, pattern));
+    }
+
+    private static String randomString(Random random, char[] characters, int length)
+    {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append(characters[random.nextInt(characters.length)]);
+        }
+        return builder.toString();
+    }
+
+    private static boolean naiveLike(String value, int valueIndex, String pattern, int patternIndex)
+    {
+        if (patternIndex == pattern.length()) {
+            return valueIndex == value.length();
+        }
+        switch (pattern.charAt(patternIndex)) {
+            case '%':
+                for (int i = valueIndex; i <= value.length(); i++) {
+                    if (naiveLike(value, i, pattern, patternIndex + 1)) {
+                        return true;
+                    }
+                }
+                return false;
+            case '_':
+                return valueIndex < value.length() && naiveLike(value, valueIndex + 1, pattern, patternIndex + 1);
+            default:
+                return valueIndex < value.length() &&
+                        value.charAt(valueIndex) == pattern.charAt(patternIndex) &&
+                        naiveLike(value, valueIndex + 1, pattern, patternIndex + 1);
+        }
+    }
+
     @Test
     public void testLikeChar()
     {
-        Regex regex = likePattern(utf8Slice("f%b__"));
-        assertTrue(likeChar(6L, utf8Slice("foobar"), regex));
-        assertTrue(likeChar(6L, utf8Slice("foob"), regex));
-        assertFalse(likeChar(7L, utf8Slice("foob"), regex));
+        LikeMatcher matcher = likePattern(utf8Slice("f%b__"));
+        assertTrue(likeChar(6L, utf8Slice("foobar"), matcher));
+        assertTrue(likeChar(6L, utf8Slice("foob"), matcher));
+        assertFalse(likeChar(7L, utf8Slice("foob"), matcher));
 
         assertFunction("cast('foob' as char(6)) LIKE 'f%b__'", BOOLEAN, true);
         assertFunction("cast('foob' as char(7)) LIKE 'f%b__'", BOOLEAN, false);
@@ -61,41 +167,41 @@ public class TestLikeFunctions
     @Test
     public void testLikeSpacesInPattern()
     {
-        Regex regex = likePattern(utf8Slice("ala  "));
-        assertTrue(likeVarchar(utf8Slice("ala  "), regex));
-        assertFalse(likeVarchar(utf8Slice("ala"), regex));
+        LikeMatcher matcher = likePattern(utf8Slice("ala  "));
+        assertTrue(likeVarchar(utf8Slice("ala  "), matcher));
+        assertFalse(likeVarchar(utf8Slice("ala"), matcher));
 
-        regex = castCharToLikePattern(5L, utf8Slice("ala"));
-        assertTrue(likeVarchar(utf8Slice("ala  "), regex));
-        assertFalse(likeVarchar(utf8Slice("ala"), regex));
+        matcher = castCharToLikePattern(5L, utf8Slice("ala"));
+        assertTrue(likeVarchar(utf8Slice("ala  "), matcher));
+        assertFalse(likeVarchar(utf8Slice("ala"), matcher));
     }
 
     @Test
     public void testLikeNewlineInPattern()
     {
-        Regex regex = likePattern(utf8Slice("%o\nbar"));
-        assertTrue(likeVarchar(utf8Slice("foo\nbar"), regex));
+        LikeMatcher matcher = likePattern(utf8Slice("%o\nbar"));
+        assertTrue(likeVarchar(utf8Slice("foo\nbar"), matcher));
     }
 
     @Test
     public void testLikeNewlineBeforeMatch()
     {
-        Regex regex = likePattern(utf8Slice("%b%"));
-        assertTrue(likeVarchar(utf8Slice("foo\nbar"), regex));
+        LikeMatcher matcher = likePattern(utf8Slice("%b%"));
+        assertTrue(likeVarchar(utf8Slice("foo\nbar"), matcher));
     }
 
     @Test
     public void testLikeNewlineInMatch()
     {
-        Regex regex = likePattern(utf8Slice("f%b%"));
-        assertTrue(likeVarchar(utf8Slice("foo\nbar"), regex));
+        LikeMatcher matcher = likePattern(utf8Slice("f%b%"));
+        assertTrue(likeVarchar(utf8Slice("foo\nbar"), matcher));
     }
 
     @Test(timeOut = 1000)
     public void testLikeUtf8Pattern()
     {
-        Regex regex = likePattern(utf8Slice("%\u540d\u8a89%"), utf8Slice("\\"));
-        assertFalse(likeVarchar(utf8Slice("foo"), regex));
+        LikeMatcher matcher = likePattern(utf8Slice("%\u540d\u8a89%"), utf8Slice("\\"));
+        assertFalse(likeVarchar(utf8Slice("foo"), matcher));
     }
 
     @SuppressWarnings("NumericCastThatLosesPrecision")
@@ -103,29 +209,29 @@ public class TestLikeFunctions
     public void testLikeInvalidUtf8Value()
     {
         Slice value = Slices.wrappedBuffer(new byte[] {'a', 'b', 'c', (byte) 0xFF, 'x', 'y'});
-        Regex regex = likePattern(utf8Slice("%b%"), utf8Slice("\\"));
-        assertTrue(likeVarchar(value, regex));
+        LikeMatcher matcher = likePattern(utf8Slice("%b%"), utf8Slice("\\"));
+        assertTrue(likeVarchar(value, matcher));
     }
 
     @Test
     public void testBackslashesNoSpecialTreatment()
     {
-        Regex regex = likePattern(utf8Slice("\\abc\\/\\\\"));
-        assertTrue(likeVarchar(utf8Slice("\\abc\\/\\\\"), regex));
+        LikeMatcher matcher = likePattern(utf8Slice("\\abc\\/\\\\"));
+        assertTrue(likeVarchar(utf8Slice("\\abc\\/\\\\"), matcher));
     }
 
     @Test
     public void testSelfEscaping()
     {
-        Regex regex = likePattern(utf8Slice("\\\\abc\\%"), utf8Slice("\\"));
-        assertTrue(likeVarchar(utf8Slice("\\abc%"), regex));
+        LikeMatcher matcher = likePattern(utf8Slice("\\\\abc\\%"), utf8Slice("\\"));
+        assertTrue(likeVarchar(utf8Slice("\\abc%"), matcher));
     }
 
     @Test
     public void testAlternateEscapedCharacters()
     {
-        Regex regex = likePattern(utf8Slice("xxx%x_abcxx"), utf8Slice("x"));
-        assertTrue(likeVarchar(utf8Slice("x%_abcx"), regex));
+        LikeMatcher matcher = likePattern(utf8Slice("xxx%x_abcxx"), utf8Slice("x"));
+        assertTrue(likeVarchar(utf8Slice("x%_abcx"), matcher));
     }
 
     @Test
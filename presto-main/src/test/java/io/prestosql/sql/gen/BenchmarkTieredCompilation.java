@@ -0,0 +1,170 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.gen;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.operator.DriverYieldSignal;
+import io.prestosql.operator.project.PageProcessor;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.relational.SpecialForm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.metadata.Signature.internalOperator;
+import static io.prestosql.spi.function.OperatorType.ADD;
+import static io.prestosql.spi.function.OperatorType.MULTIPLY;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.sql.relational.Expressions.call;
+import static io.prestosql.sql.relational.Expressions.constant;
+import static io.prestosql.sql.relational.Expressions.field;
+import static io.prestosql.sql.relational.SpecialForm.Form.BETWEEN;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+
+/**
+ * Measures the latency of a short query fragment that has to compile its filter and projection
+ * before processing a few pages. The sample time mode reports the percentiles, including p50.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(3)
+@Warmup(iterations = 10, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 1000, timeUnit = TimeUnit.MILLISECONDS)
+public class BenchmarkTieredCompilation
+{
+    private static final int POSITIONS_PER_PAGE = 1024;
+
+    private static final RowExpression FILTER = new SpecialForm(
+            BETWEEN,
+            BOOLEAN,
+            field(0, BIGINT),
+            constant(100L, BIGINT),
+            constant(900L, BIGINT));
+
+    private static final RowExpression PROJECT = call(
+            internalOperator(ADD, BIGINT, ImmutableList.of(BIGINT, BIGINT)),
+            BIGINT,
+            call(internalOperator(MULTIPLY, BIGINT, ImmutableList.of(BIGINT, BIGINT)), BIGINT, field(0, BIGINT), field(1, BIGINT)),
+            constant(5L, BIGINT));
+
+    @Param({"1", "10", "100"})
+    private int pageCount = 1;
+
+    @Param({"false", "true"})
+    private boolean tiered;
+
+    private Metadata metadata;
+    private ExecutorService compilationExecutor;
+    private List<Page> pages;
+
+    @Setup
+    public void setup()
+    {
+        metadata = createTestMetadataManager();
+        compilationExecutor = newSingleThreadExecutor(daemonThreadsNamed("benchmark-compiler-%s"));
+
+        ImmutableList.Builder<Page> pages = ImmutableList.builder();
+        for (int page = 0; page < pageCount; page++) {
+            BlockBuilder first = BIGINT.createBlockBuilder(null, POSITIONS_PER_PAGE);
+            BlockBuilder second = BIGINT.createBlockBuilder(null, POSITIONS_PER_PAGE);
+            for (int position = 0; position < POSITIONS_PER_PAGE; position++) {
+                BIGINT.writeLong(first, position);
+                BIGINT.writeLong(second, page);
+            }
+            pages.add(new Page(first.build(), second.build()));
+        }
+        this.pages = pages.build();
+    }
+
+    @TearDown(Level.Invocation)
+    public void waitForCompilation()
+            throws ExecutionException, InterruptedException
+    {
+        // compilations left over by the tiered mode must not overlap with the next invocation
+        compilationExecutor.submit(() -> {}).get();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        compilationExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public long processFirstPages()
+    {
+        // a compiler without a cache sees the expressions for the first time, like a new query would
+        PageFunctionCompiler pageFunctionCompiler = new PageFunctionCompiler(metadata, 0, tiered ? Optional.of(compilationExecutor) : Optional.empty());
+        PageProcessor processor = new ExpressionCompiler(metadata, pageFunctionCompiler)
+                .compilePageProcessor(Optional.of(FILTER), ImmutableList.of(PROJECT))
+                .get();
+
+        long positions = 0;
+        for (Page page : pages) {
+            for (Optional<Page> output : ImmutableList.copyOf(processor.process(
+                    null,
+                    new DriverYieldSignal(),
+                    newSimpleAggregatedMemoryContext().newLocalMemoryContext(PageProcessor.class.getSimpleName()),
+                    page))) {
+                positions += output.map(Page::getPositionCount).orElse(0);
+            }
+        }
+        return positions;
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        BenchmarkTieredCompilation benchmark = new BenchmarkTieredCompilation();
+        benchmark.setup();
+        benchmark.processFirstPages();
+        benchmark.tearDown();
+
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkTieredCompilation.class.getSimpleName() + ".*")
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.gen;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.tpch.LineItem;
+import io.airlift.tpch.LineItemGenerator;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.operator.DriverYieldSignal;
+import io.prestosql.operator.project.PageProcessor;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.PageBuilder;
+import io.prestosql.spi.function.OperatorType;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.relational.Expressions;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.relational.SpecialForm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.metadata.Signature.internalOperator;
+import static io.prestosql.spi.function.OperatorType.ADD;
+import static io.prestosql.spi.function.OperatorType.GREATER_THAN;
+import static io.prestosql.spi.function.OperatorType.LESS_THAN;
+import static io.prestosql.spi.function.OperatorType.MULTIPLY;
+import static io.prestosql.spi.function.OperatorType.SUBTRACT;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.sql.relational.Expressions.constant;
+import static io.prestosql.sql.relational.Expressions.field;
+import static io.prestosql.sql.relational.SpecialForm.Form.AND;
+import static io.prestosql.sql.relational.SpecialForm.Form.BETWEEN;
+
+/**
+ * Compares compiled and vectorized evaluation of the arithmetic and comparisons of TPC-H Q1 and Q6.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(3)
+@Warmup(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+public class BenchmarkVectorizedEvaluation
+{
+    private static final int EXTENDED_PRICE = 0;
+    private static final int DISCOUNT = 1;
+    private static final int TAX = 2;
+    private static final int QUANTITY = 3;
+    private static final int ORDER_KEY = 4;
+    private static final int PART_KEY = 5;
+    private static final int SUPPLIER_KEY = 6;
+
+    private static final RowExpression ONE = constant(1.0, DOUBLE);
+
+    // extendedprice * (1 - discount), extendedprice * (1 - discount) * (1 + tax)
+    private static final List<RowExpression> TPCH_1_PROJECTIONS = ImmutableList.of(
+            call(MULTIPLY, DOUBLE, field(EXTENDED_PRICE, DOUBLE), call(SUBTRACT, DOUBLE, ONE, field(DISCOUNT, DOUBLE))),
+            call(MULTIPLY, DOUBLE,
+                    call(MULTIPLY, DOUBLE, field(EXTENDED_PRICE, DOUBLE), call(SUBTRACT, DOUBLE, ONE, field(DISCOUNT, DOUBLE))),
+                    call(ADD, DOUBLE, ONE, field(TAX, DOUBLE))));
+
+    // discount between 0.05 and 0.07 and quantity < 24
+    private static final RowExpression TPCH_6_FILTER = new SpecialForm(
+            AND,
+            BOOLEAN,
+            new SpecialForm(BETWEEN, BOOLEAN, field(DISCOUNT, DOUBLE), constant(0.05, DOUBLE), constant(0.07, DOUBLE)),
+            call(LESS_THAN, BOOLEAN, field(QUANTITY, DOUBLE), constant(24.0, DOUBLE)));
+
+    // extendedprice * discount
+    private static final RowExpression TPCH_6_PROJECTION = call(MULTIPLY, DOUBLE, field(EXTENDED_PRICE, DOUBLE), field(DISCOUNT, DOUBLE));
+
+    // orderkey + partkey > suppkey
+    private static final RowExpression BIGINT_COMPARISON = call(
+            GREATER_THAN,
+            BOOLEAN,
+            call(ADD, BIGINT, field(ORDER_KEY, BIGINT), field(PART_KEY, BIGINT)),
+            field(SUPPLIER_KEY, BIGINT));
+
+    @Param({"false", "true"})
+    private boolean vectorized;
+
+    private Page inputPage;
+    private PageProcessor tpch1Processor;
+    private PageProcessor tpch6Processor;
+    private PageProcessor bigintProcessor;
+
+    @Setup
+    public void setup()
+    {
+        inputPage = createInputPage();
+
+        Metadata metadata = createTestMetadataManager();
+        ExpressionCompiler compiler = new ExpressionCompiler(metadata, new PageFunctionCompiler(metadata, 0, Optional.empty(), false, vectorized));
+        tpch1Processor = compiler.compilePageProcessor(Optional.empty(), TPCH_1_PROJECTIONS).get();
+        tpch6Processor = compiler.compilePageProcessor(Optional.of(TPCH_6_FILTER), ImmutableList.of(TPCH_6_PROJECTION)).get();
+        bigintProcessor = compiler.compilePageProcessor(Optional.empty(), ImmutableList.of(BIGINT_COMPARISON)).get();
+    }
+
+    @Benchmark
+    public List<Optional<Page>> tpch1()
+    {
+        return process(tpch1Processor);
+    }
+
+    @Benchmark
+    public List<Optional<Page>> tpch6()
+    {
+        return process(tpch6Processor);
+    }
+
+    @Benchmark
+    public List<Optional<Page>> bigint()
+    {
+        return process(bigintProcessor);
+    }
+
+    private List<Optional<Page>> process(PageProcessor processor)
+    {
+        return ImmutableList.copyOf(
+                processor.process(
+                        null,
+                        new DriverYieldSignal(),
+                        newSimpleAggregatedMemoryContext().newLocalMemoryContext(PageProcessor.class.getSimpleName()),
+                        inputPage));
+    }
+
+    private static RowExpression call(OperatorType operator, Type returnType, RowExpression... arguments)
+    {
+        List<Type> argumentTypes = Arrays.stream(arguments)
+                .map(RowExpression::getType)
+                .collect(toImmutableList());
+        return Expressions.call(internalOperator(operator, returnType, argumentTypes), returnType, arguments);
+    }
+
+    private static Page createInputPage()
+    {
+        PageBuilder pageBuilder = new PageBuilder(ImmutableList.of(DOUBLE, DOUBLE, DOUBLE, DOUBLE, BIGINT, BIGINT, BIGINT));
+        Iterator<LineItem> iterator = new LineItemGenerator(1, 1, 1).iterator();
+        for (int i = 0; i < 10_000; i++) {
+            pageBuilder.declarePosition();
+
+            LineItem lineItem = iterator.next();
+            DOUBLE.writeDouble(pageBuilder.getBlockBuilder(EXTENDED_PRICE), lineItem.getExtendedPrice());
+            DOUBLE.writeDouble(pageBuilder.getBlockBuilder(DISCOUNT), lineItem.getDiscount());
+            DOUBLE.writeDouble(pageBuilder.getBlockBuilder(TAX), lineItem.getTax());
+            DOUBLE.writeDouble(pageBuilder.getBlockBuilder(QUANTITY), lineItem.getQuantity());
+            BIGINT.writeLong(pageBuilder.getBlockBuilder(ORDER_KEY), lineItem.getOrderKey());
+            BIGINT.writeLong(pageBuilder.getBlockBuilder(PART_KEY), lineItem.getPartKey());
+            BIGINT.writeLong(pageBuilder.getBlockBuilder(SUPPLIER_KEY), lineItem.getSupplierKey());
+        }
+        return pageBuilder.build();
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        new BenchmarkVectorizedEvaluation().setup();
+
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkVectorizedEvaluation.class.getSimpleName() + ".*")
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -17,27 +17,49 @@ import com.google.common.collect.ImmutableList;
 import io.prestosql.metadata.Signature;
 import io.prestosql.operator.DriverYieldSignal;
 import io.prestosql.operator.Work;
+import io.prestosql.operator.project.AdaptiveConjunctPageFilter;
+import io.prestosql.operator.project.PageFilter;
 import io.prestosql.operator.project.PageProjection;
 import io.prestosql.operator.project.SelectedPositions;
+import io.prestosql.operator.project.TieredPageFilter;
+import io.prestosql.operator.project.TieredPageProjection;
+import io.prestosql.operator.project.VectorizedPageFilter;
+import io.prestosql.operator.project.VectorizedPageProjection;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.type.RowType;
+import io.prestosql.sql.gen.PageFunctionCompiler.ParameterizedExpression;
 import io.prestosql.sql.relational.CallExpression;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.relational.SpecialForm;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Supplier;
 
+import static io.prestosql.block.BlockAssertions.createLongsBlock;
 import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
 import static io.prestosql.spi.StandardErrorCode.NUMERIC_VALUE_OUT_OF_RANGE;
 import static io.prestosql.spi.function.OperatorType.ADD;
+import static io.prestosql.spi.function.OperatorType.GREATER_THAN;
 import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.sql.gen.PageFunctionCompiler.parameterizeConstants;
 import static io.prestosql.sql.relational.Expressions.call;
 import static io.prestosql.sql.relational.Expressions.constant;
+import static io.prestosql.sql.relational.Expressions.constantNull;
 import static io.prestosql.sql.relational.Expressions.field;
+import static io.prestosql.sql.relational.SpecialForm.Form.AND;
+import static io.prestosql.sql.relational.SpecialForm.Form.IN;
+import static io.prestosql.sql.relational.SpecialForm.Form.ROW_CONSTRUCTOR;
 import static io.prestosql.testing.TestingConnectorSession.SESSION;
 import static io.prestosql.testing.assertions.PrestoExceptionAssert.assertPrestoExceptionThrownBy;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
 import static org.testng.Assert.assertNotSame;
 import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
@@ -121,6 +143,165 @@ public class TestPageFunctionCompiler
                 noCacheCompiler.compileProjection(ADD_10_EXPRESSION, Optional.of("hint2")));
     }
 
+    @Test
+    public void testSharedClassForDifferentConstants()
+    {
+        PageFunctionCompiler cacheCompiler = new PageFunctionCompiler(createTestMetadataManager(), 100);
+        Page page = createLongBlockPage(1, 2, 3);
+
+        PageProjection add10 = cacheCompiler.compileProjection(ADD_10_EXPRESSION, Optional.empty()).get();
+        PageProjection add20 = cacheCompiler.compileProjection(add(field(0, BIGINT), constant(20L, BIGINT)), Optional.empty()).get();
+        // the column is not part of the generated class either
+        PageProjection add30 = cacheCompiler.compileProjection(add(field(1, BIGINT), constant(30L, BIGINT)), Optional.empty()).get();
+        assertEquals(cacheCompiler.getProjectionCache().size(), 3);
+        assertEquals(cacheCompiler.getProjectionClassCache().size(), 1);
+
+        assertSame(newWork(add10, page).getClass(), newWork(add20, page).getClass());
+        assertSame(newWork(add10, page).getClass(), newWork(add30, new Page(page.getBlock(0), page.getBlock(0))).getClass());
+        assertLongBlock(project(add10, page, SelectedPositions.positionsRange(0, 3)), 11, 12, 13);
+        assertLongBlock(project(add20, page, SelectedPositions.positionsRange(0, 3)), 21, 22, 23);
+        assertLongBlock(project(add30, new Page(page.getBlock(0), page.getBlock(0)), SelectedPositions.positionsRange(0, 3)), 31, 32, 33);
+
+        PageFilter greaterThan1 = cacheCompiler.compileFilter(greaterThan(field(0, BIGINT), constant(1L, BIGINT)), Optional.empty()).get();
+        PageFilter greaterThan2 = cacheCompiler.compileFilter(greaterThan(field(0, BIGINT), constant(2L, BIGINT)), Optional.empty()).get();
+        assertEquals(cacheCompiler.getFilterClassCache().size(), 1);
+        assertSame(greaterThan1.getClass(), greaterThan2.getClass());
+        assertEquals(greaterThan1.filter(SESSION, page).size(), 2);
+        assertEquals(greaterThan2.filter(SESSION, page).size(), 1);
+
+        // null constants are kept in the generated class
+        cacheCompiler.compileFilter(greaterThan(field(0, BIGINT), constantNull(BIGINT)), Optional.empty());
+        assertEquals(cacheCompiler.getFilterClassCache().size(), 2);
+    }
+
+    @Test
+    public void testParameterizeConstants()
+    {
+        ParameterizedExpression add10 = parameterizeConstants(ADD_10_EXPRESSION);
+        ParameterizedExpression add20 = parameterizeConstants(add(field(0, BIGINT), constant(20L, BIGINT)));
+        assertEquals(add10.getExpression(), add20.getExpression());
+        assertEquals(add10.getConstants(), new Object[] {10L});
+        assertEquals(add20.getConstants(), new Object[] {20L});
+
+        // null constants and the values of IN lists are kept
+        RowExpression in = new SpecialForm(IN, BOOLEAN, add(field(0, BIGINT), constant(1L, BIGINT)), constant(2L, BIGINT), constantNull(BIGINT));
+        ParameterizedExpression parameterizedIn = parameterizeConstants(in);
+        assertEquals(parameterizedIn.getConstants(), new Object[] {1L});
+        assertNotEquals(parameterizedIn.getExpression(), in);
+        assertEquals(((SpecialForm) parameterizedIn.getExpression()).getArguments().subList(1, 3), ImmutableList.of(constant(2L, BIGINT), constantNull(BIGINT)));
+    }
+
+    @Test
+    public void testTieredCompilation()
+    {
+        List<Runnable> compilations = new ArrayList<>();
+        PageFunctionCompiler tieredCompiler = new PageFunctionCompiler(createTestMetadataManager(), 100, Optional.of(compilations::add));
+        Page page = createLongBlockPage(1, 2, 3);
+
+        Supplier<PageProjection> projectionSupplier = tieredCompiler.compileProjection(ADD_10_EXPRESSION, Optional.empty());
+        Supplier<PageFilter> filterSupplier = tieredCompiler.compileFilter(greaterThan(field(0, BIGINT), constant(1L, BIGINT)), Optional.empty());
+        assertEquals(compilations.size(), 2);
+
+        // the expressions are interpreted until they are compiled
+        PageProjection projection = projectionSupplier.get();
+        PageFilter filter = filterSupplier.get();
+        assertTrue(projection instanceof TieredPageProjection);
+        assertTrue(filter instanceof TieredPageFilter);
+        assertLongBlock(project(projection, page, SelectedPositions.positionsRange(0, 3)), 11, 12, 13);
+        assertLongBlock(project(projection, page, SelectedPositions.positionsList(new int[] {0, 2}, 0, 2)), 11, 13);
+        assertEquals(filter.filter(SESSION, page).size(), 2);
+        assertPrestoExceptionThrownBy(() -> project(projection, createLongBlockPage(Long.MAX_VALUE), SelectedPositions.positionsRange(0, 1)))
+                .hasErrorCode(NUMERIC_VALUE_OUT_OF_RANGE);
+        assertEquals(tieredCompiler.getProjectionCache().size(), 0);
+
+        compilations.forEach(Runnable::run);
+        assertEquals(tieredCompiler.getProjectionCache().size(), 1);
+        assertEquals(tieredCompiler.getFilterCache().size(), 1);
+
+        // existing instances switch to the compiled version on the next page
+        assertLongBlock(project(projection, page, SelectedPositions.positionsRange(0, 3)), 11, 12, 13);
+        assertTrue(newWork(projection, page).getClass().getSimpleName().startsWith("PageProjectionWork"));
+        assertEquals(filter.filter(SESSION, page).size(), 2);
+        assertTrue(filter.toString().contains("compiled=true"));
+
+        // new instances and expressions that are already compiled do not go through the interpreter
+        assertFalse(projectionSupplier.get() instanceof TieredPageProjection);
+        assertFalse(filterSupplier.get() instanceof TieredPageFilter);
+        assertFalse(tieredCompiler.compileProjection(ADD_10_EXPRESSION, Optional.empty()).get() instanceof TieredPageProjection);
+        assertEquals(compilations.size(), 2);
+
+        // expressions that can not be interpreted are compiled right away
+        RowExpression row = new SpecialForm(ROW_CONSTRUCTOR, RowType.anonymous(ImmutableList.of(BIGINT)), ADD_10_EXPRESSION);
+        assertFalse(tieredCompiler.compileProjection(row, Optional.empty()).get() instanceof TieredPageProjection);
+        assertEquals(compilations.size(), 2);
+    }
+
+    @Test
+    public void testAdaptiveConjunctOrdering()
+    {
+        PageFunctionCompiler adaptiveCompiler = new PageFunctionCompiler(createTestMetadataManager(), 100, Optional.empty(), true, false);
+        RowExpression filterExpression = new SpecialForm(
+                AND,
+                BOOLEAN,
+                new SpecialForm(AND, BOOLEAN, greaterThan(field(1, BIGINT), constant(1L, BIGINT)), greaterThan(field(0, BIGINT), constant(1L, BIGINT))),
+                greaterThan(field(0, BIGINT), constant(2L, BIGINT)));
+
+        PageFilter filter = adaptiveCompiler.compileFilter(filterExpression, Optional.empty()).get();
+        assertTrue(filter instanceof AdaptiveConjunctPageFilter);
+        assertEquals(filter.getInputChannels().getInputChannels(), ImmutableList.of(1, 0));
+        assertEquals(((AdaptiveConjunctPageFilter) filter).getInfo().getConjuncts().size(), 3);
+
+        Page page = new Page(createLongsBlock(1, 2, 3, 4), createLongsBlock(4, 3, 2, 1));
+        SelectedPositions selectedPositions = filter.filter(SESSION, filter.getInputChannels().getInputChannels(page));
+        assertEquals(selectedPositions.size(), 1);
+        assertEquals(selectedPositions.getPositions()[selectedPositions.getOffset()], 2);
+
+        // filters without a top level AND are compiled as a whole
+        assertFalse(adaptiveCompiler.compileFilter(greaterThan(field(0, BIGINT), constant(1L, BIGINT)), Optional.empty()).get() instanceof AdaptiveConjunctPageFilter);
+    }
+
+    @Test
+    public void testVectorizedEvaluation()
+    {
+        PageFunctionCompiler vectorizedCompiler = new PageFunctionCompiler(createTestMetadataManager(), 100, Optional.empty(), false, true);
+        Page page = createLongBlockPage(1, 2, 3);
+
+        PageProjection projection = vectorizedCompiler.compileProjection(ADD_10_EXPRESSION, Optional.empty()).get();
+        assertTrue(projection instanceof VectorizedPageProjection);
+        assertLongBlock(project(projection, page, SelectedPositions.positionsList(new int[] {0, 2}, 0, 2)), 11, 13);
+
+        PageFilter filter = vectorizedCompiler.compileFilter(greaterThan(field(0, BIGINT), constant(1L, BIGINT)), Optional.empty()).get();
+        assertTrue(filter instanceof VectorizedPageFilter);
+        assertEquals(filter.filter(SESSION, page).size(), 2);
+
+        // unsupported expressions are compiled
+        RowExpression row = new SpecialForm(ROW_CONSTRUCTOR, RowType.anonymous(ImmutableList.of(BIGINT)), ADD_10_EXPRESSION);
+        assertFalse(vectorizedCompiler.compileProjection(row, Optional.empty()).get() instanceof VectorizedPageProjection);
+    }
+
+    private static RowExpression add(RowExpression left, RowExpression right)
+    {
+        return call(Signature.internalOperator(ADD, BIGINT.getTypeSignature(), ImmutableList.of(BIGINT.getTypeSignature(), BIGINT.getTypeSignature())), BIGINT, left, right);
+    }
+
+    private static RowExpression greaterThan(RowExpression left, RowExpression right)
+    {
+        return call(Signature.internalOperator(GREATER_THAN, BOOLEAN.getTypeSignature(), ImmutableList.of(BIGINT.getTypeSignature(), BIGINT.getTypeSignature())), BOOLEAN, left, right);
+    }
+
+    private static Work<Block> newWork(PageProjection projection, Page page)
+    {
+        return projection.project(SESSION, new DriverYieldSignal(), projection.getInputChannels().getInputChannels(page), SelectedPositions.positionsRange(0, page.getPositionCount()));
+    }
+
+    private static void assertLongBlock(Block block, long... values)
+    {
+        assertEquals(block.getPositionCount(), values.length);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(BIGINT.getLong(block, i), values[i]);
+        }
+    }
+
     private Block project(PageProjection projection, Page page, SelectedPositions selectedPositions)
     {
         Work<Block> work = projection.project(SESSION, new DriverYieldSignal(), page, selectedPositions);
@@ -28,7 +28,11 @@ public class TestCompilerConfig
     public void testDefaults()
     {
         assertRecordedDefaults(recordDefaults(CompilerConfig.class)
-                .setExpressionCacheSize(10_000));
+                .setExpressionCacheSize(10_000)
+                .setTieredCompilationEnabled(false)
+                .setTieredCompilationThreads(2)
+                .setAdaptiveConjunctOrderingEnabled(false)
+                .setVectorizedEvaluationEnabled(false));
     }
 
     @Test
@@ -36,10 +40,18 @@ public class TestCompilerConfig
     {
         Map<String, String> properties = new ImmutableMap.Builder<String, String>()
                 .put("compiler.expression-cache-size", "52")
+                .put("compiler.tiered-compilation-enabled", "true")
+                .put("compiler.tiered-compilation-threads", "4")
+                .put("compiler.adaptive-conjunct-ordering-enabled", "true")
+                .put("compiler.vectorized-evaluation-enabled", "true")
                 .build();
 
         CompilerConfig expected = new CompilerConfig()
-                .setExpressionCacheSize(52);
+                .setExpressionCacheSize(52)
+                .setTieredCompilationEnabled(true)
+                .setTieredCompilationThreads(4)
+                .setAdaptiveConjunctOrderingEnabled(true)
+                .setVectorizedEvaluationEnabled(true);
 
         assertFullMapping(properties, expected);
     }
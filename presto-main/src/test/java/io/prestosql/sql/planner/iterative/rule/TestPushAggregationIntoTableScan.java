@@ -0,0 +1,141 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner.iterative.rule;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.Session;
+import io.prestosql.metadata.AbstractMockMetadata;
+import io.prestosql.metadata.Signature;
+import io.prestosql.metadata.TableHandle;
+import io.prestosql.operator.aggregation.InternalAggregationFunction;
+import io.prestosql.spi.connector.AggregateFunction;
+import io.prestosql.spi.connector.AggregationApplicationResult;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.ProjectionApplicationResult.Assignment;
+import io.prestosql.spi.expression.ConnectorExpression;
+import io.prestosql.spi.expression.Variable;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.iterative.rule.test.BaseRuleTest;
+import io.prestosql.sql.planner.iterative.rule.test.PlanBuilder;
+import io.prestosql.sql.planner.plan.PlanNode;
+import io.prestosql.sql.planner.plan.TableScanNode;
+import io.prestosql.testing.TestingMetadata.TestingColumnHandle;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.aggregation;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.node;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.project;
+import static io.prestosql.sql.planner.iterative.rule.test.PlanBuilder.expression;
+import static io.prestosql.sql.planner.plan.AggregationNode.Step.FINAL;
+import static org.testng.Assert.assertEquals;
+
+public class TestPushAggregationIntoTableScan
+        extends BaseRuleTest
+{
+    @Test
+    public void testDoesNotFire()
+    {
+        tester().assertThat(new PushAggregationIntoTableScan(new TestMetadata(Optional.empty())))
+                .on(this::maxOverScan)
+                .doesNotFire();
+    }
+
+    @Test
+    public void testDoesNotFireWithMask()
+    {
+        TestMetadata metadata = new TestMetadata(Optional.of(false));
+        tester().assertThat(new PushAggregationIntoTableScan(metadata))
+                .on(p -> {
+                    Symbol a = p.symbol("a", BIGINT);
+                    Symbol mask = p.symbol("mask");
+                    return p.aggregation(aggregation -> aggregation
+                            .globalGrouping()
+                            .addAggregation(p.symbol("max_a", BIGINT), expression("max(a)"), ImmutableList.of(BIGINT), mask)
+                            .source(p.tableScan(
+                                    ImmutableList.of(a, mask),
+                                    ImmutableMap.of(a, new TestingColumnHandle("a"), mask, new TestingColumnHandle("mask")))));
+                })
+                .doesNotFire();
+        assertEquals(metadata.calls, 0);
+    }
+
+    @Test
+    public void testPushdown()
+    {
+        TestMetadata metadata = new TestMetadata(Optional.of(false));
+        tester().assertThat(new PushAggregationIntoTableScan(metadata))
+                .on(this::maxOverScan)
+                .matches(
+                        project(node(TableScanNode.class)));
+        assertEquals(metadata.lastAggregates.toString(), "[max(a::bigint)::bigint]");
+    }
+
+    @Test
+    public void testPartialPushdown()
+    {
+        tester().assertThat(new PushAggregationIntoTableScan(new TestMetadata(Optional.of(true))))
+                .on(this::maxOverScan)
+                .matches(
+                        aggregation(
+                                ImmutableMap.of(),
+                                FINAL,
+                                node(TableScanNode.class)));
+    }
+
+    private PlanNode maxOverScan(PlanBuilder p)
+    {
+        Symbol a = p.symbol("a", BIGINT);
+        return p.aggregation(aggregation -> aggregation
+                .globalGrouping()
+                .addAggregation(p.symbol("max_a", BIGINT), expression("max(a)"), ImmutableList.of(BIGINT))
+                .source(p.tableScan(ImmutableList.of(a), ImmutableMap.of(a, new TestingColumnHandle("a")))));
+    }
+
+    private class TestMetadata
+            extends AbstractMockMetadata
+    {
+        private final Optional<Boolean> partial;
+        private List<AggregateFunction> lastAggregates;
+        private int calls;
+
+        public TestMetadata(Optional<Boolean> partial)
+        {
+            this.partial = partial;
+        }
+
+        @Override
+        public Optional<AggregationApplicationResult<TableHandle>> applyAggregation(Session session, TableHandle table, List<AggregateFunction> aggregates, Map<String, ColumnHandle> assignments, List<ColumnHandle> groupingColumns)
+        {
+            calls++;
+            lastAggregates = aggregates;
+            return partial.map(isPartial -> new AggregationApplicationResult<>(
+                    table,
+                    ImmutableList.<ConnectorExpression>of(new Variable("pushed", BIGINT)),
+                    ImmutableList.of(new Assignment("pushed", new TestingColumnHandle("pushed"), BIGINT)),
+                    isPartial));
+        }
+
+        @Override
+        public InternalAggregationFunction getAggregateFunctionImplementation(Signature signature)
+        {
+            return tester().getMetadata().getAggregateFunctionImplementation(signature);
+        }
+    }
+}
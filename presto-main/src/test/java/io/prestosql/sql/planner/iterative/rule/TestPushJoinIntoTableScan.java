@@ -0,0 +1,177 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner.iterative.rule;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.Session;
+import io.prestosql.cost.PlanNodeStatsEstimate;
+import io.prestosql.metadata.AbstractMockMetadata;
+import io.prestosql.metadata.TableHandle;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.JoinApplicationResult;
+import io.prestosql.spi.connector.JoinCondition;
+import io.prestosql.spi.connector.JoinType;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.iterative.rule.test.BaseRuleTest;
+import io.prestosql.sql.planner.iterative.rule.test.PlanBuilder;
+import io.prestosql.sql.planner.plan.FilterNode;
+import io.prestosql.sql.planner.plan.JoinNode;
+import io.prestosql.sql.planner.plan.JoinNode.EquiJoinClause;
+import io.prestosql.sql.planner.plan.PlanNode;
+import io.prestosql.sql.planner.plan.TableScanNode;
+import io.prestosql.sql.tree.Expression;
+import io.prestosql.testing.TestingMetadata.TestingColumnHandle;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.node;
+import static io.prestosql.sql.planner.iterative.rule.test.PlanBuilder.expression;
+import static io.prestosql.sql.planner.plan.JoinNode.Type.INNER;
+import static io.prestosql.sql.planner.plan.JoinNode.Type.LEFT;
+import static org.testng.Assert.assertEquals;
+
+public class TestPushJoinIntoTableScan
+        extends BaseRuleTest
+{
+    @Test
+    public void testDoesNotFire()
+    {
+        tester().assertThat(new PushJoinIntoTableScan(new TestMetadata(false)))
+                .on(p -> join(p, INNER, Optional.empty(), Optional.empty(), Optional.empty()))
+                .doesNotFire();
+    }
+
+    @Test
+    public void testPushdown()
+    {
+        TestMetadata metadata = new TestMetadata(true);
+        tester().assertThat(new PushJoinIntoTableScan(metadata))
+                .on(p -> join(p, INNER, Optional.empty(), Optional.empty(), Optional.of(expression("a < b"))))
+                .matches(node(TableScanNode.class));
+        assertEquals(metadata.lastJoinType, JoinType.INNER);
+        assertEquals(metadata.lastConditions.toString(), "[a::bigint = b::bigint, a::bigint < b::bigint]");
+    }
+
+    @Test
+    public void testFlippedCondition()
+    {
+        TestMetadata metadata = new TestMetadata(true);
+        tester().assertThat(new PushJoinIntoTableScan(metadata))
+                .on(p -> join(p, INNER, Optional.empty(), Optional.empty(), Optional.of(expression("b > a"))))
+                .matches(node(TableScanNode.class));
+        assertEquals(metadata.lastConditions.toString(), "[a::bigint = b::bigint, a::bigint < b::bigint]");
+    }
+
+    @Test
+    public void testFilterAboveJoin()
+    {
+        tester().assertThat(new PushJoinIntoTableScan(new TestMetadata(true)))
+                .on(p -> join(p, INNER, Optional.of(expression("a > 5")), Optional.of(expression("b < 10")), Optional.of(expression("a + b > 0"))))
+                .matches(node(FilterNode.class, node(TableScanNode.class)));
+    }
+
+    @Test
+    public void testOuterJoin()
+    {
+        TestMetadata metadata = new TestMetadata(true);
+        tester().assertThat(new PushJoinIntoTableScan(metadata))
+                .on(p -> join(p, LEFT, Optional.of(expression("a > 5")), Optional.empty(), Optional.empty()))
+                .matches(node(FilterNode.class, node(TableScanNode.class)));
+        assertEquals(metadata.lastJoinType, JoinType.LEFT_OUTER);
+
+        // rows removed from the null-supplying side would be joined with nulls instead
+        tester().assertThat(new PushJoinIntoTableScan(new TestMetadata(true)))
+                .on(p -> join(p, LEFT, Optional.empty(), Optional.of(expression("b < 10")), Optional.empty()))
+                .doesNotFire();
+
+        // the remaining filter of an outer join cannot be evaluated after the join
+        tester().assertThat(new PushJoinIntoTableScan(new TestMetadata(true)))
+                .on(p -> join(p, LEFT, Optional.empty(), Optional.empty(), Optional.of(expression("a + b > 0"))))
+                .doesNotFire();
+    }
+
+    @Test
+    public void testDoesNotFireWhenJoinIncreasesRows()
+    {
+        // scans are planned before the join, so their ids are 0 and 1
+        tester().assertThat(new PushJoinIntoTableScan(new TestMetadata(true)))
+                .on(p -> join(p, INNER, Optional.empty(), Optional.empty(), Optional.empty()))
+                .overrideStats("0", PlanNodeStatsEstimate.builder().setOutputRowCount(1000).build())
+                .overrideStats("1", PlanNodeStatsEstimate.builder().setOutputRowCount(1000).build())
+                .overrideStats("2", PlanNodeStatsEstimate.builder().setOutputRowCount(100_000).build())
+                .doesNotFire();
+
+        tester().assertThat(new PushJoinIntoTableScan(new TestMetadata(true)))
+                .on(p -> join(p, INNER, Optional.empty(), Optional.empty(), Optional.empty()))
+                .overrideStats("0", PlanNodeStatsEstimate.builder().setOutputRowCount(1000).build())
+                .overrideStats("1", PlanNodeStatsEstimate.builder().setOutputRowCount(1000).build())
+                .overrideStats("2", PlanNodeStatsEstimate.builder().setOutputRowCount(500).build())
+                .matches(node(TableScanNode.class));
+    }
+
+    private static PlanNode join(PlanBuilder p, JoinNode.Type type, Optional<Expression> leftFilter, Optional<Expression> rightFilter, Optional<Expression> joinFilter)
+    {
+        Symbol a = p.symbol("a", BIGINT);
+        Symbol b = p.symbol("b", BIGINT);
+        PlanNode left = p.tableScan(ImmutableList.of(a), ImmutableMap.of(a, new TestingColumnHandle("a")));
+        PlanNode right = p.tableScan(ImmutableList.of(b), ImmutableMap.of(b, new TestingColumnHandle("b")));
+        if (leftFilter.isPresent()) {
+            left = p.filter(leftFilter.get(), left);
+        }
+        if (rightFilter.isPresent()) {
+            right = p.filter(rightFilter.get(), right);
+        }
+        return p.join(type, left, right, ImmutableList.of(new EquiJoinClause(a, b)), ImmutableList.of(a, b), joinFilter);
+    }
+
+    private static class TestMetadata
+            extends AbstractMockMetadata
+    {
+        private final boolean supported;
+        private JoinType lastJoinType;
+        private List<JoinCondition> lastConditions;
+
+        public TestMetadata(boolean supported)
+        {
+            this.supported = supported;
+        }
+
+        @Override
+        public Optional<JoinApplicationResult<TableHandle>> applyJoin(
+                Session session,
+                JoinType joinType,
+                TableHandle left,
+                TableHandle right,
+                List<JoinCondition> joinConditions,
+                Map<String, ColumnHandle> leftAssignments,
+                Map<String, ColumnHandle> rightAssignments)
+        {
+            lastJoinType = joinType;
+            lastConditions = joinConditions;
+            if (!supported) {
+                return Optional.empty();
+            }
+            return Optional.of(new JoinApplicationResult<>(
+                    left,
+                    leftAssignments.values().stream().collect(toImmutableMap(column -> column, column -> new TestingColumnHandle("joined_" + column))),
+                    rightAssignments.values().stream().collect(toImmutableMap(column -> column, column -> new TestingColumnHandle("joined_" + column)))));
+        }
+    }
+}
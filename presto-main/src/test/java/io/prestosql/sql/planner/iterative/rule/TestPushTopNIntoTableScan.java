@@ -0,0 +1,112 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner.iterative.rule;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.Session;
+import io.prestosql.metadata.AbstractMockMetadata;
+import io.prestosql.metadata.TableHandle;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.SortItem;
+import io.prestosql.spi.connector.TopNApplicationResult;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.iterative.rule.test.BaseRuleTest;
+import io.prestosql.sql.planner.plan.TableScanNode;
+import io.prestosql.sql.planner.plan.TopNNode;
+import io.prestosql.testing.TestingMetadata.TestingColumnHandle;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.prestosql.spi.block.SortOrder.ASC_NULLS_FIRST;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.node;
+import static io.prestosql.sql.planner.plan.TopNNode.Step.PARTIAL;
+import static io.prestosql.sql.planner.plan.TopNNode.Step.SINGLE;
+import static org.testng.Assert.assertEquals;
+
+public class TestPushTopNIntoTableScan
+        extends BaseRuleTest
+{
+    @Test
+    public void testDoesNotFire()
+    {
+        tester().assertThat(new PushTopNIntoTableScan(new TestMetadata(Optional.empty())))
+                .on(p -> {
+                    Symbol a = p.symbol("a", BIGINT);
+                    return p.topN(10, ImmutableList.of(a), PARTIAL, p.tableScan(ImmutableList.of(a), ImmutableMap.of(a, new TestingColumnHandle("a"))));
+                })
+                .doesNotFire();
+
+        // only the partial TopN is offered to the connector
+        tester().assertThat(new PushTopNIntoTableScan(new TestMetadata(Optional.of(true))))
+                .on(p -> {
+                    Symbol a = p.symbol("a", BIGINT);
+                    return p.topN(10, ImmutableList.of(a), SINGLE, p.tableScan(ImmutableList.of(a), ImmutableMap.of(a, new TestingColumnHandle("a"))));
+                })
+                .doesNotFire();
+    }
+
+    @Test
+    public void testTopNGuaranteed()
+    {
+        TestMetadata metadata = new TestMetadata(Optional.of(true));
+        tester().assertThat(new PushTopNIntoTableScan(metadata))
+                .on(p -> {
+                    Symbol a = p.symbol("a", BIGINT);
+                    return p.topN(10, ImmutableList.of(a), PARTIAL, p.tableScan(ImmutableList.of(a), ImmutableMap.of(a, new TestingColumnHandle("a"))));
+                })
+                .matches(node(TableScanNode.class));
+        assertEquals(metadata.lastTopNCount, 10);
+        assertEquals(metadata.lastSortItems, ImmutableList.of(new SortItem("a", ASC_NULLS_FIRST)));
+        assertEquals(metadata.lastAssignments, ImmutableMap.of("a", new TestingColumnHandle("a")));
+    }
+
+    @Test
+    public void testTopNNotGuaranteed()
+    {
+        tester().assertThat(new PushTopNIntoTableScan(new TestMetadata(Optional.of(false))))
+                .on(p -> {
+                    Symbol a = p.symbol("a", BIGINT);
+                    return p.topN(10, ImmutableList.of(a), PARTIAL, p.tableScan(ImmutableList.of(a), ImmutableMap.of(a, new TestingColumnHandle("a"))));
+                })
+                .matches(node(TopNNode.class, node(TableScanNode.class)));
+    }
+
+    private static class TestMetadata
+            extends AbstractMockMetadata
+    {
+        private final Optional<Boolean> topNGuaranteed;
+        private long lastTopNCount;
+        private List<SortItem> lastSortItems;
+        private Map<String, ColumnHandle> lastAssignments;
+
+        public TestMetadata(Optional<Boolean> topNGuaranteed)
+        {
+            this.topNGuaranteed = topNGuaranteed;
+        }
+
+        @Override
+        public Optional<TopNApplicationResult<TableHandle>> applyTopN(Session session, TableHandle table, long topNCount, List<SortItem> sortItems, Map<String, ColumnHandle> assignments)
+        {
+            lastTopNCount = topNCount;
+            lastSortItems = sortItems;
+            lastAssignments = assignments;
+            return topNGuaranteed.map(guaranteed -> new TopNApplicationResult<>(table, guaranteed));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.util;
+
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestConstantLongSet
+{
+    @Test
+    public void testContains()
+    {
+        ConstantLongSet set = new ConstantLongSet(ImmutableList.of(0L, 1L, -1L, Long.MIN_VALUE, Long.MAX_VALUE, 1L, 0L));
+
+        assertEquals(set.size(), 5);
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(1));
+        assertTrue(set.contains(-1));
+        assertTrue(set.contains(Long.MIN_VALUE));
+        assertTrue(set.contains(Long.MAX_VALUE));
+        assertFalse(set.contains(2));
+        assertFalse(set.contains(Long.MIN_VALUE + 1));
+    }
+
+    @Test
+    public void testWithoutZero()
+    {
+        ConstantLongSet set = new ConstantLongSet(ImmutableList.of(5L));
+        assertFalse(set.contains(0));
+        assertTrue(set.contains(5));
+    }
+
+    @Test
+    public void testRandomValues()
+    {
+        Random random = new Random(42);
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 100_000; i++) {
+            // a small range, so many lookups hit the set
+            expected.add((long) random.nextInt(1_000_000));
+        }
+        List<Long> values = ImmutableList.copyOf(expected);
+        ConstantLongSet set = new ConstantLongSet(values);
+
+        assertEquals(set.size(), expected.size());
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextInt(1_000_000);
+            assertEquals(set.contains(value), expected.contains(value));
+        }
+    }
+}
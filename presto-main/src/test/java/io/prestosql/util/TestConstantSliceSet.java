@@ -0,0 +1,65 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.util;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static io.airlift.slice.Slices.EMPTY_SLICE;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestConstantSliceSet
+{
+    @Test
+    public void testContains()
+    {
+        ConstantSliceSet set = new ConstantSliceSet(ImmutableList.of(utf8Slice("apple"), utf8Slice("banana"), EMPTY_SLICE, utf8Slice("apple")));
+
+        assertEquals(set.size(), 3);
+        assertTrue(set.contains(utf8Slice("apple")));
+        assertTrue(set.contains(utf8Slice("banana")));
+        assertTrue(set.contains(EMPTY_SLICE));
+        assertFalse(set.contains(utf8Slice("cherry")));
+        assertFalse(set.contains(utf8Slice("appl")));
+
+        // the bytes are compared, not the underlying arrays
+        assertTrue(set.contains(wrappedBuffer("xbananax".getBytes(), 1, 6)));
+    }
+
+    @Test
+    public void testRandomValues()
+    {
+        Random random = new Random(42);
+        Set<Slice> expected = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            expected.add(utf8Slice(Integer.toString(random.nextInt(100_000))));
+        }
+        ConstantSliceSet set = new ConstantSliceSet(ImmutableList.copyOf(expected));
+
+        assertEquals(set.size(), expected.size());
+        for (int i = 0; i < 10_000; i++) {
+            Slice value = utf8Slice(Integer.toString(random.nextInt(100_000)));
+            assertEquals(set.contains(value), expected.contains(value));
+        }
+    }
+}
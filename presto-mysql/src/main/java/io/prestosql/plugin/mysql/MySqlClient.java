@@ -28,13 +28,16 @@ import io.prestosql.plugin.jdbc.ColumnMapping;
 import io.prestosql.plugin.jdbc.ConnectionFactory;
 import io.prestosql.plugin.jdbc.JdbcColumnHandle;
 import io.prestosql.plugin.jdbc.JdbcIdentity;
+import io.prestosql.plugin.jdbc.JdbcSortItem;
 import io.prestosql.plugin.jdbc.JdbcTableHandle;
 import io.prestosql.plugin.jdbc.JdbcTypeHandle;
 import io.prestosql.plugin.jdbc.StatsCollecting;
+import io.prestosql.plugin.jdbc.TopNFunction;
 import io.prestosql.plugin.jdbc.WriteMapping;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorTableMetadata;
+import io.prestosql.spi.connector.JoinType;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.type.StandardTypes;
 import io.prestosql.spi.type.Type;
@@ -81,6 +84,7 @@ import static io.prestosql.spi.type.Varchars.isVarcharType;
 import static java.lang.String.format;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Locale.ENGLISH;
+import static java.util.stream.Collectors.joining;
 
 public class MySqlClient
         extends BaseJdbcClient
@@ -272,6 +276,43 @@ public class MySqlClient
         return true;
     }
 
+    @Override
+    protected Optional<TopNFunction> topNFunction()
+    {
+        return Optional.of((query, orderBy, limit) -> format(
+                "%s ORDER BY %s LIMIT %s",
+                query,
+                orderBy.stream()
+                        .map(this::toMySqlOrderByItems)
+                        .collect(joining(", ")),
+                limit));
+    }
+
+    // MySQL does not support NULLS FIRST and NULLS LAST, so nulls are ordered by a separate sort key
+    private String toMySqlOrderByItems(JdbcSortItem sortItem)
+    {
+        String expression = toSortExpression(sortItem.getColumn());
+        return format(
+                "ISNULL(%s) %s, %s %s",
+                expression,
+                sortItem.getSortOrder().isNullsFirst() ? "DESC" : "ASC",
+                expression,
+                sortItem.getSortOrder().isAscending() ? "ASC" : "DESC");
+    }
+
+    @Override
+    public boolean isTopNGuaranteed(ConnectorSession session)
+    {
+        return true;
+    }
+
+    @Override
+    public boolean isJoinPushdownSupported(ConnectorSession session, JoinType joinType)
+    {
+        // MySQL does not support FULL JOIN
+        return joinType != JoinType.FULL_OUTER;
+    }
+
     private ColumnMapping jsonColumnMapping()
     {
         return ColumnMapping.sliceMapping(
@@ -0,0 +1,91 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.orc;
+
+import io.prestosql.orc.metadata.CompressionKind;
+import io.prestosql.orc.metadata.Footer;
+import io.prestosql.orc.metadata.Metadata;
+import io.prestosql.orc.metadata.PostScript.HiveWriterVersion;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The parsed tail of an ORC file: the post script settings needed to
+ * decode the file, the footer and the stripe statistics metadata.
+ */
+public class OrcFileTail
+{
+    private final HiveWriterVersion hiveWriterVersion;
+    private final int bufferSize;
+    private final CompressionKind compressionKind;
+    private final Footer footer;
+    private final Metadata metadata;
+    private final int serializedSize;
+
+    public OrcFileTail(HiveWriterVersion hiveWriterVersion, int bufferSize, CompressionKind compressionKind, Footer footer, Metadata metadata, int serializedSize)
+    {
+        this.hiveWriterVersion = requireNonNull(hiveWriterVersion, "hiveWriterVersion is null");
+        this.bufferSize = bufferSize;
+        this.compressionKind = requireNonNull(compressionKind, "compressionKind is null");
+        this.footer = requireNonNull(footer, "footer is null");
+        this.metadata = requireNonNull(metadata, "metadata is null");
+        this.serializedSize = serializedSize;
+    }
+
+    public HiveWriterVersion getHiveWriterVersion()
+    {
+        return hiveWriterVersion;
+    }
+
+    public int getBufferSize()
+    {
+        return bufferSize;
+    }
+
+    public CompressionKind getCompressionKind()
+    {
+        return compressionKind;
+    }
+
+    public Footer getFooter()
+    {
+        return footer;
+    }
+
+    public Metadata getMetadata()
+    {
+        return metadata;
+    }
+
+    /**
+     * Size in bytes of the file tail as stored in the file, including the post script.
+     */
+    public int getSerializedSize()
+    {
+        return serializedSize;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("hiveWriterVersion", hiveWriterVersion)
+                .add("bufferSize", bufferSize)
+                .add("compressionKind", compressionKind)
+                .add("footer", footer)
+                .add("serializedSize", serializedSize)
+                .toString();
+    }
+}
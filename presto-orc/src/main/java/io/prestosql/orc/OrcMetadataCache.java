@@ -0,0 +1,76 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.orc;
+
+import io.prestosql.orc.metadata.RowGroupIndex;
+import io.prestosql.orc.metadata.StripeFooter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cache of parsed metadata for a single ORC file. An instance is bound to
+ * one version of one file, so implementations sharing state between readers
+ * must key it by the identity of the file contents (for example path, size
+ * and modification time).
+ */
+public interface OrcMetadataCache
+{
+    OrcMetadataCache NONE = new OrcMetadataCache()
+    {
+        @Override
+        public OrcFileTail getFileTail(MetadataLoader<OrcFileTail> loader)
+                throws IOException
+        {
+            return loader.load();
+        }
+
+        @Override
+        public StripeFooter getStripeFooter(long stripeOffset, int serializedSize, MetadataLoader<StripeFooter> loader)
+                throws IOException
+        {
+            return loader.load();
+        }
+
+        @Override
+        public Optional<List<RowGroupIndex>> getRowGroupIndexes(long stripeOffset, StreamId streamId)
+        {
+            return Optional.empty();
+        }
+
+        @Override
+        public void putRowGroupIndexes(long stripeOffset, StreamId streamId, List<RowGroupIndex> rowGroupIndexes, long serializedSize) {}
+    };
+
+    OrcFileTail getFileTail(MetadataLoader<OrcFileTail> loader)
+            throws IOException;
+
+    StripeFooter getStripeFooter(long stripeOffset, int serializedSize, MetadataLoader<StripeFooter> loader)
+            throws IOException;
+
+    /**
+     * Returns the row group indexes of the specified {@code ROW_INDEX} stream
+     * with the bloom filters of the column already applied.
+     */
+    Optional<List<RowGroupIndex>> getRowGroupIndexes(long stripeOffset, StreamId streamId);
+
+    void putRowGroupIndexes(long stripeOffset, StreamId streamId, List<RowGroupIndex> rowGroupIndexes, long serializedSize);
+
+    interface MetadataLoader<T>
+    {
+        T load()
+                throws IOException;
+    }
+}
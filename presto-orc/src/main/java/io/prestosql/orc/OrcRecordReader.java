@@ -52,15 +52,18 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.prestosql.orc.OrcDataSourceUtils.mergeAdjacentDiskRanges;
 import static io.prestosql.orc.OrcReader.BATCH_SIZE_GROWTH_FACTOR;
 import static io.prestosql.orc.OrcReader.MAX_BATCH_SIZE;
 import static io.prestosql.orc.OrcRecordReader.LinearProbeRangeFinder.createTinyStripesRangeFinder;
 import static io.prestosql.orc.OrcWriteValidation.WriteChecksumBuilder.createWriteChecksumBuilder;
+import static io.prestosql.orc.metadata.statistics.ColumnStatistics.mergeColumnStatistics;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
@@ -90,11 +93,13 @@ public class OrcRecordReader
 
     private final List<StripeInformation> stripes;
     private final StripeReader stripeReader;
+    private final Optional<ReadAheadOrcDataSource> readAheadDataSource;
     private int currentStripe = -1;
     private AggregatedMemoryContext currentStripeSystemMemoryContext;
 
     private final long fileRowCount;
     private final List<Long> stripeFilePositions;
+    private final Optional<List<Map<Integer, ColumnStatistics>>> stripeStatistics;
     private long filePosition;
 
     private Iterator<RowGroup> rowGroups = ImmutableList.<RowGroup>of().iterator();
@@ -128,13 +133,16 @@ public class OrcRecordReader
             DateTimeZone hiveStorageTimeZone,
             HiveWriterVersion hiveWriterVersion,
             MetadataReader metadataReader,
+            OrcMetadataCache metadataCache,
             DataSize maxMergeDistance,
             DataSize tinyStripeThreshold,
             DataSize maxBlockSize,
             Map<String, Slice> userMetadata,
             AggregatedMemoryContext systemMemoryUsage,
             Optional<OrcWriteValidation> writeValidation,
-            int initialBatchSize)
+            int initialBatchSize,
+            int readAheadStripes,
+            Executor readAheadExecutor)
             throws OrcCorruptionException
     {
         requireNonNull(includedColumns, "includedColumns is null");
@@ -147,6 +155,7 @@ public class OrcRecordReader
         requireNonNull(hiveStorageTimeZone, "hiveStorageTimeZone is null");
         requireNonNull(userMetadata, "userMetadata is null");
         requireNonNull(systemMemoryUsage, "systemMemoryUsage is null");
+        requireNonNull(readAheadExecutor, "readAheadExecutor is null");
 
         this.writeValidation = requireNonNull(writeValidation, "writeValidation is null");
         this.writeChecksumBuilder = writeValidation.map(validation -> createWriteChecksumBuilder(includedColumns));
@@ -190,6 +199,8 @@ public class OrcRecordReader
         long fileRowCount = 0;
         ImmutableList.Builder<StripeInformation> stripes = ImmutableList.builder();
         ImmutableList.Builder<Long> stripeFilePositions = ImmutableList.builder();
+        ImmutableList.Builder<Map<Integer, ColumnStatistics>> selectedStripeStatistics = ImmutableList.builder();
+        boolean allStripeStatisticsPresent = true;
         if (predicate.matches(numberOfRows, getStatisticsByColumnOrdinal(root, fileStats))) {
             // select stripes that start within the specified split
             for (StripeInfo info : stripeInfos) {
@@ -198,6 +209,12 @@ public class OrcRecordReader
                     stripes.add(stripe);
                     stripeFilePositions.add(fileRowCount);
                     totalRowCount += stripe.getNumberOfRows();
+                    if (info.getStats().isPresent()) {
+                        selectedStripeStatistics.add(getStatisticsByColumnOrdinal(root, info.getStats().get().getColumnStatistics()));
+                    }
+                    else {
+                        allStripeStatisticsPresent = false;
+                    }
                 }
                 fileRowCount += stripe.getNumberOfRows();
             }
@@ -205,8 +222,38 @@ public class OrcRecordReader
         this.totalRowCount = totalRowCount;
         this.stripes = stripes.build();
         this.stripeFilePositions = stripeFilePositions.build();
+        this.stripeStatistics = allStripeStatisticsPresent ? Optional.of(selectedStripeStatistics.build()) : Optional.empty();
 
         orcDataSource = wrapWithCacheIfTinyStripes(orcDataSource, this.stripes, maxMergeDistance, tinyStripeThreshold);
+        // tiny stripes are already read together with the stripes around them
+        if (readAheadStripes > 0 && this.stripes.size() > 1 && !(orcDataSource instanceof CachingOrcDataSource)) {
+            // the disk ranges of upcoming stripes are planned with the underlying data source, as the stripe footers are not read ahead yet
+            StripeReader diskRangesReader = new StripeReader(
+                    orcDataSource,
+                    hiveStorageTimeZone.toTimeZone().toZoneId(),
+                    decompressor,
+                    types,
+                    this.presentColumns,
+                    rowsInRowGroup,
+                    predicate,
+                    hiveWriterVersion,
+                    metadataReader,
+                    metadataCache,
+                    Optional.empty());
+            ReadAheadOrcDataSource readAheadDataSource = new ReadAheadOrcDataSource(
+                    orcDataSource,
+                    this.stripes,
+                    stripe -> diskRangesReader.getStripeDiskRanges(stripe, newSimpleAggregatedMemoryContext()),
+                    readAheadStripes,
+                    maxMergeDistance,
+                    readAheadExecutor,
+                    this.systemMemoryUsage.newLocalMemoryContext(ReadAheadOrcDataSource.class.getSimpleName()));
+            this.readAheadDataSource = Optional.of(readAheadDataSource);
+            orcDataSource = readAheadDataSource;
+        }
+        else {
+            this.readAheadDataSource = Optional.empty();
+        }
         this.orcDataSource = orcDataSource;
         this.splitLength = splitLength;
 
@@ -235,6 +282,7 @@ public class OrcRecordReader
                 predicate,
                 hiveWriterVersion,
                 metadataReader,
+                metadataCache,
                 writeValidation);
 
         streamReaders = createStreamReaders(orcDataSource, types, presentColumnsAndTypes.build(), streamReadersSystemMemoryContext);
@@ -315,6 +363,26 @@ public class OrcRecordReader
         return totalRowCount;
     }
 
+    /**
+     * Returns the statistics of the column merged over all stripes read by this reader,
+     * or empty if the statistics of any of these stripes are not available.
+     */
+    public Optional<ColumnStatistics> getStripeStatistics(int columnIndex)
+    {
+        if (!stripeStatistics.isPresent()) {
+            return Optional.empty();
+        }
+        ImmutableList.Builder<ColumnStatistics> columnStatistics = ImmutableList.builder();
+        for (Map<Integer, ColumnStatistics> statistics : stripeStatistics.get()) {
+            ColumnStatistics statistic = statistics.get(columnIndex);
+            if (statistic == null) {
+                return Optional.empty();
+            }
+            columnStatistics.add(statistic);
+        }
+        return Optional.of(mergeColumnStatistics(columnStatistics.build()));
+    }
+
     public long getSplitLength()
     {
         return splitLength;
@@ -419,6 +487,18 @@ public class OrcRecordReader
         return block;
     }
 
+    /**
+     * Reads the current batch of a column decoding only the given positions, and returns the
+     * other positions as nulls. Returns empty if the column reader can only read whole batches,
+     * in which case the column must be read with {@link #readBlock(int)}.
+     */
+    public Optional<Block> readSelectedPositions(int columnIndex, int[] positions, int offset, int length)
+            throws IOException
+    {
+        // the block is not used to update the batch size estimate, since the skipped values are not accounted for
+        return streamReaders[columnIndex].readSelectedPositions(positions, offset, length);
+    }
+
     public Map<String, Slice> getUserMetadata()
     {
         return ImmutableMap.copyOf(Maps.transformValues(userMetadata, Slices::copyOf));
@@ -485,6 +565,8 @@ public class OrcRecordReader
         }
 
         currentStripe++;
+        int stripeIndex = currentStripe;
+        readAheadDataSource.ifPresent(dataSource -> dataSource.startStripe(stripeIndex));
         if (currentStripe >= stripes.size()) {
             return;
         }
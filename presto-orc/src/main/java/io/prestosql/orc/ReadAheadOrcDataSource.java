@@ -0,0 +1,347 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.orc;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.SettableFuture;
+import io.airlift.log.Logger;
+import io.airlift.slice.Slice;
+import io.airlift.units.DataSize;
+import io.prestosql.memory.context.LocalMemoryContext;
+import io.prestosql.orc.metadata.StripeInformation;
+import io.prestosql.orc.stream.MemoryOrcDataReader;
+import io.prestosql.orc.stream.OrcDataReader;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.util.concurrent.Futures.getUnchecked;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.orc.OrcDataSourceUtils.mergeAdjacentDiskRanges;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads the streams of upcoming stripes in the background, while the current
+ * stripe is being decoded. Reads that are not covered by the data read ahead
+ * are passed through to the underlying data source.
+ */
+class ReadAheadOrcDataSource
+        implements OrcDataSource
+{
+    private static final Logger log = Logger.get(ReadAheadOrcDataSource.class);
+
+    private static final DataSize MAX_READ_SIZE = new DataSize(8, MEGABYTE);
+
+    private final OrcDataSource dataSource;
+    private final List<StripeInformation> stripes;
+    private final StripeDiskRanges stripeDiskRanges;
+    private final int readAheadStripes;
+    private final DataSize maxMergeDistance;
+    private final Executor executor;
+    private final LocalMemoryContext memoryContext;
+
+    @GuardedBy("this")
+    private final Map<Integer, ReadAheadStripe> readAheadStripesByIndex = new HashMap<>();
+    @GuardedBy("this")
+    private long bufferedBytes;
+    @GuardedBy("this")
+    private boolean closed;
+
+    public ReadAheadOrcDataSource(
+            OrcDataSource dataSource,
+            List<StripeInformation> stripes,
+            StripeDiskRanges stripeDiskRanges,
+            int readAheadStripes,
+            DataSize maxMergeDistance,
+            Executor executor,
+            LocalMemoryContext memoryContext)
+    {
+        this.dataSource = requireNonNull(dataSource, "dataSource is null");
+        this.stripes = ImmutableList.copyOf(requireNonNull(stripes, "stripes is null"));
+        this.stripeDiskRanges = requireNonNull(stripeDiskRanges, "stripeDiskRanges is null");
+        checkArgument(readAheadStripes > 0, "readAheadStripes must be positive");
+        this.readAheadStripes = readAheadStripes;
+        this.maxMergeDistance = requireNonNull(maxMergeDistance, "maxMergeDistance is null");
+        this.executor = requireNonNull(executor, "executor is null");
+        this.memoryContext = requireNonNull(memoryContext, "memoryContext is null");
+    }
+
+    /**
+     * Releases the data read ahead for stripes before the specified stripe, and
+     * starts reading the stripes that follow it.
+     */
+    public synchronized void startStripe(int stripeIndex)
+    {
+        if (closed) {
+            return;
+        }
+
+        Iterator<Entry<Integer, ReadAheadStripe>> iterator = readAheadStripesByIndex.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry<Integer, ReadAheadStripe> entry = iterator.next();
+            if (entry.getKey() < stripeIndex) {
+                bufferedBytes -= entry.getValue().getReservedBytes();
+                iterator.remove();
+            }
+        }
+        memoryContext.setBytes(bufferedBytes);
+
+        for (int index = stripeIndex + 1; index <= stripeIndex + readAheadStripes && index < stripes.size(); index++) {
+            if (!readAheadStripesByIndex.containsKey(index)) {
+                ReadAheadStripe readAheadStripe = new ReadAheadStripe(index, stripes.get(index));
+                readAheadStripesByIndex.put(index, readAheadStripe);
+                try {
+                    executor.execute(readAheadStripe::load);
+                }
+                catch (RejectedExecutionException e) {
+                    readAheadStripe.fail();
+                }
+            }
+        }
+    }
+
+    @Override
+    public OrcDataSourceId getId()
+    {
+        return dataSource.getId();
+    }
+
+    @Override
+    public long getReadBytes()
+    {
+        return dataSource.getReadBytes();
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return dataSource.getReadTimeNanos();
+    }
+
+    @Override
+    public long getSize()
+    {
+        return dataSource.getSize();
+    }
+
+    @Override
+    public Slice readFully(long position, int length)
+            throws IOException
+    {
+        Optional<Slice> buffer = getBuffer(new DiskRange(position, length));
+        if (buffer.isPresent()) {
+            return buffer.get();
+        }
+        return dataSource.readFully(position, length);
+    }
+
+    @Override
+    public <K> Map<K, OrcDataReader> readFully(Map<K, DiskRange> diskRanges)
+            throws IOException
+    {
+        ImmutableMap.Builder<K, OrcDataReader> builder = ImmutableMap.builder();
+        ImmutableMap.Builder<K, DiskRange> remainingDiskRanges = ImmutableMap.builder();
+        for (Entry<K, DiskRange> entry : diskRanges.entrySet()) {
+            Optional<Slice> buffer = getBuffer(entry.getValue());
+            if (buffer.isPresent()) {
+                builder.put(entry.getKey(), new MemoryOrcDataReader(dataSource.getId(), buffer.get(), buffer.get().length()));
+            }
+            else {
+                remainingDiskRanges.put(entry);
+            }
+        }
+        builder.putAll(dataSource.readFully(remainingDiskRanges.build()));
+        return builder.build();
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        synchronized (this) {
+            closed = true;
+            readAheadStripesByIndex.clear();
+            bufferedBytes = 0;
+            memoryContext.close();
+        }
+        dataSource.close();
+    }
+
+    @Override
+    public String toString()
+    {
+        return dataSource.toString();
+    }
+
+    private Optional<Slice> getBuffer(DiskRange diskRange)
+    {
+        ReadAheadStripe readAheadStripe = getReadAheadStripe(diskRange.getOffset());
+        if (readAheadStripe == null) {
+            return Optional.empty();
+        }
+        if (readAheadStripe.cancelIfNotStarted()) {
+            // the read is still queued, so reading the range directly is faster
+            return Optional.empty();
+        }
+        // wait for the read of the stripe to finish, which is no slower than reading the range directly
+        for (ReadAheadBuffer buffer : getUnchecked(readAheadStripe.getBuffers())) {
+            if (buffer.getDiskRange().contains(diskRange)) {
+                return Optional.of(buffer.getData().slice(toIntExact(diskRange.getOffset() - buffer.getDiskRange().getOffset()), diskRange.getLength()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private synchronized ReadAheadStripe getReadAheadStripe(long position)
+    {
+        for (ReadAheadStripe readAheadStripe : readAheadStripesByIndex.values()) {
+            if (readAheadStripe.contains(position)) {
+                return readAheadStripe;
+            }
+        }
+        return null;
+    }
+
+    private synchronized boolean reserve(ReadAheadStripe readAheadStripe, long bytes)
+    {
+        if (closed || readAheadStripesByIndex.get(readAheadStripe.getIndex()) != readAheadStripe) {
+            return false;
+        }
+        readAheadStripe.reservedBytes = bytes;
+        bufferedBytes += bytes;
+        memoryContext.setBytes(bufferedBytes);
+        return true;
+    }
+
+    public interface StripeDiskRanges
+    {
+        List<DiskRange> getDiskRanges(StripeInformation stripe)
+                throws IOException;
+    }
+
+    private class ReadAheadStripe
+    {
+        private final int index;
+        private final StripeInformation stripe;
+        private final SettableFuture<List<ReadAheadBuffer>> buffers = SettableFuture.create();
+        private final AtomicBoolean started = new AtomicBoolean();
+        @GuardedBy("ReadAheadOrcDataSource.this")
+        private long reservedBytes;
+
+        public ReadAheadStripe(int index, StripeInformation stripe)
+        {
+            this.index = index;
+            this.stripe = requireNonNull(stripe, "stripe is null");
+        }
+
+        public int getIndex()
+        {
+            return index;
+        }
+
+        public SettableFuture<List<ReadAheadBuffer>> getBuffers()
+        {
+            return buffers;
+        }
+
+        @GuardedBy("ReadAheadOrcDataSource.this")
+        public long getReservedBytes()
+        {
+            return reservedBytes;
+        }
+
+        public boolean contains(long position)
+        {
+            return stripe.getOffset() <= position && position < stripe.getOffset() + stripe.getTotalLength();
+        }
+
+        public boolean cancelIfNotStarted()
+        {
+            if (started.compareAndSet(false, true)) {
+                fail();
+                return true;
+            }
+            return false;
+        }
+
+        public void load()
+        {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                List<DiskRange> diskRanges = mergeAdjacentDiskRanges(stripeDiskRanges.getDiskRanges(stripe), maxMergeDistance, MAX_READ_SIZE);
+                long bytes = diskRanges.stream()
+                        .mapToLong(DiskRange::getLength)
+                        .sum();
+                if (!reserve(this, bytes)) {
+                    // the stripe was released or the data source was closed
+                    fail();
+                    return;
+                }
+
+                ImmutableList.Builder<ReadAheadBuffer> builder = ImmutableList.builder();
+                for (DiskRange diskRange : diskRanges) {
+                    builder.add(new ReadAheadBuffer(diskRange, dataSource.readFully(diskRange.getOffset(), diskRange.getLength())));
+                }
+                buffers.set(builder.build());
+            }
+            catch (IOException | RuntimeException e) {
+                // the stripe will be read when it is needed
+                log.debug(e, "Failed to read ahead stripe at offset %s of %s", stripe.getOffset(), dataSource.getId());
+                fail();
+            }
+        }
+
+        public void fail()
+        {
+            buffers.set(ImmutableList.of());
+        }
+    }
+
+    private static class ReadAheadBuffer
+    {
+        private final DiskRange diskRange;
+        private final Slice data;
+
+        public ReadAheadBuffer(DiskRange diskRange, Slice data)
+        {
+            this.diskRange = requireNonNull(diskRange, "diskRange is null");
+            this.data = requireNonNull(data, "data is null");
+        }
+
+        public DiskRange getDiskRange()
+        {
+            return diskRange;
+        }
+
+        public Slice getData()
+        {
+            return data;
+        }
+    }
+}
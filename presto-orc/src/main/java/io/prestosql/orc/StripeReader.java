@@ -57,6 +57,7 @@ import java.util.Set;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static io.prestosql.orc.checkpoint.Checkpoints.getDictionaryStreamCheckpoint;
 import static io.prestosql.orc.checkpoint.Checkpoints.getStreamCheckpoints;
 import static io.prestosql.orc.metadata.ColumnEncoding.ColumnEncodingKind.DICTIONARY;
@@ -82,6 +83,7 @@ public class StripeReader
     private final int rowsInRowGroup;
     private final OrcPredicate predicate;
     private final MetadataReader metadataReader;
+    private final OrcMetadataCache metadataCache;
     private final Optional<OrcWriteValidation> writeValidation;
 
     public StripeReader(OrcDataSource orcDataSource,
@@ -93,6 +95,7 @@ public class StripeReader
             OrcPredicate predicate,
             HiveWriterVersion hiveWriterVersion,
             MetadataReader metadataReader,
+            OrcMetadataCache metadataCache,
             Optional<OrcWriteValidation> writeValidation)
     {
         this.orcDataSource = requireNonNull(orcDataSource, "orcDataSource is null");
@@ -104,6 +107,7 @@ public class StripeReader
         this.predicate = requireNonNull(predicate, "predicate is null");
         this.hiveWriterVersion = requireNonNull(hiveWriterVersion, "hiveWriterVersion is null");
         this.metadataReader = requireNonNull(metadataReader, "metadataReader is null");
+        this.metadataCache = requireNonNull(metadataCache, "metadataCache is null");
         this.writeValidation = requireNonNull(writeValidation, "writeValidation is null");
     }
 
@@ -129,18 +133,28 @@ public class StripeReader
         // handle stripes with more than one row group
         boolean invalidCheckPoint = false;
         if (stripe.getNumberOfRows() > rowsInRowGroup) {
+            // the row indexes of some columns may already be cached, so their index streams do not need to be read
+            Map<StreamId, List<RowGroupIndex>> cachedColumnIndexes = getCachedColumnIndexes(stripe, streams);
+            Set<Integer> cachedIndexColumns = cachedColumnIndexes.keySet().stream()
+                    .map(StreamId::getColumn)
+                    .collect(toImmutableSet());
+            Map<StreamId, Stream> uncachedStreams = Maps.filterValues(streams, stream -> !isIndexStream(stream) || !cachedIndexColumns.contains(stream.getColumn()));
+
             // determine ranges of the stripe to read
             Map<StreamId, DiskRange> diskRanges = getDiskRanges(stripeFooter.getStreams());
-            diskRanges = Maps.filterKeys(diskRanges, Predicates.in(streams.keySet()));
+            diskRanges = Maps.filterKeys(diskRanges, Predicates.in(uncachedStreams.keySet()));
 
             // read the file regions
             Map<StreamId, OrcChunkLoader> streamsData = readDiskRanges(stripe.getOffset(), diskRanges, systemMemoryUsage);
 
             // read the bloom filter for each column
-            Map<Integer, List<BloomFilter>> bloomFilterIndexes = readBloomFilterIndexes(streams, streamsData);
+            Map<Integer, List<BloomFilter>> bloomFilterIndexes = readBloomFilterIndexes(uncachedStreams, streamsData);
 
             // read the row index for each column
-            Map<StreamId, List<RowGroupIndex>> columnIndexes = readColumnIndexes(streams, streamsData, bloomFilterIndexes);
+            Map<StreamId, List<RowGroupIndex>> columnIndexes = ImmutableMap.<StreamId, List<RowGroupIndex>>builder()
+                    .putAll(cachedColumnIndexes)
+                    .putAll(readColumnIndexes(stripe, uncachedStreams, streamsData, bloomFilterIndexes))
+                    .build();
             if (writeValidation.isPresent()) {
                 writeValidation.get().validateRowGroupStatistics(orcDataSource.getId(), stripe.getOffset(), columnIndexes);
             }
@@ -228,6 +242,39 @@ public class StripeReader
         return new Stripe(stripe.getNumberOfRows(), timeZone, columnEncodings, ImmutableList.of(rowGroup), dictionaryStreamSources);
     }
 
+    /**
+     * Returns the file ranges read by {@link #readStripe} for the specified stripe,
+     * including the stripe footer.
+     */
+    List<DiskRange> getStripeDiskRanges(StripeInformation stripe, AggregatedMemoryContext systemMemoryUsage)
+            throws IOException
+    {
+        StripeFooter stripeFooter = readStripeFooter(stripe, systemMemoryUsage);
+
+        Map<StreamId, Stream> streams = new HashMap<>();
+        for (Stream stream : stripeFooter.getStreams()) {
+            if (includedOrcColumns.contains(stream.getColumn()) && isSupportedStreamType(stream, types.get(stream.getColumn()).getOrcTypeKind())) {
+                streams.put(new StreamId(stream), stream);
+            }
+        }
+        if (stripe.getNumberOfRows() > rowsInRowGroup) {
+            Set<Integer> cachedIndexColumns = getCachedColumnIndexes(stripe, streams).keySet().stream()
+                    .map(StreamId::getColumn)
+                    .collect(toImmutableSet());
+            streams = Maps.filterValues(streams, stream -> !isIndexStream(stream) || !cachedIndexColumns.contains(stream.getColumn()));
+        }
+
+        ImmutableList.Builder<DiskRange> diskRanges = ImmutableList.builder();
+        for (Entry<StreamId, DiskRange> entry : getDiskRanges(stripeFooter.getStreams()).entrySet()) {
+            if (streams.containsKey(entry.getKey())) {
+                DiskRange diskRange = entry.getValue();
+                diskRanges.add(new DiskRange(stripe.getOffset() + diskRange.getOffset(), diskRange.getLength()));
+            }
+        }
+        diskRanges.add(new DiskRange(stripe.getOffset() + stripe.getIndexLength() + stripe.getDataLength(), toIntExact(stripe.getFooterLength())));
+        return diskRanges.build();
+    }
+
     private static boolean isSupportedStreamType(Stream stream, OrcTypeKind orcTypeKind)
     {
         if (stream.getStreamKind() == BLOOM_FILTER) {
@@ -372,11 +419,13 @@ public class StripeReader
         long offset = stripe.getOffset() + stripe.getIndexLength() + stripe.getDataLength();
         int tailLength = toIntExact(stripe.getFooterLength());
 
-        // read the footer
-        Slice tailBuffer = orcDataSource.readFully(offset, tailLength);
-        try (InputStream inputStream = new OrcInputStream(OrcChunkLoader.create(orcDataSource.getId(), tailBuffer, decompressor, systemMemoryUsage))) {
-            return metadataReader.readStripeFooter(types, inputStream);
-        }
+        return metadataCache.getStripeFooter(stripe.getOffset(), tailLength, () -> {
+            // read the footer
+            Slice tailBuffer = orcDataSource.readFully(offset, tailLength);
+            try (InputStream inputStream = new OrcInputStream(OrcChunkLoader.create(orcDataSource.getId(), tailBuffer, decompressor, systemMemoryUsage))) {
+                return metadataReader.readStripeFooter(types, inputStream);
+            }
+        });
     }
 
     static boolean isIndexStream(Stream stream)
@@ -405,9 +454,29 @@ public class StripeReader
         return ImmutableMap.copyOf(bloomFilters);
     }
 
-    private Map<StreamId, List<RowGroupIndex>> readColumnIndexes(Map<StreamId, Stream> streams, Map<StreamId, OrcChunkLoader> streamsData, Map<Integer, List<BloomFilter>> bloomFilterIndexes)
+    private Map<StreamId, List<RowGroupIndex>> getCachedColumnIndexes(StripeInformation stripe, Map<StreamId, Stream> streams)
+    {
+        ImmutableMap.Builder<StreamId, List<RowGroupIndex>> columnIndexes = ImmutableMap.builder();
+        for (StreamId streamId : streams.keySet()) {
+            if (streamId.getStreamKind() == ROW_INDEX) {
+                metadataCache.getRowGroupIndexes(stripe.getOffset(), streamId)
+                        .ifPresent(rowGroupIndexes -> columnIndexes.put(streamId, rowGroupIndexes));
+            }
+        }
+        return columnIndexes.build();
+    }
+
+    private Map<StreamId, List<RowGroupIndex>> readColumnIndexes(StripeInformation stripe, Map<StreamId, Stream> streams, Map<StreamId, OrcChunkLoader> streamsData, Map<Integer, List<BloomFilter>> bloomFilterIndexes)
             throws IOException
     {
+        // the serialized size of the index streams of each column is used to weigh the cached row indexes
+        Map<Integer, Long> indexStreamSizes = new HashMap<>();
+        for (Stream stream : streams.values()) {
+            if (isIndexStream(stream)) {
+                indexStreamSizes.merge(stream.getColumn(), (long) stream.getLength(), Long::sum);
+            }
+        }
+
         ImmutableMap.Builder<StreamId, List<RowGroupIndex>> columnIndexes = ImmutableMap.builder();
         for (Entry<StreamId, Stream> entry : streams.entrySet()) {
             Stream stream = entry.getValue();
@@ -426,6 +495,7 @@ public class StripeReader
                     rowGroupIndexes = newRowGroupIndexes.build();
                 }
                 columnIndexes.put(entry.getKey(), rowGroupIndexes);
+                metadataCache.putRowGroupIndexes(stripe.getOffset(), entry.getKey(), rowGroupIndexes, indexStreamSizes.get(stream.getColumn()));
             }
         }
         return columnIndexes.build();
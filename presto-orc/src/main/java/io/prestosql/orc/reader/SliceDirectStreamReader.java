@@ -34,6 +34,7 @@ import javax.annotation.Nullable;
 
 import java.io.IOException;
 import java.time.ZoneId;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -99,6 +100,19 @@ public class SliceDirectStreamReader
     @Override
     public Block readBlock()
             throws IOException
+    {
+        return readBlock(null, 0, 0);
+    }
+
+    @Override
+    public Optional<Block> readSelectedPositions(int[] positions, int offset, int length)
+            throws IOException
+    {
+        return Optional.of(readBlock(requireNonNull(positions, "positions is null"), offset, length));
+    }
+
+    private Block readBlock(@Nullable int[] positions, int positionsOffset, int positionsLength)
+            throws IOException
     {
         if (!rowGroupOpen) {
             openRowGroup();
@@ -169,6 +183,13 @@ public class SliceDirectStreamReader
             }
         }
 
+        if (positions != null) {
+            int currentBatchSize = nextBatchSize;
+            readOffset = 0;
+            nextBatchSize = 0;
+            return readSelectedValues(offsetVector, isNullVector, currentBatchSize, positions, positionsOffset, positionsLength);
+        }
+
         // Calculate the total length for all entries. Note that the values in the offsetVector are still length values now.
         long totalLength = 0;
         for (int i = 0; i < nextBatchSize; i++) {
@@ -230,6 +251,67 @@ public class SliceDirectStreamReader
         return new VariableWidthBlock(currentBatchSize, slice, offsetVector, Optional.ofNullable(isNullVector));
     }
 
+    /**
+     * Reads the values at the selected positions and skips the data of all other values,
+     * which are returned as nulls. The offset vector holds the value lengths on entry.
+     */
+    private Block readSelectedValues(int[] offsetVector, @Nullable boolean[] isNullVector, int batchSize, int[] positions, int positionsOffset, int positionsLength)
+            throws IOException
+    {
+        boolean[] selectedIsNull = new boolean[batchSize];
+        Arrays.fill(selectedIsNull, true);
+        long selectedLength = 0;
+        for (int i = positionsOffset; i < positionsOffset + positionsLength; i++) {
+            int position = positions[i];
+            if (isNullVector == null || !isNullVector[position]) {
+                selectedIsNull[position] = false;
+                selectedLength += offsetVector[position];
+            }
+        }
+        if (selectedLength > ONE_GIGABYTE) {
+            throw new PrestoException(GENERIC_INTERNAL_ERROR,
+                    format("Values in column \"%s\" are too large to process for Presto. %s column values are larger than 1GB [%s]", streamDescriptor.getFieldName(), positionsLength, streamDescriptor.getOrcDataSourceId()));
+        }
+
+        byte[] data = new byte[toIntExact(selectedLength)];
+        Slice slice = Slices.wrappedBuffer(data);
+        int dataOffset = 0;
+        long skipSize = 0;
+        int currentLength = offsetVector[0];
+        offsetVector[0] = 0;
+        for (int i = 0; i < batchSize; i++) {
+            int length = currentLength;
+            currentLength = offsetVector[i + 1];
+            if (selectedIsNull[i]) {
+                skipSize += length;
+            }
+            else if (length > 0) {
+                if (dataStream == null) {
+                    throw new OrcCorruptionException(streamDescriptor.getOrcDataSourceId(), "Value is not null but data stream is missing");
+                }
+                if (skipSize > 0) {
+                    dataStream.skip(skipSize);
+                    skipSize = 0;
+                }
+                dataStream.next(data, dataOffset, dataOffset + length);
+                if (maxCodePointCount >= 0) {
+                    length = computeTruncatedLength(slice, dataOffset, length, maxCodePointCount, isCharType);
+                    verify(length >= 0);
+                }
+                dataOffset += length;
+            }
+            offsetVector[i + 1] = dataOffset;
+        }
+        if (skipSize > 0) {
+            if (dataStream == null) {
+                throw new OrcCorruptionException(streamDescriptor.getOrcDataSourceId(), "Value is not null but data stream is missing");
+            }
+            dataStream.skip(skipSize);
+        }
+
+        return new VariableWidthBlock(batchSize, slice, offsetVector, Optional.of(selectedIsNull));
+    }
+
     private RunLengthEncodedBlock readAllNullsBlock()
     {
         return new RunLengthEncodedBlock(new VariableWidthBlock(1, EMPTY_SLICE, new int[2], Optional.of(new boolean[] {true})), nextBatchSize);
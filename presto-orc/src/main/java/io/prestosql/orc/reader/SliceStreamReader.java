@@ -32,6 +32,7 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.time.ZoneId;
 import java.util.List;
+import java.util.Optional;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static io.prestosql.orc.metadata.ColumnEncoding.ColumnEncodingKind.DICTIONARY;
@@ -77,6 +78,13 @@ public class SliceStreamReader
         return currentReader.readBlock();
     }
 
+    @Override
+    public Optional<Block> readSelectedPositions(int[] positions, int offset, int length)
+            throws IOException
+    {
+        return currentReader.readSelectedPositions(positions, offset, length);
+    }
+
     @Override
     public void prepareNextRead(int batchSize)
     {
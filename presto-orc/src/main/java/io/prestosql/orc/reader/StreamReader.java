@@ -20,12 +20,24 @@ import io.prestosql.spi.block.Block;
 import java.io.IOException;
 import java.time.ZoneId;
 import java.util.List;
+import java.util.Optional;
 
 public interface StreamReader
 {
     Block readBlock()
             throws IOException;
 
+    /**
+     * Reads the next batch decoding only the values at the given positions, which are in
+     * ascending order. Values at all other positions are skipped and returned as nulls.
+     * Returns empty without reading anything if this reader can only read whole batches.
+     */
+    default Optional<Block> readSelectedPositions(int[] positions, int offset, int length)
+            throws IOException
+    {
+        return Optional.empty();
+    }
+
     void prepareNextRead(int batchSize);
 
     void startStripe(ZoneId timeZone, InputStreamSources dictionaryStreamSources, List<ColumnEncoding> encoding)
@@ -16,15 +16,21 @@ package io.prestosql.orc.stream;
 import io.prestosql.orc.checkpoint.BooleanStreamCheckpoint;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import static com.google.common.base.Preconditions.checkState;
+import static java.lang.Math.min;
 
 @SuppressWarnings("NarrowingCompoundAssignment")
 public class BooleanInputStream
         implements ValueInputStream<BooleanStreamCheckpoint>
 {
     private static final int HIGH_BIT_MASK = 0b1000_0000;
+    // whole bytes are pulled from the byte stream in chunks of this size, rather than one at a time
+    private static final int CHUNK_SIZE = 128;
+
     private final ByteInputStream byteStream;
+    private final byte[] chunk = new byte[CHUNK_SIZE];
     private byte data;
     private int bitsInData;
 
@@ -105,8 +111,12 @@ public class BooleanInputStream
 
         // count whole bytes
         while (items > 8) {
-            count += bitCount(byteStream.next());
-            items -= 8;
+            int bytes = min((items - 1) >>> 3, CHUNK_SIZE);
+            byteStream.next(chunk, bytes);
+            for (int i = 0; i < bytes; i++) {
+                count += bitCount(chunk[i]);
+            }
+            items -= bytes * 8;
         }
 
         // count remaining bits
@@ -167,16 +177,20 @@ public class BooleanInputStream
 
         // the middle part
         while (offset < batchSize - 7) {
-            byte value = byteStream.next();
-            vector[offset + 0] = (byte) ((value & 128) >>> 7);
-            vector[offset + 1] = (byte) ((value & 64) >>> 6);
-            vector[offset + 2] = (byte) ((value & 32) >>> 5);
-            vector[offset + 3] = (byte) ((value & 16) >>> 4);
-            vector[offset + 4] = (byte) ((value & 8) >>> 3);
-            vector[offset + 5] = (byte) ((value & 4) >>> 2);
-            vector[offset + 6] = (byte) ((value & 2) >>> 1);
-            vector[offset + 7] = (byte) ((value & 1));
-            offset += 8;
+            int bytes = min((batchSize - offset) >>> 3, CHUNK_SIZE);
+            byteStream.next(chunk, bytes);
+            for (int i = 0; i < bytes; i++) {
+                byte value = chunk[i];
+                vector[offset + 0] = (byte) ((value & 128) >>> 7);
+                vector[offset + 1] = (byte) ((value & 64) >>> 6);
+                vector[offset + 2] = (byte) ((value & 32) >>> 5);
+                vector[offset + 3] = (byte) ((value & 16) >>> 4);
+                vector[offset + 4] = (byte) ((value & 8) >>> 3);
+                vector[offset + 5] = (byte) ((value & 4) >>> 2);
+                vector[offset + 6] = (byte) ((value & 2) >>> 1);
+                vector[offset + 7] = (byte) ((value & 1));
+                offset += 8;
+            }
         }
 
         // the tail
@@ -246,17 +260,27 @@ public class BooleanInputStream
 
         // the middle part
         while (offset < batchSize - 7) {
-            byte value = byteStream.next();
-            unsetCount += (8 - Integer.bitCount(value & 0xFF));
-            vector[offset + 0] = (value & 128) == 0;
-            vector[offset + 1] = (value & 64) == 0;
-            vector[offset + 2] = (value & 32) == 0;
-            vector[offset + 3] = (value & 16) == 0;
-            vector[offset + 4] = (value & 8) == 0;
-            vector[offset + 5] = (value & 4) == 0;
-            vector[offset + 6] = (value & 2) == 0;
-            vector[offset + 7] = (value & 1) == 0;
-            offset += 8;
+            int bytes = min((batchSize - offset) >>> 3, CHUNK_SIZE);
+            byteStream.next(chunk, bytes);
+            for (int i = 0; i < bytes; i++) {
+                byte value = chunk[i];
+                if (value == -1) {
+                    // common case for mostly non-null columns
+                    Arrays.fill(vector, offset, offset + 8, false);
+                }
+                else {
+                    unsetCount += (8 - Integer.bitCount(value & 0xFF));
+                    vector[offset + 0] = (value & 128) == 0;
+                    vector[offset + 1] = (value & 64) == 0;
+                    vector[offset + 2] = (value & 32) == 0;
+                    vector[offset + 3] = (value & 16) == 0;
+                    vector[offset + 4] = (value & 8) == 0;
+                    vector[offset + 5] = (value & 4) == 0;
+                    vector[offset + 6] = (value & 2) == 0;
+                    vector[offset + 7] = (value & 1) == 0;
+                }
+                offset += 8;
+            }
         }
 
         // the tail
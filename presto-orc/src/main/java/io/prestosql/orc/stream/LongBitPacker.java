@@ -16,6 +16,7 @@ package io.prestosql.orc.stream;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -76,34 +77,63 @@ public final class LongBitPacker
                 unpack64(buffer, offset, len, input);
                 break;
             default:
-                unpackGeneric(buffer, offset, len, bitSize, input);
+                unpackBuffered(buffer, offset, len, bitSize, input);
         }
     }
 
-    private static void unpackGeneric(long[] buffer, int offset, int len, int bitSize, InputStream input)
+    /**
+     * Unpacks widths without a dedicated method. The whole run is read into the temp buffer in one
+     * call and each value is extracted with a single unaligned big-endian 8-byte load, so the loop
+     * body is branch free for widths up to 57 bits. Wider values can straddle nine bytes and take
+     * the low bits from the following byte.
+     */
+    private void unpackBuffered(long[] buffer, int offset, int len, int bitSize, InputStream input)
             throws IOException
     {
-        int bitsLeft = 0;
-        int current = 0;
+        readFully(input, (len * bitSize + 7) / 8);
 
-        for (int i = offset; i < (offset + len); i++) {
-            long result = 0;
-            int bitsLeftToRead = bitSize;
-            while (bitsLeftToRead > bitsLeft) {
-                result <<= bitsLeft;
-                result |= current & ((1 << bitsLeft) - 1);
-                bitsLeftToRead -= bitsLeft;
-                current = input.read();
-                bitsLeft = 8;
+        // It's safe to read 9 bytes past any value start, because slice is a view over tmp,
+        // which has 8 bytes of buffer space for every position
+        int end = offset + len;
+        long bitPosition = 0;
+        if (bitSize <= 57) {
+            int shift = 64 - bitSize;
+            for (int i = offset; i < end; i++) {
+                long word = Long.reverseBytes(getLongUnchecked(slice, (int) (bitPosition >>> 3)));
+                buffer[i] = (word << (bitPosition & 7)) >>> shift;
+                bitPosition += bitSize;
             }
+            return;
+        }
 
-            // handle the left over bits
-            if (bitsLeftToRead > 0) {
-                result <<= bitsLeftToRead;
-                bitsLeft -= bitsLeftToRead;
-                result |= (current >> bitsLeft) & ((1 << bitsLeftToRead) - 1);
+        long mask = (1L << bitSize) - 1;
+        for (int i = offset; i < end; i++) {
+            int byteIndex = (int) (bitPosition >>> 3);
+            int bitOffset = (int) (bitPosition & 7);
+            long word = Long.reverseBytes(getLongUnchecked(slice, byteIndex));
+            // the value occupies the low (64 - bitOffset) bits of word followed by the high bits of the next byte
+            int extraBits = bitOffset + bitSize - 64;
+            long value;
+            if (extraBits > 0) {
+                value = (word << extraBits) | ((tmp[byteIndex + 8] & 0xFFL) >>> (8 - extraBits));
+            }
+            else {
+                value = word >>> -extraBits;
+            }
+            buffer[i] = value & mask;
+            bitPosition += bitSize;
+        }
+    }
+
+    private void readFully(InputStream input, int length)
+            throws IOException
+    {
+        for (int i = 0; i < length; ) {
+            int bytes = input.read(tmp, i, length - i);
+            if (bytes < 0) {
+                throw new EOFException("Read past end of bit packed data");
             }
-            buffer[i] = result;
+            i += bytes;
         }
     }
 
@@ -116,9 +146,7 @@ public final class LongBitPacker
         }
 
         int blockReadableBytes = (len + 7) / 8;
-        for (int i = 0; i < blockReadableBytes; ) {
-            i += input.read(tmp, i, blockReadableBytes - i);
-        }
+        readFully(input, blockReadableBytes);
         int outputIndex = offset;
         int end = offset + len;
         int tmpIndex = 0;
@@ -177,9 +205,7 @@ public final class LongBitPacker
         }
 
         int blockReadableBytes = (2 * len + 7) / 8;
-        for (int i = 0; i < blockReadableBytes; ) {
-            i += input.read(tmp, i, blockReadableBytes - i);
-        }
+        readFully(input, blockReadableBytes);
         int outputIndex = offset;
         int end = offset + len;
         int tmpIndex = 0;
@@ -226,9 +252,7 @@ public final class LongBitPacker
         }
 
         int blockReadableBytes = (4 * len + 7) / 8;
-        for (int i = 0; i < blockReadableBytes; ) {
-            i += input.read(tmp, i, blockReadableBytes - i);
-        }
+        readFully(input, blockReadableBytes);
         int outputIndex = offset;
         int end = offset + len;
         int tmpIndex = 0;
@@ -249,9 +273,7 @@ public final class LongBitPacker
     private void unpack8(long[] buffer, int offset, int len, InputStream input)
             throws IOException
     {
-        for (int i = 0; i < len; ) {
-            i += input.read(tmp, i, len - i);
-        }
+        readFully(input, len);
         for (int i = 0; i < len; i++) {
             buffer[offset + i] = 0xFFL & tmp[i];
         }
@@ -261,9 +283,7 @@ public final class LongBitPacker
             throws IOException
     {
         int blockReadableBytes = len * 16 / 8;
-        for (int i = 0; i < blockReadableBytes; ) {
-            i += input.read(tmp, i, blockReadableBytes - i);
-        }
+        readFully(input, blockReadableBytes);
         for (int i = 0; i < len; i++) {
             buffer[offset + i] = 0xFFFFL & Short.reverseBytes(getShortUnchecked(slice, 2 * i));
         }
@@ -273,9 +293,7 @@ public final class LongBitPacker
             throws IOException
     {
         int blockReadableBytes = len * 24 / 8;
-        for (int i = 0; i < blockReadableBytes; ) {
-            i += input.read(tmp, i, blockReadableBytes - i);
-        }
+        readFully(input, blockReadableBytes);
         for (int i = 0; i < len; i++) {
             // It's safe to read 4-bytes at a time and shift, because slice is a view over tmp,
             // which has 8 bytes of buffer space for every position
@@ -287,9 +305,7 @@ public final class LongBitPacker
             throws IOException
     {
         int blockReadableBytes = len * 32 / 8;
-        for (int i = 0; i < blockReadableBytes; ) {
-            i += input.read(tmp, i, blockReadableBytes - i);
-        }
+        readFully(input, blockReadableBytes);
         for (int i = 0; i < len; i++) {
             buffer[offset + i] = 0xFFFF_FFFFL & Integer.reverseBytes(getIntUnchecked(slice, 4 * i));
         }
@@ -299,9 +315,7 @@ public final class LongBitPacker
             throws IOException
     {
         int blockReadableBytes = len * 40 / 8;
-        for (int i = 0; i < blockReadableBytes; ) {
-            i += input.read(tmp, i, blockReadableBytes - i);
-        }
+        readFully(input, blockReadableBytes);
         for (int i = 0; i < len; i++) {
             // It's safe to read 8-bytes at a time and shift, because slice is a view over tmp,
             // which has 8 bytes of buffer space for every position
@@ -313,9 +327,7 @@ public final class LongBitPacker
             throws IOException
     {
         int blockReadableBytes = len * 48 / 8;
-        for (int i = 0; i < blockReadableBytes; ) {
-            i += input.read(tmp, i, blockReadableBytes - i);
-        }
+        readFully(input, blockReadableBytes);
         for (int i = 0; i < len; i++) {
             // It's safe to read 8-bytes at a time and shift, because slice is a view over tmp,
             // which has 8 bytes of buffer space for every position
@@ -327,9 +339,7 @@ public final class LongBitPacker
             throws IOException
     {
         int blockReadableBytes = len * 56 / 8;
-        for (int i = 0; i < blockReadableBytes; ) {
-            i += input.read(tmp, i, blockReadableBytes - i);
-        }
+        readFully(input, blockReadableBytes);
         for (int i = 0; i < len; i++) {
             // It's safe to read 8-bytes at a time and shift, because slice is a view over tmp,
             // which has 8 bytes of buffer space for every position
@@ -341,9 +351,7 @@ public final class LongBitPacker
             throws IOException
     {
         int blockReadableBytes = len * 64 / 8;
-        for (int i = 0; i < blockReadableBytes; ) {
-            i += input.read(tmp, i, blockReadableBytes - i);
-        }
+        readFully(input, blockReadableBytes);
         for (int i = 0; i < len; i++) {
             buffer[offset + i] = Long.reverseBytes(getLongUnchecked(slice, 8 * i));
         }
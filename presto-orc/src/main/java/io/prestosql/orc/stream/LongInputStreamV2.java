@@ -19,6 +19,7 @@ import io.prestosql.orc.checkpoint.LongStreamV2Checkpoint;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 
 import static com.google.common.primitives.Ints.min;
 
@@ -31,6 +32,7 @@ public class LongInputStreamV2
 {
     private static final int MIN_REPEAT_SIZE = 3;
     private static final int MAX_LITERAL_SIZE = 512;
+    private static final int MAX_PATCH_LIST_SIZE = 31;
 
     private enum EncodingType
     {
@@ -41,6 +43,9 @@ public class LongInputStreamV2
     private final OrcInputStream input;
     private final boolean signed;
     private final long[] literals = new long[MAX_LITERAL_SIZE];
+    // scratch space for patched base runs, reused across runs to avoid per-run allocation
+    private final long[] unpacked = new long[MAX_LITERAL_SIZE];
+    private final long[] unpackedPatch = new long[MAX_PATCH_LIST_SIZE];
     private int numLiterals;
     private int used;
     private final boolean skipCorrupt;
@@ -54,9 +59,20 @@ public class LongInputStreamV2
         lastReadInputCheckpoint = input.getCheckpoint();
     }
 
-    // This comes from the Apache Hive ORC code
     private void readValues()
             throws IOException
+    {
+        numLiterals = readValues(literals, 0);
+        used = 0;
+    }
+
+    /**
+     * Decodes the next run into {@code buffer} starting at {@code offset}, and returns the
+     * number of values decoded. A run never contains more than {@value #MAX_LITERAL_SIZE} values.
+     */
+    // This comes from the Apache Hive ORC code
+    private int readValues(long[] buffer, int offset)
+            throws IOException
     {
         lastReadInputCheckpoint = input.getCheckpoint();
 
@@ -68,23 +84,23 @@ public class LongInputStreamV2
 
         int enc = (firstByte >>> 6) & 0x03;
         if (EncodingType.SHORT_REPEAT.ordinal() == enc) {
-            readShortRepeatValues(firstByte);
+            return readShortRepeatValues(firstByte, buffer, offset);
         }
-        else if (EncodingType.DIRECT.ordinal() == enc) {
-            readDirectValues(firstByte);
+        if (EncodingType.DIRECT.ordinal() == enc) {
+            return readDirectValues(firstByte, buffer, offset);
         }
-        else if (EncodingType.PATCHED_BASE.ordinal() == enc) {
-            readPatchedBaseValues(firstByte);
-        }
-        else {
-            readDeltaValues(firstByte);
+        if (EncodingType.PATCHED_BASE.ordinal() == enc) {
+            return readPatchedBaseValues(firstByte, buffer, offset);
         }
+        return readDeltaValues(firstByte, buffer, offset);
     }
 
     // This comes from the Apache Hive ORC code
-    private void readDeltaValues(int firstByte)
+    private int readDeltaValues(int firstByte, long[] buffer, int offset)
             throws IOException
     {
+        int position = offset;
+
         // extract the number of fixed bits
         int fixedBits = (firstByte >>> 1) & 0x1f;
         if (fixedBits != 0) {
@@ -99,47 +115,51 @@ public class LongInputStreamV2
         long firstVal = LongDecode.readVInt(signed, input);
 
         // store first value to result buffer
-        literals[numLiterals++] = firstVal;
+        buffer[position++] = firstVal;
 
         // if fixed bits is 0 then all values have fixed delta
-        long prevVal;
         if (fixedBits == 0) {
             // read the fixed delta value stored as vint (deltas can be negative even
             // if all number are positive)
             long fixedDelta = LongDecode.readSignedVInt(input);
 
             // add fixed deltas to adjacent values
+            long value = firstVal;
             for (int i = 0; i < length; i++) {
-                literals[numLiterals++] = literals[numLiterals - 2] + fixedDelta;
+                value += fixedDelta;
+                buffer[position++] = value;
+            }
+            return position - offset;
+        }
+
+        long deltaBase = LongDecode.readSignedVInt(input);
+        // add delta base and first value
+        long prevVal = firstVal + deltaBase;
+        buffer[position++] = prevVal;
+        length -= 1;
+
+        // write the unpacked values, add it to previous value and store final
+        // value to result buffer. if the delta base value is negative then it
+        // is a decreasing sequence else an increasing sequence
+        packer.unpack(buffer, position, length, fixedBits, input);
+        int end = position + length;
+        if (deltaBase < 0) {
+            for (; position < end; position++) {
+                prevVal -= buffer[position];
+                buffer[position] = prevVal;
             }
         }
         else {
-            long deltaBase = LongDecode.readSignedVInt(input);
-            // add delta base and first value
-            literals[numLiterals++] = firstVal + deltaBase;
-            prevVal = literals[numLiterals - 1];
-            length -= 1;
-
-            // write the unpacked values, add it to previous value and store final
-            // value to result buffer. if the delta base value is negative then it
-            // is a decreasing sequence else an increasing sequence
-            packer.unpack(literals, numLiterals, length, fixedBits, input);
-            while (length > 0) {
-                if (deltaBase < 0) {
-                    literals[numLiterals] = prevVal - literals[numLiterals];
-                }
-                else {
-                    literals[numLiterals] = prevVal + literals[numLiterals];
-                }
-                prevVal = literals[numLiterals];
-                length--;
-                numLiterals++;
+            for (; position < end; position++) {
+                prevVal += buffer[position];
+                buffer[position] = prevVal;
             }
         }
+        return position - offset;
     }
 
     // This comes from the Apache Hive ORC code
-    private void readPatchedBaseValues(int firstByte)
+    private int readPatchedBaseValues(int firstByte, long[] buffer, int offset)
             throws IOException
     {
         // extract the number of fixed bits
@@ -179,12 +199,8 @@ public class LongInputStreamV2
         }
 
         // unpack the data blob
-        long[] unpacked = new long[length];
         packer.unpack(unpacked, 0, length, fb, input);
 
-        // unpack the patch blob
-        long[] unpackedPatch = new long[patchListLength];
-
         if ((patchWidth + patchGapWidth) > 64 && !skipCorrupt) {
             throw new OrcCorruptionException(input.getOrcDataSourceId(), "Invalid RLEv2 encoded stream");
         }
@@ -213,13 +229,14 @@ public class LongInputStreamV2
         actualGap += currentGap;
 
         // unpack data blob, patch it (if required), add base to get final result
-        for (int i = 0; i < unpacked.length; i++) {
+        int position = offset;
+        for (int i = 0; i < length; i++) {
             if (i == actualGap) {
                 // extract the patch value
                 long patchedValue = unpacked[i] | (currentPatch << fb);
 
                 // add base to patched value
-                literals[numLiterals++] = base + patchedValue;
+                buffer[position++] = base + patchedValue;
 
                 // increment the patch to point to next entry in patch list
                 patchIndex++;
@@ -247,13 +264,14 @@ public class LongInputStreamV2
             }
             else {
                 // no patching required. add base to unpacked value to get final value
-                literals[numLiterals++] = base + unpacked[i];
+                buffer[position++] = base + unpacked[i];
             }
         }
+        return length;
     }
 
     // This comes from the Apache Hive ORC code
-    private void readDirectValues(int firstByte)
+    private int readDirectValues(int firstByte, long[] buffer, int offset)
             throws IOException
     {
         // extract the number of fixed bits
@@ -266,20 +284,18 @@ public class LongInputStreamV2
         length += 1;
 
         // write the unpacked values and zigzag decode to result buffer
-        packer.unpack(literals, numLiterals, length, fixedBits, input);
+        packer.unpack(buffer, offset, length, fixedBits, input);
         if (signed) {
-            for (int i = 0; i < length; i++) {
-                literals[numLiterals] = LongDecode.zigzagDecode(literals[numLiterals]);
-                numLiterals++;
+            int end = offset + length;
+            for (int i = offset; i < end; i++) {
+                buffer[i] = LongDecode.zigzagDecode(buffer[i]);
             }
         }
-        else {
-            numLiterals += length;
-        }
+        return length;
     }
 
     // This comes from the Apache Hive ORC code
-    private void readShortRepeatValues(int firstByte)
+    private int readShortRepeatValues(int firstByte, long[] buffer, int offset)
             throws IOException
     {
         // read the number of bytes occupied by the value
@@ -300,9 +316,8 @@ public class LongInputStreamV2
         }
 
         // repeat the value for length times
-        for (int i = 0; i < length; i++) {
-            literals[numLiterals++] = val;
-        }
+        Arrays.fill(buffer, offset, offset + length, val);
+        return length;
     }
 
     /**
@@ -327,8 +342,6 @@ public class LongInputStreamV2
             throws IOException
     {
         if (used == numLiterals) {
-            numLiterals = 0;
-            used = 0;
             readValues();
         }
         return literals[used++];
@@ -341,8 +354,17 @@ public class LongInputStreamV2
         int offset = 0;
         while (items > 0) {
             if (used == numLiterals) {
-                numLiterals = 0;
-                used = 0;
+                if (items >= MAX_LITERAL_SIZE) {
+                    // any run fits in the output, so decode it in place and skip the copy through literals
+                    int decoded = readValues(values, offset);
+                    numLiterals = 0;
+                    used = 0;
+                    // the buffer is empty, so a checkpoint at offset zero of the next run can still be served directly
+                    lastReadInputCheckpoint = input.getCheckpoint();
+                    offset += decoded;
+                    items -= decoded;
+                    continue;
+                }
                 readValues();
             }
 
@@ -361,20 +383,21 @@ public class LongInputStreamV2
         int offset = 0;
         while (items > 0) {
             if (used == numLiterals) {
-                numLiterals = 0;
-                used = 0;
                 readValues();
             }
 
             int chunkSize = min(numLiterals - used, items);
+            // check the range once per chunk so the narrowing loop stays free of branches
+            long outOfRange = 0;
             for (int i = 0; i < chunkSize; i++) {
                 long literal = literals[used + i];
                 int value = (int) literal;
-                if (literal != value) {
-                    throw new OrcCorruptionException(input.getOrcDataSourceId(), "Decoded value out of range for a 32bit number");
-                }
+                outOfRange |= literal ^ value;
                 values[offset + i] = value;
             }
+            if (outOfRange != 0) {
+                throw new OrcCorruptionException(input.getOrcDataSourceId(), "Decoded value out of range for a 32bit number");
+            }
             used += chunkSize;
             offset += chunkSize;
             items -= chunkSize;
@@ -388,20 +411,20 @@ public class LongInputStreamV2
         int offset = 0;
         while (items > 0) {
             if (used == numLiterals) {
-                numLiterals = 0;
-                used = 0;
                 readValues();
             }
 
             int chunkSize = min(numLiterals - used, items);
+            long outOfRange = 0;
             for (int i = 0; i < chunkSize; i++) {
                 long literal = literals[used + i];
                 short value = (short) literal;
-                if (literal != value) {
-                    throw new OrcCorruptionException(input.getOrcDataSourceId(), "Decoded value out of range for a 16bit number");
-                }
+                outOfRange |= literal ^ value;
                 values[offset + i] = value;
             }
+            if (outOfRange != 0) {
+                throw new OrcCorruptionException(input.getOrcDataSourceId(), "Decoded value out of range for a 16bit number");
+            }
             used += chunkSize;
             offset += chunkSize;
             items -= chunkSize;
@@ -433,8 +456,6 @@ public class LongInputStreamV2
     {
         while (items > 0) {
             if (used == numLiterals) {
-                numLiterals = 0;
-                used = 0;
                 readValues();
             }
             long consume = Math.min(items, numLiterals - used);
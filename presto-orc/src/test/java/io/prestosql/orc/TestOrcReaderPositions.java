@@ -17,6 +17,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import io.airlift.slice.Slice;
 import io.airlift.units.DataSize;
+import io.prestosql.memory.context.AggregatedMemoryContext;
 import io.prestosql.orc.metadata.CompressionKind;
 import io.prestosql.orc.metadata.Footer;
 import io.prestosql.orc.metadata.statistics.IntegerStatistics;
@@ -41,12 +42,16 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.IntStream;
 
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.prestosql.orc.OrcReader.BATCH_SIZE_GROWTH_FACTOR;
 import static io.prestosql.orc.OrcReader.INITIAL_BATCH_SIZE;
 import static io.prestosql.orc.OrcReader.MAX_BATCH_SIZE;
 import static io.prestosql.orc.OrcTester.Format.ORC_12;
+import static io.prestosql.orc.OrcTester.HIVE_STORAGE_TIME_ZONE;
 import static io.prestosql.orc.OrcTester.MAX_BLOCK_SIZE;
 import static io.prestosql.orc.OrcTester.createCustomOrcRecordReader;
 import static io.prestosql.orc.OrcTester.createOrcRecordWriter;
@@ -55,6 +60,7 @@ import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static java.lang.Math.min;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static org.apache.hadoop.hive.ql.io.orc.CompressionKind.SNAPPY;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
@@ -89,6 +95,90 @@ public class TestOrcReaderPositions
         }
     }
 
+    @Test
+    public void testReadAhead()
+            throws Exception
+    {
+        ExecutorService executor = newFixedThreadPool(2);
+        try (TempFile tempFile = new TempFile()) {
+            createMultiStripeFile(tempFile.getFile());
+
+            OrcDataSource orcDataSource = new FileOrcDataSource(tempFile.getFile(), new DataSize(1, MEGABYTE), new DataSize(1, MEGABYTE), new DataSize(1, MEGABYTE), true);
+            // disable the tiny stripe cache, which already reads the small stripes of the file together
+            OrcReader orcReader = new OrcReader(orcDataSource, new DataSize(1, MEGABYTE), new DataSize(0, MEGABYTE), MAX_BLOCK_SIZE);
+            AggregatedMemoryContext systemMemoryUsage = newSimpleAggregatedMemoryContext();
+            try (OrcRecordReader reader = orcReader.createRecordReader(ImmutableMap.of(0, BIGINT), OrcPredicate.TRUE, 0, orcDataSource.getSize(), HIVE_STORAGE_TIME_ZONE, systemMemoryUsage, MAX_BATCH_SIZE, 2, executor)) {
+                for (int i = 0; i < 5; i++) {
+                    assertEquals(reader.nextBatch(), 20);
+                    assertEquals(reader.getReaderPosition(), i * 20L);
+                    assertCurrentBatch(reader, i);
+                }
+                assertEquals(reader.nextBatch(), -1);
+            }
+            assertEquals(systemMemoryUsage.getBytes(), 0);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testReadSelectedPositions()
+            throws Exception
+    {
+        try (TempFile tempFile = new TempFile()) {
+            int rowCount = 10_000;
+            createUniqueStringFile(tempFile.getFile(), rowCount);
+
+            try (OrcRecordReader reader = createCustomOrcRecordReader(tempFile, OrcPredicate.TRUE, VARCHAR, MAX_BATCH_SIZE)) {
+                int batchIndex = 0;
+                int rowIndex = 0;
+                while (true) {
+                    int batchSize = reader.nextBatch();
+                    if (batchSize == -1) {
+                        break;
+                    }
+
+                    // alternate between whole and selective reads to verify the streams stay positioned
+                    if (batchIndex % 2 == 0) {
+                        Block block = reader.readBlock(0);
+                        for (int position = 0; position < batchSize; position++) {
+                            assertStringValue(block, position, rowIndex + position);
+                        }
+                    }
+                    else {
+                        int[] positions = IntStream.range(0, batchSize)
+                                .filter(position -> position % 3 == 1)
+                                .toArray();
+                        Block block = reader.readSelectedPositions(0, positions, 0, positions.length).get();
+                        assertEquals(block.getPositionCount(), batchSize);
+                        for (int position = 0; position < batchSize; position++) {
+                            if (position % 3 == 1) {
+                                assertStringValue(block, position, rowIndex + position);
+                            }
+                            else {
+                                assertTrue(block.isNull(position));
+                            }
+                        }
+                    }
+                    batchIndex++;
+                    rowIndex += batchSize;
+                }
+                assertEquals(rowIndex, rowCount);
+            }
+        }
+    }
+
+    private static void assertStringValue(Block block, int position, int row)
+    {
+        if (row % 7 == 0) {
+            assertTrue(block.isNull(position));
+        }
+        else {
+            assertEquals(VARCHAR.getSlice(block, position).toStringUtf8(), "value " + row);
+        }
+    }
+
     @Test
     public void testStripeSkipping()
             throws Exception
@@ -445,6 +535,25 @@ public class TestOrcReaderPositions
         writer.close(false);
     }
 
+    private static void createUniqueStringFile(File file, int count)
+            throws IOException, SerDeException
+    {
+        FileSinkOperator.RecordWriter writer = createOrcRecordWriter(file, ORC_12, CompressionKind.NONE, VARCHAR);
+
+        Serializer serde = new OrcSerde();
+        SettableStructObjectInspector objectInspector = createSettableStructObjectInspector("test", VARCHAR);
+        Object row = objectInspector.create();
+        StructField field = objectInspector.getAllStructFieldRefs().get(0);
+
+        for (int i = 0; i < count; i++) {
+            objectInspector.setStructFieldData(row, field, i % 7 == 0 ? null : "value " + i);
+            Writable record = serde.serialize(row, objectInspector);
+            writer.write(record);
+        }
+
+        writer.close(false);
+    }
+
     private static void createGrowingSequentialFile(File file, int count, int step, int initialLength)
             throws IOException, SerDeException
     {
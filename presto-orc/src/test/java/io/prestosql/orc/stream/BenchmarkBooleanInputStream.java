@@ -0,0 +1,153 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.orc.stream;
+
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.prestosql.orc.OrcDataSourceId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.orc.metadata.CompressionKind.NONE;
+
+@SuppressWarnings("MethodMayBeStatic")
+@State(Scope.Thread)
+@Fork(2)
+@Warmup(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OperationsPerInvocation(BenchmarkBooleanInputStream.VALUES)
+public class BenchmarkBooleanInputStream
+{
+    static final int VALUES = 10_000;
+    private static final int BATCH_SIZE = 1024;
+
+    @Benchmark
+    public int getUnsetBits(BenchmarkData data)
+            throws IOException
+    {
+        BooleanInputStream input = data.createInputStream();
+        int nullCount = 0;
+        for (int i = 0; i < VALUES; i += BATCH_SIZE) {
+            nullCount += input.getUnsetBits(Math.min(BATCH_SIZE, VALUES - i), data.isNull);
+        }
+        return nullCount;
+    }
+
+    @Benchmark
+    public Object getSetBits(BenchmarkData data)
+            throws IOException
+    {
+        BooleanInputStream input = data.createInputStream();
+        for (int i = 0; i < VALUES; i += BATCH_SIZE) {
+            input.getSetBits(data.setBits, Math.min(BATCH_SIZE, VALUES - i));
+        }
+        return data.setBits;
+    }
+
+    @Benchmark
+    public int countBitsSet(BenchmarkData data)
+            throws IOException
+    {
+        BooleanInputStream input = data.createInputStream();
+        int count = 0;
+        for (int i = 0; i < VALUES; i += BATCH_SIZE) {
+            count += input.countBitsSet(Math.min(BATCH_SIZE, VALUES - i));
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int nextBit(BenchmarkData data)
+            throws IOException
+    {
+        BooleanInputStream input = data.createInputStream();
+        int count = 0;
+        for (int i = 0; i < VALUES; i++) {
+            count += input.nextBit() ? 1 : 0;
+        }
+        return count;
+    }
+
+    @SuppressWarnings("FieldMayBeFinal")
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        private final boolean[] isNull = new boolean[BATCH_SIZE];
+        private final byte[] setBits = new byte[BATCH_SIZE];
+
+        @Param({"0.0", "0.01", "0.5"})
+        private double nullRate;
+
+        private Slice slice;
+
+        @Setup
+        public void setup()
+        {
+            Random random = new Random(0);
+            BooleanOutputStream output = new BooleanOutputStream(NONE, 256 * 1024);
+            for (int i = 0; i < VALUES; i++) {
+                output.writeBoolean(random.nextDouble() >= nullRate);
+            }
+            output.close();
+
+            DynamicSliceOutput sliceOutput = new DynamicSliceOutput(VALUES);
+            output.getStreamDataOutput(0).writeData(sliceOutput);
+            slice = sliceOutput.slice();
+        }
+
+        private BooleanInputStream createInputStream()
+        {
+            OrcChunkLoader chunkLoader = OrcChunkLoader.create(new OrcDataSourceId("benchmark"), slice, Optional.empty(), newSimpleAggregatedMemoryContext());
+            return new BooleanInputStream(new OrcInputStream(chunkLoader));
+        }
+    }
+
+    public static void main(String[] args)
+            throws Throwable
+    {
+        // assure the benchmarks are valid before running
+        BenchmarkData data = new BenchmarkData();
+        data.nullRate = 0.5;
+        data.setup();
+        new BenchmarkBooleanInputStream().getUnsetBits(data);
+
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkBooleanInputStream.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.orc.stream;
+
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.prestosql.orc.OrcDataSourceId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.orc.metadata.CompressionKind.NONE;
+import static io.prestosql.orc.metadata.Stream.StreamKind.DATA;
+
+@SuppressWarnings("MethodMayBeStatic")
+@State(Scope.Thread)
+@Fork(2)
+@Warmup(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OperationsPerInvocation(BenchmarkLongInputStreamV2.VALUES)
+public class BenchmarkLongInputStreamV2
+{
+    static final int VALUES = 10_000;
+    private static final int BATCH_SIZE = 1024;
+
+    @Benchmark
+    public Object readLongs(BenchmarkData data)
+            throws IOException
+    {
+        LongInputStreamV2 input = data.createInputStream();
+        for (int i = 0; i < VALUES; i += BATCH_SIZE) {
+            input.next(data.longs, Math.min(BATCH_SIZE, VALUES - i));
+        }
+        return data.longs;
+    }
+
+    @Benchmark
+    public Object readInts(BenchmarkData data)
+            throws IOException
+    {
+        LongInputStreamV2 input = data.createInputStream();
+        for (int i = 0; i < VALUES; i += BATCH_SIZE) {
+            input.next(data.ints, Math.min(BATCH_SIZE, VALUES - i));
+        }
+        return data.ints;
+    }
+
+    @Benchmark
+    public long readSingleValues(BenchmarkData data)
+            throws IOException
+    {
+        LongInputStreamV2 input = data.createInputStream();
+        long sum = 0;
+        for (int i = 0; i < VALUES; i++) {
+            sum += input.next();
+        }
+        return sum;
+    }
+
+    @SuppressWarnings("FieldMayBeFinal")
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        private final long[] longs = new long[BATCH_SIZE];
+        private final int[] ints = new int[BATCH_SIZE];
+
+        @Param({"SHORT_REPEAT", "DIRECT", "PATCHED_BASE", "DELTA"})
+        private String encoding;
+
+        // value width for the direct encoding
+        @Param({"3", "12", "17", "31"})
+        private int bits;
+
+        private Slice slice;
+
+        @Setup
+        public void setup()
+        {
+            Random random = new Random(0);
+            LongOutputStreamV2 output = new LongOutputStreamV2(NONE, 256 * 1024, true, DATA);
+            for (int i = 0; i < VALUES; i++) {
+                output.writeLong(createValue(random, i));
+            }
+            output.close();
+
+            DynamicSliceOutput sliceOutput = new DynamicSliceOutput(VALUES * 8);
+            output.getStreamDataOutput(0).writeData(sliceOutput);
+            slice = sliceOutput.slice();
+        }
+
+        private long createValue(Random random, int position)
+        {
+            switch (encoding) {
+                case "SHORT_REPEAT":
+                    // runs of 5 equal values with unrelated values between runs
+                    return (position / 5) * 0x9E37_79B9L % 100_000;
+                case "DIRECT":
+                    return random.nextInt() >> (32 - bits);
+                case "PATCHED_BASE":
+                    return random.nextInt(100) == 0 ? random.nextInt() : random.nextInt(1 << (bits - 1));
+                case "DELTA":
+                    return position * 7L + random.nextInt(1 << (bits - 1));
+                default:
+                    throw new IllegalArgumentException("Unsupported encoding: " + encoding);
+            }
+        }
+
+        private LongInputStreamV2 createInputStream()
+        {
+            OrcChunkLoader chunkLoader = OrcChunkLoader.create(new OrcDataSourceId("benchmark"), slice, Optional.empty(), newSimpleAggregatedMemoryContext());
+            return new LongInputStreamV2(new OrcInputStream(chunkLoader), true, false);
+        }
+    }
+
+    public static void main(String[] args)
+            throws Throwable
+    {
+        // assure the benchmarks are valid before running
+        BenchmarkData data = new BenchmarkData();
+        data.encoding = "PATCHED_BASE";
+        data.bits = 12;
+        data.setup();
+        new BenchmarkLongInputStreamV2().readLongs(data);
+
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkLongInputStreamV2.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 
 import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.prestosql.orc.OrcDecompressor.createOrcDecompressor;
@@ -106,6 +107,49 @@ public class TestBooleanStream
         }
     }
 
+    @Test
+    public void testBulkRead()
+            throws IOException
+    {
+        Random random = new Random(0);
+        boolean[] values = new boolean[10_000];
+        for (int i = 0; i < values.length; i++) {
+            // long runs of set bits mixed with random bits
+            values[i] = (i / 1000) % 2 == 0 || random.nextBoolean();
+        }
+
+        BooleanOutputStream outputStream = createValueOutputStream();
+        for (boolean value : values) {
+            outputStream.writeBoolean(value);
+        }
+        outputStream.close();
+        DynamicSliceOutput sliceOutput = new DynamicSliceOutput(1000);
+        outputStream.getStreamDataOutput(33).writeData(sliceOutput);
+
+        // odd batch sizes keep the reads unaligned with the underlying bytes
+        for (int batchSize : new int[] {1, 5, 13, 1023, 2000, values.length}) {
+            BooleanInputStream unsetStream = createValueStream(sliceOutput.slice());
+            BooleanInputStream setStream = createValueStream(sliceOutput.slice());
+            BooleanInputStream countStream = createValueStream(sliceOutput.slice());
+            for (int offset = 0; offset < values.length; offset += batchSize) {
+                int items = Math.min(batchSize, values.length - offset);
+
+                boolean[] isNull = new boolean[items];
+                int expectedUnset = 0;
+                int nullCount = unsetStream.getUnsetBits(items, isNull);
+                byte[] setBits = setStream.getSetBits(items);
+                for (int i = 0; i < items; i++) {
+                    boolean expected = values[offset + i];
+                    expectedUnset += expected ? 0 : 1;
+                    assertEquals(isNull[i], !expected);
+                    assertEquals(setBits[i], expected ? 1 : 0);
+                }
+                assertEquals(nullCount, expectedUnset);
+                assertEquals(countStream.countBitsSet(items), items - expectedUnset);
+            }
+        }
+    }
+
     @Override
     protected BooleanOutputStream createValueOutputStream()
     {
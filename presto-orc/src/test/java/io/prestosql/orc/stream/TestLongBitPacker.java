@@ -39,6 +39,15 @@ public class TestLongBitPacker
         }
     }
 
+    @Test
+    public void testMaxRunLength()
+            throws Throwable
+    {
+        LongBitPacker packer = new LongBitPacker();
+        assertUnpacking(packer, 511);
+        assertUnpacking(packer, 512);
+    }
+
     private static void assertUnpacking(LongBitPacker packer, int length)
             throws IOException
     {
@@ -13,6 +13,7 @@
  */
 package io.prestosql.orc.stream;
 
+import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.slice.Slice;
 import io.prestosql.orc.OrcCorruptionException;
 import io.prestosql.orc.OrcDecompressor;
@@ -21,13 +22,16 @@ import org.testng.annotations.Test;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 
 import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.prestosql.orc.OrcDecompressor.createOrcDecompressor;
 import static io.prestosql.orc.metadata.CompressionKind.SNAPPY;
 import static io.prestosql.orc.metadata.Stream.StreamKind.DATA;
+import static org.testng.Assert.assertEquals;
 
 public class TestLongStreamV2
         extends AbstractTestValueStream<Long, LongStreamCheckpoint, LongOutputStreamV2, LongInputStreamV2>
@@ -47,6 +51,80 @@ public class TestLongStreamV2
         testWriteValue(groups);
     }
 
+    @Test
+    public void testBulkRead()
+            throws IOException
+    {
+        long[] expected = createMixedEncodingValues(10_000);
+
+        LongOutputStreamV2 outputStream = createValueOutputStream();
+        for (long value : expected) {
+            outputStream.writeLong(value);
+        }
+        outputStream.close();
+        DynamicSliceOutput sliceOutput = new DynamicSliceOutput(1000);
+        outputStream.getStreamDataOutput(33).writeData(sliceOutput);
+
+        // chunk sizes both smaller and larger than a run, so that runs are decoded through
+        // the literal buffer as well as directly into the output
+        for (int chunkSize : new int[] {1, 7, 511, 512, 1000, expected.length}) {
+            LongInputStreamV2 valueStream = createValueStream(sliceOutput.slice());
+            long[] actual = new long[expected.length];
+            for (int offset = 0; offset < expected.length; offset += chunkSize) {
+                int items = Math.min(chunkSize, expected.length - offset);
+                long[] chunk = new long[items];
+                valueStream.next(chunk, items);
+                System.arraycopy(chunk, 0, actual, offset, items);
+            }
+            assertEquals(actual, expected, "chunkSize=" + chunkSize);
+
+            valueStream = createValueStream(sliceOutput.slice());
+            int[] actualInts = new int[expected.length];
+            valueStream.next(actualInts, expected.length);
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(actualInts[i], expected[i]);
+            }
+        }
+    }
+
+    private static long[] createMixedEncodingValues(int count)
+    {
+        Random random = new Random(0);
+        long[] values = new long[count];
+        int position = 0;
+        while (position < count) {
+            int length = Math.min(count - position, 1 + random.nextInt(700));
+            switch (random.nextInt(4)) {
+                case 0:
+                    // short repeat and long constant delta runs
+                    Arrays.fill(values, position, position + length, random.nextInt());
+                    break;
+                case 1:
+                    // monotonic runs use delta encoding
+                    long value = random.nextInt(1000);
+                    for (int i = 0; i < length; i++) {
+                        value += random.nextInt(100) - (random.nextBoolean() ? 0 : 120);
+                        values[position + i] = value;
+                    }
+                    break;
+                case 2:
+                    // mostly narrow values with a few wide outliers use patched base encoding
+                    for (int i = 0; i < length; i++) {
+                        values[position + i] = random.nextInt(100) == 0 ? random.nextInt() : random.nextInt(16);
+                    }
+                    break;
+                default:
+                    // random values of a random width use direct encoding
+                    int bits = 1 + random.nextInt(31);
+                    for (int i = 0; i < length; i++) {
+                        values[position + i] = random.nextInt() >> (32 - bits);
+                    }
+            }
+            position += length;
+        }
+        return values;
+    }
+
     @Override
     protected LongOutputStreamV2 createValueOutputStream()
     {
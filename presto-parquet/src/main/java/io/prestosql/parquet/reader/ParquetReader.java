@@ -45,8 +45,12 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.prestosql.parquet.ParquetValidationUtils.validateParquet;
 import static io.prestosql.parquet.reader.ListColumnReader.calculateCollectionOffsets;
 import static io.prestosql.spi.type.StandardTypes.ARRAY;
@@ -83,6 +87,7 @@ public class ParquetReader
     private int maxBatchSize = MAX_VECTOR_LENGTH;
 
     private AggregatedMemoryContext currentRowGroupMemoryContext;
+    private final Optional<RowGroupReadAhead> readAhead;
 
     public ParquetReader(MessageColumnIO messageColumnIO,
             List<BlockMetaData> blocks,
@@ -90,6 +95,24 @@ public class ParquetReader
             AggregatedMemoryContext systemMemoryContext,
             DataSize maxReadBlockSize)
     {
+        this(messageColumnIO, blocks, dataSource, systemMemoryContext, maxReadBlockSize, 0, directExecutor());
+    }
+
+    /**
+     * Creates a reader that reads the column chunks of the next {@code readAheadRowGroups} row groups
+     * on the specified executor, while the current row group is being decoded. The data read ahead
+     * is accounted in the specified memory context.
+     */
+    public ParquetReader(MessageColumnIO messageColumnIO,
+            List<BlockMetaData> blocks,
+            ParquetDataSource dataSource,
+            AggregatedMemoryContext systemMemoryContext,
+            DataSize maxReadBlockSize,
+            int readAheadRowGroups,
+            Executor readAheadExecutor)
+    {
+        checkArgument(readAheadRowGroups >= 0, "readAheadRowGroups is negative");
+        requireNonNull(readAheadExecutor, "readAheadExecutor is null");
         this.blocks = blocks;
         this.dataSource = requireNonNull(dataSource, "dataSource is null");
         this.systemMemoryContext = requireNonNull(systemMemoryContext, "systemMemoryContext is null");
@@ -98,6 +121,21 @@ public class ParquetReader
         columns = messageColumnIO.getLeaves();
         columnReaders = new PrimitiveColumnReader[columns.size()];
         maxBytesPerCell = new long[columns.size()];
+        if (readAheadRowGroups > 0 && blocks.size() > 1) {
+            Set<ColumnPath> columnPaths = columns.stream()
+                    .map(column -> ColumnPath.get(column.getColumnDescriptor().getPath()))
+                    .collect(toImmutableSet());
+            readAhead = Optional.of(new RowGroupReadAhead(
+                    dataSource,
+                    blocks,
+                    columnPaths,
+                    readAheadRowGroups,
+                    readAheadExecutor,
+                    systemMemoryContext.newLocalMemoryContext(RowGroupReadAhead.class.getSimpleName())));
+        }
+        else {
+            readAhead = Optional.empty();
+        }
     }
 
     @Override
@@ -105,9 +143,20 @@ public class ParquetReader
             throws IOException
     {
         currentRowGroupMemoryContext.close();
+        readAhead.ifPresent(RowGroupReadAhead::close);
         dataSource.close();
     }
 
+    /**
+     * Returns the number of rows in the row groups of this reader, without reading them.
+     */
+    public long getRowCount()
+    {
+        return blocks.stream()
+                .mapToLong(BlockMetaData::getRowCount)
+                .sum();
+    }
+
     public long getPosition()
     {
         return currentPosition;
@@ -134,6 +183,7 @@ public class ParquetReader
     {
         currentRowGroupMemoryContext.close();
         currentRowGroupMemoryContext = systemMemoryContext.newAggregatedMemoryContext();
+        readAhead.ifPresent(readAhead -> readAhead.startRowGroup(currentBlock));
 
         if (currentBlock == blocks.size()) {
             return false;
@@ -207,21 +257,8 @@ public class ParquetReader
     private ColumnChunk readPrimitive(PrimitiveField field)
             throws IOException
     {
-        ColumnDescriptor columnDescriptor = field.getDescriptor();
         int fieldId = field.getId();
-        PrimitiveColumnReader columnReader = columnReaders[fieldId];
-        if (columnReader.getPageReader() == null) {
-            validateParquet(currentBlockMetadata.getRowCount() > 0, "Row group has 0 rows");
-            ColumnChunkMetaData metadata = getColumnChunkMetaData(columnDescriptor);
-            long startingPosition = metadata.getStartingPos();
-            int totalSize = toIntExact(metadata.getTotalSize());
-            byte[] buffer = allocateBlock(totalSize);
-            dataSource.readFully(startingPosition, buffer);
-            ColumnChunkDescriptor descriptor = new ColumnChunkDescriptor(columnDescriptor, metadata, totalSize);
-            ParquetColumnChunk columnChunk = new ParquetColumnChunk(descriptor, buffer, 0);
-            columnReader.setPageReader(columnChunk.readAllPages());
-        }
-        ColumnChunk columnChunk = columnReader.readPrimitive(field);
+        ColumnChunk columnChunk = prepareColumnReader(field).readPrimitive(field);
 
         // update max size per primitive column chunk
         long bytesPerCell = columnChunk.getBlock().getSizeInBytes() / batchSize;
@@ -234,12 +271,44 @@ public class ParquetReader
         return columnChunk;
     }
 
+    private PrimitiveColumnReader prepareColumnReader(PrimitiveField field)
+            throws IOException
+    {
+        ColumnDescriptor columnDescriptor = field.getDescriptor();
+        PrimitiveColumnReader columnReader = columnReaders[field.getId()];
+        if (columnReader.getPageReader() == null) {
+            validateParquet(currentBlockMetadata.getRowCount() > 0, "Row group has 0 rows");
+            ColumnChunkMetaData metadata = getColumnChunkMetaData(columnDescriptor);
+            long startingPosition = metadata.getStartingPos();
+            int totalSize = toIntExact(metadata.getTotalSize());
+            Optional<byte[]> readAheadBuffer = readAhead.flatMap(readAhead -> readAhead.takeColumnChunk(currentBlock - 1, metadata.getPath()));
+            byte[] buffer;
+            if (readAheadBuffer.isPresent()) {
+                buffer = readAheadBuffer.get();
+                retainBlock(buffer);
+            }
+            else {
+                buffer = allocateBlock(totalSize);
+                dataSource.readFully(startingPosition, buffer);
+            }
+            ColumnChunkDescriptor descriptor = new ColumnChunkDescriptor(columnDescriptor, metadata, totalSize);
+            ParquetColumnChunk columnChunk = new ParquetColumnChunk(descriptor, buffer, 0);
+            columnReader.setPageReader(columnChunk.readAllPages());
+        }
+        return columnReader;
+    }
+
     private byte[] allocateBlock(int length)
     {
         byte[] buffer = new byte[length];
+        retainBlock(buffer);
+        return buffer;
+    }
+
+    private void retainBlock(byte[] buffer)
+    {
         LocalMemoryContext blockMemoryContext = currentRowGroupMemoryContext.newLocalMemoryContext(ParquetReader.class.getSimpleName());
         blockMemoryContext.setBytes(buffer.length);
-        return buffer;
     }
 
     private ColumnChunkMetaData getColumnChunkMetaData(ColumnDescriptor columnDescriptor)
@@ -267,6 +336,22 @@ public class ParquetReader
         return readColumnChunk(field).getBlock();
     }
 
+    /**
+     * Reads the current batch of a field decoding only the given positions, and returns the
+     * other positions as nulls. Returns empty if the field can only be read as a whole, in
+     * which case it must be read with {@link #readBlock(Field)}.
+     */
+    public Optional<Block> readSelectedPositions(Field field, int[] positions, int offset, int length)
+            throws IOException
+    {
+        if (!(field instanceof PrimitiveField) || field.getRepetitionLevel() != 0) {
+            return Optional.empty();
+        }
+        // the block is not used to update the batch size estimate, since the skipped values are not accounted for
+        PrimitiveField primitiveField = (PrimitiveField) field;
+        return Optional.of(prepareColumnReader(primitiveField).readPrimitive(primitiveField, positions, offset, length).getBlock());
+    }
+
     private ColumnChunk readColumnChunk(Field field)
             throws IOException
     {
@@ -183,6 +183,46 @@ public abstract class PrimitiveColumnReader
         return new ColumnChunk(blockBuilder.build(), definitionLevels.toIntArray(), repetitionLevels.toIntArray());
     }
 
+    /**
+     * Reads the next batch decoding only the values at the given positions, which are in
+     * ascending order. All other values are skipped and returned as nulls. Only supported
+     * for columns that are not repeated, where each value is one position of the batch.
+     */
+    public ColumnChunk readPrimitive(Field field, int[] positions, int offset, int length)
+    {
+        checkArgument(field.getRepetitionLevel() == 0, "Selected positions can only be read from columns that are not repeated");
+        IntList definitionLevels = new IntArrayList();
+        IntList repetitionLevels = new IntArrayList();
+        seek();
+        Type type = field.getType();
+        BlockBuilder blockBuilder = type.createBlockBuilder(null, nextBatchSize);
+        SelectedPositionsIterator selectedPositions = new SelectedPositionsIterator(positions, offset, length);
+        int valueCount = 0;
+        while (valueCount < nextBatchSize) {
+            if (page == null) {
+                readNextPage();
+            }
+            int valuesToRead = Math.min(remainingValueCountInPage, nextBatchSize - valueCount);
+            processValues(valuesToRead, ignored -> {
+                if (selectedPositions.nextPositionSelected()) {
+                    readValue(blockBuilder, type);
+                }
+                else {
+                    skipValue();
+                    blockBuilder.appendNull();
+                }
+                definitionLevels.add(definitionLevel);
+                repetitionLevels.add(repetitionLevel);
+            });
+            valueCount += valuesToRead;
+        }
+        checkArgument(valueCount == nextBatchSize, "valueCount %s not equals to batchSize %s", valueCount, nextBatchSize);
+
+        readOffset = 0;
+        nextBatchSize = 0;
+        return new ColumnChunk(blockBuilder.build(), definitionLevels.toIntArray(), repetitionLevels.toIntArray());
+    }
+
     private void readValues(BlockBuilder blockBuilder, int valuesToRead, Type type, IntList definitionLevels, IntList repetitionLevels)
     {
         processValues(valuesToRead, ignored -> {
@@ -322,4 +362,29 @@ public abstract class PrimitiveColumnReader
             throw new ParquetDecodingException("Error reading parquet page in column " + columnDescriptor, e);
         }
     }
+
+    private static final class SelectedPositionsIterator
+    {
+        private final int[] positions;
+        private final int end;
+        private int index;
+        private int position;
+
+        private SelectedPositionsIterator(int[] positions, int offset, int length)
+        {
+            this.positions = requireNonNull(positions, "positions is null");
+            this.index = offset;
+            this.end = offset + length;
+        }
+
+        public boolean nextPositionSelected()
+        {
+            boolean selected = index < end && positions[index] == position;
+            if (selected) {
+                index++;
+            }
+            position++;
+            return selected;
+        }
+    }
 }
@@ -0,0 +1,236 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.SettableFuture;
+import io.prestosql.memory.context.LocalMemoryContext;
+import io.prestosql.parquet.ParquetDataSource;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.util.concurrent.Futures.getUnchecked;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads the column chunks of upcoming row groups in the background, while the
+ * current row group is being decoded. Column chunks are handed over to the
+ * reader once, together with their memory accounting.
+ */
+class RowGroupReadAhead
+{
+    private final ParquetDataSource dataSource;
+    private final List<BlockMetaData> blocks;
+    private final Set<ColumnPath> columns;
+    private final int readAheadRowGroups;
+    private final Executor executor;
+    private final LocalMemoryContext memoryContext;
+
+    // guarded by this
+    private final Map<Integer, ReadAheadRowGroup> rowGroups = new HashMap<>();
+    private long bufferedBytes;
+    private boolean closed;
+
+    public RowGroupReadAhead(
+            ParquetDataSource dataSource,
+            List<BlockMetaData> blocks,
+            Set<ColumnPath> columns,
+            int readAheadRowGroups,
+            Executor executor,
+            LocalMemoryContext memoryContext)
+    {
+        this.dataSource = requireNonNull(dataSource, "dataSource is null");
+        this.blocks = ImmutableList.copyOf(requireNonNull(blocks, "blocks is null"));
+        this.columns = requireNonNull(columns, "columns is null");
+        checkArgument(readAheadRowGroups > 0, "readAheadRowGroups must be positive");
+        this.readAheadRowGroups = readAheadRowGroups;
+        this.executor = requireNonNull(executor, "executor is null");
+        this.memoryContext = requireNonNull(memoryContext, "memoryContext is null");
+    }
+
+    /**
+     * Releases the column chunks read ahead for row groups before the specified
+     * row group, and starts reading the row groups that follow it.
+     */
+    public synchronized void startRowGroup(int blockIndex)
+    {
+        if (closed) {
+            return;
+        }
+
+        Iterator<Entry<Integer, ReadAheadRowGroup>> iterator = rowGroups.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry<Integer, ReadAheadRowGroup> entry = iterator.next();
+            if (entry.getKey() < blockIndex) {
+                bufferedBytes -= entry.getValue().release();
+                iterator.remove();
+            }
+        }
+        memoryContext.setBytes(bufferedBytes);
+
+        for (int index = blockIndex + 1; index <= blockIndex + readAheadRowGroups && index < blocks.size(); index++) {
+            if (!rowGroups.containsKey(index)) {
+                ReadAheadRowGroup rowGroup = new ReadAheadRowGroup(index, blocks.get(index));
+                rowGroups.put(index, rowGroup);
+                try {
+                    executor.execute(rowGroup::load);
+                }
+                catch (RejectedExecutionException e) {
+                    rowGroup.fail();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the data of the column chunk, if it was read ahead. The caller
+     * takes over the memory accounting of the returned buffer.
+     */
+    public Optional<byte[]> takeColumnChunk(int blockIndex, ColumnPath column)
+    {
+        ReadAheadRowGroup rowGroup;
+        synchronized (this) {
+            rowGroup = rowGroups.get(blockIndex);
+        }
+        if (rowGroup == null || rowGroup.cancelIfNotStarted()) {
+            return Optional.empty();
+        }
+
+        // wait for the read of the row group to finish, which is no slower than reading the column chunk directly
+        Map<ColumnPath, byte[]> columnChunks = getUnchecked(rowGroup.getColumnChunks());
+        synchronized (this) {
+            byte[] data = columnChunks.remove(column);
+            if (data == null || closed || rowGroups.get(blockIndex) != rowGroup) {
+                return Optional.empty();
+            }
+            bufferedBytes -= data.length;
+            rowGroup.reservedBytes -= data.length;
+            memoryContext.setBytes(bufferedBytes);
+            return Optional.of(data);
+        }
+    }
+
+    public synchronized void close()
+    {
+        closed = true;
+        rowGroups.clear();
+        bufferedBytes = 0;
+        memoryContext.close();
+    }
+
+    private synchronized boolean reserve(ReadAheadRowGroup rowGroup, long bytes)
+    {
+        if (closed || rowGroups.get(rowGroup.getIndex()) != rowGroup) {
+            return false;
+        }
+        rowGroup.reservedBytes = bytes;
+        bufferedBytes += bytes;
+        memoryContext.setBytes(bufferedBytes);
+        return true;
+    }
+
+    private class ReadAheadRowGroup
+    {
+        private final int index;
+        private final BlockMetaData block;
+        private final SettableFuture<Map<ColumnPath, byte[]>> columnChunks = SettableFuture.create();
+        private final AtomicBoolean started = new AtomicBoolean();
+        // guarded by RowGroupReadAhead.this
+        private long reservedBytes;
+
+        public ReadAheadRowGroup(int index, BlockMetaData block)
+        {
+            this.index = index;
+            this.block = requireNonNull(block, "block is null");
+        }
+
+        public int getIndex()
+        {
+            return index;
+        }
+
+        public SettableFuture<Map<ColumnPath, byte[]>> getColumnChunks()
+        {
+            return columnChunks;
+        }
+
+        public long release()
+        {
+            long bytes = reservedBytes;
+            reservedBytes = 0;
+            return bytes;
+        }
+
+        public boolean cancelIfNotStarted()
+        {
+            if (started.compareAndSet(false, true)) {
+                fail();
+                return true;
+            }
+            return false;
+        }
+
+        public void load()
+        {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                List<ColumnChunkMetaData> chunks = block.getColumns().stream()
+                        .filter(chunk -> columns.contains(chunk.getPath()))
+                        .collect(toImmutableList());
+                long bytes = chunks.stream()
+                        .mapToLong(ColumnChunkMetaData::getTotalSize)
+                        .sum();
+                if (!reserve(this, bytes)) {
+                    // the row group was released or the reader was closed
+                    fail();
+                    return;
+                }
+
+                Map<ColumnPath, byte[]> data = new HashMap<>();
+                for (ColumnChunkMetaData chunk : chunks) {
+                    byte[] buffer = new byte[toIntExact(chunk.getTotalSize())];
+                    dataSource.readFully(chunk.getStartingPos(), buffer);
+                    data.put(chunk.getPath(), buffer);
+                }
+                columnChunks.set(data);
+            }
+            catch (RuntimeException e) {
+                // the column chunks will be read again when they are needed, which reports the failure
+                fail();
+            }
+        }
+
+        public void fail()
+        {
+            columnChunks.set(new HashMap<>());
+        }
+    }
+}
@@ -185,6 +185,7 @@ public class PhoenixClient
                 columnHandles,
                 phoenixSplit.getConstraint(),
                 split.getAdditionalPredicate(),
+                Optional.empty(),
                 tryApplyLimit(table.getLimit()));
         QueryPlan queryPlan = getQueryPlan((PhoenixPreparedStatement) query);
         ResultSet resultSet = getResultSet(phoenixSplit.getPhoenixInputSplit(), queryPlan);
@@ -89,6 +89,7 @@ public class PhoenixSplitManager
                     columns,
                     layoutHandle.getTupleDomain(),
                     Optional.empty(),
+                    Optional.empty(),
                     Function.identity());
 
             List<ConnectorSplit> splits = getSplits(inputQuery).stream()
@@ -18,6 +18,7 @@ import org.openjdk.jol.info.ClassLayout;
 
 import java.util.function.BiConsumer;
 
+import static io.prestosql.spi.block.BlockUtil.checkArrayRange;
 import static java.util.Objects.requireNonNull;
 
 public class LazyBlock
@@ -248,6 +249,19 @@ public class LazyBlock
         return block.isNull(position);
     }
 
+    /**
+     * Hints that only the given positions, in ascending order, will be read from this block.
+     * If the block is not loaded yet, the loader may skip decoding the other positions and
+     * load them as nulls, so this must only be called by the sole reader of the block.
+     */
+    public void setSelectedPositions(int[] positions, int offset, int length)
+    {
+        checkArrayRange(positions, offset, length);
+        if (block == null) {
+            loader.setSelectedPositions(positions, offset, length);
+        }
+    }
+
     public void setBlock(Block block)
     {
         if (this.block != null) {
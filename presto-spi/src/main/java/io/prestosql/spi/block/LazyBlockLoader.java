@@ -16,4 +16,11 @@ package io.prestosql.spi.block;
 public interface LazyBlockLoader<T extends Block>
 {
     void load(T block);
+
+    /**
+     * Called before {@link #load} when the consumer of the block will only read
+     * the given positions, which are in ascending order. A loader may skip
+     * decoding the other positions, in which case they are loaded as nulls.
+     */
+    default void setSelectedPositions(int[] positions, int offset, int length) {}
 }
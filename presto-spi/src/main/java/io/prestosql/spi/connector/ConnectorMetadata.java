@@ -691,6 +691,37 @@ public interface ConnectorMetadata
         return Optional.empty();
     }
 
+    /**
+     * Attempt to push down the TopN (ORDER BY ... LIMIT) into the table scan.
+     * <p>
+     * Connectors can indicate whether they don't support TopN pushdown or that the action had no effect
+     * by returning {@link Optional#empty()}. Connectors should expect this method to be called multiple times
+     * during the optimization of a given query.
+     * <p>
+     * <b>Note</b>: it's critical for connectors to return Optional.empty() if calling this method has no effect for that
+     * invocation, even if the connector generally supports TopN pushdown. Doing otherwise can cause the optimizer
+     * to loop indefinitely.
+     * </p>
+     * <p>
+     * The sort items refer to the provided assignments by variable name.
+     * <p>
+     * If the connector can only produce the first {@code topNCount} rows of each split in the requested order,
+     * it should return a non-empty result with the "TopN guaranteed" flag set to false. The engine then keeps
+     * a partial TopN to merge the rows of the splits.
+     * <p>
+     * If the connector can guarantee it will produce at most {@code topNCount} rows in the requested order,
+     * it should return a non-empty result with the "TopN guaranteed" flag set to true.
+     */
+    default Optional<TopNApplicationResult<ConnectorTableHandle>> applyTopN(
+            ConnectorSession session,
+            ConnectorTableHandle handle,
+            long topNCount,
+            List<SortItem> sortItems,
+            Map<String, ColumnHandle> assignments)
+    {
+        return Optional.empty();
+    }
+
     /**
      * Attempt to push down the provided constraint into the table. This method is provided as replacement to
      * {@link ConnectorMetadata#getTableLayouts(ConnectorSession, ConnectorTableHandle, Constraint, Optional)} to ease
@@ -776,6 +807,140 @@ public interface ConnectorMetadata
         return Optional.empty();
     }
 
+    /**
+     * Attempt to push down the provided aggregation into the table.
+     * <p>
+     * Connectors can indicate whether they don't support aggregation pushdown or that the action had no effect
+     * by returning {@link Optional#empty()}. Connectors should expect this method to be called multiple times
+     * during the optimization of a given query.
+     * <p>
+     * <b>Note</b>: it's critical for connectors to return Optional.empty() if calling this method has no effect for that
+     * invocation, even if the connector generally supports pushdown. Doing otherwise can cause the optimizer
+     * to loop indefinitely.
+     * </p>
+     * <p>
+     * The inputs of each aggregate refer to the provided assignments by variable name. The grouping columns
+     * remain valid column handles of the derived table. If the method returns a result, the list of projections
+     * contains one expression per aggregate, expressed in terms of the returned assignments.
+     * <p>
+     * If the derived table produces exactly one row per group, the aggregation is removed from the plan. If the
+     * result is marked partial, the derived table may produce several rows per group (for example, one per split)
+     * holding the intermediate state of each aggregate, and the engine combines them with a final aggregation.
+     * <p>
+     * As an example, given the following plan:
+     *
+     * <pre>
+     * - aggregation (group by a)
+     *     x = count(*)
+     *     y = max(b)
+     *   - scan (TH0)
+     *       a = CH0
+     *       b = CH1
+     * </pre>
+     * <p>
+     * The optimizer would call {@link #applyAggregation} with the following arguments:
+     *
+     * <pre>
+     * handle = TH0
+     * aggregates = [
+     *     count()
+     *     max(b)
+     * ]
+     * assignments = [
+     *     a = CH0
+     *     b = CH1
+     * ]
+     * groupingColumns = [CH0]
+     * </pre>
+     * <p>
+     * Assuming the connector can compute both aggregates, it would return:
+     *
+     * <pre>
+     * handle = TH1
+     * projections = [
+     *     v0
+     *     v1
+     * ]
+     * assignments = [
+     *     v0 = CH2  (synthetic column for count(*))
+     *     v1 = CH3  (synthetic column for max(CH1))
+     * ]
+     * </pre>
+     */
+    default Optional<AggregationApplicationResult<ConnectorTableHandle>> applyAggregation(
+            ConnectorSession session,
+            ConnectorTableHandle handle,
+            List<AggregateFunction> aggregates,
+            Map<String, ColumnHandle> assignments,
+            List<ColumnHandle> groupingColumns)
+    {
+        return Optional.empty();
+    }
+
+    /**
+     * Attempt to push down the join of two tables of this connector into a single derived table.
+     * <p>
+     * Connectors can indicate whether they don't support join pushdown or that the action had no effect
+     * by returning {@link Optional#empty()}. Connectors should expect this method to be called multiple times
+     * during the optimization of a given query.
+     * <p>
+     * The expressions of the join conditions refer to the provided left and right assignments by variable name.
+     * All conditions must hold for a pair of rows to match. If the method returns a result, the derived table
+     * produces the rows of the join, and the returned maps provide, for each column handle of either side, the
+     * column handle of the derived table holding its values.
+     * <p>
+     * As an example, given the following plan:
+     *
+     * <pre>
+     * - join (a = c)
+     *   - scan (TH0)
+     *       a = CH0
+     *       b = CH1
+     *   - scan (TH1)
+     *       c = CH2
+     * </pre>
+     * <p>
+     * The optimizer would call {@link #applyJoin} with the following arguments:
+     *
+     * <pre>
+     * joinType = INNER
+     * left = TH0
+     * right = TH1
+     * joinConditions = [a = c]
+     * leftAssignments = [
+     *     a = CH0
+     *     b = CH1
+     * ]
+     * rightAssignments = [
+     *     c = CH2
+     * ]
+     * </pre>
+     * <p>
+     * Assuming the connector knows how to join the tables, it would return:
+     *
+     * <pre>
+     * handle = TH2
+     * leftColumnHandles = [
+     *     CH0 -> CH3
+     *     CH1 -> CH4
+     * ]
+     * rightColumnHandles = [
+     *     CH2 -> CH5
+     * ]
+     * </pre>
+     */
+    default Optional<JoinApplicationResult<ConnectorTableHandle>> applyJoin(
+            ConnectorSession session,
+            JoinType joinType,
+            ConnectorTableHandle left,
+            ConnectorTableHandle right,
+            List<JoinCondition> joinConditions,
+            Map<String, ColumnHandle> leftAssignments,
+            Map<String, ColumnHandle> rightAssignments)
+    {
+        return Optional.empty();
+    }
+
     /**
      * Attempt to push down the sampling into the table.
      * <p>